@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.keyrotation.util.EncryptionUtil;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks the check run on every stored value to decide whether it should be re-encrypted.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CipherTextClassifierBenchmark {
+
+    /**
+     * Classifies the stored ciphertext of the payload, which is tagged with the identifier of the new key.
+     *
+     * @param state Inputs of the benchmark.
+     * @return Type of the value.
+     * @throws KeyRotationException Exception thrown while computing the identifier of the new key.
+     */
+    @Benchmark
+    public EncryptionUtil.CipherTextType classifyCipherText(KeyRotationBenchmarkState state)
+            throws KeyRotationException {
+
+        return EncryptionUtil.classifyCipherText(state.cipherTextValue, state.keyRotationConfig);
+    }
+
+    /**
+     * Classifies the payload stored as plaintext.
+     *
+     * @param state Inputs of the benchmark.
+     * @return Type of the value.
+     * @throws KeyRotationException Exception thrown while computing the identifier of the new key.
+     */
+    @Benchmark
+    public EncryptionUtil.CipherTextType classifyPlainText(KeyRotationBenchmarkState state)
+            throws KeyRotationException {
+
+        return EncryptionUtil.classifyCipherText(state.plainTextValue, state.keyRotationConfig);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.keyrotation.util.EncryptionUtil;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks the cipher operations run for every re-encrypted value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoBenchmark {
+
+    /**
+     * Encrypts the payload with the new key.
+     *
+     * @param state Inputs of the benchmark.
+     * @return The self contained ciphertext.
+     * @throws KeyRotationException Exception thrown while encrypting.
+     */
+    @Benchmark
+    public byte[] encrypt(KeyRotationBenchmarkState state) throws KeyRotationException {
+
+        return state.cryptoProvider.encrypt(state.cleartext, state.keyRotationConfig);
+    }
+
+    /**
+     * Decrypts the refactored ciphertext of the payload with the old key.
+     *
+     * @param state Inputs of the benchmark.
+     * @return The cleartext.
+     * @throws KeyRotationException Exception thrown while decrypting.
+     */
+    @Benchmark
+    public byte[] decrypt(KeyRotationBenchmarkState state) throws KeyRotationException {
+
+        return state.cryptoProvider.decrypt(state.refactoredCipherText, state.keyRotationConfig);
+    }
+
+    /**
+     * Extracts the inner ciphertext from the self contained ciphertext of the payload.
+     *
+     * @param state Inputs of the benchmark.
+     * @return The refactored ciphertext.
+     * @throws KeyRotationException Exception thrown while parsing the ciphertext.
+     */
+    @Benchmark
+    public byte[] reFactorCipherText(KeyRotationBenchmarkState state) throws KeyRotationException {
+
+        return state.cryptoProvider.reFactorCipherText(state.cipherText);
+    }
+
+    /**
+     * Re-encrypts the stored value of the payload, as done for every row of the tables, including the recording of
+     * the decrypt and encrypt latencies.
+     *
+     * @param state Inputs of the benchmark.
+     * @return The re-encrypted stored value.
+     * @throws KeyRotationException Exception thrown while re-encrypting.
+     */
+    @Benchmark
+    public String symmetricReEncryption(KeyRotationBenchmarkState state) throws KeyRotationException {
+
+        return EncryptionUtil.symmetricReEncryption(state.cipherTextValue, state.keyRotationConfig, state.metrics);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.axiom.om.util.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.keyrotation.model.CipherMetaData;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationServiceUtils;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks the JSON serialization and deserialization of the self contained ciphertext envelope.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeBenchmark {
+
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    /**
+     * This class holds the parts of the envelope of the payload.
+     */
+    @State(Scope.Benchmark)
+    public static class EnvelopeState {
+
+        byte[] innerCipherText;
+        byte[] iv;
+        byte[] innerEnvelope;
+        CipherMetaData cipherMetaData;
+        String envelope;
+
+        /**
+         * To split the ciphertext of the payload into the parts of its envelope.
+         *
+         * @param state Inputs of the benchmark.
+         */
+        @Setup(Level.Trial)
+        public void setUp(KeyRotationBenchmarkState state) {
+
+            cipherMetaData = gson.fromJson(new String(state.cipherText, Charset.defaultCharset()),
+                    CipherMetaData.class);
+            innerEnvelope = cipherMetaData.getCipherBase64Decoded();
+            CipherMetaData innerCipherMetaData = KeyRotationServiceUtils.setIvAndOriginalCipherText(innerEnvelope);
+            innerCipherText = innerCipherMetaData.getCipherBase64Decoded();
+            iv = innerCipherMetaData.getIvBase64Decoded();
+            envelope = gson.toJson(cipherMetaData);
+        }
+    }
+
+    /**
+     * Serializes the inner envelope of the ciphertext and the IV.
+     *
+     * @param state Parts of the envelope.
+     * @return The Base64 encoded inner envelope.
+     */
+    @Benchmark
+    public String serializeInnerEnvelope(EnvelopeState state) {
+
+        return KeyRotationServiceUtils.getSelfContainedCiphertextWithIv(state.innerCipherText, state.iv);
+    }
+
+    /**
+     * Deserializes the inner envelope of the ciphertext and the IV.
+     *
+     * @param state Parts of the envelope.
+     * @return The cipher metadata of the inner envelope.
+     */
+    @Benchmark
+    public CipherMetaData deserializeInnerEnvelope(EnvelopeState state) {
+
+        return KeyRotationServiceUtils.setIvAndOriginalCipherText(state.innerEnvelope);
+    }
+
+    /**
+     * Serializes the outer envelope holding the transformation, as done by encrypt.
+     *
+     * @param state Parts of the envelope.
+     * @return The outer envelope.
+     */
+    @Benchmark
+    public byte[] serializeEnvelope(EnvelopeState state) {
+
+        CipherMetaData cipherMetaData = new CipherMetaData();
+        cipherMetaData.setCipherText(state.cipherMetaData.getCipherText());
+        cipherMetaData.setTransformation(KeyRotationConstants.TRANSFORMATION);
+        cipherMetaData.setIv(Base64.encode(state.iv));
+        return gson.toJson(cipherMetaData).getBytes(Charset.defaultCharset());
+    }
+
+    /**
+     * Deserializes the outer envelope holding the transformation.
+     *
+     * @param state Parts of the envelope.
+     * @return The cipher metadata of the outer envelope.
+     */
+    @Benchmark
+    public CipherMetaData deserializeEnvelope(EnvelopeState state) {
+
+        return gson.fromJson(state.envelope, CipherMetaData.class);
+    }
+}
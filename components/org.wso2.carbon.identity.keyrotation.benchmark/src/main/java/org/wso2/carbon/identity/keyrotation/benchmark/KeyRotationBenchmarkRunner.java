@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class runs the key rotation benchmarks once per thread count, with the GC profiler, so that both the ops/s and
+ * the allocation rate (gc.alloc.rate.norm) of every benchmark are reported. The thread counts are read from the
+ * "threads" system property, and the other JMH command line options are passed through.
+ */
+public class KeyRotationBenchmarkRunner {
+
+    private static final String THREADS_PROPERTY = "threads";
+    private static final String DEFAULT_THREADS = "1," + Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        for (String threads : System.getProperty(THREADS_PROPERTY, DEFAULT_THREADS).split(",")) {
+            ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("keyrotation-benchmark-" + threads.trim() + "-threads.json");
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                optionsBuilder.include(KeyRotationBenchmarkRunner.class.getPackage().getName() + ".");
+            }
+            new Runner(optionsBuilder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.benchmark;
+
+import org.apache.axiom.om.util.Base64;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.service.CryptoProvider;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * This class holds the inputs of the benchmarks for a payload, encrypted once before the measurements start. The old
+ * and new keys are the same, so that the ciphertexts produced by encrypt can be decrypted again.
+ */
+@State(Scope.Benchmark)
+public class KeyRotationBenchmarkState {
+
+    private static final String SECRET_KEY = "03BAFEB27A8E2C9D";
+    private static final String BASE32_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
+    private static final String BASE64URL_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final int TOTP_SECRET_LENGTH = 32;
+    private static final int JWT_HEADER_LENGTH = 36;
+    private static final int JWT_PAYLOAD_LENGTH = 640;
+    private static final int JWT_SIGNATURE_LENGTH = 342;
+
+    /**
+     * Type of the value encrypted in the benchmarks.
+     * TOTP is a Base32 TOTP secret, OPAQUE_TOKEN is a UUID access token and JWT is an RS256 signed JWT access token.
+     */
+    @Param({"TOTP", "OPAQUE_TOKEN", "JWT"})
+    public String payload;
+
+    KeyRotationConfig keyRotationConfig;
+    CryptoProvider cryptoProvider;
+    PhaseMetrics metrics;
+    byte[] cleartext;
+    String plainTextValue;
+    byte[] cipherText;
+    String cipherTextValue;
+    byte[] refactoredCipherText;
+
+    /**
+     * To create the payload and its ciphertext.
+     *
+     * @throws KeyRotationException Exception thrown while encrypting the payload.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws KeyRotationException {
+
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setOldSecretKey(SECRET_KEY);
+        keyRotationConfig.setNewSecretKey(SECRET_KEY);
+        cryptoProvider = CryptoProvider.getInstance();
+        metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("benchmark");
+        plainTextValue = createPayload(payload);
+        cleartext = plainTextValue.getBytes(StandardCharsets.UTF_8);
+        cipherText = cryptoProvider.encrypt(cleartext, keyRotationConfig);
+        cipherTextValue = Base64.encode(cipherText);
+        refactoredCipherText = cryptoProvider.reFactorCipherText(cipherText);
+    }
+
+    /**
+     * To create a payload of the given type with the size of the real values.
+     *
+     * @param payload Type of the payload.
+     * @return The payload.
+     */
+    private static String createPayload(String payload) {
+
+        Random random = new Random(payload.hashCode());
+        switch (payload) {
+            case "TOTP":
+                return randomString(random, BASE32_ALPHABET, TOTP_SECRET_LENGTH);
+            case "OPAQUE_TOKEN":
+                return new UUID(random.nextLong(), random.nextLong()).toString();
+            case "JWT":
+                return randomString(random, BASE64URL_ALPHABET, JWT_HEADER_LENGTH) + "." +
+                        randomString(random, BASE64URL_ALPHABET, JWT_PAYLOAD_LENGTH) + "." +
+                        randomString(random, BASE64URL_ALPHABET, JWT_SIGNATURE_LENGTH);
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+
+    /**
+     * To create a random string of the given alphabet.
+     *
+     * @param random   Source of the characters.
+     * @param alphabet Characters of the string.
+     * @param length   Length of the string.
+     * @return The random string.
+     */
+    private static String randomString(Random random, String alphabet, int length) {
+
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
@@ -21,8 +21,14 @@ package org.wso2.carbon.identity.keyrotation;
 import org.wso2.carbon.identity.keyrotation.config.FileBasedKeyRotationConfigProvider;
 import org.wso2.carbon.identity.keyrotation.config.KeyRotationConfigProvider;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.DBConnectionManager;
+import org.wso2.carbon.identity.keyrotation.metrics.PrometheusMetricsWriter;
+import org.wso2.carbon.identity.keyrotation.model.VerificationResult;
+import org.wso2.carbon.identity.keyrotation.service.CheckpointJournal;
 import org.wso2.carbon.identity.keyrotation.service.ConfigFileKeyRotator;
 import org.wso2.carbon.identity.keyrotation.service.DBKeyRotator;
+import org.wso2.carbon.identity.keyrotation.service.DBVerifier;
+import org.wso2.carbon.identity.keyrotation.service.SyncWatermarkStore;
 import org.wso2.carbon.identity.keyrotation.service.SyncedDataKeyRotator;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
@@ -32,6 +38,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * This class holds the symmetric key rotation service.
@@ -48,19 +55,60 @@ public class KeyRotationService {
         } catch (IOException e) {
             throw new KeyRotationException("Error while initializing configurations.", e);
         }
-        initService(configProvider.getKeyRotationConfig());
+        if (Arrays.asList(args).contains(KeyRotationConstants.PLAN_ARGUMENT)) {
+            planService(configProvider.getKeyRotationConfig());
+            return;
+        }
+        if (Arrays.asList(args).contains(KeyRotationConstants.VERIFY_ARGUMENT)) {
+            verifyService(configProvider.getKeyRotationConfig());
+            return;
+        }
+        boolean resume = Arrays.asList(args).contains(KeyRotationConstants.RESUME_ARGUMENT);
+        initService(configProvider.getKeyRotationConfig(), resume);
     }
 
-    private static void initService(KeyRotationConfig config) throws KeyRotationException {
+    private static void planService(KeyRotationConfig config) {
 
-        if (config.getEnableDBMigrator()) {
-            DBKeyRotator.getInstance().dbReEncryptor(config);
+        try {
+            DBKeyRotator.getInstance().planDBReEncryption(config);
+        } finally {
+            DBConnectionManager.getInstance().close();
         }
-        if (config.getEnableConfigMigrator()) {
-            ConfigFileKeyRotator.getInstance().configFileReEncryptor(config);
+    }
+
+    private static void verifyService(KeyRotationConfig config) throws KeyRotationException {
+
+        try {
+            for (VerificationResult result : DBVerifier.getInstance().verifyDB(config)) {
+                if (result.hasFailures()) {
+                    throw new KeyRotationException("Verification of the DB re-encryption failed. " +
+                            result.getPhase() + " has records which are still encrypted with the old key or " +
+                            "undecryptable.");
+                }
+            }
+        } finally {
+            DBConnectionManager.getInstance().close();
         }
-        if (config.getEnableSyncMigrator()) {
-            SyncedDataKeyRotator.getInstance().syncedDataReEncryptor(config);
+    }
+
+    private static void initService(KeyRotationConfig config, boolean resume) throws KeyRotationException {
+
+        PrometheusMetricsWriter.getInstance().start(config);
+        try {
+            if (config.getEnableDBMigrator()) {
+                CheckpointJournal.getInstance().open(config, resume);
+                DBKeyRotator.getInstance().dbReEncryptor(config);
+            }
+            if (config.getEnableConfigMigrator()) {
+                ConfigFileKeyRotator.getInstance().configFileReEncryptor(config);
+            }
+            if (config.getEnableSyncMigrator()) {
+                SyncWatermarkStore.getInstance().open(config, resume);
+                SyncedDataKeyRotator.getInstance().syncedDataReEncryptor(config);
+            }
+        } finally {
+            PrometheusMetricsWriter.getInstance().stop();
+            DBConnectionManager.getInstance().close();
         }
     }
 
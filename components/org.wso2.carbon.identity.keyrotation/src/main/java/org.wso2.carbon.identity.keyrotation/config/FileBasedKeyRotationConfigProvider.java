@@ -69,16 +69,58 @@ public class FileBasedKeyRotationConfigProvider implements KeyRotationConfigProv
         String enableDBMigrator = properties.getProperty(KeyRotationConstants.ENABLE_DB_MIGRATOR);
         String enableConfigMigrator = properties.getProperty(KeyRotationConstants.ENABLE_CONFIG_MIGRATOR);
         String enableSyncMigrator = properties.getProperty(KeyRotationConstants.ENABLE_SYNC_MIGRATOR);
-        try {
-            int chunkSize = StringUtils.isNotBlank(properties.getProperty(KeyRotationConstants.CHUNK_SIZE)) ?
-                    Integer.parseInt(properties.getProperty(KeyRotationConstants.CHUNK_SIZE)) :
-                    DBConstants.DEFAULT_CHUNK_SIZE;
-            chunkSize = (chunkSize < 1) ? DBConstants.DEFAULT_CHUNK_SIZE : chunkSize;
-            keyRotationConfig.setChunkSize(chunkSize);
-        } catch (NumberFormatException e) {
-            logger.log(Level.WARN, "Not a valid number. Falling back to default chunk size.", e);
-            keyRotationConfig.setChunkSize(DBConstants.DEFAULT_CHUNK_SIZE);
-        }
+        String enableKeysetPagination = properties.getProperty(KeyRotationConstants.ENABLE_KEYSET_PAGINATION);
+        String enableReEncryptionPipeline =
+                properties.getProperty(KeyRotationConstants.ENABLE_RE_ENCRYPTION_PIPELINE);
+        String checkpointFile = properties.getProperty(KeyRotationConstants.CHECKPOINT_FILE);
+        String metricsFile = properties.getProperty(KeyRotationConstants.METRICS_FILE);
+        String deadLetterFile = properties.getProperty(KeyRotationConstants.DEAD_LETTER_FILE);
+        String probeQuery = properties.getProperty(KeyRotationConstants.PROBE_QUERY);
+        String throttleControlFile = properties.getProperty(KeyRotationConstants.THROTTLE_CONTROL_FILE);
+        String syncWatermarkFile = properties.getProperty(KeyRotationConstants.SYNC_WATERMARK_FILE);
+        String syncNotifyFile = properties.getProperty(KeyRotationConstants.SYNC_NOTIFY_FILE);
+        String enableStreamingRead = properties.getProperty(KeyRotationConstants.ENABLE_STREAMING_READ);
+        String enableAdaptiveChunkSize = properties.getProperty(KeyRotationConstants.ENABLE_ADAPTIVE_CHUNK_SIZE);
+        String enableProgressReport = properties.getProperty(KeyRotationConstants.ENABLE_PROGRESS_REPORT);
+        String enableBulkUpdate = properties.getProperty(KeyRotationConstants.ENABLE_BULK_UPDATE);
+        String enableThrottling = properties.getProperty(KeyRotationConstants.ENABLE_THROTTLING);
+        String enableVirtualThreads = properties.getProperty(KeyRotationConstants.ENABLE_VIRTUAL_THREADS);
+        keyRotationConfig.setChunkSize(getPositiveIntProperty(properties, KeyRotationConstants.CHUNK_SIZE,
+                DBConstants.DEFAULT_CHUNK_SIZE));
+        keyRotationConfig.setConnectionPoolSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.CONNECTION_POOL_SIZE, DBConstants.DEFAULT_CONNECTION_POOL_SIZE));
+        keyRotationConfig.setStatementCacheSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.STATEMENT_CACHE_SIZE, DBConstants.DEFAULT_STATEMENT_CACHE_SIZE));
+        keyRotationConfig.setReEncryptionThreadCount(getPositiveIntProperty(properties,
+                KeyRotationConstants.RE_ENCRYPTION_THREAD_COUNT, DBConstants.DEFAULT_RE_ENCRYPTION_THREAD_COUNT));
+        keyRotationConfig.setTablePartitionCount(getPositiveIntProperty(properties,
+                KeyRotationConstants.TABLE_PARTITION_COUNT, DBConstants.DEFAULT_TABLE_PARTITION_COUNT));
+        keyRotationConfig.setCryptoThreadCount(getPositiveIntProperty(properties,
+                KeyRotationConstants.CRYPTO_THREAD_COUNT, Runtime.getRuntime().availableProcessors()));
+        keyRotationConfig.setPipelineQueueSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.PIPELINE_QUEUE_SIZE, DBConstants.DEFAULT_PIPELINE_QUEUE_SIZE));
+        keyRotationConfig.setStreamingFetchSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.STREAMING_FETCH_SIZE, DBConstants.DEFAULT_STREAMING_FETCH_SIZE));
+        keyRotationConfig.setMinChunkSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.MIN_CHUNK_SIZE, DBConstants.DEFAULT_MIN_CHUNK_SIZE));
+        keyRotationConfig.setMaxChunkSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.MAX_CHUNK_SIZE, DBConstants.DEFAULT_MAX_CHUNK_SIZE));
+        keyRotationConfig.setMetricsWriteInterval(getPositiveIntProperty(properties,
+                KeyRotationConstants.METRICS_WRITE_INTERVAL, KeyRotationConstants.DEFAULT_METRICS_WRITE_INTERVAL));
+        keyRotationConfig.setProgressReportInterval(getPositiveIntProperty(properties,
+                KeyRotationConstants.PROGRESS_REPORT_INTERVAL, KeyRotationConstants.DEFAULT_PROGRESS_REPORT_INTERVAL));
+        keyRotationConfig.setBulkUpdateRangeSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.BULK_UPDATE_RANGE_SIZE, KeyRotationConstants.DEFAULT_BULK_UPDATE_RANGE_SIZE));
+        keyRotationConfig.setMaxRowsPerSecond(getPositiveIntProperty(properties,
+                KeyRotationConstants.MAX_ROWS_PER_SECOND, KeyRotationConstants.DEFAULT_MAX_ROWS_PER_SECOND));
+        keyRotationConfig.setLatencyThreshold(getPositiveIntProperty(properties,
+                KeyRotationConstants.LATENCY_THRESHOLD, KeyRotationConstants.DEFAULT_LATENCY_THRESHOLD));
+        keyRotationConfig.setSyncBatchSize(getPositiveIntProperty(properties,
+                KeyRotationConstants.SYNC_BATCH_SIZE, KeyRotationConstants.DEFAULT_SYNC_BATCH_SIZE));
+        keyRotationConfig.setSyncMaxPollInterval(getPositiveIntProperty(properties,
+                KeyRotationConstants.SYNC_MAX_POLL_INTERVAL, KeyRotationConstants.DEFAULT_SYNC_MAX_POLL_INTERVAL));
+        keyRotationConfig.setSyncIdLag(getPositiveIntProperty(properties, KeyRotationConstants.SYNC_ID_LAG,
+                KeyRotationConstants.DEFAULT_SYNC_ID_LAG));
 
         configValidator.validateFilePath(KeyRotationConstants.NEW_IS_HOME, newISHome);
         configValidator.validateURI(KeyRotationConstants.OLD_IDN_DB_URL, oldIdnDBUrl);
@@ -87,6 +129,31 @@ public class FileBasedKeyRotationConfigProvider implements KeyRotationConfigProv
         configValidator.validateBoolean(KeyRotationConstants.ENABLE_DB_MIGRATOR, enableDBMigrator);
         configValidator.validateBoolean(KeyRotationConstants.ENABLE_CONFIG_MIGRATOR, enableConfigMigrator);
         configValidator.validateBoolean(KeyRotationConstants.ENABLE_SYNC_MIGRATOR, enableSyncMigrator);
+        if (StringUtils.isNotBlank(enableKeysetPagination)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_KEYSET_PAGINATION, enableKeysetPagination);
+        }
+        if (StringUtils.isNotBlank(enableReEncryptionPipeline)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_RE_ENCRYPTION_PIPELINE,
+                    enableReEncryptionPipeline);
+        }
+        if (StringUtils.isNotBlank(enableStreamingRead)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_STREAMING_READ, enableStreamingRead);
+        }
+        if (StringUtils.isNotBlank(enableAdaptiveChunkSize)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_ADAPTIVE_CHUNK_SIZE, enableAdaptiveChunkSize);
+        }
+        if (StringUtils.isNotBlank(enableProgressReport)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_PROGRESS_REPORT, enableProgressReport);
+        }
+        if (StringUtils.isNotBlank(enableBulkUpdate)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_BULK_UPDATE, enableBulkUpdate);
+        }
+        if (StringUtils.isNotBlank(enableThrottling)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_THROTTLING, enableThrottling);
+        }
+        if (StringUtils.isNotBlank(enableVirtualThreads)) {
+            configValidator.validateBoolean(KeyRotationConstants.ENABLE_VIRTUAL_THREADS, enableVirtualThreads);
+        }
 
         keyRotationConfig.setOldSecretKey(oldSecretKey);
         keyRotationConfig.setNewSecretKey(newSecretKey);
@@ -103,6 +170,68 @@ public class FileBasedKeyRotationConfigProvider implements KeyRotationConfigProv
         keyRotationConfig.setEnableDBMigrator(Boolean.parseBoolean(enableDBMigrator));
         keyRotationConfig.setEnableConfigMigrator(Boolean.parseBoolean(enableConfigMigrator));
         keyRotationConfig.setEnableSyncMigrator(Boolean.parseBoolean(enableSyncMigrator));
+        keyRotationConfig.setEnableKeysetPagination(Boolean.parseBoolean(enableKeysetPagination));
+        keyRotationConfig.setEnableReEncryptionPipeline(Boolean.parseBoolean(enableReEncryptionPipeline));
+        keyRotationConfig.setEnableStreamingRead(Boolean.parseBoolean(enableStreamingRead));
+        keyRotationConfig.setEnableAdaptiveChunkSize(Boolean.parseBoolean(enableAdaptiveChunkSize));
+        keyRotationConfig.setEnableProgressReport(Boolean.parseBoolean(enableProgressReport));
+        keyRotationConfig.setEnableBulkUpdate(Boolean.parseBoolean(enableBulkUpdate));
+        keyRotationConfig.setEnableThrottling(Boolean.parseBoolean(enableThrottling));
+        keyRotationConfig.setEnableVirtualThreads(Boolean.parseBoolean(enableVirtualThreads));
+        capBulkUpdateRangeSize(keyRotationConfig);
+        keyRotationConfig.setCheckpointFile(StringUtils.isBlank(checkpointFile) ?
+                KeyRotationConstants.DEFAULT_CHECKPOINT_FILE_NAME : checkpointFile.trim());
+        keyRotationConfig.setMetricsFile(StringUtils.isBlank(metricsFile) ?
+                KeyRotationConstants.DEFAULT_METRICS_FILE_NAME : metricsFile.trim());
+        keyRotationConfig.setDeadLetterFile(StringUtils.isBlank(deadLetterFile) ?
+                KeyRotationConstants.DEFAULT_DEAD_LETTER_FILE_NAME : deadLetterFile.trim());
+        keyRotationConfig.setProbeQuery(StringUtils.isBlank(probeQuery) ? null : probeQuery.trim());
+        keyRotationConfig.setThrottleControlFile(StringUtils.isBlank(throttleControlFile) ?
+                KeyRotationConstants.DEFAULT_THROTTLE_CONTROL_FILE_NAME : throttleControlFile.trim());
+        keyRotationConfig.setSyncWatermarkFile(StringUtils.isBlank(syncWatermarkFile) ?
+                KeyRotationConstants.DEFAULT_SYNC_WATERMARK_FILE_NAME : syncWatermarkFile.trim());
+        keyRotationConfig.setSyncNotifyFile(StringUtils.isBlank(syncNotifyFile) ? null : syncNotifyFile.trim());
+    }
+
+    /**
+     * Caps the bulk update range size at the largest chunk, since the staged tokens of a chunk are applied before the
+     * chunk is committed and a range never spans two chunks.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    private void capBulkUpdateRangeSize(KeyRotationConfig keyRotationConfig) {
+
+        int maxChunkSize = keyRotationConfig.getEnableAdaptiveChunkSize() ? keyRotationConfig.getMaxChunkSize() :
+                keyRotationConfig.getChunkSize();
+        if (keyRotationConfig.getEnableBulkUpdate() && keyRotationConfig.getBulkUpdateRangeSize() > maxChunkSize) {
+            logger.warn(KeyRotationConstants.BULK_UPDATE_RANGE_SIZE + " is capped at the chunk size of " +
+                    maxChunkSize + ", as a set-based update applies the tokens of a single chunk.");
+            keyRotationConfig.setBulkUpdateRangeSize(maxChunkSize);
+        }
+    }
+
+    /**
+     * Returns the positive integer value of an optional property.
+     *
+     * @param properties   The loaded properties.
+     * @param name         Property name.
+     * @param defaultValue Value used when the property is missing, invalid or less than 1.
+     * @return Property value.
+     */
+    private int getPositiveIntProperty(Properties properties, String name, int defaultValue) {
+
+        String value = properties.getProperty(name);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            return (intValue < 1) ? defaultValue : intValue;
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARN, "Not a valid number for " + name + ". Falling back to the default value: " +
+                    defaultValue, e);
+            return defaultValue;
+        }
     }
 
     /**
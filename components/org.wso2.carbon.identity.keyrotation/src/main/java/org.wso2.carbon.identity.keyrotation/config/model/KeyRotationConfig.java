@@ -42,6 +42,38 @@ public class KeyRotationConfig {
     private boolean enableDBMigrator;
     private boolean enableConfigMigrator;
     private boolean enableSyncMigrator;
+    private boolean enableKeysetPagination;
+    private int connectionPoolSize;
+    private int statementCacheSize;
+    private int reEncryptionThreadCount;
+    private int tablePartitionCount;
+    private boolean enableReEncryptionPipeline;
+    private int cryptoThreadCount;
+    private int pipelineQueueSize;
+    private String checkpointFile;
+    private String metricsFile;
+    private boolean enableStreamingRead;
+    private int streamingFetchSize;
+    private boolean enableAdaptiveChunkSize;
+    private int minChunkSize;
+    private int maxChunkSize;
+    private int metricsWriteInterval;
+    private boolean enableProgressReport;
+    private int progressReportInterval;
+    private String deadLetterFile;
+    private boolean enableBulkUpdate;
+    private int bulkUpdateRangeSize;
+    private boolean enableThrottling;
+    private int maxRowsPerSecond;
+    private int latencyThreshold;
+    private String probeQuery;
+    private String throttleControlFile;
+    private boolean enableVirtualThreads;
+    private int syncBatchSize;
+    private String syncWatermarkFile;
+    private int syncMaxPollInterval;
+    private String syncNotifyFile;
+    private int syncIdLag;
 
     public static KeyRotationConfig getInstance() {
 
@@ -367,4 +399,644 @@ public class KeyRotationConfig {
 
         this.enableSyncMigrator = enableSyncMigrator;
     }
+
+    /**
+     * Get for the enable keyset pagination property value.
+     *
+     * @return Enable keyset pagination property value.
+     */
+    public boolean getEnableKeysetPagination() {
+
+        return enableKeysetPagination;
+    }
+
+    /**
+     * Set for the enable keyset pagination property value.
+     *
+     * @param enableKeysetPagination Enable keyset pagination property value.
+     */
+    public void setEnableKeysetPagination(boolean enableKeysetPagination) {
+
+        this.enableKeysetPagination = enableKeysetPagination;
+    }
+
+    /**
+     * Return the maximum number of connections pooled per database.
+     *
+     * @return Connection pool size.
+     */
+    public int getConnectionPoolSize() {
+
+        return connectionPoolSize;
+    }
+
+    /**
+     * Set the maximum number of connections pooled per database.
+     *
+     * @param connectionPoolSize Connection pool size.
+     */
+    public void setConnectionPoolSize(int connectionPoolSize) {
+
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    /**
+     * Return the maximum number of prepared statements cached per pooled connection.
+     *
+     * @return Statement cache size.
+     */
+    public int getStatementCacheSize() {
+
+        return statementCacheSize;
+    }
+
+    /**
+     * Set the maximum number of prepared statements cached per pooled connection.
+     *
+     * @param statementCacheSize Statement cache size.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Return the maximum number of tables re-encrypted at the same time.
+     *
+     * @return Re-encryption thread count.
+     */
+    public int getReEncryptionThreadCount() {
+
+        return reEncryptionThreadCount;
+    }
+
+    /**
+     * Set the maximum number of tables re-encrypted at the same time.
+     *
+     * @param reEncryptionThreadCount Re-encryption thread count.
+     */
+    public void setReEncryptionThreadCount(int reEncryptionThreadCount) {
+
+        this.reEncryptionThreadCount = reEncryptionThreadCount;
+    }
+
+    /**
+     * Return the number of key ranges the large OAuth2 tables are split into and re-encrypted in parallel.
+     *
+     * @return Table partition count.
+     */
+    public int getTablePartitionCount() {
+
+        return tablePartitionCount;
+    }
+
+    /**
+     * Set the number of key ranges the large OAuth2 tables are split into and re-encrypted in parallel.
+     *
+     * @param tablePartitionCount Table partition count.
+     */
+    public void setTablePartitionCount(int tablePartitionCount) {
+
+        this.tablePartitionCount = tablePartitionCount;
+    }
+
+    /**
+     * Return the enable re-encryption pipeline property value.
+     *
+     * @return Enable re-encryption pipeline property value.
+     */
+    public boolean getEnableReEncryptionPipeline() {
+
+        return enableReEncryptionPipeline;
+    }
+
+    /**
+     * Set the enable re-encryption pipeline property value.
+     *
+     * @param enableReEncryptionPipeline Enable re-encryption pipeline property value.
+     */
+    public void setEnableReEncryptionPipeline(boolean enableReEncryptionPipeline) {
+
+        this.enableReEncryptionPipeline = enableReEncryptionPipeline;
+    }
+
+    /**
+     * Return the number of threads re-encrypting the chunks of a table when pipelining is enabled.
+     *
+     * @return Crypto thread count.
+     */
+    public int getCryptoThreadCount() {
+
+        return cryptoThreadCount;
+    }
+
+    /**
+     * Set the number of threads re-encrypting the chunks of a table when pipelining is enabled.
+     *
+     * @param cryptoThreadCount Crypto thread count.
+     */
+    public void setCryptoThreadCount(int cryptoThreadCount) {
+
+        this.cryptoThreadCount = cryptoThreadCount;
+    }
+
+    /**
+     * Return the number of chunks read ahead of the crypto threads when pipelining is enabled.
+     *
+     * @return Pipeline queue size.
+     */
+    public int getPipelineQueueSize() {
+
+        return pipelineQueueSize;
+    }
+
+    /**
+     * Set the number of chunks read ahead of the crypto threads when pipelining is enabled.
+     *
+     * @param pipelineQueueSize Pipeline queue size.
+     */
+    public void setPipelineQueueSize(int pipelineQueueSize) {
+
+        this.pipelineQueueSize = pipelineQueueSize;
+    }
+
+    /**
+     * Return the path of the file where the progress of the DB re-encryption is recorded.
+     *
+     * @return Checkpoint file path.
+     */
+    public String getCheckpointFile() {
+
+        return checkpointFile;
+    }
+
+    /**
+     * Set the path of the file where the progress of the DB re-encryption is recorded.
+     *
+     * @param checkpointFile Checkpoint file path.
+     */
+    public void setCheckpointFile(String checkpointFile) {
+
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Return the path of the file where the metrics are written in the Prometheus text format.
+     *
+     * @return Metrics file path.
+     */
+    public String getMetricsFile() {
+
+        return metricsFile;
+    }
+
+    /**
+     * Set the path of the file where the metrics are written in the Prometheus text format.
+     *
+     * @param metricsFile Metrics file path.
+     */
+    public void setMetricsFile(String metricsFile) {
+
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Return whether the DB tables are read through a single streaming cursor.
+     *
+     * @return Enable streaming read.
+     */
+    public boolean getEnableStreamingRead() {
+
+        return enableStreamingRead;
+    }
+
+    /**
+     * Set whether the DB tables are read through a single streaming cursor.
+     *
+     * @param enableStreamingRead Enable streaming read.
+     */
+    public void setEnableStreamingRead(boolean enableStreamingRead) {
+
+        this.enableStreamingRead = enableStreamingRead;
+    }
+
+    /**
+     * Return the number of rows fetched per round trip by the streaming cursor.
+     *
+     * @return Streaming fetch size.
+     */
+    public int getStreamingFetchSize() {
+
+        return streamingFetchSize;
+    }
+
+    /**
+     * Set the number of rows fetched per round trip by the streaming cursor.
+     *
+     * @param streamingFetchSize Streaming fetch size.
+     */
+    public void setStreamingFetchSize(int streamingFetchSize) {
+
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    /**
+     * Return whether the chunk size of each table is adapted to the measured throughput.
+     *
+     * @return Enable adaptive chunk size.
+     */
+    public boolean getEnableAdaptiveChunkSize() {
+
+        return enableAdaptiveChunkSize;
+    }
+
+    /**
+     * Set whether the chunk size of each table is adapted to the measured throughput.
+     *
+     * @param enableAdaptiveChunkSize Enable adaptive chunk size.
+     */
+    public void setEnableAdaptiveChunkSize(boolean enableAdaptiveChunkSize) {
+
+        this.enableAdaptiveChunkSize = enableAdaptiveChunkSize;
+    }
+
+    /**
+     * Return the smallest chunk size used by the adaptive chunk size.
+     *
+     * @return Min chunk size.
+     */
+    public int getMinChunkSize() {
+
+        return minChunkSize;
+    }
+
+    /**
+     * Set the smallest chunk size used by the adaptive chunk size.
+     *
+     * @param minChunkSize Min chunk size.
+     */
+    public void setMinChunkSize(int minChunkSize) {
+
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Return the largest chunk size used by the adaptive chunk size.
+     *
+     * @return Max chunk size.
+     */
+    public int getMaxChunkSize() {
+
+        return maxChunkSize;
+    }
+
+    /**
+     * Set the largest chunk size used by the adaptive chunk size.
+     *
+     * @param maxChunkSize Max chunk size.
+     */
+    public void setMaxChunkSize(int maxChunkSize) {
+
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Return the interval between the writes of the metrics file.
+     *
+     * @return Metrics write interval.
+     */
+    public int getMetricsWriteInterval() {
+
+        return metricsWriteInterval;
+    }
+
+    /**
+     * Set the interval between the writes of the metrics file.
+     *
+     * @param metricsWriteInterval Metrics write interval.
+     */
+    public void setMetricsWriteInterval(int metricsWriteInterval) {
+
+        this.metricsWriteInterval = metricsWriteInterval;
+    }
+
+    /**
+     * Return enable progress report.
+     *
+     * @return Enable progress report.
+     */
+    public boolean getEnableProgressReport() {
+
+        return enableProgressReport;
+    }
+
+    /**
+     * Set enable progress report.
+     *
+     * @param enableProgressReport Enable progress report.
+     */
+    public void setEnableProgressReport(boolean enableProgressReport) {
+
+        this.enableProgressReport = enableProgressReport;
+    }
+
+    /**
+     * Return progress report interval.
+     *
+     * @return Progress report interval.
+     */
+    public int getProgressReportInterval() {
+
+        return progressReportInterval;
+    }
+
+    /**
+     * Set progress report interval.
+     *
+     * @param progressReportInterval Progress report interval.
+     */
+    public void setProgressReportInterval(int progressReportInterval) {
+
+        this.progressReportInterval = progressReportInterval;
+    }
+
+    /**
+     * Return the path of the file where the records which could not be updated are reported.
+     *
+     * @return Dead letter file path.
+     */
+    public String getDeadLetterFile() {
+
+        return deadLetterFile;
+    }
+
+    /**
+     * Set the path of the file where the records which could not be updated are reported.
+     *
+     * @param deadLetterFile Dead letter file path.
+     */
+    public void setDeadLetterFile(String deadLetterFile) {
+
+        this.deadLetterFile = deadLetterFile;
+    }
+
+    /**
+     * Return whether the re-encrypted access and refresh tokens are applied through a staging table.
+     *
+     * @return Whether the re-encrypted access and refresh tokens are applied through a staging table.
+     */
+    public boolean getEnableBulkUpdate() {
+
+        return enableBulkUpdate;
+    }
+
+    /**
+     * Set whether the re-encrypted access and refresh tokens are applied through a staging table.
+     *
+     * @param enableBulkUpdate Whether the re-encrypted access and refresh tokens are applied through a staging table.
+     */
+    public void setEnableBulkUpdate(boolean enableBulkUpdate) {
+
+        this.enableBulkUpdate = enableBulkUpdate;
+    }
+
+    /**
+     * Return the maximum number of staged tokens applied by one set-based update.
+     *
+     * @return The maximum number of staged tokens applied by one set-based update.
+     */
+    public int getBulkUpdateRangeSize() {
+
+        return bulkUpdateRangeSize;
+    }
+
+    /**
+     * Set the maximum number of staged tokens applied by one set-based update.
+     *
+     * @param bulkUpdateRangeSize The maximum number of staged tokens applied by one set-based update.
+     */
+    public void setBulkUpdateRangeSize(int bulkUpdateRangeSize) {
+
+        this.bulkUpdateRangeSize = bulkUpdateRangeSize;
+    }
+
+    /**
+     * Return enable throttling.
+     *
+     * @return Enable throttling.
+     */
+    public boolean getEnableThrottling() {
+
+        return enableThrottling;
+    }
+
+    /**
+     * Set enable throttling.
+     *
+     * @param enableThrottling Enable throttling.
+     */
+    public void setEnableThrottling(boolean enableThrottling) {
+
+        this.enableThrottling = enableThrottling;
+    }
+
+    /**
+     * Return maximum rows per second.
+     *
+     * @return Maximum number of records read per second.
+     */
+    public int getMaxRowsPerSecond() {
+
+        return maxRowsPerSecond;
+    }
+
+    /**
+     * Set maximum rows per second.
+     *
+     * @param maxRowsPerSecond Maximum number of records read per second.
+     */
+    public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    /**
+     * Return latency threshold.
+     *
+     * @return Latency threshold in milliseconds.
+     */
+    public int getLatencyThreshold() {
+
+        return latencyThreshold;
+    }
+
+    /**
+     * Set latency threshold.
+     *
+     * @param latencyThreshold Latency threshold in milliseconds.
+     */
+    public void setLatencyThreshold(int latencyThreshold) {
+
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    /**
+     * Return probe query.
+     *
+     * @return Probe query, or null if the latency is not probed.
+     */
+    public String getProbeQuery() {
+
+        return probeQuery;
+    }
+
+    /**
+     * Set probe query.
+     *
+     * @param probeQuery Probe query.
+     */
+    public void setProbeQuery(String probeQuery) {
+
+        this.probeQuery = probeQuery;
+    }
+
+    /**
+     * Return throttle control file.
+     *
+     * @return Throttle control file path.
+     */
+    public String getThrottleControlFile() {
+
+        return throttleControlFile;
+    }
+
+    /**
+     * Set throttle control file.
+     *
+     * @param throttleControlFile Throttle control file path.
+     */
+    public void setThrottleControlFile(String throttleControlFile) {
+
+        this.throttleControlFile = throttleControlFile;
+    }
+
+    /**
+     * Return enable virtual threads.
+     *
+     * @return Enable virtual threads.
+     */
+    public boolean getEnableVirtualThreads() {
+
+        return enableVirtualThreads;
+    }
+
+    /**
+     * Set enable virtual threads.
+     *
+     * @param enableVirtualThreads Enable virtual threads.
+     */
+    public void setEnableVirtualThreads(boolean enableVirtualThreads) {
+
+        this.enableVirtualThreads = enableVirtualThreads;
+    }
+
+    /**
+     * Return sync batch size.
+     *
+     * @return Maximum number of temp records read per query.
+     */
+    public int getSyncBatchSize() {
+
+        return syncBatchSize;
+    }
+
+    /**
+     * Set sync batch size.
+     *
+     * @param syncBatchSize Maximum number of temp records read per query.
+     */
+    public void setSyncBatchSize(int syncBatchSize) {
+
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    /**
+     * Return sync watermark file.
+     *
+     * @return Sync watermark file path.
+     */
+    public String getSyncWatermarkFile() {
+
+        return syncWatermarkFile;
+    }
+
+    /**
+     * Set sync watermark file.
+     *
+     * @param syncWatermarkFile Sync watermark file path.
+     */
+    public void setSyncWatermarkFile(String syncWatermarkFile) {
+
+        this.syncWatermarkFile = syncWatermarkFile;
+    }
+
+    /**
+     * Return sync max poll interval.
+     *
+     * @return Longest wait in milliseconds between the polls of an idle temp table.
+     */
+    public int getSyncMaxPollInterval() {
+
+        return syncMaxPollInterval;
+    }
+
+    /**
+     * Set sync max poll interval.
+     *
+     * @param syncMaxPollInterval Longest wait in milliseconds between the polls of an idle temp table.
+     */
+    public void setSyncMaxPollInterval(int syncMaxPollInterval) {
+
+        this.syncMaxPollInterval = syncMaxPollInterval;
+    }
+
+    /**
+     * Return sync notify file.
+     *
+     * @return Sync notify file path, or null if the sync is not notified of changes.
+     */
+    public String getSyncNotifyFile() {
+
+        return syncNotifyFile;
+    }
+
+    /**
+     * Set sync notify file.
+     *
+     * @param syncNotifyFile Sync notify file path.
+     */
+    public void setSyncNotifyFile(String syncNotifyFile) {
+
+        this.syncNotifyFile = syncNotifyFile;
+    }
+
+    /**
+     * Return sync id lag.
+     *
+     * @return Number of SYNC_IDs before the sync watermark whose unsynced records are read again.
+     */
+    public int getSyncIdLag() {
+
+        return syncIdLag;
+    }
+
+    /**
+     * Set sync id lag.
+     *
+     * @param syncIdLag Number of SYNC_IDs before the sync watermark whose unsynced records are read again.
+     */
+    public void setSyncIdLag(int syncIdLag) {
+
+        this.syncIdLag = syncIdLag;
+    }
 }
@@ -20,12 +20,13 @@ package org.wso2.carbon.identity.keyrotation.dao;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.model.BPSPassword;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -39,8 +40,6 @@ public class BPSProfileDAO {
 
     private static final Logger log = Logger.getLogger(BPSProfileDAO.class);
     private static final BPSProfileDAO instance = new BPSProfileDAO();
-    public static int updateCount = 0;
-    public static int failedUpdateCount = 0;
 
     public BPSProfileDAO() {
 
@@ -55,32 +54,21 @@ public class BPSProfileDAO {
      * To retrieve the list of data in WF_BPS_PROFILE as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from WF_BPS_PROFILE.
      */
-    public List<BPSPassword> getBpsPasswordChunks(int startIndex, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<BPSPassword> getBpsPasswordChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<BPSPassword> bpsPasswordList = new ArrayList<>();
-        String query = DBConstants.GET_BPS_PASSWORD;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_BPS_PASSWORD);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_BPS_PASSWORD_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_BPS_PASSWORD_OTHER;
-            }
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setInt(1, firstIndex);
-                preparedStatement.setInt(2, secIndex);
+                dialect.setPageParameters(preparedStatement, 1, startIndex, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -100,70 +88,88 @@ public class BPSProfileDAO {
     }
 
     /**
-     * To reEncrypt the BPS passwords in WF_BPS_PROFILE using the new key.
+     * To retrieve the next chunk of data in WF_BPS_PROFILE that follows the given record in the
+     * (PROFILE_NAME, TENANT_ID) order.
      *
-     * @param updateBPSPasswordsList The list containing records that should be re-encrypted.
-     * @param keyRotationConfig      Configuration data needed to perform the task.
-     * @throws KeyRotationException Exception thrown while updating data from WF_BPS_PROFILE.
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from WF_BPS_PROFILE.
      */
-    public void updateBpsPasswordChunks(List<BPSPassword> updateBPSPasswordsList, KeyRotationConfig keyRotationConfig)
+    public List<BPSPassword> getBpsPasswordChunksAfter(BPSPassword lastRecord, int chunkSize,
+                                                       KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        List<BPSPassword> bpsPasswordList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_BPS_PASSWORD_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_BPS_PASSWORD)) {
-                for (BPSPassword bpsPassword : updateBPSPasswordsList) {
-                    preparedStatement.setString(1, bpsPassword.getPassword());
-                    preparedStatement.setString(2, bpsPassword.getProfileName());
-                    preparedStatement.setInt(3, Integer.parseInt(bpsPassword.getTenantId()));
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setString(1, lastRecord.getProfileName());
+                preparedStatement.setString(2, lastRecord.getProfileName());
+                preparedStatement.setInt(3, Integer.parseInt(lastRecord.getTenantId()));
+                preparedStatement.setInt(4, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
-                updateCount += updateBPSPasswordsList.size();
+                while (resultSet.next()) {
+                    bpsPasswordList.add(new BPSPassword(resultSet.getString(KeyRotationConstants.PROFILE_NAME),
+                            resultSet.getString(KeyRotationConstants.USERNAME),
+                            resultSet.getString(KeyRotationConstants.TENANT_ID),
+                            resultSet.getString(KeyRotationConstants.PASSWORD)));
+                }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while updating passwords in WF_BPS_PROFILE, trying the chunk row by row " +
-                        "again. ", e);
-                retryOnBpsUpdate(updateBPSPasswordsList, connection);
+                throw new KeyRotationException("Error while retrieving passwords from WF_BPS_PROFILE.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return bpsPasswordList;
+    }
+
+    /**
+     * To get a reader streaming the passwords in WF_BPS_PROFILE through a single cursor.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the table is read.
+     */
+    public StreamingChunkReader<BPSPassword> getBpsPasswordStream(KeyRotationConfig keyRotationConfig) {
+
+        return new StreamingChunkReader<>("WF_BPS_PROFILE",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                DBConstants.GET_BPS_PASSWORD,
+                resultSet -> new BPSPassword(resultSet.getString(KeyRotationConstants.PROFILE_NAME),
+                        resultSet.getString(KeyRotationConstants.USERNAME),
+                        resultSet.getString(KeyRotationConstants.TENANT_ID),
+                        resultSet.getString(KeyRotationConstants.PASSWORD)), keyRotationConfig);
     }
 
     /**
-     * To retry upon a failure in updating the BPS chunk in WF_BPS_PROFILE.
+     * To reEncrypt the BPS passwords in WF_BPS_PROFILE using the new key.
      *
      * @param updateBPSPasswordsList The list containing records that should be re-encrypted.
-     * @param connection             Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @param keyRotationConfig      Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while updating data from WF_BPS_PROFILE.
      */
-    private void retryOnBpsUpdate(List<BPSPassword> updateBPSPasswordsList, Connection connection)
+    public void updateBpsPasswordChunks(List<BPSPassword> updateBPSPasswordsList, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        BPSPassword faulty = null;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_BPS_PASSWORD)) {
-            for (BPSPassword bpsPassword : updateBPSPasswordsList) {
-                try {
-                    faulty = bpsPassword;
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("WF_BPS_PROFILE");
+        BisectingBatchExecutor<BPSPassword> batchExecutor = new BisectingBatchExecutor<>("WF_BPS_PROFILE",
+                DBConstants.UPDATE_BPS_PASSWORD, (preparedStatement, bpsPassword) -> {
                     preparedStatement.setString(1, bpsPassword.getPassword());
                     preparedStatement.setString(2, bpsPassword.getProfileName());
                     preparedStatement.setInt(3, Integer.parseInt(bpsPassword.getTenantId()));
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating password in WF_BPS_PROFILE of record with profile name: " +
-                            faulty.getProfileName() + " , tenant id: " + faulty.getTenantId() + " ," + err);
-                    failedUpdateCount++;
-                }
-            }
+                }, bpsPassword -> "profile name: " + bpsPassword.getProfileName() + " , tenant id: " +
+                bpsPassword.getTenantId(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            batchExecutor.execute(connection, updateBPSPasswordsList);
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
     }
 }
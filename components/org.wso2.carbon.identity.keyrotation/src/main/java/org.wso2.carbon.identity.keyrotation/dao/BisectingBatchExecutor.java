@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.List;
+
+/**
+ * This class updates a chunk of records as a single batch. When the batch fails, it is split in halves which are
+ * retried as batches, recursively, until the records which fail on their own are isolated. Each of them is reported
+ * to the dead letter file, so that a bad record costs O(log n) batch round trips instead of n single record updates.
+ * A record failing on its own with a transient or recoverable error is retried a few times before it is reported.
+ *
+ * @param <T> Type of the records of the table.
+ */
+class BisectingBatchExecutor<T> {
+
+    private static final Logger log = Logger.getLogger(BisectingBatchExecutor.class);
+    private static final int MAX_TRANSIENT_RETRIES = 3;
+    private static final long TRANSIENT_RETRY_DELAY_MILLIS = 100;
+    private final String tableName;
+    private final String query;
+    private final RecordBinder<T> recordBinder;
+    private final RecordDescriber<T> recordDescriber;
+    private final PhaseMetrics metrics;
+    private final KeyRotationConfig keyRotationConfig;
+
+    /**
+     * BisectingBatchExecutor class constructor.
+     *
+     * @param tableName         Name of the table used in the logs and in the dead letter file.
+     * @param query             The update query run for every record.
+     * @param recordBinder      Sets the parameters of the query from a record.
+     * @param recordDescriber   Describes the key of a record.
+     * @param metrics           Metrics of the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    BisectingBatchExecutor(String tableName, String query, RecordBinder<T> recordBinder,
+                           RecordDescriber<T> recordDescriber, PhaseMetrics metrics,
+                           KeyRotationConfig keyRotationConfig) {
+
+        this.tableName = tableName;
+        this.query = query;
+        this.recordBinder = recordBinder;
+        this.recordDescriber = recordDescriber;
+        this.metrics = metrics;
+        this.keyRotationConfig = keyRotationConfig;
+    }
+
+    /**
+     * To update the records as a batch, bisecting the batch if it fails. The connection must not be in the auto
+     * commit mode, as every successful batch is committed.
+     *
+     * @param connection Connection with the DB.
+     * @param records    The records to be updated.
+     * @throws KeyRotationException Exception thrown while accessing the DB.
+     */
+    void execute(Connection connection, List<T> records) throws KeyRotationException {
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            Exception error;
+            try {
+                long startTime = System.nanoTime();
+                executeBatch(connection, preparedStatement, records);
+                metrics.recordLatency(PhaseMetrics.Operation.BATCH_COMMIT, System.nanoTime() - startTime);
+                metrics.add(PhaseMetrics.Counter.UPDATED, records.size());
+                return;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                log.error("Error while updating " + tableName + ", bisecting the chunk of " + records.size() +
+                        " records. ", e);
+                metrics.increment(PhaseMetrics.Counter.RETRIED_CHUNK);
+                error = e;
+            }
+            long retryStartTime = System.nanoTime();
+            bisect(connection, preparedStatement, records, error);
+            metrics.recordLatency(PhaseMetrics.Operation.RETRY, System.nanoTime() - retryStartTime);
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while accessing the DB to update " + tableName + ".", e);
+        }
+    }
+
+    /**
+     * Retries the halves of a failed batch, each as a batch of its own. A half is split further only when it fails
+     * itself, and a record is reported only when it fails as a single record batch, so that a record is never reported
+     * for a failure caused by another record of its batch. A single record batch failing with a transient or
+     * recoverable error is retried before the record is reported.
+     *
+     * @param connection        Connection with the DB.
+     * @param preparedStatement The prepared update query.
+     * @param records           The records of the failed batch, which was run as a batch of exactly these records.
+     * @param error             The error the batch failed with.
+     * @throws SQLException Exception thrown while rolling back a failed batch.
+     */
+    private void bisect(Connection connection, PreparedStatement preparedStatement, List<T> records, Exception error)
+            throws SQLException {
+
+        if (records.size() == 1) {
+            Exception recordError = retryTransientFailure(connection, preparedStatement, records, error);
+            if (recordError == null) {
+                metrics.add(PhaseMetrics.Counter.UPDATED, 1);
+                return;
+            }
+            String recordKey = recordDescriber.describe(records.get(0));
+            log.error("Error while updating " + tableName + " of record with " + recordKey + " ," + recordError);
+            metrics.increment(PhaseMetrics.Counter.FAILED_UPDATE);
+            DeadLetterWriter.getInstance().write(tableName, recordKey, recordError, keyRotationConfig);
+            return;
+        }
+        int middle = records.size() / 2;
+        List<T> firstHalf = records.subList(0, middle);
+        List<T> secondHalf = records.subList(middle, records.size());
+        tryBatch(connection, preparedStatement, firstHalf);
+        tryBatch(connection, preparedStatement, secondHalf);
+    }
+
+    /**
+     * Retries a single record batch while it fails with a transient or recoverable error, up to
+     * MAX_TRANSIENT_RETRIES times with a doubling delay.
+     *
+     * @param connection        Connection with the DB.
+     * @param preparedStatement The prepared update query.
+     * @param records           The single record batch.
+     * @param error             The error the batch failed with.
+     * @return Null if the record was updated, otherwise the error of its last attempt.
+     * @throws SQLException Exception thrown while rolling back a failed batch.
+     */
+    private Exception retryTransientFailure(Connection connection, PreparedStatement preparedStatement,
+                                            List<T> records, Exception error) throws SQLException {
+
+        Exception lastError = error;
+        for (int retry = 0; retry < MAX_TRANSIENT_RETRIES && isTransient(lastError); retry++) {
+            try {
+                Thread.sleep(TRANSIENT_RETRY_DELAY_MILLIS << retry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return lastError;
+            }
+            try {
+                executeBatch(connection, preparedStatement, records);
+                return null;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                lastError = e;
+            }
+        }
+        return lastError;
+    }
+
+    /**
+     * Checks whether an error, one of its causes or one of the chained exceptions of a batch update is transient or
+     * recoverable, so that the same update may succeed when retried.
+     *
+     * @param error The error.
+     * @return True if the error is transient or recoverable.
+     */
+    private static boolean isTransient(Throwable error) {
+
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException && isTransient(((SQLException) cause).getNextException())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to update the records as a batch, bisecting the batch if it fails.
+     *
+     * @param connection        Connection with the DB.
+     * @param preparedStatement The prepared update query.
+     * @param records           The records to be updated.
+     * @throws SQLException Exception thrown while rolling back a failed batch.
+     */
+    private void tryBatch(Connection connection, PreparedStatement preparedStatement, List<T> records)
+            throws SQLException {
+
+        try {
+            executeBatch(connection, preparedStatement, records);
+            metrics.add(PhaseMetrics.Counter.UPDATED, records.size());
+        } catch (SQLException | IOException e) {
+            connection.rollback();
+            bisect(connection, preparedStatement, records, e);
+        }
+    }
+
+    /**
+     * Executes and commits the records as a batch.
+     *
+     * @param connection        Connection with the DB.
+     * @param preparedStatement The prepared update query.
+     * @param records           The records to be updated.
+     * @throws SQLException Exception thrown while updating the records.
+     * @throws IOException  Exception thrown while setting the parameters of a record.
+     */
+    private void executeBatch(Connection connection, PreparedStatement preparedStatement, List<T> records)
+            throws SQLException, IOException {
+
+        preparedStatement.clearBatch();
+        for (T record : records) {
+            recordBinder.bind(preparedStatement, record);
+            preparedStatement.addBatch();
+        }
+        preparedStatement.executeBatch();
+        connection.commit();
+    }
+
+    /**
+     * Sets the parameters of the update query from a record.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    interface RecordBinder<T> {
+
+        /**
+         * Sets the parameters of the update query from a record.
+         *
+         * @param preparedStatement The prepared update query.
+         * @param record            The record.
+         * @throws SQLException Exception thrown while setting the parameters.
+         * @throws IOException  Exception thrown while serializing the record.
+         */
+        void bind(PreparedStatement preparedStatement, T record) throws SQLException, IOException;
+    }
+
+    /**
+     * Describes the key of a record in the logs and in the dead letter file.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    interface RecordDescriber<T> {
+
+        /**
+         * Describes the key of a record.
+         *
+         * @param record The record.
+         * @return Description of the key.
+         */
+        String describe(T record);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * This class holds the connection pools of the old identity, new identity and new registry databases shared by
+ * the DAOs. Streaming cursors and the probe query are run on dedicated connections outside the pools, so that they
+ * never hold a connection needed by the writers.
+ */
+public class DBConnectionManager {
+
+    private static final DBConnectionManager instance = new DBConnectionManager();
+    private volatile DBConnectionPool oldIdnPool;
+    private volatile DBConnectionPool newIdnPool;
+    private volatile DBConnectionPool newRegPool;
+
+    public static DBConnectionManager getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To borrow a connection to the old identity DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Connection with the old identity DB.
+     * @throws SQLException Exception thrown while connecting to the old identity DB.
+     */
+    public Connection getOldIdnConnection(KeyRotationConfig keyRotationConfig) throws SQLException {
+
+        DBConnectionPool pool = oldIdnPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (oldIdnPool == null) {
+                    oldIdnPool = new DBConnectionPool(keyRotationConfig.getOldIdnDBUrl(),
+                            keyRotationConfig.getOldIdnUsername(), keyRotationConfig.getOldIdnPassword(),
+                            keyRotationConfig.getConnectionPoolSize(), keyRotationConfig.getStatementCacheSize());
+                }
+                pool = oldIdnPool;
+            }
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * To borrow a connection to the new identity DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Connection with the new identity DB.
+     * @throws SQLException Exception thrown while connecting to the new identity DB.
+     */
+    public Connection getNewIdnConnection(KeyRotationConfig keyRotationConfig) throws SQLException {
+
+        DBConnectionPool pool = newIdnPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (newIdnPool == null) {
+                    newIdnPool = new DBConnectionPool(keyRotationConfig.getNewIdnDBUrl(),
+                            keyRotationConfig.getNewIdnUsername(), keyRotationConfig.getNewIdnPassword(),
+                            keyRotationConfig.getConnectionPoolSize(), keyRotationConfig.getStatementCacheSize());
+                }
+                pool = newIdnPool;
+            }
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * To borrow a connection to the new registry DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Connection with the new registry DB.
+     * @throws SQLException Exception thrown while connecting to the new registry DB.
+     */
+    public Connection getNewRegConnection(KeyRotationConfig keyRotationConfig) throws SQLException {
+
+        DBConnectionPool pool = newRegPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (newRegPool == null) {
+                    newRegPool = new DBConnectionPool(keyRotationConfig.getNewRegDBUrl(),
+                            keyRotationConfig.getNewRegUsername(), keyRotationConfig.getNewRegPassword(),
+                            keyRotationConfig.getConnectionPoolSize(), keyRotationConfig.getStatementCacheSize());
+                }
+                pool = newRegPool;
+            }
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * To open a dedicated connection to the new identity DB outside the pool, for a streaming cursor or the probe
+     * query of the rate governor, which hold their connection for a long time. Closing the connection closes the
+     * physical connection.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Dedicated connection with the new identity DB.
+     * @throws SQLException Exception thrown while connecting to the new identity DB.
+     */
+    public Connection openDedicatedNewIdnConnection(KeyRotationConfig keyRotationConfig) throws SQLException {
+
+        return DriverManager.getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
+                keyRotationConfig.getNewIdnPassword());
+    }
+
+    /**
+     * To open a dedicated connection to the new registry DB outside the pool, for a streaming cursor or the probe
+     * query of the rate governor, which hold their connection for a long time. Closing the connection closes the
+     * physical connection.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Dedicated connection with the new registry DB.
+     * @throws SQLException Exception thrown while connecting to the new registry DB.
+     */
+    public Connection openDedicatedNewRegConnection(KeyRotationConfig keyRotationConfig) throws SQLException {
+
+        return DriverManager.getConnection(keyRotationConfig.getNewRegDBUrl(), keyRotationConfig.getNewRegUsername(),
+                keyRotationConfig.getNewRegPassword());
+    }
+
+    /**
+     * Get the SQL dialect of the old identity DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return SQL dialect of the old identity DB.
+     */
+    public SQLDialect getOldIdnDialect(KeyRotationConfig keyRotationConfig) {
+
+        return SQLDialect.forUrl(keyRotationConfig.getOldIdnDBUrl());
+    }
+
+    /**
+     * Get the SQL dialect of the new identity DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return SQL dialect of the new identity DB.
+     */
+    public SQLDialect getNewIdnDialect(KeyRotationConfig keyRotationConfig) {
+
+        return SQLDialect.forUrl(keyRotationConfig.getNewIdnDBUrl());
+    }
+
+    /**
+     * Get the SQL dialect of the new registry DB.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return SQL dialect of the new registry DB.
+     */
+    public SQLDialect getNewRegDialect(KeyRotationConfig keyRotationConfig) {
+
+        return SQLDialect.forUrl(keyRotationConfig.getNewRegDBUrl());
+    }
+
+    /**
+     * To close all the connection pools.
+     */
+    public synchronized void close() {
+
+        if (oldIdnPool != null) {
+            oldIdnPool.close();
+            oldIdnPool = null;
+        }
+        if (newIdnPool != null) {
+            newIdnPool.close();
+            newIdnPool = null;
+        }
+        if (newRegPool != null) {
+            newRegPool.close();
+            newRegPool = null;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class holds a bounded pool of connections to a single database. Borrowed connections are returned to the
+ * pool when they are closed, with the auto commit, read only and isolation settings they were opened with, and each
+ * pooled connection keeps a cache of its prepared statements.
+ */
+public class DBConnectionPool {
+
+    private static final Logger log = Logger.getLogger(DBConnectionPool.class);
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> allConnections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * DBConnectionPool class constructor.
+     *
+     * @param url                The database URL.
+     * @param username           The database username.
+     * @param password           The database password.
+     * @param maxPoolSize        Maximum number of connections opened to the database.
+     * @param statementCacheSize Maximum number of prepared statements cached per connection.
+     */
+    public DBConnectionPool(String url, String username, String password, int maxPoolSize, int statementCacheSize) {
+
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxPoolSize, true);
+    }
+
+    /**
+     * To borrow a connection from the pool. Closing the returned connection gives it back to the pool.
+     *
+     * @return A connection to the database.
+     * @throws SQLException Exception thrown while opening a connection or waiting for a free connection.
+     */
+    public Connection getConnection() throws SQLException {
+
+        if (closed) {
+            throw new SQLException("Connection pool of " + url + " is already closed.");
+        }
+        try {
+            if (!permits.tryAcquire(DBConstants.CONNECTION_WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out while waiting for a free connection to " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a free connection to " + url, e);
+        }
+        try {
+            PooledConnection pooledConnection = takeIdleConnection();
+            if (pooledConnection == null) {
+                pooledConnection = openConnection();
+                allConnections.add(pooledConnection);
+            }
+            return pooledConnection.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * To close all the connections of the pool.
+     */
+    public void close() {
+
+        closed = true;
+        for (PooledConnection pooledConnection : allConnections) {
+            pooledConnection.closeQuietly();
+        }
+        idleConnections.clear();
+    }
+
+    /**
+     * Opens a physical connection to the database.
+     *
+     * @return The new pooled connection.
+     * @throws SQLException Exception thrown while opening the connection.
+     */
+    private PooledConnection openConnection() throws SQLException {
+
+        Connection connection = DriverManager.getConnection(url, username, password);
+        try {
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the most recently used idle connection which is still usable.
+     *
+     * @return An idle connection or null if there are no idle connections.
+     */
+    private PooledConnection takeIdleConnection() {
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (pooledConnection.isUsable()) {
+                return pooledConnection;
+            }
+            pooledConnection.closeQuietly();
+        }
+        return null;
+    }
+
+    /**
+     * Gives a connection back to the pool once its borrower closes it.
+     *
+     * @param pooledConnection The returned connection.
+     */
+    private void release(PooledConnection pooledConnection) {
+
+        try {
+            if (closed || pooledConnection.connection.isClosed()) {
+                pooledConnection.closeQuietly();
+                return;
+            }
+            if (pooledConnection.dirty && !pooledConnection.connection.getAutoCommit()) {
+                // Discard the work the borrower neither committed nor rolled back.
+                pooledConnection.connection.rollback();
+            }
+            pooledConnection.reset();
+            pooledConnection.lastUsed = System.currentTimeMillis();
+            idleConnections.offerFirst(pooledConnection);
+        } catch (SQLException e) {
+            log.warn("Discarding a pooled connection to " + url + " that could not be reset.", e);
+            pooledConnection.closeQuietly();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Unwraps the actual exception of a reflective call to a JDBC object.
+     *
+     * @param target The JDBC object.
+     * @param method The invoked method.
+     * @param args   The method arguments.
+     * @return The method result.
+     * @throws Throwable The exception thrown by the JDBC object.
+     */
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * A physical connection of the pool along with its prepared statement cache.
+     */
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statementCache;
+        private final Set<PreparedStatement> leasedStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final boolean autoCommit;
+        private final boolean readOnly;
+        private final int transactionIsolation;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile boolean dirty;
+
+        PooledConnection(Connection connection) throws SQLException {
+
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+            this.readOnly = connection.isReadOnly();
+            this.transactionIsolation = connection.getTransactionIsolation();
+            this.statementCache = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+
+                    if (size() > statementCacheSize) {
+                        // A statement still used by the borrower is closed once the borrower closes it.
+                        if (!leasedStatements.contains(eldest.getValue())) {
+                            closeQuietly(eldest.getValue());
+                        }
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Connection lease() {
+
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LogicalConnectionHandler(this));
+        }
+
+        boolean isUsable() {
+
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed > DBConstants.CONNECTION_VALIDATION_INTERVAL_MILLIS) {
+                    return connection.isValid(DBConstants.CONNECTION_VALIDATION_TIMEOUT_SECONDS);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        PreparedStatement prepareStatement(String query) throws SQLException {
+
+            if (statementCacheSize < 1) {
+                return wrap(connection.prepareStatement(query), false);
+            }
+            PreparedStatement preparedStatement = statementCache.get(query);
+            if (preparedStatement != null && leasedStatements.contains(preparedStatement)) {
+                // The cached statement is still open for the borrower, hence the same query gets its own statement.
+                return wrap(connection.prepareStatement(query), false);
+            }
+            if (preparedStatement == null || preparedStatement.isClosed()) {
+                preparedStatement = connection.prepareStatement(query);
+                statementCache.put(query, preparedStatement);
+            }
+            leasedStatements.add(preparedStatement);
+            return wrap(preparedStatement, true);
+        }
+
+        /**
+         * To take a cached statement back once its borrower closes it, closing it if it was evicted meanwhile.
+         *
+         * @param preparedStatement The cached statement.
+         */
+        void releaseStatement(PreparedStatement preparedStatement) {
+
+            leasedStatements.remove(preparedStatement);
+            if (!statementCache.containsValue(preparedStatement)) {
+                closeQuietly(preparedStatement);
+            }
+        }
+
+        /**
+         * To restore the settings the connection was opened with, which the borrower may have changed.
+         *
+         * @throws SQLException Exception thrown while resetting the connection.
+         */
+        void reset() throws SQLException {
+
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+            if (connection.getTransactionIsolation() != transactionIsolation) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+            connection.clearWarnings();
+            leasedStatements.clear();
+            dirty = false;
+        }
+
+        private PreparedStatement wrap(PreparedStatement preparedStatement, boolean cached) {
+
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandler(this, preparedStatement, cached));
+        }
+
+        void closeQuietly() {
+
+            allConnections.remove(this);
+            for (PreparedStatement preparedStatement : statementCache.values()) {
+                closeQuietly(preparedStatement);
+            }
+            statementCache.clear();
+            leasedStatements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Error while closing a pooled connection to " + url, e);
+            }
+        }
+
+        private void closeQuietly(PreparedStatement preparedStatement) {
+
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                log.debug("Error while closing a cached prepared statement.", e);
+            }
+        }
+    }
+
+    /**
+     * The connection handed to a borrower, which returns the physical connection to the pool on close.
+     */
+    private class LogicalConnectionHandler implements InvocationHandler {
+
+        private final PooledConnection pooledConnection;
+        private boolean closed;
+
+        LogicalConnectionHandler(PooledConnection pooledConnection) {
+
+            this.pooledConnection = pooledConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooledConnection);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooledConnection.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooledConnection.connection;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is already returned to the pool.");
+            }
+            if ("prepareStatement".equals(name) && args.length == 1) {
+                return pooledConnection.prepareStatement((String) args[0]);
+            }
+            if ("commit".equals(name) || ("rollback".equals(name) && args == null)) {
+                Object result = invokeTarget(pooledConnection.connection, method, args);
+                pooledConnection.dirty = false;
+                return result;
+            }
+            if (name.startsWith("create") || name.startsWith("prepare")) {
+                pooledConnection.dirty = true;
+            }
+            return invokeTarget(pooledConnection.connection, method, args);
+        }
+    }
+
+    /**
+     * The prepared statement handed to a borrower, which keeps cached statements open on close.
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        private final PooledConnection pooledConnection;
+        private final PreparedStatement preparedStatement;
+        private final boolean cached;
+        private ResultSet resultSet;
+        private boolean closed;
+
+        StatementHandler(PooledConnection pooledConnection, PreparedStatement preparedStatement, boolean cached) {
+
+            this.pooledConnection = pooledConnection;
+            this.preparedStatement = preparedStatement;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+            if ("close".equals(name) && cached) {
+                if (closed) {
+                    return null;
+                }
+                closed = true;
+                try {
+                    if (resultSet != null) {
+                        resultSet.close();
+                        resultSet = null;
+                    }
+                    preparedStatement.clearBatch();
+                    preparedStatement.clearParameters();
+                } finally {
+                    pooledConnection.releaseStatement(preparedStatement);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && cached) {
+                return closed || preparedStatement.isClosed();
+            }
+            if (closed) {
+                throw new SQLException("Statement is already closed.");
+            }
+            if (name.startsWith("execute")) {
+                pooledConnection.dirty = true;
+            }
+            Object result = invokeTarget(preparedStatement, method, args);
+            if (result instanceof ResultSet) {
+                resultSet = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+}
@@ -24,67 +24,57 @@ package org.wso2.carbon.identity.keyrotation.dao;
 public class DBConstants {
 
     public static final int DEFAULT_CHUNK_SIZE = 2;
+    public static final int DEFAULT_CONNECTION_POOL_SIZE = 10;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+    public static final int DEFAULT_RE_ENCRYPTION_THREAD_COUNT = 1;
+    public static final int DEFAULT_TABLE_PARTITION_COUNT = 1;
+    public static final int DEFAULT_PIPELINE_QUEUE_SIZE = 2;
+    public static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 1;
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 5000;
+    public static final int CONNECTION_WAIT_TIMEOUT_SECONDS = 60;
+    public static final int CONNECTION_VALIDATION_TIMEOUT_SECONDS = 5;
+    public static final long CONNECTION_VALIDATION_INTERVAL_MILLIS = 30000L;
     public static final String CREDENTIAL = "Credential";
     public static final String REQUEST = "REQUEST";
-    public static final String POSTGRESQL = "PostgreSQL";
-    public static final String MSSQL = "SQL Server";
-    public static final String ORACLE = "Oracle";
+    public static final String REG_PROPERTY_PHASE_PREFIX = "REG_PROPERTY.";
     public static final String SECRET_KEY = "http://wso2.org/claims/identity/secretkey";
     public static final String VERIFIED_SECRET_KEY = "http://wso2.org/claims/identity/verifySecretkey";
-    public static final String GET_TOTP_SECRET = "SELECT TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE " +
-            "FROM IDN_IDENTITY_USER_DATA WHERE DATA_KEY=? OR DATA_KEY=? ORDER BY TENANT_ID, USER_NAME, DATA_KEY LIMIT" +
-            " ?, ?";
-    public static final String GET_TOTP_SECRET_POSTGRE = "SELECT TENANT_ID, USER_NAME, DATA_VALUE, DATA_KEY FROM " +
-            "IDN_IDENTITY_USER_DATA WHERE DATA_KEY=? OR DATA_KEY=? ORDER BY TENANT_ID, USER_NAME, DATA_KEY LIMIT ? " +
-            "OFFSET ?";
-    public static final String GET_TOTP_SECRET_OTHER = "SELECT TENANT_ID, USER_NAME, DATA_VALUE, DATA_KEY FROM " +
-            "IDN_IDENTITY_USER_DATA WHERE DATA_KEY=? OR DATA_KEY=? ORDER BY TENANT_ID, USER_NAME, DATA_KEY OFFSET ? " +
-            "ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_TOTP_SECRET = "SELECT TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+            "IDN_IDENTITY_USER_DATA WHERE DATA_KEY=? OR DATA_KEY=? ORDER BY TENANT_ID, USER_NAME, DATA_KEY";
+    public static final String GET_TOTP_SECRET_KEYSET = "SELECT TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+            "IDN_IDENTITY_USER_DATA WHERE (DATA_KEY=? OR DATA_KEY=?) AND (TENANT_ID>? OR (TENANT_ID=? AND " +
+            "USER_NAME>?) OR (TENANT_ID=? AND USER_NAME=? AND DATA_KEY>?)) ORDER BY TENANT_ID, USER_NAME, DATA_KEY";
     public static final String UPDATE_TOTP_SECRET =
             "UPDATE IDN_IDENTITY_USER_DATA SET DATA_VALUE=? WHERE TENANT_ID=? AND USER_NAME=? AND DATA_KEY=?";
     public static final String UPDATE_TEMP_TOTP_SECRET =
             "UPDATE IDN_IDENTITY_USER_DATA_TEMP SET SYNCED=? WHERE SYNC_ID=?";
     public static final String GET_TEMP_TOTP_SECRET = "SELECT SYNC_ID, TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE, " +
-            "AVAILABILITY, SYNCED FROM IDN_IDENTITY_USER_DATA_TEMP WHERE SYNC_ID=?";
-    public static final String GET_TEMP_TOTP_SECRET_LATEST =
-            "SELECT tbl1.SYNC_ID, TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE, AVAILABILITY, SYNCED FROM " +
-                    "IDN_IDENTITY_USER_DATA_TEMP tbl1 INNER JOIN (SELECT MAX(SYNC_ID) AS SYNC_ID FROM " +
-                    "IDN_IDENTITY_USER_DATA_TEMP WHERE TENANT_ID=? AND USER_NAME=? AND DATA_KEY=?) tbl2 ON tbl1" +
-                    ".SYNC_ID = tbl2.SYNC_ID";
-    public static final String GET_TEMP_TOTP_SECRET_PREVIOUS = "SELECT SYNC_ID, TENANT_ID, USER_NAME, DATA_KEY, " +
-            "DATA_VALUE, SYNCED, AVAILABILITY FROM IDN_IDENTITY_USER_DATA_TEMP WHERE TENANT_ID=? AND USER_NAME=? AND " +
-            "DATA_KEY=? AND SYNC_ID<=?";
+            "AVAILABILITY, SYNCED FROM IDN_IDENTITY_USER_DATA_TEMP WHERE SYNC_ID>? AND SYNCED=0 ORDER BY " +
+            "SYNC_ID";
     public static final String INSERT_TOTP_SECRET =
             "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE) VALUES (?, ?, ?, ?)";
     public static final String DELETE_TOTP_SECRET =
             "DELETE FROM IDN_IDENTITY_USER_DATA WHERE TENANT_ID=? AND USER_NAME=? AND DATA_KEY=?";
-    public static final String GET_OAUTH_AUTHORIZATION_CODE =
-            "SELECT CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE " +
-                    "ORDER BY CODE_ID LIMIT ?, ?";
-    public static final String GET_OAUTH_AUTHORIZATION_CODE_POSTGRE =
-            "SELECT CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE ORDER BY " +
-                    "CODE_ID LIMIT ? OFFSET ?";
-    public static final String GET_OAUTH_AUTHORIZATION_CODE_OTHER =
-            "SELECT CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE ORDER BY " +
-                    "CODE_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_OAUTH_AUTHORIZATION_CODE = "SELECT CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID " +
+            "FROM IDN_OAUTH2_AUTHORIZATION_CODE ORDER BY CODE_ID";
+    public static final String GET_OAUTH_AUTHORIZATION_CODE_KEYSET = "SELECT CODE_ID, AUTHORIZATION_CODE, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID>? ORDER BY CODE_ID";
+    public static final String GET_OAUTH_AUTHORIZATION_CODE_RANGE = "SELECT CODE_ID, AUTHORIZATION_CODE, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID>? AND CODE_ID<=? ORDER BY CODE_ID";
+    public static final String GET_OAUTH_AUTHORIZATION_CODE_RANGE_HEAD = "SELECT CODE_ID, AUTHORIZATION_CODE, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID<=? ORDER BY CODE_ID";
+    public static final String COUNT_OAUTH_AUTHORIZATION_CODE =
+            "SELECT COUNT(CODE_ID) FROM IDN_OAUTH2_AUTHORIZATION_CODE";
+    public static final String GET_OAUTH_AUTHORIZATION_CODE_BOUNDARY = "SELECT CODE_ID FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE ORDER BY CODE_ID";
     public static final String UPDATE_OAUTH_AUTHORIZATION_CODE =
             "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET AUTHORIZATION_CODE=? WHERE CODE_ID=?";
     public static final String GET_TEMP_OAUTH_AUTHORIZATION_CODE = "SELECT SYNC_ID, CODE_ID, AUTHORIZATION_CODE, " +
             "CONSUMER_KEY_ID, CALLBACK_URL, SCOPE, AUTHZ_USER, TENANT_ID, USER_DOMAIN, TIME_CREATED, " +
             "VALIDITY_PERIOD, STATE, TOKEN_ID, SUBJECT_IDENTIFIER, PKCE_CODE_CHALLENGE, PKCE_CODE_CHALLENGE_METHOD, " +
             "AUTHORIZATION_CODE_HASH, IDP_ID, AVAILABILITY, SYNCED FROM IDN_OAUTH2_AUTHORIZATION_CODE_TEMP WHERE " +
-            "SYNC_ID=?";
-    public static final String GET_TEMP_OAUTH_AUTHORIZATION_CODE_LATEST =
-            "SELECT tbl1.SYNC_ID, CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID, CALLBACK_URL, SCOPE, AUTHZ_USER, " +
-                    "TENANT_ID, USER_DOMAIN, TIME_CREATED, VALIDITY_PERIOD, STATE, TOKEN_ID, SUBJECT_IDENTIFIER, " +
-                    "PKCE_CODE_CHALLENGE, PKCE_CODE_CHALLENGE_METHOD, AUTHORIZATION_CODE_HASH, IDP_ID, AVAILABILITY, " +
-                    "SYNCED FROM IDN_OAUTH2_AUTHORIZATION_CODE_TEMP tbl1 INNER JOIN (SELECT MAX(SYNC_ID) AS SYNC_ID " +
-                    "FROM IDN_OAUTH2_AUTHORIZATION_CODE_TEMP WHERE CODE_ID=?) tbl2 ON tbl1.SYNC_ID = tbl2.SYNC_ID";
-    public static final String GET_TEMP_OAUTH_AUTHORIZATION_CODE_PREVIOUS =
-            "SELECT SYNC_ID, CODE_ID, AUTHORIZATION_CODE, CONSUMER_KEY_ID, CALLBACK_URL, SCOPE, AUTHZ_USER, " +
-                    "TENANT_ID, USER_DOMAIN, TIME_CREATED, VALIDITY_PERIOD, STATE, TOKEN_ID, SUBJECT_IDENTIFIER, " +
-                    "PKCE_CODE_CHALLENGE, PKCE_CODE_CHALLENGE_METHOD, AUTHORIZATION_CODE_HASH, IDP_ID, SYNCED, " +
-                    "AVAILABILITY FROM IDN_OAUTH2_AUTHORIZATION_CODE_TEMP WHERE CODE_ID=? AND SYNC_ID<=?";
+            "SYNC_ID>? AND SYNCED=0 ORDER BY SYNC_ID";
     public static final String UPDATE_TEMP_OAUTH_AUTHORIZATION_CODE =
             "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE_TEMP SET SYNCED=? WHERE SYNC_ID=?";
     public static final String INSERT_OAUTH_AUTHORIZATION_CODE =
@@ -100,32 +90,49 @@ public class DBConstants {
     public static final String DELETE_OAUTH_AUTHORIZATION_CODE =
             "DELETE FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID=?";
     public static final String GET_OAUTH_ACCESS_TOKEN = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
-            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN ORDER BY TOKEN_ID LIMIT ?, ?";
-    public static final String GET_OAUTH_ACCESS_TOKEN_POSTGRE = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
-            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN ORDER BY TOKEN_ID LIMIT ? OFFSET ?";
-    public static final String GET_OAUTH_ACCESS_TOKEN_OTHER = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
-            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN ORDER BY TOKEN_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN ORDER BY TOKEN_ID";
+    public static final String GET_OAUTH_ACCESS_TOKEN_KEYSET = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID>? ORDER BY TOKEN_ID";
+    public static final String GET_OAUTH_ACCESS_TOKEN_RANGE = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID>? AND TOKEN_ID<=? ORDER BY TOKEN_ID";
+    public static final String GET_OAUTH_ACCESS_TOKEN_RANGE_HEAD = "SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
+            "CONSUMER_KEY_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID<=? ORDER BY TOKEN_ID";
+    public static final String COUNT_OAUTH_ACCESS_TOKEN = "SELECT COUNT(TOKEN_ID) FROM IDN_OAUTH2_ACCESS_TOKEN";
+    public static final String GET_OAUTH_ACCESS_TOKEN_BOUNDARY = "SELECT TOKEN_ID FROM IDN_OAUTH2_ACCESS_TOKEN ORDER " +
+            "BY TOKEN_ID";
     public static final String UPDATE_OAUTH_ACCESS_TOKEN =
             "UPDATE IDN_OAUTH2_ACCESS_TOKEN SET ACCESS_TOKEN=?, REFRESH_TOKEN=? WHERE TOKEN_ID=?";
+    public static final String OAUTH_ACCESS_TOKEN_STAGING_TABLE = "KR_OAUTH2_ACCESS_TOKEN_STAGE";
+    public static final int STAGING_INSERT_ROW_LIMIT = 500;
+    public static final String CREATE_OAUTH_ACCESS_TOKEN_STAGE = "CREATE TABLE KR_OAUTH2_ACCESS_TOKEN_STAGE (" +
+            "TOKEN_ID VARCHAR(255) NOT NULL, ACCESS_TOKEN VARCHAR(2048), REFRESH_TOKEN VARCHAR(2048), " +
+            "PRIMARY KEY (TOKEN_ID))";
+    public static final String CLEAR_OAUTH_ACCESS_TOKEN_STAGE = "DELETE FROM KR_OAUTH2_ACCESS_TOKEN_STAGE";
+    public static final String DROP_OAUTH_ACCESS_TOKEN_STAGE = "DROP TABLE KR_OAUTH2_ACCESS_TOKEN_STAGE";
+    public static final String INSERT_OAUTH_ACCESS_TOKEN_STAGE =
+            "INSERT INTO KR_OAUTH2_ACCESS_TOKEN_STAGE (TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN) VALUES ";
+    public static final String INSERT_OAUTH_ACCESS_TOKEN_STAGE_ROW = "(?, ?, ?)";
+    public static final String APPLY_OAUTH_ACCESS_TOKEN_STAGE = "UPDATE IDN_OAUTH2_ACCESS_TOKEN t INNER JOIN " +
+            "KR_OAUTH2_ACCESS_TOKEN_STAGE s ON t.TOKEN_ID=s.TOKEN_ID SET t.ACCESS_TOKEN=s.ACCESS_TOKEN, " +
+            "t.REFRESH_TOKEN=s.REFRESH_TOKEN WHERE s.TOKEN_ID>=? AND s.TOKEN_ID<=?";
+    public static final String APPLY_OAUTH_ACCESS_TOKEN_STAGE_POSTGRE = "UPDATE IDN_OAUTH2_ACCESS_TOKEN t SET " +
+            "ACCESS_TOKEN=s.ACCESS_TOKEN, REFRESH_TOKEN=s.REFRESH_TOKEN FROM KR_OAUTH2_ACCESS_TOKEN_STAGE s WHERE " +
+            "t.TOKEN_ID=s.TOKEN_ID AND s.TOKEN_ID>=? AND s.TOKEN_ID<=?";
+    public static final String APPLY_OAUTH_ACCESS_TOKEN_STAGE_MSSQL = "UPDATE t SET t.ACCESS_TOKEN=s.ACCESS_TOKEN, " +
+            "t.REFRESH_TOKEN=s.REFRESH_TOKEN FROM IDN_OAUTH2_ACCESS_TOKEN t INNER JOIN KR_OAUTH2_ACCESS_TOKEN_STAGE " +
+            "s ON t.TOKEN_ID=s.TOKEN_ID WHERE s.TOKEN_ID>=? AND s.TOKEN_ID<=?";
+    public static final String APPLY_OAUTH_ACCESS_TOKEN_STAGE_MERGE = "MERGE INTO IDN_OAUTH2_ACCESS_TOKEN t USING " +
+            "(SELECT TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN FROM KR_OAUTH2_ACCESS_TOKEN_STAGE WHERE TOKEN_ID>=? AND " +
+            "TOKEN_ID<=?) s ON (t.TOKEN_ID=s.TOKEN_ID) WHEN MATCHED THEN UPDATE SET t.ACCESS_TOKEN=s.ACCESS_TOKEN, " +
+            "t.REFRESH_TOKEN=s.REFRESH_TOKEN";
+    public static final String DELETE_OAUTH_ACCESS_TOKEN_STAGE =
+            "DELETE FROM KR_OAUTH2_ACCESS_TOKEN_STAGE WHERE TOKEN_ID>=? AND TOKEN_ID<=?";
     public static final String GET_TEMP_OAUTH_ACCESS_TOKEN = "SELECT SYNC_ID, TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
             "CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, USER_TYPE, GRANT_TYPE, TIME_CREATED, " +
             "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, " +
             "TOKEN_STATE, TOKEN_STATE_ID, SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH, REFRESH_TOKEN_HASH, IDP_ID, " +
-            "TOKEN_BINDING_REF, AVAILABILITY, SYNCED FROM IDN_OAUTH2_ACCESS_TOKEN_TEMP WHERE SYNC_ID=?";
-    public static final String GET_TEMP_OAUTH_ACCESS_TOKEN_LATEST =
-            "SELECT tbl1.SYNC_ID, TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, " +
-                    "USER_DOMAIN, USER_TYPE, GRANT_TYPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, " +
-                    "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, TOKEN_STATE_ID, " +
-                    "SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH, REFRESH_TOKEN_HASH, IDP_ID, TOKEN_BINDING_REF, " +
-                    "AVAILABILITY, SYNCED FROM IDN_OAUTH2_ACCESS_TOKEN_TEMP tbl1 INNER JOIN " +
-                    "(SELECT MAX(SYNC_ID) AS SYNC_ID FROM IDN_OAUTH2_ACCESS_TOKEN_TEMP WHERE TOKEN_ID=?) tbl2 " +
-                    "ON tbl1.SYNC_ID = tbl2.SYNC_ID";
-    public static final String GET_TEMP_OAUTH_ACCESS_TOKEN_PREVIOUS =
-            "SELECT SYNC_ID, TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, " +
-                    "USER_DOMAIN, USER_TYPE, GRANT_TYPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, " +
-                    "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, TOKEN_STATE_ID, " +
-                    "SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH, REFRESH_TOKEN_HASH, IDP_ID, TOKEN_BINDING_REF, SYNCED, " +
-                    "AVAILABILITY FROM IDN_OAUTH2_ACCESS_TOKEN_TEMP WHERE TOKEN_ID=? AND SYNC_ID<=?";
+            "TOKEN_BINDING_REF, AVAILABILITY, SYNCED FROM IDN_OAUTH2_ACCESS_TOKEN_TEMP WHERE SYNC_ID>? AND " +
+            "SYNCED=0 ORDER BY SYNC_ID";
     public static final String UPDATE_TEMP_OAUTH_ACCESS_TOKEN =
             "UPDATE IDN_OAUTH2_ACCESS_TOKEN_TEMP SET SYNCED=? WHERE SYNC_ID=?";
     public static final String INSERT_OAUTH_ACCESS_TOKEN =
@@ -142,23 +149,16 @@ public class DBConstants {
                     "TOKEN_SCOPE_HASH=?, TOKEN_STATE=?, TOKEN_STATE_ID=?, SUBJECT_IDENTIFIER=?, ACCESS_TOKEN_HASH=?, " +
                     "REFRESH_TOKEN_HASH=?, IDP_ID=?, TOKEN_BINDING_REF=? WHERE TOKEN_ID=?";
     public static final String DELETE_OAUTH_ACCESS_TOKEN = "DELETE FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID=?";
-    public static final String GET_OAUTH_SECRET = "SELECT ID, CONSUMER_SECRET, APP_NAME " +
-            "FROM IDN_OAUTH_CONSUMER_APPS ORDER BY ID LIMIT ?, ?";
-    public static final String GET_OAUTH_SECRET_POSTGRE = "SELECT ID, CONSUMER_SECRET, APP_NAME " +
-            "FROM IDN_OAUTH_CONSUMER_APPS ORDER BY ID LIMIT ? OFFSET ?";
-    public static final String GET_OAUTH_SECRET_OTHER = "SELECT ID, CONSUMER_SECRET, APP_NAME " +
-            "FROM IDN_OAUTH_CONSUMER_APPS ORDER BY ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_OAUTH_ACCESS_TOKEN_ID =
+            "SELECT TOKEN_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID=?";
+    public static final String GET_OAUTH_SECRET = "SELECT ID, CONSUMER_SECRET, APP_NAME FROM IDN_OAUTH_CONSUMER_APPS " +
+            "ORDER BY ID";
+    public static final String GET_OAUTH_SECRET_KEYSET = "SELECT ID, CONSUMER_SECRET, APP_NAME FROM " +
+            "IDN_OAUTH_CONSUMER_APPS WHERE ID>? ORDER BY ID";
     public static final String UPDATE_OAUTH_SECRET = "UPDATE IDN_OAUTH_CONSUMER_APPS SET CONSUMER_SECRET=? WHERE ID=?";
     public static final String GET_TEMP_OAUTH_SCOPE = "SELECT SYNC_ID, TOKEN_ID, TOKEN_SCOPE, TENANT_ID, " +
-            "AVAILABILITY, SYNCED FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP WHERE SYNC_ID=?";
-    public static final String GET_TEMP_OAUTH_SCOPE_LATEST =
-            "SELECT tbl1.SYNC_ID, TOKEN_ID, TOKEN_SCOPE, TENANT_ID, AVAILABILITY, SYNCED FROM " +
-                    "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP tbl1 INNER JOIN (SELECT MAX(SYNC_ID) AS SYNC_ID FROM " +
-                    "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP WHERE TOKEN_ID=? AND TOKEN_SCOPE=?) tbl2 ON " +
-                    "tbl1.SYNC_ID = tbl2.SYNC_ID";
-    public static final String GET_TEMP_OAUTH_SCOPE_PREVIOUS =
-            "SELECT SYNC_ID, TOKEN_ID, TOKEN_SCOPE, TENANT_ID, SYNCED, AVAILABILITY FROM " +
-                    "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP WHERE TOKEN_ID=? AND TOKEN_SCOPE=? AND SYNC_ID<=?";
+            "AVAILABILITY, SYNCED FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP WHERE SYNC_ID>? AND SYNCED=0 ORDER BY " +
+            "SYNC_ID";
     public static final String UPDATE_TEMP_OAUTH_SCOPE =
             "UPDATE IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP SET SYNCED=? WHERE SYNC_ID=?";
     public static final String INSERT_OAUTH_SCOPE = "INSERT INTO IDN_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, " +
@@ -167,26 +167,47 @@ public class DBConstants {
             "TOKEN_ID=? AND TOKEN_SCOPE=?";
     public static final String DELETE_OAUTH_SCOPE = "DELETE FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE WHERE TOKEN_ID=? AND " +
             "TOKEN_SCOPE=?";
-    public static final String GET_BPS_PASSWORD = "SELECT PROFILE_NAME, USERNAME, TENANT_ID, PASSWORD " +
-            "FROM WF_BPS_PROFILE ORDER BY PROFILE_NAME, TENANT_ID LIMIT ?, ?";
-    public static final String GET_BPS_PASSWORD_POSTGRE = "SELECT PROFILE_NAME, USERNAME, TENANT_ID, PASSWORD " +
-            "FROM WF_BPS_PROFILE ORDER BY PROFILE_NAME, TENANT_ID LIMIT ? OFFSET ?";
-    public static final String GET_BPS_PASSWORD_OTHER = "SELECT PROFILE_NAME, USERNAME, TENANT_ID, PASSWORD " +
-            "FROM WF_BPS_PROFILE ORDER BY PROFILE_NAME, TENANT_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_BPS_PASSWORD = "SELECT PROFILE_NAME, USERNAME, TENANT_ID, PASSWORD FROM " +
+            "WF_BPS_PROFILE ORDER BY PROFILE_NAME, TENANT_ID";
+    public static final String GET_BPS_PASSWORD_KEYSET = "SELECT PROFILE_NAME, USERNAME, TENANT_ID, PASSWORD FROM " +
+            "WF_BPS_PROFILE WHERE PROFILE_NAME>? OR (PROFILE_NAME=? AND TENANT_ID>?) ORDER BY PROFILE_NAME, TENANT_ID";
     public static final String UPDATE_BPS_PASSWORD = "UPDATE WF_BPS_PROFILE SET PASSWORD=? WHERE PROFILE_NAME=? AND " +
             "TENANT_ID=?";
-    public static final String GET_WF_REQUEST = "SELECT UUID, REQUEST FROM WF_REQUEST ORDER BY UUID LIMIT ?, ?";
-    public static final String GET_WF_REQUEST_POSTGRE = "SELECT UUID, REQUEST FROM WF_REQUEST ORDER BY UUID LIMIT ? " +
-            "OFFSET ?";
-    public static final String GET_WF_REQUEST_OTHER =
-            "SELECT UUID, REQUEST FROM WF_REQUEST ORDER BY UUID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_WF_REQUEST = "SELECT UUID, REQUEST FROM WF_REQUEST ORDER BY UUID";
+    public static final String GET_WF_REQUEST_KEYSET = "SELECT UUID, REQUEST FROM WF_REQUEST WHERE UUID>? ORDER BY " +
+            "UUID";
     public static final String UPDATE_WF_REQUEST = "UPDATE WF_REQUEST SET REQUEST=? WHERE UUID=?";
-    public static final String GET_REG_PROPERTY_DATA = "SELECT REG_ID, REG_NAME, REG_VALUE, REG_TENANT_ID " +
-            "FROM REG_PROPERTY WHERE REG_NAME=? ORDER BY REG_ID, REG_TENANT_ID LIMIT ?, ?";
-    public static final String GET_REG_PROPERTY_DATA_POSTGRE = "SELECT REG_ID, REG_NAME, REG_VALUE, REG_TENANT_ID " +
-            "FROM REG_PROPERTY WHERE REG_NAME=? ORDER BY REG_ID, REG_TENANT_ID LIMIT ? OFFSET ?";
-    public static final String GET_REG_PROPERTY_DATA_OTHER = "SELECT REG_ID, REG_NAME, REG_VALUE, REG_TENANT_ID " +
-            "FROM REG_PROPERTY WHERE REG_NAME=? ORDER BY REG_ID, REG_TENANT_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    public static final String GET_REG_PROPERTY_DATA = "SELECT REG_ID, REG_NAME, REG_VALUE, REG_TENANT_ID FROM " +
+            "REG_PROPERTY WHERE REG_NAME=? ORDER BY REG_ID, REG_TENANT_ID";
+    public static final String GET_REG_PROPERTY_DATA_KEYSET = "SELECT REG_ID, REG_NAME, REG_VALUE, REG_TENANT_ID " +
+            "FROM REG_PROPERTY WHERE REG_NAME=? AND (REG_ID>? OR (REG_ID=? AND REG_TENANT_ID>?)) ORDER BY REG_ID, " +
+            "REG_TENANT_ID";
     public static final String UPDATE_REG_PROPERTY_DATA =
             "UPDATE REG_PROPERTY SET REG_VALUE=? WHERE REG_ID=? AND REG_TENANT_ID=?";
+    public static final String LENGTH = "LENGTH";
+    public static final String LENGTH_MSSQL = "DATALENGTH";
+    public static final String LENGTH_ORACLE_LOB = "DBMS_LOB.GETLENGTH";
+    public static final int ESTIMATE_SAMPLE_SIZE = 10000;
+    public static final String TABLE_ROW_COUNT_MYSQL = "SELECT TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES WHERE " +
+            "TABLE_SCHEMA=DATABASE() AND TABLE_NAME=?";
+    public static final String TABLE_ROW_COUNT_POSTGRESQL =
+            "SELECT CAST(RELTUPLES AS BIGINT) FROM PG_CLASS WHERE OID=TO_REGCLASS(LOWER(?))";
+    public static final String TABLE_ROW_COUNT_MSSQL =
+            "SELECT SUM(rows) FROM sys.partitions WHERE object_id=OBJECT_ID(?) AND index_id IN (0, 1)";
+    public static final String TABLE_ROW_COUNT_ORACLE = "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME=UPPER(?)";
+    public static final String TABLE_ROW_COUNT_DB2 = "SELECT CARD FROM SYSCAT.TABLES WHERE TABSCHEMA=CURRENT SCHEMA " +
+            "AND TABNAME=UPPER(?)";
+    public static final String SAMPLE_TOTP_SECRET = "SELECT CASE WHEN DATA_KEY=? OR DATA_KEY=? THEN 1 ELSE 0 END, " +
+            "%s(DATA_VALUE) FROM IDN_IDENTITY_USER_DATA ORDER BY TENANT_ID, USER_NAME, DATA_KEY";
+    public static final String SAMPLE_OAUTH_AUTHORIZATION_CODE =
+            "SELECT 1, %s(AUTHORIZATION_CODE) FROM IDN_OAUTH2_AUTHORIZATION_CODE ORDER BY CODE_ID";
+    public static final String SAMPLE_OAUTH_ACCESS_TOKEN =
+            "SELECT 1, %1$s(ACCESS_TOKEN), %1$s(REFRESH_TOKEN) FROM IDN_OAUTH2_ACCESS_TOKEN ORDER BY TOKEN_ID";
+    public static final String SAMPLE_OAUTH_SECRET =
+            "SELECT 1, %s(CONSUMER_SECRET) FROM IDN_OAUTH_CONSUMER_APPS ORDER BY ID";
+    public static final String SAMPLE_BPS_PASSWORD =
+            "SELECT 1, %s(PASSWORD) FROM WF_BPS_PROFILE ORDER BY PROFILE_NAME, TENANT_ID";
+    public static final String SAMPLE_WF_REQUEST = "SELECT 1, %s(REQUEST) FROM WF_REQUEST ORDER BY UUID";
+    public static final String SAMPLE_REG_PROPERTY_DATA = "SELECT CASE WHEN REG_NAME=? THEN 1 ELSE 0 END, " +
+            "%s(REG_VALUE) FROM REG_PROPERTY ORDER BY REG_ID, REG_TENANT_ID";
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class reports the records which could not be updated to the dead letter file, one JSON object per line, so
+ * that they can be followed up after the run. Only the keys of the records are reported, never their values. The
+ * appends are serialized with a lock, which unlike a monitor does not pin a virtual thread to its carrier thread.
+ */
+public class DeadLetterWriter {
+
+    private static final Logger log = Logger.getLogger(DeadLetterWriter.class);
+    private static final DeadLetterWriter instance = new DeadLetterWriter();
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public static DeadLetterWriter getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To report a record which could not be updated.
+     *
+     * @param tableName         Name of the table.
+     * @param recordKey         Key of the record.
+     * @param error             The error the update failed with.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public void write(String tableName, String recordKey, Exception error,
+                      KeyRotationConfig keyRotationConfig) {
+
+        lock.lock();
+        try {
+            Map<String, String> deadLetter = new LinkedHashMap<>();
+            deadLetter.put("time", Instant.now().toString());
+            deadLetter.put("table", tableName);
+            deadLetter.put("record", recordKey);
+            deadLetter.put("error", String.valueOf(error));
+            try {
+                Files.write(Paths.get(keyRotationConfig.getDeadLetterFile()),
+                        Collections.singletonList(gson.toJson(deadLetter)), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.error("Error while writing the record " + recordKey + " of " + tableName + " to the dead letter " +
+                        "file " + keyRotationConfig.getDeadLetterFile() + ".", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -20,13 +20,14 @@ package org.wso2.carbon.identity.keyrotation.dao;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.model.TOTPSecret;
 import org.wso2.carbon.identity.keyrotation.model.TempTOTPSecret;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -40,10 +41,6 @@ public class IdentityDAO {
 
     private static final Logger log = Logger.getLogger(IdentityDAO.class);
     private static final IdentityDAO instance = new IdentityDAO();
-    public static int updateCount = 0;
-    public static int failedUpdateCount = 0;
-    public static int insertCount = 0;
-    public static int failedInsertCount = 0;
 
     public IdentityDAO() {
 
@@ -58,34 +55,23 @@ public class IdentityDAO {
      * To retrieve the list of data in IDN_IDENTITY_USER_DATA as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_IDENTITY_USER_DATA.
      */
-    public List<TOTPSecret> getTOTPSecretsChunks(int startIndex, KeyRotationConfig keyRotationConfig)
+    public List<TOTPSecret> getTOTPSecretsChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
         List<TOTPSecret> totpSecretList = new ArrayList<>();
-        String query = DBConstants.GET_TOTP_SECRET;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_TOTP_SECRET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_TOTP_SECRET_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_TOTP_SECRET_OTHER;
-            }
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 preparedStatement.setString(1, DBConstants.SECRET_KEY);
                 preparedStatement.setString(2, DBConstants.VERIFIED_SECRET_KEY);
-                preparedStatement.setInt(3, firstIndex);
-                preparedStatement.setInt(4, secIndex);
+                dialect.setPageParameters(preparedStatement, 3, startIndex, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -97,7 +83,7 @@ public class IdentityDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving TOTP secrets from IDN_IDENTITY_USER_DATA.", e);
+                throw new KeyRotationException("Error while retrieving TOTP secrets from IDN_IDENTITY_USER_DATA.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -106,181 +92,120 @@ public class IdentityDAO {
     }
 
     /**
-     * To reEncrypt the TOTP secret key in IDN_IDENTITY_USER_DATA using the new key.
-     *
-     * @param updateTOTPSecretList The list containing records that should be re-encrypted.
-     * @param keyRotationConfig    Configuration data needed to perform the task.
-     * @throws KeyRotationException Exception thrown while updating data from IDN_IDENTITY_USER_DATA.
-     */
-    public void updateTOTPSecretsChunks(List<TOTPSecret> updateTOTPSecretList,
-                                        KeyRotationConfig keyRotationConfig) throws KeyRotationException {
-
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_TOTP_SECRET)) {
-                for (TOTPSecret totpSecret : updateTOTPSecretList) {
-                    preparedStatement.setString(1, totpSecret.getDataValue());
-                    preparedStatement.setInt(2, Integer.parseInt(totpSecret.getTenantId()));
-                    preparedStatement.setString(3, totpSecret.getUsername());
-                    preparedStatement.setString(4, totpSecret.getDataKey());
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
-                connection.commit();
-                updateCount += updateTOTPSecretList.size();
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while updating TOTP secrets in IDN_IDENTITY_USER_DATA, trying the chunk " +
-                        "row by row again. ", e);
-                retryOnTOTOUpdate(updateTOTPSecretList, connection);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to new identity DB.", e);
-        }
-    }
-
-    /**
-     * To retry upon a failure in updating the TOTP chunk in IDN_IDENTITY_USER_DATA.
-     *
-     * @param updateTOTPSecretList The list containing records that should be re-encrypted.
-     * @param connection           Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
-     */
-    private void retryOnTOTOUpdate(List<TOTPSecret> updateTOTPSecretList, Connection connection)
-            throws KeyRotationException {
-
-        TOTPSecret faulty = null;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_TOTP_SECRET)) {
-            for (TOTPSecret totpSecret : updateTOTPSecretList) {
-                try {
-                    faulty = totpSecret;
-                    preparedStatement.setString(1, totpSecret.getDataValue());
-                    preparedStatement.setInt(2, Integer.parseInt(totpSecret.getTenantId()));
-                    preparedStatement.setString(3, totpSecret.getUsername());
-                    preparedStatement.setString(4, totpSecret.getDataKey());
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating TOTP secret in IDN_IDENTITY_USER_DATA of record with tenant" +
-                            " id: " + faulty.getTenantId() + " username: " + faulty.getUsername() + " data key: " +
-                            faulty.getDataKey() + " ," + err);
-                    failedUpdateCount++;
-                }
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
-        }
-    }
-
-    /**
-     * To retrieve the list of data in IDN_IDENTITY_USER_DATA_TEMP.
+     * To retrieve the next chunk of data in IDN_IDENTITY_USER_DATA that follows the given record in the
+     * (TENANT_ID, USER_NAME, DATA_KEY) order.
      *
-     * @param syncId            The syncId of the data.
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving data from IDN_IDENTITY_USER_DATA_TEMP.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_IDENTITY_USER_DATA.
      */
-    public List<TempTOTPSecret> getTempTOTPSecrets(int syncId, KeyRotationConfig keyRotationConfig)
+    public List<TOTPSecret> getTOTPSecretsChunksAfter(TOTPSecret lastRecord, int chunkSize,
+                                                      KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        List<TempTOTPSecret> totpSecretList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        List<TOTPSecret> totpSecretList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_TOTP_SECRET_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.GET_TEMP_TOTP_SECRET)) {
-                preparedStatement.setInt(1, syncId);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                int tenantId = Integer.parseInt(lastRecord.getTenantId());
+                preparedStatement.setString(1, DBConstants.SECRET_KEY);
+                preparedStatement.setString(2, DBConstants.VERIFIED_SECRET_KEY);
+                preparedStatement.setInt(3, tenantId);
+                preparedStatement.setInt(4, tenantId);
+                preparedStatement.setString(5, lastRecord.getUsername());
+                preparedStatement.setInt(6, tenantId);
+                preparedStatement.setString(7, lastRecord.getUsername());
+                preparedStatement.setString(8, lastRecord.getDataKey());
+                preparedStatement.setInt(9, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
                     totpSecretList
-                            .add(new TempTOTPSecret(resultSet.getString(KeyRotationConstants.TENANT_ID),
+                            .add(new TOTPSecret(resultSet.getString(KeyRotationConstants.TENANT_ID),
                                     resultSet.getString(KeyRotationConstants.USER_NAME),
                                     resultSet.getString(KeyRotationConstants.DATA_KEY),
-                                    resultSet.getString(KeyRotationConstants.DATA_VALUE),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
+                                    resultSet.getString(KeyRotationConstants.DATA_VALUE)));
                 }
             } catch (SQLException e) {
                 connection.rollback();
                 throw new KeyRotationException("Error while retrieving TOTP secrets from IDN_IDENTITY_USER_DATA.", e);
             }
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
         return totpSecretList;
     }
 
     /**
-     * To retrieve the max sync id from similar primary key records in IDN_IDENTITY_USER_DATA_TEMP.
+     * To get a reader streaming the TOTP data in IDN_IDENTITY_USER_DATA through a single cursor.
      *
-     * @param record            A data record in IDN_IDENTITY_USER_DATA_TEMP table.
      * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving latest data from IDN_IDENTITY_USER_DATA_TEMP.
+     * @return The reader, which should be closed once the table is read.
      */
-    public List<TempTOTPSecret> getTempTOTPLatest(TempTOTPSecret record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
+    public StreamingChunkReader<TOTPSecret> getTOTPSecretsStream(KeyRotationConfig keyRotationConfig) {
 
-        List<TempTOTPSecret> totpSecretList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        return new StreamingChunkReader<>("IDN_IDENTITY_USER_DATA",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                DBConstants.GET_TOTP_SECRET, preparedStatement -> {
+                    preparedStatement.setString(1, DBConstants.SECRET_KEY);
+                    preparedStatement.setString(2, DBConstants.VERIFIED_SECRET_KEY);
+                }, resultSet -> new TOTPSecret(resultSet.getString(KeyRotationConstants.TENANT_ID),
+                        resultSet.getString(KeyRotationConstants.USER_NAME),
+                        resultSet.getString(KeyRotationConstants.DATA_KEY),
+                        resultSet.getString(KeyRotationConstants.DATA_VALUE)), keyRotationConfig);
+    }
+
+    /**
+     * To reEncrypt the TOTP secret key in IDN_IDENTITY_USER_DATA using the new key.
+     *
+     * @param updateTOTPSecretList The list containing records that should be re-encrypted.
+     * @param keyRotationConfig    Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while updating data from IDN_IDENTITY_USER_DATA.
+     */
+    public void updateTOTPSecretsChunks(List<TOTPSecret> updateTOTPSecretList,
+                                        KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_IDENTITY_USER_DATA");
+        BisectingBatchExecutor<TOTPSecret> batchExecutor = new BisectingBatchExecutor<>("IDN_IDENTITY_USER_DATA",
+                DBConstants.UPDATE_TOTP_SECRET, (preparedStatement, totpSecret) -> {
+                    preparedStatement.setString(1, totpSecret.getDataValue());
+                    preparedStatement.setInt(2, Integer.parseInt(totpSecret.getTenantId()));
+                    preparedStatement.setString(3, totpSecret.getUsername());
+                    preparedStatement.setString(4, totpSecret.getDataKey());
+                }, totpSecret -> "tenant id: " + totpSecret.getTenantId() + " username: " + totpSecret.getUsername() +
+                " data key: " + totpSecret.getDataKey(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_TOTP_SECRET_LATEST)) {
-                preparedStatement.setInt(1, Integer.parseInt(record.getTenantId()));
-                preparedStatement.setString(2, record.getUsername());
-                preparedStatement.setString(3, record.getDataKey());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    totpSecretList
-                            .add(new TempTOTPSecret(resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getString(KeyRotationConstants.USER_NAME),
-                                    resultSet.getString(KeyRotationConstants.DATA_KEY),
-                                    resultSet.getString(KeyRotationConstants.DATA_VALUE),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the latest TOTP secret from IDN_IDENTITY_USER_DATA_TEMP.", e);
-            }
+            batchExecutor.execute(connection, updateTOTPSecretList);
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
-        return totpSecretList;
     }
 
     /**
-     * To retrieve previous similar primary key records in IDN_IDENTITY_USER_DATA_TEMP.
+     * To retrieve a batch of the data in IDN_IDENTITY_USER_DATA_TEMP after a sync id, in the order of their sync ids.
      *
-     * @param record            A data record in IDN_IDENTITY_USER_DATA_TEMP table.
+     * @param syncId            The sync id after which the data is retrieved.
+     * @param batchSize         Maximum number of records retrieved.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving previous data from IDN_IDENTITY_USER_DATA_TEMP.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_IDENTITY_USER_DATA_TEMP.
      */
-    public List<TempTOTPSecret> getTempTOTPPrevious(TempTOTPSecret record, KeyRotationConfig keyRotationConfig)
+    public List<TempTOTPSecret> getTempTOTPSecrets(int syncId, int batchSize, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
         List<TempTOTPSecret> totpSecretList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_TOTP_SECRET_PREVIOUS)) {
-                preparedStatement.setInt(1, Integer.parseInt(record.getTenantId()));
-                preparedStatement.setString(2, record.getUsername());
-                preparedStatement.setString(3, record.getDataKey());
-                preparedStatement.setInt(4, record.getSyncId());
+            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConnectionManager.getInstance()
+                    .getOldIdnDialect(keyRotationConfig).getLimitedQuery(DBConstants.GET_TEMP_TOTP_SECRET))) {
+                preparedStatement.setInt(1, syncId);
+                preparedStatement.setInt(2, batchSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -295,8 +220,7 @@ public class IdentityDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving the previous TOTP secrets from IDN_IDENTITY_USER_DATA_TEMP.",
-                        e);
+                throw new KeyRotationException("Error while retrieving TOTP secrets from IDN_IDENTITY_USER_DATA.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to old identity DB.", e);
@@ -314,9 +238,7 @@ public class IdentityDAO {
     public void updateTOTPPreviousSimilarRecords(List<TempTOTPSecret> updateTOTPSecretList,
                                                  KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection
                     .prepareStatement(DBConstants.UPDATE_TEMP_TOTP_SECRET)) {
@@ -347,10 +269,9 @@ public class IdentityDAO {
     public int updateTOTPSecret(TempTOTPSecret updateTOTPSecret,
                                 KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_IDENTITY_USER_DATA_TEMP");
         int records = 0;
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_TOTP_SECRET)) {
                 preparedStatement.setString(1, updateTOTPSecret.getDataValue());
@@ -360,11 +281,11 @@ public class IdentityDAO {
                 records = preparedStatement.executeUpdate();
                 connection.commit();
                 if (records > 0) {
-                    insertCount++;
+                    metrics.increment(PhaseMetrics.Counter.INSERTED);
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while updating TOTP secret in IDN_IDENTITY_USER_DATA. ", e);
             }
         } catch (SQLException e) {
@@ -383,9 +304,8 @@ public class IdentityDAO {
     public void insertTOTPSecret(TempTOTPSecret insertTOTPSecret,
                                  KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_IDENTITY_USER_DATA_TEMP");
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.INSERT_TOTP_SECRET)) {
                 preparedStatement.setInt(1, Integer.parseInt(insertTOTPSecret.getTenantId()));
@@ -394,10 +314,10 @@ public class IdentityDAO {
                 preparedStatement.setString(4, insertTOTPSecret.getDataValue());
                 preparedStatement.executeUpdate();
                 connection.commit();
-                insertCount++;
+                metrics.increment(PhaseMetrics.Counter.INSERTED);
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while inserting TOTP secret into IDN_IDENTITY_USER_DATA. ", e);
             }
         } catch (SQLException e) {
@@ -415,9 +335,7 @@ public class IdentityDAO {
     public void deleteTOTPSecret(TempTOTPSecret deleteTOTPSecret, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.DELETE_TOTP_SECRET)) {
                 preparedStatement.setInt(1, Integer.parseInt(deleteTOTPSecret.getTenantId()));
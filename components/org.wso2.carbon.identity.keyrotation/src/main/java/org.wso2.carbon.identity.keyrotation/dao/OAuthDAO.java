@@ -20,6 +20,9 @@ package org.wso2.carbon.identity.keyrotation.dao;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.model.KeyRange;
 import org.wso2.carbon.identity.keyrotation.model.OAuthCode;
 import org.wso2.carbon.identity.keyrotation.model.OAuthSecret;
 import org.wso2.carbon.identity.keyrotation.model.OAuthToken;
@@ -30,13 +33,18 @@ import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * This class holds implementations needed to re-encrypt the OAuth data in DB.
@@ -45,18 +53,10 @@ public class OAuthDAO {
 
     private static final Logger log = Logger.getLogger(OAuthDAO.class);
     private static final OAuthDAO instance = new OAuthDAO();
-    public static int updateCodeCount = 0;
-    public static int updateTokenCount = 0;
-    public static int updateSecretCount = 0;
-    public static int insertCodeCount = 0;
-    public static int insertTokenCount = 0;
-    public static int insertScopeCount = 0;
-    public static int failedUpdateCodeCount = 0;
-    public static int failedUpdateTokenCount = 0;
-    public static int failedUpdateSecretCount = 0;
-    public static int failedInsertCodeCount = 0;
-    public static int failedInsertTokenCount = 0;
-    public static int failedInsertScopeCount = 0;
+    private static final String COLUMN_NAME = "COLUMN_NAME";
+    private static final List<String> OAUTH_ACCESS_TOKEN_STAGE_COLUMNS =
+            Arrays.asList(KeyRotationConstants.TOKEN_ID, KeyRotationConstants.ACCESS_TOKEN,
+                    KeyRotationConstants.REFRESH_TOKEN);
 
     public OAuthDAO() {
 
@@ -71,32 +71,158 @@ public class OAuthDAO {
      * To retrieve the list of data in IDN_OAUTH2_AUTHORIZATION_CODE as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_AUTHORIZATION_CODE.
      */
-    public List<OAuthCode> getOAuthCodeChunks(int startIndex, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<OAuthCode> getOAuthCodeChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        List<OAuthCode> oAuthCodeList = new ArrayList<>();
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_OAUTH_AUTHORIZATION_CODE);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                dialect.setPageParameters(preparedStatement, 1, startIndex, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
+                connection.commit();
+                while (resultSet.next()) {
+                    oAuthCodeList.add(new OAuthCode(resultSet.getString(KeyRotationConstants.CODE_ID),
+                            resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE),
+                            resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new KeyRotationException(
+                        "Error while retrieving OAuth codes from IDN_OAUTH2_AUTHORIZATION_CODE.", e);
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
+        }
+        return oAuthCodeList;
+    }
+
+    /**
+     * To retrieve the next chunk of data in IDN_OAUTH2_AUTHORIZATION_CODE that follows the given record in the
+     * CODE_ID order.
+     *
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_AUTHORIZATION_CODE.
+     */
+    public List<OAuthCode> getOAuthCodeChunksAfter(OAuthCode lastRecord, int chunkSize,
+                                                   KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        List<OAuthCode> oAuthCodeList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_OAUTH_AUTHORIZATION_CODE_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setString(1, lastRecord.getCodeId());
+                preparedStatement.setInt(2, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
+                connection.commit();
+                while (resultSet.next()) {
+                    oAuthCodeList.add(new OAuthCode(resultSet.getString(KeyRotationConstants.CODE_ID),
+                            resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE),
+                            resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new KeyRotationException(
+                        "Error while retrieving OAuth codes from IDN_OAUTH2_AUTHORIZATION_CODE.", e);
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
+        }
+        return oAuthCodeList;
+    }
+
+    /**
+     * To get a reader streaming the OAuth2 authorization codes in IDN_OAUTH2_AUTHORIZATION_CODE through a single
+     * cursor.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the table is read.
+     */
+    public StreamingChunkReader<OAuthCode> getOAuthCodeStream(KeyRotationConfig keyRotationConfig) {
+
+        return getOAuthCodeStream(new KeyRange(null, null), keyRotationConfig);
+    }
+
+    /**
+     * To get a reader streaming the OAuth2 authorization codes of a key range in IDN_OAUTH2_AUTHORIZATION_CODE through
+     * a single cursor.
+     *
+     * @param keyRange          The key range, whose bounds are null when the range is open.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the key range is read.
+     */
+    public StreamingChunkReader<OAuthCode> getOAuthCodeStream(KeyRange keyRange,
+                                                              KeyRotationConfig keyRotationConfig) {
+
+        return new StreamingChunkReader<>("IDN_OAUTH2_AUTHORIZATION_CODE",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                getKeyRangeQuery(keyRange, DBConstants.GET_OAUTH_AUTHORIZATION_CODE,
+                        DBConstants.GET_OAUTH_AUTHORIZATION_CODE_RANGE_HEAD,
+                        DBConstants.GET_OAUTH_AUTHORIZATION_CODE_KEYSET,
+                        DBConstants.GET_OAUTH_AUTHORIZATION_CODE_RANGE),
+                preparedStatement -> setKeyRangeParameters(preparedStatement, keyRange),
+                resultSet -> new OAuthCode(resultSet.getString(KeyRotationConstants.CODE_ID),
+                        resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE),
+                        resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)), keyRotationConfig);
+    }
+
+    /**
+     * To split IDN_OAUTH2_AUTHORIZATION_CODE into key ranges holding about the same number of records.
+     *
+     * @param partitionCount    The number of key ranges needed.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Disjoint key ranges in the CODE_ID order which together cover the whole table.
+     * @throws KeyRotationException Exception thrown while sampling data from IDN_OAUTH2_AUTHORIZATION_CODE.
+     */
+    public List<KeyRange> getOAuthCodeKeyRanges(int partitionCount, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        return getKeyRanges(partitionCount, DBConstants.COUNT_OAUTH_AUTHORIZATION_CODE,
+                DBConstants.GET_OAUTH_AUTHORIZATION_CODE_BOUNDARY, "IDN_OAUTH2_AUTHORIZATION_CODE",
+                keyRotationConfig);
+    }
+
+    /**
+     * To retrieve the next chunk of data in IDN_OAUTH2_AUTHORIZATION_CODE within the given key range.
+     *
+     * @param keyRange          The key range.
+     * @param afterKey          The key the chunk starts after, or null to start at the beginning of the key range.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_AUTHORIZATION_CODE.
+     */
+    public List<OAuthCode> getOAuthCodeChunksInRange(KeyRange keyRange, String afterKey, int chunkSize,
+                                                     KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<OAuthCode> oAuthCodeList = new ArrayList<>();
-        String query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE_OTHER;
+            String query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE_RANGE;
+            if (afterKey == null) {
+                query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE_RANGE_HEAD;
+            } else if (keyRange.getUpperKey() == null) {
+                query = DBConstants.GET_OAUTH_AUTHORIZATION_CODE_KEYSET;
             }
+            query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig).getLimitedQuery(query);
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setInt(1, firstIndex);
-                preparedStatement.setInt(2, secIndex);
+                setKeyRangeParameters(preparedStatement, afterKey, keyRange.getUpperKey(),
+                        chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -106,7 +232,8 @@ public class OAuthDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving OAuth codes from IDN_OAUTH2_AUTHORIZATION_CODE.", e);
+                throw new KeyRotationException(
+                        "Error while retrieving OAuth codes from IDN_OAUTH2_AUTHORIZATION_CODE.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -124,95 +251,175 @@ public class OAuthDAO {
     public void updateOAuthCodeChunks(List<OAuthCode> updateAuthCodeList, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.UPDATE_OAUTH_AUTHORIZATION_CODE)) {
-                for (OAuthCode oAuthCode : updateAuthCodeList) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_AUTHORIZATION_CODE");
+        BisectingBatchExecutor<OAuthCode> batchExecutor = new BisectingBatchExecutor<>("IDN_OAUTH2_AUTHORIZATION_CODE",
+                DBConstants.UPDATE_OAUTH_AUTHORIZATION_CODE, (preparedStatement, oAuthCode) -> {
                     preparedStatement.setString(1, oAuthCode.getAuthorizationCode());
                     preparedStatement.setString(2, oAuthCode.getCodeId());
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
+                }, oAuthCode -> "code id: " + oAuthCode.getCodeId(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            batchExecutor.execute(connection, updateAuthCodeList);
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
+        }
+    }
+
+    /**
+     * To retrieve the list of data in IDN_OAUTH2_ACCESS_TOKEN as chunks.
+     *
+     * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_ACCESS_TOKEN.
+     */
+    public List<OAuthToken> getOAuthTokenChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        List<OAuthToken> oAuthTokenList = new ArrayList<>();
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_OAUTH_ACCESS_TOKEN);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                dialect.setPageParameters(preparedStatement, 1, startIndex, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
-                updateCodeCount += updateAuthCodeList.size();
+                while (resultSet.next()) {
+                    oAuthTokenList.add(new OAuthToken(resultSet.getString(KeyRotationConstants.TOKEN_ID),
+                            resultSet.getString(KeyRotationConstants.ACCESS_TOKEN),
+                            resultSet.getString(KeyRotationConstants.REFRESH_TOKEN),
+                            resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)));
+                }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error(
-                        "Error while updating OAuth codes in IDN_OAUTH2_AUTHORIZATION_CODE, trying the " +
-                                "chunk row by row again. ", e);
-                retryOnCodeUpdate(updateAuthCodeList, connection);
+                throw new KeyRotationException("Error while retrieving OAuth tokens from IDN_OAUTH2_ACCESS_TOKEN.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return oAuthTokenList;
     }
 
     /**
-     * To retry upon a failure in updating OAuth code chunk in IDN_OAUTH2_AUTHORIZATION_CODE.
+     * To retrieve the next chunk of data in IDN_OAUTH2_ACCESS_TOKEN that follows the given record in the
+     * TOKEN_ID order.
      *
-     * @param updateAuthCodeList The list containing records that should be re-encrypted.
-     * @param connection         Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_ACCESS_TOKEN.
      */
-    private void retryOnCodeUpdate(List<OAuthCode> updateAuthCodeList, Connection connection)
+    public List<OAuthToken> getOAuthTokenChunksAfter(OAuthToken lastRecord, int chunkSize,
+                                                     KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        OAuthCode faulty = null;
-        try (PreparedStatement preparedStatement =
-                     connection.prepareStatement(DBConstants.UPDATE_OAUTH_AUTHORIZATION_CODE)) {
-            for (OAuthCode oAuthCode : updateAuthCodeList) {
-                try {
-                    faulty = oAuthCode;
-                    preparedStatement.setString(1, oAuthCode.getAuthorizationCode());
-                    preparedStatement.setString(2, oAuthCode.getCodeId());
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateCodeCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating OAuth code in IDN_OAUTH2_AUTHORIZATION_CODE of record with " +
-                            "code id: " + faulty.getCodeId() + " ," + err);
-                    failedUpdateCodeCount++;
+        List<OAuthToken> oAuthTokenList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_OAUTH_ACCESS_TOKEN_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setString(1, lastRecord.getTokenId());
+                preparedStatement.setInt(2, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
+                connection.commit();
+                while (resultSet.next()) {
+                    oAuthTokenList.add(new OAuthToken(resultSet.getString(KeyRotationConstants.TOKEN_ID),
+                            resultSet.getString(KeyRotationConstants.ACCESS_TOKEN),
+                            resultSet.getString(KeyRotationConstants.REFRESH_TOKEN),
+                            resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)));
                 }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new KeyRotationException("Error while retrieving OAuth tokens from IDN_OAUTH2_ACCESS_TOKEN.", e);
             }
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return oAuthTokenList;
     }
 
     /**
-     * To retrieve the list of data in IDN_OAUTH2_ACCESS_TOKEN as chunks.
+     * To get a reader streaming the OAuth2 access and refresh tokens in IDN_OAUTH2_ACCESS_TOKEN through a single
+     * cursor.
      *
-     * @param startIndex        The start index of the data chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the table is read.
+     */
+    public StreamingChunkReader<OAuthToken> getOAuthTokenStream(KeyRotationConfig keyRotationConfig) {
+
+        return getOAuthTokenStream(new KeyRange(null, null), keyRotationConfig);
+    }
+
+    /**
+     * To get a reader streaming the OAuth2 access and refresh tokens of a key range in IDN_OAUTH2_ACCESS_TOKEN through
+     * a single cursor.
+     *
+     * @param keyRange          The key range, whose bounds are null when the range is open.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the key range is read.
+     */
+    public StreamingChunkReader<OAuthToken> getOAuthTokenStream(KeyRange keyRange,
+                                                                KeyRotationConfig keyRotationConfig) {
+
+        return new StreamingChunkReader<>("IDN_OAUTH2_ACCESS_TOKEN",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                getKeyRangeQuery(keyRange, DBConstants.GET_OAUTH_ACCESS_TOKEN,
+                        DBConstants.GET_OAUTH_ACCESS_TOKEN_RANGE_HEAD, DBConstants.GET_OAUTH_ACCESS_TOKEN_KEYSET,
+                        DBConstants.GET_OAUTH_ACCESS_TOKEN_RANGE),
+                preparedStatement -> setKeyRangeParameters(preparedStatement, keyRange),
+                resultSet -> new OAuthToken(resultSet.getString(KeyRotationConstants.TOKEN_ID),
+                        resultSet.getString(KeyRotationConstants.ACCESS_TOKEN),
+                        resultSet.getString(KeyRotationConstants.REFRESH_TOKEN),
+                        resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID)), keyRotationConfig);
+    }
+
+    /**
+     * To split IDN_OAUTH2_ACCESS_TOKEN into key ranges holding about the same number of records.
+     *
+     * @param partitionCount    The number of key ranges needed.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Disjoint key ranges in the TOKEN_ID order which together cover the whole table.
+     * @throws KeyRotationException Exception thrown while sampling data from IDN_OAUTH2_ACCESS_TOKEN.
+     */
+    public List<KeyRange> getOAuthTokenKeyRanges(int partitionCount, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        return getKeyRanges(partitionCount, DBConstants.COUNT_OAUTH_ACCESS_TOKEN,
+                DBConstants.GET_OAUTH_ACCESS_TOKEN_BOUNDARY, "IDN_OAUTH2_ACCESS_TOKEN", keyRotationConfig);
+    }
+
+    /**
+     * To retrieve the next chunk of data in IDN_OAUTH2_ACCESS_TOKEN within the given key range.
+     *
+     * @param keyRange          The key range.
+     * @param afterKey          The key the chunk starts after, or null to start at the beginning of the key range.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_ACCESS_TOKEN.
      */
-    public List<OAuthToken> getOAuthTokenChunks(int startIndex, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<OAuthToken> getOAuthTokenChunksInRange(KeyRange keyRange, String afterKey, int chunkSize,
+                                                       KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<OAuthToken> oAuthTokenList = new ArrayList<>();
-        String query = DBConstants.GET_OAUTH_ACCESS_TOKEN;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_OAUTH_ACCESS_TOKEN_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_OAUTH_ACCESS_TOKEN_OTHER;
+            String query = DBConstants.GET_OAUTH_ACCESS_TOKEN_RANGE;
+            if (afterKey == null) {
+                query = DBConstants.GET_OAUTH_ACCESS_TOKEN_RANGE_HEAD;
+            } else if (keyRange.getUpperKey() == null) {
+                query = DBConstants.GET_OAUTH_ACCESS_TOKEN_KEYSET;
             }
+            query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig).getLimitedQuery(query);
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setInt(1, firstIndex);
-                preparedStatement.setInt(2, secIndex);
+                setKeyRangeParameters(preparedStatement, afterKey, keyRange.getUpperKey(),
+                        chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -223,7 +430,7 @@ public class OAuthDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving OAuth tokens from IDN_OAUTH2_ACCESS_TOKEN.", e);
+                throw new KeyRotationException("Error while retrieving OAuth tokens from IDN_OAUTH2_ACCESS_TOKEN.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -241,27 +448,55 @@ public class OAuthDAO {
     public void updateOAuthTokenChunks(List<OAuthToken> updateAuthTokensList, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.UPDATE_OAUTH_ACCESS_TOKEN)) {
-                for (OAuthToken oAuthToken : updateAuthTokensList) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN");
+        BisectingBatchExecutor<OAuthToken> batchExecutor = new BisectingBatchExecutor<>("IDN_OAUTH2_ACCESS_TOKEN",
+                DBConstants.UPDATE_OAUTH_ACCESS_TOKEN, (preparedStatement, oAuthToken) -> {
                     preparedStatement.setString(1, oAuthToken.getAccessToken());
                     preparedStatement.setString(2, oAuthToken.getRefreshToken());
                     preparedStatement.setString(3, oAuthToken.getTokenId());
-                    preparedStatement.addBatch();
+                }, oAuthToken -> "token id: " + oAuthToken.getTokenId(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            if (keyRotationConfig.getEnableBulkUpdate() && !updateAuthTokensList.isEmpty() &&
+                    applyOAuthTokenStage(connection, updateAuthTokensList, keyRotationConfig, metrics)) {
+                return;
+            }
+            batchExecutor.execute(connection, updateAuthTokensList);
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
+        }
+    }
+
+    /**
+     * To create the staging table the re-encrypted access and refresh tokens are written to before being applied to
+     * IDN_OAUTH2_ACCESS_TOKEN. A staging table left behind by an interrupted run is emptied instead, while a table of
+     * the same name which does not have the columns of the staging table fails the run rather than being written to.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while creating the staging table.
+     */
+    public void createOAuthTokenStagingTable(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        String stagingTable = DBConstants.OAUTH_ACCESS_TOKEN_STAGING_TABLE;
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            Set<String> columns = getTableColumns(connection, stagingTable);
+            String query = DBConstants.CREATE_OAUTH_ACCESS_TOKEN_STAGE;
+            if (!columns.isEmpty()) {
+                if (!columns.equals(new HashSet<>(OAUTH_ACCESS_TOKEN_STAGE_COLUMNS))) {
+                    throw new KeyRotationException("The table " + stagingTable + " already exists with the columns " +
+                            columns + " instead of " + OAUTH_ACCESS_TOKEN_STAGE_COLUMNS + ". Drop or rename it " +
+                            "before running with enableBulkUpdate.");
                 }
-                preparedStatement.executeBatch();
+                log.warn("The staging table " + stagingTable + " left behind by a previous run is emptied.");
+                query = DBConstants.CLEAR_OAUTH_ACCESS_TOKEN_STAGE;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(query);
                 connection.commit();
-                updateTokenCount += updateAuthTokensList.size();
             } catch (SQLException e) {
                 connection.rollback();
-                log.error(
-                        "Error while updating access and refresh tokens in IDN_OAUTH2_ACCESS_TOKEN, trying " +
-                                "the chunk row by row again. ", e);
-                retryOnTokenUpdate(updateAuthTokensList, connection);
+                throw new KeyRotationException("Error while preparing the staging table " + stagingTable + ".", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -269,36 +504,57 @@ public class OAuthDAO {
     }
 
     /**
-     * To retry upon a failure in updating OAuth token chunk in IDN_OAUTH2_ACCESS_TOKEN.
+     * Get the upper case names of the columns of a table in the catalog and schema of the connection, looked up
+     * through the database metadata in the case the database stores unquoted identifiers in.
      *
-     * @param updateAuthTokensList The list containing records that should be re-encrypted.
-     * @param connection           Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @param connection Connection to the DB.
+     * @param tableName  Name of the table.
+     * @return The column names, which are empty if the table does not exist.
+     * @throws SQLException Exception thrown while reading the database metadata.
      */
-    private void retryOnTokenUpdate(List<OAuthToken> updateAuthTokensList, Connection connection)
-            throws KeyRotationException {
+    private Set<String> getTableColumns(Connection connection, String tableName) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String storedTableName = tableName;
+        if (metaData.storesLowerCaseIdentifiers()) {
+            storedTableName = tableName.toLowerCase(Locale.ROOT);
+        } else if (metaData.storesUpperCaseIdentifiers()) {
+            storedTableName = tableName.toUpperCase(Locale.ROOT);
+        }
+        String escape = metaData.getSearchStringEscape();
+        if (escape != null) {
+            storedTableName = storedTableName.replace("_", escape + "_");
+        }
+        Set<String> columns = new HashSet<>();
+        try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                storedTableName, null)) {
+            while (resultSet.next()) {
+                columns.add(resultSet.getString(COLUMN_NAME).toUpperCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
 
-        OAuthToken faulty = null;
-        try (PreparedStatement preparedStatement =
-                     connection.prepareStatement(DBConstants.UPDATE_OAUTH_ACCESS_TOKEN)) {
-            for (OAuthToken oAuthToken : updateAuthTokensList) {
-                try {
-                    faulty = oAuthToken;
-                    preparedStatement.setString(1, oAuthToken.getAccessToken());
-                    preparedStatement.setString(2, oAuthToken.getRefreshToken());
-                    preparedStatement.setString(3, oAuthToken.getTokenId());
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateTokenCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating access and refresh tokens in IDN_OAUTH2_ACCESS_TOKEN of " +
-                            "record with token id: " + faulty.getTokenId() + " ," + err);
-                    failedUpdateTokenCount++;
-                }
+    /**
+     * To drop the staging table of IDN_OAUTH2_ACCESS_TOKEN.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while connecting to new identity DB.
+     */
+    public void dropOAuthTokenStagingTable(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(DBConstants.DROP_OAUTH_ACCESS_TOKEN_STAGE);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                log.error("Error while dropping the staging table " + DBConstants.OAUTH_ACCESS_TOKEN_STAGING_TABLE +
+                        ", it should be dropped manually.", e);
             }
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
     }
 
@@ -306,32 +562,21 @@ public class OAuthDAO {
      * To retrieve the list of data in IDN_OAUTH_CONSUMER_APPS as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH_CONSUMER_APPS.
      */
-    public List<OAuthSecret> getOAuthSecretChunks(int startIndex, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<OAuthSecret> getOAuthSecretChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<OAuthSecret> oAuthSecretList = new ArrayList<>();
-        String query = DBConstants.GET_OAUTH_SECRET;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_OAUTH_SECRET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_OAUTH_SECRET_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_OAUTH_SECRET_OTHER;
-            }
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setInt(1, firstIndex);
-                preparedStatement.setInt(2, secIndex);
+                dialect.setPageParameters(preparedStatement, 1, startIndex, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -341,7 +586,7 @@ public class OAuthDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving secrets from IDN_OAUTH_CONSUMER_APPS.", e);
+                throw new KeyRotationException("Error while retrieving secrets from IDN_OAUTH_CONSUMER_APPS.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -350,92 +595,107 @@ public class OAuthDAO {
     }
 
     /**
-     * To reEncrypt the secrets in IDN_OAUTH_CONSUMER_APPS using the new key.
+     * To retrieve the next chunk of data in IDN_OAUTH_CONSUMER_APPS that follows the given record in the
+     * ID order.
      *
-     * @param updateOAuthSecretList The list containing records that should be updated in the DB.
-     * @param keyRotationConfig     Configuration data needed to perform the task.
-     * @throws KeyRotationException Exception thrown while updating data in IDN_OAUTH_CONSUMER_APPS.
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH_CONSUMER_APPS.
      */
-    public void updateOAuthSecretChunks(List<OAuthSecret> updateOAuthSecretList, KeyRotationConfig keyRotationConfig)
-            throws
-            KeyRotationException {
+    public List<OAuthSecret> getOAuthSecretChunksAfter(OAuthSecret lastRecord, int chunkSize,
+                                                       KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        List<OAuthSecret> oAuthSecretList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_OAUTH_SECRET_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_OAUTH_SECRET)) {
-                for (OAuthSecret oAuthSecret : updateOAuthSecretList) {
-                    preparedStatement.setString(1, oAuthSecret.getConsumerSecret());
-                    preparedStatement.setInt(2, Integer.parseInt(oAuthSecret.getId()));
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setInt(1, Integer.parseInt(lastRecord.getId()));
+                preparedStatement.setInt(2, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
-                updateSecretCount += updateOAuthSecretList.size();
+                while (resultSet.next()) {
+                    oAuthSecretList.add(new OAuthSecret(resultSet.getString(KeyRotationConstants.ID),
+                            resultSet.getString(KeyRotationConstants.CONSUMER_SECRET),
+                            resultSet.getString(KeyRotationConstants.APP_NAME)));
+                }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error(
-                        "Error while updating OAuth secrets in IDN_OAUTH_CONSUMER_APPS, trying the chunk " +
-                                "row by row again. ", e);
-                retryOnSecretUpdate(updateOAuthSecretList, connection);
+                throw new KeyRotationException("Error while retrieving secrets from IDN_OAUTH_CONSUMER_APPS.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return oAuthSecretList;
     }
 
     /**
-     * To retry upon a failure in updating OAuth secret chunk in IDN_OAUTH_CONSUMER_APPS.
+     * To get a reader streaming the OAuth consumer secrets in IDN_OAUTH_CONSUMER_APPS through a single cursor.
      *
-     * @param updateOAuthSecretList The list containing records that should be re-encrypted.
-     * @param connection            Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the table is read.
      */
-    private void retryOnSecretUpdate(List<OAuthSecret> updateOAuthSecretList, Connection connection)
-            throws KeyRotationException {
+    public StreamingChunkReader<OAuthSecret> getOAuthSecretStream(KeyRotationConfig keyRotationConfig) {
+
+        return new StreamingChunkReader<>("IDN_OAUTH_CONSUMER_APPS",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                DBConstants.GET_OAUTH_SECRET,
+                resultSet -> new OAuthSecret(resultSet.getString(KeyRotationConstants.ID),
+                        resultSet.getString(KeyRotationConstants.CONSUMER_SECRET),
+                        resultSet.getString(KeyRotationConstants.APP_NAME)), keyRotationConfig);
+    }
+
+    /**
+     * To reEncrypt the secrets in IDN_OAUTH_CONSUMER_APPS using the new key.
+     *
+     * @param updateOAuthSecretList The list containing records that should be updated in the DB.
+     * @param keyRotationConfig     Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while updating data in IDN_OAUTH_CONSUMER_APPS.
+     */
+    public void updateOAuthSecretChunks(List<OAuthSecret> updateOAuthSecretList, KeyRotationConfig keyRotationConfig)
+            throws
+            KeyRotationException {
 
-        OAuthSecret faulty = null;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_OAUTH_SECRET)) {
-            for (OAuthSecret oAuthSecret : updateOAuthSecretList) {
-                try {
-                    faulty = oAuthSecret;
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH_CONSUMER_APPS");
+        BisectingBatchExecutor<OAuthSecret> batchExecutor = new BisectingBatchExecutor<>("IDN_OAUTH_CONSUMER_APPS",
+                DBConstants.UPDATE_OAUTH_SECRET, (preparedStatement, oAuthSecret) -> {
                     preparedStatement.setString(1, oAuthSecret.getConsumerSecret());
                     preparedStatement.setInt(2, Integer.parseInt(oAuthSecret.getId()));
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateSecretCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating OAuth secrets in IDN_OAUTH_CONSUMER_APPS of " +
-                            "record with id: " + faulty.getId() + " ," + err);
-                    failedUpdateSecretCount++;
-                }
-            }
+                }, oAuthSecret -> "id: " + oAuthSecret.getId(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            batchExecutor.execute(connection, updateOAuthSecretList);
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
     }
 
     /**
-     * To retrieve the list of data in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
+     * To retrieve a batch of the data in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP after a sync id, in the order of their sync
+     * ids.
      *
-     * @param syncId            The syncId of the data.
+     * @param syncId            The sync id after which the data is retrieved.
+     * @param batchSize         Maximum number of records retrieved.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
      */
-    public List<TempOAuthCode> getTempOAuthCode(int syncId, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<TempOAuthCode> getTempOAuthCode(int syncId, int batchSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<TempOAuthCode> oAuthCodeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection
-                    .prepareStatement(DBConstants.GET_TEMP_OAUTH_AUTHORIZATION_CODE)) {
+            String query = DBConnectionManager.getInstance().getOldIdnDialect(keyRotationConfig)
+                    .getLimitedQuery(DBConstants.GET_TEMP_OAUTH_AUTHORIZATION_CODE);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 preparedStatement.setInt(1, syncId);
+                preparedStatement.setInt(2, batchSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -470,119 +730,6 @@ public class OAuthDAO {
         return oAuthCodeList;
     }
 
-    /**
-     * To retrieve the max sync id from similar primary key records in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving latest data from
-     *                              IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
-     */
-    public List<TempOAuthCode> getTempOAuthCodeLatest(TempOAuthCode record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthCode> oAuthCodeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_AUTHORIZATION_CODE_LATEST)) {
-                preparedStatement.setString(1, record.getCodeId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    oAuthCodeList
-                            .add(new TempOAuthCode(resultSet.getString(KeyRotationConstants.CODE_ID),
-                                    resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE),
-                                    resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID),
-                                    resultSet.getString(KeyRotationConstants.CALLBACK_URL),
-                                    resultSet.getString(KeyRotationConstants.SCOPE),
-                                    resultSet.getString(KeyRotationConstants.AUTHZ_USER),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getString(KeyRotationConstants.USER_DOMAIN),
-                                    resultSet.getString(KeyRotationConstants.TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.STATE),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.SUBJECT_IDENTIFIER),
-                                    resultSet.getString(KeyRotationConstants.PKCE_CODE_CHALLENGE),
-                                    resultSet.getString(KeyRotationConstants.PKCE_CODE_CHALLENGE_METHOD),
-                                    resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE_HASH),
-                                    resultSet.getString(KeyRotationConstants.IDP_ID),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the latest OAuth code from " +
-                        "IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.", e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return oAuthCodeList;
-    }
-
-    /**
-     * To retrieve previous similar primary key records in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving previous data from
-     *                              IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
-     */
-    public List<TempOAuthCode> getTempOAuthCodePrevious(TempOAuthCode record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthCode> oAuthCodeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_AUTHORIZATION_CODE_PREVIOUS)) {
-                preparedStatement.setString(1, record.getCodeId());
-                preparedStatement.setInt(2, record.getSyncId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    oAuthCodeList
-                            .add(new TempOAuthCode(resultSet.getString(KeyRotationConstants.CODE_ID),
-                                    resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE),
-                                    resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID),
-                                    resultSet.getString(KeyRotationConstants.CALLBACK_URL),
-                                    resultSet.getString(KeyRotationConstants.SCOPE),
-                                    resultSet.getString(KeyRotationConstants.AUTHZ_USER),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getString(KeyRotationConstants.USER_DOMAIN),
-                                    resultSet.getString(KeyRotationConstants.TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.STATE),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.SUBJECT_IDENTIFIER),
-                                    resultSet.getString(KeyRotationConstants.PKCE_CODE_CHALLENGE),
-                                    resultSet.getString(KeyRotationConstants.PKCE_CODE_CHALLENGE_METHOD),
-                                    resultSet.getString(KeyRotationConstants.AUTHORIZATION_CODE_HASH),
-                                    resultSet.getString(KeyRotationConstants.IDP_ID),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the previous OAuth code from " +
-                        "IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.", e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return oAuthCodeList;
-    }
-
     /**
      * To update previous similar primary key records in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP.
      *
@@ -594,9 +741,7 @@ public class OAuthDAO {
                                                  KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection.prepareStatement(
                     DBConstants.UPDATE_TEMP_OAUTH_AUTHORIZATION_CODE)) {
@@ -627,10 +772,9 @@ public class OAuthDAO {
     public int updateOAuthCode(TempOAuthCode updateAuthCode, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_AUTHORIZATION_CODE_TEMP");
         int records = 0;
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.OAUTH_AUTHORIZATION_CODE_UPDATE)) {
@@ -638,11 +782,11 @@ public class OAuthDAO {
                 records = preparedStatement.executeUpdate();
                 connection.commit();
                 if (records > 0) {
-                    insertCodeCount++;
+                    metrics.increment(PhaseMetrics.Counter.INSERTED);
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertCodeCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while updating OAuth codes in IDN_OAUTH2_AUTHORIZATION_CODE. ", e);
             }
         } catch (SQLException e) {
@@ -661,19 +805,18 @@ public class OAuthDAO {
     public void insertOAuthCode(TempOAuthCode insertAuthCode, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_AUTHORIZATION_CODE_TEMP");
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.INSERT_OAUTH_AUTHORIZATION_CODE)) {
                 codeDuplicatedCode(preparedStatement, insertAuthCode);
                 preparedStatement.executeUpdate();
                 connection.commit();
-                insertCodeCount++;
+                metrics.increment(PhaseMetrics.Counter.INSERTED);
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertCodeCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while inserting OAuth codes into IDN_OAUTH2_AUTHORIZATION_CODE. ", e);
             }
         } catch (SQLException e) {
@@ -691,9 +834,7 @@ public class OAuthDAO {
     public void deleteOAuthCode(TempOAuthCode deleteAuthCode, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.DELETE_OAUTH_AUTHORIZATION_CODE)) {
@@ -710,24 +851,24 @@ public class OAuthDAO {
     }
 
     /**
-     * To retrieve the list of data in IDN_OAUTH2_ACCESS_TOKEN_TEMP.
+     * To retrieve a batch of the data in IDN_OAUTH2_ACCESS_TOKEN_TEMP after a sync id, in the order of their sync ids.
      *
-     * @param syncId            The syncId of the data.
+     * @param syncId            The sync id after which the data is retrieved.
+     * @param batchSize         Maximum number of records retrieved.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_ACCESS_TOKEN_TEMP.
      */
-    public List<TempOAuthToken> getTempOAuthToken(int syncId, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<TempOAuthToken> getTempOAuthToken(int syncId, int batchSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<TempOAuthToken> oAuthTokenList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection
-                    .prepareStatement(DBConstants.GET_TEMP_OAUTH_ACCESS_TOKEN)) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConnectionManager.getInstance()
+                    .getOldIdnDialect(keyRotationConfig).getLimitedQuery(DBConstants.GET_TEMP_OAUTH_ACCESS_TOKEN))) {
                 preparedStatement.setInt(1, syncId);
+                preparedStatement.setInt(2, batchSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -766,124 +907,6 @@ public class OAuthDAO {
         return oAuthTokenList;
     }
 
-    /**
-     * To retrieve the max sync id from similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_ACCESS_TOKEN_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving latest data from IDN_OAUTH2_ACCESS_TOKEN_TEMP.
-     */
-    public List<TempOAuthToken> getTempOAuthTokenLatest(TempOAuthToken record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthToken> oAuthTokenList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_ACCESS_TOKEN_LATEST)) {
-                preparedStatement.setString(1, record.getTokenId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    oAuthTokenList
-                            .add(new TempOAuthToken(resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.ACCESS_TOKEN),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN),
-                                    resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID),
-                                    resultSet.getString(KeyRotationConstants.AUTHZ_USER),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getString(KeyRotationConstants.USER_DOMAIN),
-                                    resultSet.getString(KeyRotationConstants.USER_TYPE),
-                                    resultSet.getString(KeyRotationConstants.GRANT_TYPE),
-                                    resultSet.getString(KeyRotationConstants.TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_SCOPE_HASH),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_STATE),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_STATE_ID),
-                                    resultSet.getString(KeyRotationConstants.SUBJECT_IDENTIFIER),
-                                    resultSet.getString(KeyRotationConstants.ACCESS_TOKEN_HASH),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_HASH),
-                                    resultSet.getString(KeyRotationConstants.IDP_ID),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_BINDING_REF),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the latest OAuth token from IDN_OAUTH2_ACCESS_TOKEN_TEMP.", e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return oAuthTokenList;
-    }
-
-    /**
-     * To retrieve previous similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_ACCESS_TOKEN_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving previous data from IDN_OAUTH2_ACCESS_TOKEN_TEMP.
-     */
-    public List<TempOAuthToken> getTempOAuthTokenPrevious(TempOAuthToken record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthToken> oAuthTokenList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_ACCESS_TOKEN_PREVIOUS)) {
-                preparedStatement.setString(1, record.getTokenId());
-                preparedStatement.setInt(2, record.getSyncId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    oAuthTokenList
-                            .add(new TempOAuthToken(resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.ACCESS_TOKEN),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN),
-                                    resultSet.getString(KeyRotationConstants.CONSUMER_KEY_ID),
-                                    resultSet.getString(KeyRotationConstants.AUTHZ_USER),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getString(KeyRotationConstants.USER_DOMAIN),
-                                    resultSet.getString(KeyRotationConstants.USER_TYPE),
-                                    resultSet.getString(KeyRotationConstants.GRANT_TYPE),
-                                    resultSet.getString(KeyRotationConstants.TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_TIME_CREATED),
-                                    resultSet.getString(KeyRotationConstants.VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_VALIDITY_PERIOD),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_SCOPE_HASH),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_STATE),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_STATE_ID),
-                                    resultSet.getString(KeyRotationConstants.SUBJECT_IDENTIFIER),
-                                    resultSet.getString(KeyRotationConstants.ACCESS_TOKEN_HASH),
-                                    resultSet.getString(KeyRotationConstants.REFRESH_TOKEN_HASH),
-                                    resultSet.getString(KeyRotationConstants.IDP_ID),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_BINDING_REF),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.commit();
-                log.error("Error while retrieving the previous OAuth token from IDN_OAUTH2_ACCESS_TOKEN_TEMP.",
-                        e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return oAuthTokenList;
-    }
-
     /**
      * To update previous similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_TEMP.
      *
@@ -895,9 +918,7 @@ public class OAuthDAO {
                                                   KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection.prepareStatement(
                     DBConstants.UPDATE_TEMP_OAUTH_ACCESS_TOKEN)) {
@@ -928,10 +949,9 @@ public class OAuthDAO {
     public int updateOAuthToken(TempOAuthToken updateAuthToken, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN_TEMP");
         int records = 0;
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection
                     .prepareStatement(DBConstants.OAUTH_ACCESS_TOKEN_UPDATE)) {
@@ -939,11 +959,11 @@ public class OAuthDAO {
                 records = preparedStatement.executeUpdate();
                 connection.commit();
                 if (records > 0) {
-                    insertTokenCount++;
+                    metrics.increment(PhaseMetrics.Counter.INSERTED);
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertTokenCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while updating access and refresh tokens in IDN_OAUTH2_ACCESS_TOKEN. ", e);
             }
         } catch (SQLException e) {
@@ -962,19 +982,18 @@ public class OAuthDAO {
     public void insertOAuthToken(TempOAuthToken insertAuthToken, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN_TEMP");
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection
                     .prepareStatement(DBConstants.INSERT_OAUTH_ACCESS_TOKEN)) {
                 tokenDuplicatedCode(preparedStatement, insertAuthToken);
                 preparedStatement.executeUpdate();
                 connection.commit();
-                insertTokenCount++;
+                metrics.increment(PhaseMetrics.Counter.INSERTED);
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertTokenCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while inserting access and refresh tokens into IDN_OAUTH2_ACCESS_TOKEN. ", e);
             }
         } catch (SQLException e) {
@@ -992,9 +1011,7 @@ public class OAuthDAO {
     public void deleteOAuthToken(TempOAuthToken deleteAuthToken, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection
                     .prepareStatement(DBConstants.DELETE_OAUTH_ACCESS_TOKEN)) {
@@ -1011,23 +1028,25 @@ public class OAuthDAO {
     }
 
     /**
-     * To retrieve the list of data in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
+     * To retrieve a batch of the data in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP after a sync id, in the order of their sync
+     * ids.
      *
-     * @param syncId            The syncId of the data.
+     * @param syncId            The sync id after which the data is retrieved.
+     * @param batchSize         Maximum number of records retrieved.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
      */
-    public List<TempOAuthScope> getTempOAuthScope(int syncId, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<TempOAuthScope> getTempOAuthScope(int syncId, int batchSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<TempOAuthScope> tempOAuthScopeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_SCOPE)) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConnectionManager.getInstance()
+                    .getOldIdnDialect(keyRotationConfig).getLimitedQuery(DBConstants.GET_TEMP_OAUTH_SCOPE))) {
                 preparedStatement.setInt(1, syncId);
+                preparedStatement.setInt(2, batchSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -1047,93 +1066,6 @@ public class OAuthDAO {
         return tempOAuthScopeList;
     }
 
-    /**
-     * To retrieve the max sync id from similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving latest data from
-     *                              IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
-     */
-    public List<TempOAuthScope> getTempOAuthScopeLatest(TempOAuthScope record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthScope> tempOAuthScopeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection
-                    .prepareStatement(DBConstants.GET_TEMP_OAUTH_SCOPE_LATEST)) {
-                preparedStatement.setString(1, record.getTokenId());
-                preparedStatement.setString(2, record.getTokenScope());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    tempOAuthScopeList
-                            .add(new TempOAuthScope(resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_SCOPE),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the latest OAuth scope from " +
-                        "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.", e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return tempOAuthScopeList;
-    }
-
-    /**
-     * To retrieve previous similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
-     *
-     * @param record            A data record in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP table.
-     * @param keyRotationConfig Configuration data needed to perform the task.
-     * @return List comprising of the records in the table.
-     * @throws KeyRotationException Exception thrown while retrieving previous data from
-     *                              IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
-     */
-    public List<TempOAuthScope> getTempOAuthScopePrevious(TempOAuthScope record, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
-
-        List<TempOAuthScope> tempOAuthScopeList = new ArrayList<>();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement =
-                         connection.prepareStatement(DBConstants.GET_TEMP_OAUTH_SCOPE_PREVIOUS)) {
-                preparedStatement.setString(1, record.getTokenId());
-                preparedStatement.setString(2, record.getTokenScope());
-                preparedStatement.setInt(3, record.getSyncId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                connection.commit();
-                while (resultSet.next()) {
-                    tempOAuthScopeList
-                            .add(new TempOAuthScope(resultSet.getString(KeyRotationConstants.TOKEN_ID),
-                                    resultSet.getString(KeyRotationConstants.TOKEN_SCOPE),
-                                    resultSet.getString(KeyRotationConstants.TENANT_ID),
-                                    resultSet.getInt(KeyRotationConstants.AVAILABILITY),
-                                    resultSet.getInt(KeyRotationConstants.SYNC_ID),
-                                    resultSet.getInt(KeyRotationConstants.SYNCED)));
-                }
-            } catch (SQLException e) {
-                connection.rollback();
-                log.error("Error while retrieving the previous OAuth scope from " +
-                        "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.", e);
-            }
-        } catch (SQLException e) {
-            throw new KeyRotationException("Error while connecting to old identity DB.", e);
-        }
-        return tempOAuthScopeList;
-    }
-
     /**
      * To update previous similar primary key records in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP.
      *
@@ -1144,9 +1076,7 @@ public class OAuthDAO {
     public void updateScopePreviousSimilarRecords(List<TempOAuthScope> updateAuthScopesList,
                                                   KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getOldIdnDBUrl(), keyRotationConfig.getOldIdnUsername(),
-                        keyRotationConfig.getOldIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getOldIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement = connection
                     .prepareStatement(DBConstants.UPDATE_TEMP_OAUTH_SCOPE)) {
@@ -1177,10 +1107,9 @@ public class OAuthDAO {
     public int updateOAuthScope(TempOAuthScope updateAuthScope, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP");
         int records = 0;
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.OAUTH_SCOPE_UPDATE)) {
@@ -1190,11 +1119,11 @@ public class OAuthDAO {
                 records = preparedStatement.executeUpdate();
                 connection.commit();
                 if (records > 0) {
-                    insertScopeCount++;
+                    metrics.increment(PhaseMetrics.Counter.INSERTED);
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertScopeCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while updating OAuth scope in IDN_OAUTH2_ACCESS_TOKEN_SCOPE. ", e);
             }
         } catch (SQLException e) {
@@ -1204,18 +1133,20 @@ public class OAuthDAO {
     }
 
     /**
-     * To insert the synced OAuth scope data into IDN_OAUTH2_ACCESS_TOKEN_SCOPE.
+     * To insert the synced OAuth scope data into IDN_OAUTH2_ACCESS_TOKEN_SCOPE. A scope whose access token is not in
+     * IDN_OAUTH2_ACCESS_TOKEN is not inserted, as the token may not be synced by its own stream yet. Any other failed
+     * insert is counted and reported to the dead letter file.
      *
      * @param insertAuthScope   The record that should be inserted.
      * @param keyRotationConfig Configuration data needed to perform the task.
-     * @throws KeyRotationException Exception thrown while inserting data into IDN_OAUTH2_ACCESS_TOKEN_SCOPE.
+     * @return False if the scope was not inserted as its access token is not in IDN_OAUTH2_ACCESS_TOKEN.
+     * @throws KeyRotationException Exception thrown while connecting to new identity DB.
      */
-    public void insertOAuthScope(TempOAuthScope insertAuthScope, KeyRotationConfig keyRotationConfig)
+    public boolean insertOAuthScope(TempOAuthScope insertAuthScope, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP");
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.INSERT_OAUTH_SCOPE)) {
@@ -1224,15 +1155,47 @@ public class OAuthDAO {
                 preparedStatement.setInt(3, Integer.parseInt(insertAuthScope.getTenantId()));
                 preparedStatement.executeUpdate();
                 connection.commit();
-                insertScopeCount++;
+                metrics.increment(PhaseMetrics.Counter.INSERTED);
             } catch (SQLException e) {
                 connection.rollback();
-                failedInsertScopeCount++;
+                if (!isOAuthTokenAvailable(connection, insertAuthScope.getTokenId())) {
+                    log.debug("Access token of OAuth scope with token id: " + insertAuthScope.getTokenId() +
+                            " is not synced yet.");
+                    return false;
+                }
+                metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
                 log.error("Error while inserting OAuth scope into IDN_OAUTH2_ACCESS_TOKEN_SCOPE. ", e);
+                DeadLetterWriter.getInstance().write("IDN_OAUTH2_ACCESS_TOKEN_SCOPE",
+                        "token id: " + insertAuthScope.getTokenId() + ", scope: " + insertAuthScope.getTokenScope(),
+                        e, keyRotationConfig);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return true;
+    }
+
+    /**
+     * To check whether an access token is in IDN_OAUTH2_ACCESS_TOKEN.
+     *
+     * @param connection Connection to the new identity DB.
+     * @param tokenId    Id of the access token.
+     * @return True if the access token is in IDN_OAUTH2_ACCESS_TOKEN.
+     * @throws KeyRotationException Exception thrown while retrieving the access token.
+     */
+    private boolean isOAuthTokenAvailable(Connection connection, String tokenId) throws KeyRotationException {
+
+        try (PreparedStatement preparedStatement =
+                     connection.prepareStatement(DBConstants.GET_OAUTH_ACCESS_TOKEN_ID)) {
+            preparedStatement.setString(1, tokenId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                boolean available = resultSet.next();
+                connection.commit();
+                return available;
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while retrieving access token from IDN_OAUTH2_ACCESS_TOKEN.", e);
+        }
     }
 
     /**
@@ -1245,9 +1208,7 @@ public class OAuthDAO {
     public void deleteOAuthScope(TempOAuthScope deleteAuthScope, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
             try (PreparedStatement preparedStatement =
                          connection.prepareStatement(DBConstants.DELETE_OAUTH_SCOPE)) {
@@ -1326,4 +1287,270 @@ public class OAuthDAO {
         preparedStatement.setString(20, oAuthToken.getTokenBindingRef());
         preparedStatement.setString(21, oAuthToken.getTokenId());
     }
+
+    /**
+     * To write a chunk of re-encrypted tokens to the staging table and apply them to IDN_OAUTH2_ACCESS_TOKEN with one
+     * set-based update per key range, all in one transaction. The chunk is in the TOKEN_ID order of the DB, hence the
+     * first and the last token of a range bound it, and the staged tokens of other chunks are never inside it.
+     *
+     * @param connection        Connection to new identity DB.
+     * @param oAuthTokenList    The re-encrypted tokens, in the TOKEN_ID order.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return True if the tokens were applied, false if the transaction was rolled back.
+     * @throws SQLException Exception thrown while rolling back the transaction.
+     */
+    private boolean applyOAuthTokenStage(Connection connection, List<OAuthToken> oAuthTokenList,
+                                         KeyRotationConfig keyRotationConfig, PhaseMetrics metrics)
+            throws SQLException {
+
+        long startTime = System.nanoTime();
+        try {
+            SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+            String applyQuery = getApplyOAuthTokenStageQuery(dialect);
+            stageOAuthTokens(connection, oAuthTokenList, dialect.supportsMultiRowInsert());
+            int rangeSize = keyRotationConfig.getBulkUpdateRangeSize();
+            try (PreparedStatement applyStatement = connection.prepareStatement(applyQuery);
+                 PreparedStatement deleteStatement = connection
+                         .prepareStatement(DBConstants.DELETE_OAUTH_ACCESS_TOKEN_STAGE)) {
+                for (int i = 0; i < oAuthTokenList.size(); i += rangeSize) {
+                    String lowerKey = oAuthTokenList.get(i).getTokenId();
+                    String upperKey = oAuthTokenList.get(Math.min(i + rangeSize, oAuthTokenList.size()) - 1)
+                            .getTokenId();
+                    applyStatement.setString(1, lowerKey);
+                    applyStatement.setString(2, upperKey);
+                    applyStatement.executeUpdate();
+                    deleteStatement.setString(1, lowerKey);
+                    deleteStatement.setString(2, upperKey);
+                    deleteStatement.executeUpdate();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            log.error("Error while applying the staged tokens to IDN_OAUTH2_ACCESS_TOKEN, the chunk will be updated " +
+                    "in batches.", e);
+            return false;
+        }
+        metrics.recordLatency(PhaseMetrics.Operation.BATCH_COMMIT, System.nanoTime() - startTime);
+        metrics.add(PhaseMetrics.Counter.UPDATED, oAuthTokenList.size());
+        return true;
+    }
+
+    /**
+     * Get the set-based update applying a key range of the staging table to IDN_OAUTH2_ACCESS_TOKEN in the staged
+     * update syntax of the dialect.
+     *
+     * @param dialect SQL dialect of the new identity DB.
+     * @return The update query, whose parameters are the lowest and the highest TOKEN_ID of the range.
+     */
+    static String getApplyOAuthTokenStageQuery(SQLDialect dialect) {
+
+        switch (dialect.getStagedUpdateSyntax()) {
+            case UPDATE_JOIN:
+                return DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE;
+            case UPDATE_FROM:
+                return DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_POSTGRE;
+            case UPDATE_FROM_JOIN:
+                return DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MSSQL;
+            default:
+                return DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MERGE;
+        }
+    }
+
+    /**
+     * To insert re-encrypted tokens into the staging table, with multi-row inserts of up to
+     * {@link DBConstants#STAGING_INSERT_ROW_LIMIT} rows, or with a batch of single row inserts if the DB does not
+     * support multi-row inserts.
+     *
+     * @param connection     Connection to new identity DB.
+     * @param oAuthTokenList The re-encrypted tokens.
+     * @param multiRow       Whether the DB supports multi-row inserts.
+     * @throws SQLException Exception thrown while inserting the tokens.
+     */
+    private void stageOAuthTokens(Connection connection, List<OAuthToken> oAuthTokenList, boolean multiRow)
+            throws SQLException {
+
+        int rowLimit = multiRow ? DBConstants.STAGING_INSERT_ROW_LIMIT : 1;
+        PreparedStatement fullStatement = null;
+        try {
+            for (int i = 0; i < oAuthTokenList.size(); i += rowLimit) {
+                List<OAuthToken> rows = oAuthTokenList.subList(i, Math.min(i + rowLimit, oAuthTokenList.size()));
+                if (rows.size() < rowLimit) {
+                    try (PreparedStatement tailStatement = connection.prepareStatement(getStageInsertQuery(
+                            rows.size()))) {
+                        bindStagedRows(tailStatement, rows);
+                        tailStatement.executeUpdate();
+                    }
+                    continue;
+                }
+                if (fullStatement == null) {
+                    fullStatement = connection.prepareStatement(getStageInsertQuery(rowLimit));
+                }
+                bindStagedRows(fullStatement, rows);
+                fullStatement.addBatch();
+            }
+            if (fullStatement != null) {
+                fullStatement.executeBatch();
+            }
+        } finally {
+            if (fullStatement != null) {
+                fullStatement.close();
+            }
+        }
+    }
+
+    /**
+     * To build the staging table insert query for the given number of rows.
+     *
+     * @param rowCount The number of rows.
+     * @return The insert query.
+     */
+    private String getStageInsertQuery(int rowCount) {
+
+        StringBuilder query = new StringBuilder(DBConstants.INSERT_OAUTH_ACCESS_TOKEN_STAGE);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(DBConstants.INSERT_OAUTH_ACCESS_TOKEN_STAGE_ROW);
+        }
+        return query.toString();
+    }
+
+    /**
+     * To bind the tokens to the parameters of a staging table insert query.
+     *
+     * @param preparedStatement The insert query.
+     * @param rows              The tokens, one per row of the query.
+     * @throws SQLException Exception thrown while setting the parameters.
+     */
+    private void bindStagedRows(PreparedStatement preparedStatement, List<OAuthToken> rows) throws SQLException {
+
+        int parameterIndex = 1;
+        for (OAuthToken oAuthToken : rows) {
+            preparedStatement.setString(parameterIndex++, oAuthToken.getTokenId());
+            preparedStatement.setString(parameterIndex++, oAuthToken.getAccessToken());
+            preparedStatement.setString(parameterIndex++, oAuthToken.getRefreshToken());
+        }
+    }
+
+    /**
+     * To split a table into key ranges by reading the keys found at evenly spaced positions of the key order.
+     *
+     * @param partitionCount    The number of key ranges needed.
+     * @param countQuery        Query counting the records of the table.
+     * @param boundaryQuery     Query reading the keys of the table in order, without pagination.
+     * @param tableName         Name of the table used in the logs.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Disjoint key ranges which together cover the whole table.
+     * @throws KeyRotationException Exception thrown while connecting to new identity DB.
+     */
+    private List<KeyRange> getKeyRanges(int partitionCount, String countQuery, String boundaryQuery,
+                                        String tableName, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        List<String> boundaries = new ArrayList<>();
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                    .getRowAtOffsetQuery(boundaryQuery);
+            try (PreparedStatement countStatement = connection.prepareStatement(countQuery);
+                 PreparedStatement boundaryStatement = connection.prepareStatement(query)) {
+                long recordCount = 0;
+                ResultSet resultSet = countStatement.executeQuery();
+                if (resultSet.next()) {
+                    recordCount = resultSet.getLong(1);
+                }
+                for (int i = 1; i < partitionCount; i++) {
+                    long position = recordCount * i / partitionCount - 1;
+                    if (position < 0) {
+                        continue;
+                    }
+                    boundaryStatement.setLong(1, position);
+                    resultSet = boundaryStatement.executeQuery();
+                    if (resultSet.next()) {
+                        String boundary = resultSet.getString(1);
+                        if (boundaries.isEmpty() || !boundary.equals(boundaries.get(boundaries.size() - 1))) {
+                            boundaries.add(boundary);
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                boundaries.clear();
+                log.error("Error while sampling key ranges of " + tableName + ", the table will not be split.", e);
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
+        }
+        List<KeyRange> keyRanges = new ArrayList<>();
+        String lowerKey = null;
+        for (String boundary : boundaries) {
+            keyRanges.add(new KeyRange(lowerKey, boundary));
+            lowerKey = boundary;
+        }
+        keyRanges.add(new KeyRange(lowerKey, null));
+        return keyRanges;
+    }
+
+    /**
+     * To pick the query reading a key range, whose bounds are null when the range is open.
+     *
+     * @param keyRange   The key range.
+     * @param tableQuery Query reading the whole table.
+     * @param headQuery  Query reading the keys up to an upper bound.
+     * @param tailQuery  Query reading the keys after a lower bound.
+     * @param rangeQuery Query reading the keys between a lower and an upper bound.
+     * @return The query reading the key range.
+     */
+    private String getKeyRangeQuery(KeyRange keyRange, String tableQuery, String headQuery, String tailQuery,
+                                    String rangeQuery) {
+
+        if (keyRange.getLowerKey() == null) {
+            return keyRange.getUpperKey() == null ? tableQuery : headQuery;
+        }
+        return keyRange.getUpperKey() == null ? tailQuery : rangeQuery;
+    }
+
+    /**
+     * To set the bounds of a key range query picked by {@link #getKeyRangeQuery}.
+     *
+     * @param preparedStatement The key range query.
+     * @param keyRange          The key range.
+     * @throws SQLException Exception thrown while setting the parameters.
+     */
+    private void setKeyRangeParameters(PreparedStatement preparedStatement, KeyRange keyRange) throws SQLException {
+
+        int parameterIndex = 1;
+        if (keyRange.getLowerKey() != null) {
+            preparedStatement.setString(parameterIndex++, keyRange.getLowerKey());
+        }
+        if (keyRange.getUpperKey() != null) {
+            preparedStatement.setString(parameterIndex, keyRange.getUpperKey());
+        }
+    }
+
+    /**
+     * To set the key bounds and the chunk size of a key range query, in the order they appear in the query.
+     *
+     * @param preparedStatement The key range query.
+     * @param afterKey          The key the chunk starts after, or null if the range is open below.
+     * @param upperKey          The last key of the range, or null if the range is open above.
+     * @param chunkSize         The chunk size.
+     * @throws SQLException Exception thrown while setting the parameters.
+     */
+    private void setKeyRangeParameters(PreparedStatement preparedStatement, String afterKey, String upperKey,
+                                       int chunkSize) throws SQLException {
+
+        int parameterIndex = 1;
+        if (afterKey != null) {
+            preparedStatement.setString(parameterIndex++, afterKey);
+        }
+        if (upperKey != null) {
+            preparedStatement.setString(parameterIndex++, upperKey);
+        }
+        preparedStatement.setInt(parameterIndex, chunkSize);
+    }
 }
@@ -20,12 +20,13 @@ package org.wso2.carbon.identity.keyrotation.dao;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.model.RegistryProperty;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -39,8 +40,6 @@ public class RegistryDAO {
 
     private static final Logger log = Logger.getLogger(RegistryDAO.class);
     private static final RegistryDAO instance = new RegistryDAO();
-    public static int updateCount = 0;
-    public static int failedUpdateCount = 0;
 
     public RegistryDAO() {
 
@@ -55,34 +54,24 @@ public class RegistryDAO {
      * To retrieve the registry property data in REG_PROPERTY as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @param property          Registry property value.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from REG_PROPERTY.
      */
-    public List<RegistryProperty> getRegPropertyDataChunks(int startIndex, KeyRotationConfig keyRotationConfig,
-                                                           String property) throws KeyRotationException {
+    public List<RegistryProperty> getRegPropertyDataChunks(long startIndex, int chunkSize,
+                                                           KeyRotationConfig keyRotationConfig, String property)
+            throws KeyRotationException {
 
         List<RegistryProperty> regPropertyList = new ArrayList<>();
-        String query = DBConstants.GET_REG_PROPERTY_DATA;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewRegDBUrl(), keyRotationConfig.getNewRegUsername(),
-                        keyRotationConfig.getNewRegPassword())) {
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewRegDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_REG_PROPERTY_DATA);
+        try (Connection connection = DBConnectionManager.getInstance().getNewRegConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_REG_PROPERTY_DATA_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_REG_PROPERTY_DATA_OTHER;
-            }
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 preparedStatement.setString(1, property);
-                preparedStatement.setInt(2, firstIndex);
-                preparedStatement.setInt(3, secIndex);
+                dialect.setPageParameters(preparedStatement, 2, startIndex, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -94,7 +83,8 @@ public class RegistryDAO {
                 }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error("Error while retrieving registry property: " + property + " from REG_PROPERTY.", e);
+                throw new KeyRotationException("Error while retrieving registry property: " + property +
+                        " from REG_PROPERTY.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new registry DB.", e);
@@ -103,76 +93,98 @@ public class RegistryDAO {
     }
 
     /**
-     * To reEncrypt the registry property value in REG_PROPERTY using the new key.
+     * To retrieve the next chunk of registry property data in REG_PROPERTY that follows the given record in the
+     * (REG_ID, REG_TENANT_ID) order.
      *
-     * @param updateRegPropertyList The list containing records that should be re-encrypted.
-     * @param keyRotationConfig     Configuration data needed to perform the task.
-     * @param property              Registry property value.
-     * @throws KeyRotationException Exception thrown while updating data from REG_PROPERTY.
+     * @param lastRecord        The last record of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param property          Registry property value.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from REG_PROPERTY.
      */
-    public void updateRegPropertyDataChunks(List<RegistryProperty> updateRegPropertyList,
-                                            KeyRotationConfig keyRotationConfig, String property)
+    public List<RegistryProperty> getRegPropertyDataChunksAfter(RegistryProperty lastRecord, int chunkSize,
+                                                                KeyRotationConfig keyRotationConfig, String property)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewRegDBUrl(), keyRotationConfig.getNewRegUsername(),
-                        keyRotationConfig.getNewRegPassword())) {
+        List<RegistryProperty> regPropertyList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewRegDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_REG_PROPERTY_DATA_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewRegConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection
-                    .prepareStatement(DBConstants.UPDATE_REG_PROPERTY_DATA)) {
-                for (RegistryProperty regProperty : updateRegPropertyList) {
-                    preparedStatement.setString(1, regProperty.getRegValue());
-                    preparedStatement.setInt(2, Integer.parseInt(regProperty.getRegId()));
-                    preparedStatement.setInt(3, Integer.parseInt(regProperty.getRegTenantId()));
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                int regId = Integer.parseInt(lastRecord.getRegId());
+                preparedStatement.setString(1, property);
+                preparedStatement.setInt(2, regId);
+                preparedStatement.setInt(3, regId);
+                preparedStatement.setInt(4, Integer.parseInt(lastRecord.getRegTenantId()));
+                preparedStatement.setInt(5, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
-                updateCount += updateRegPropertyList.size();
+                while (resultSet.next()) {
+                    regPropertyList
+                            .add(new RegistryProperty(resultSet.getString(KeyRotationConstants.REG_ID),
+                                    resultSet.getString(KeyRotationConstants.REG_NAME),
+                                    resultSet.getString(KeyRotationConstants.REG_VALUE),
+                                    resultSet.getString(KeyRotationConstants.REG_TENANT_ID)));
+                }
             } catch (SQLException e) {
                 connection.rollback();
-                log.error(
-                        "Error while updating registry property: " + property + " in REG_PROPERTY, trying the " +
-                                "chunk row by row again. ", e);
-                retryOnRegPropertyUpdate(updateRegPropertyList, connection, property);
+                throw new KeyRotationException("Error while retrieving registry property: " + property +
+                        " from REG_PROPERTY.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new registry DB.", e);
         }
+        return regPropertyList;
+    }
+
+    /**
+     * To get a reader streaming the registry property data in REG_PROPERTY through a single cursor.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param property          Registry property value.
+     * @return The reader, which should be closed once the table is read.
+     */
+    public StreamingChunkReader<RegistryProperty> getRegPropertyDataStream(KeyRotationConfig keyRotationConfig,
+                                                                          String property) {
+
+        return new StreamingChunkReader<>("REG_PROPERTY",
+                () -> DBConnectionManager.getInstance().openDedicatedNewRegConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewRegDialect(keyRotationConfig),
+                DBConstants.GET_REG_PROPERTY_DATA, preparedStatement -> preparedStatement.setString(1, property),
+                resultSet -> new RegistryProperty(resultSet.getString(KeyRotationConstants.REG_ID),
+                        resultSet.getString(KeyRotationConstants.REG_NAME),
+                        resultSet.getString(KeyRotationConstants.REG_VALUE),
+                        resultSet.getString(KeyRotationConstants.REG_TENANT_ID)), keyRotationConfig);
     }
 
     /**
-     * To retry upon a failure in updating reg property chunk in REG_PROPERTY.
+     * To reEncrypt the registry property value in REG_PROPERTY using the new key.
      *
      * @param updateRegPropertyList The list containing records that should be re-encrypted.
-     * @param connection            Connection with the new identity DB.
+     * @param keyRotationConfig     Configuration data needed to perform the task.
      * @param property              Registry property value.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @throws KeyRotationException Exception thrown while updating data from REG_PROPERTY.
      */
-    private void retryOnRegPropertyUpdate(List<RegistryProperty> updateRegPropertyList, Connection connection,
-                                          String property) throws KeyRotationException {
-
-        RegistryProperty faulty = null;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_REG_PROPERTY_DATA)) {
-            for (RegistryProperty regProperty : updateRegPropertyList) {
-                try {
-                    faulty = regProperty;
+    public void updateRegPropertyDataChunks(List<RegistryProperty> updateRegPropertyList,
+                                            KeyRotationConfig keyRotationConfig, String property)
+            throws KeyRotationException {
+
+        PhaseMetrics metrics =
+                KeyRotationMetrics.getInstance().getPhaseMetrics(DBConstants.REG_PROPERTY_PHASE_PREFIX + property);
+        BisectingBatchExecutor<RegistryProperty> batchExecutor = new BisectingBatchExecutor<>("REG_PROPERTY",
+                DBConstants.UPDATE_REG_PROPERTY_DATA, (preparedStatement, regProperty) -> {
                     preparedStatement.setString(1, regProperty.getRegValue());
                     preparedStatement.setInt(2, Integer.parseInt(regProperty.getRegId()));
                     preparedStatement.setInt(3, Integer.parseInt(regProperty.getRegTenantId()));
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateCount++;
-                } catch (SQLException err) {
-                    connection.rollback();
-                    log.error("Error while updating registry property: " + property + " in REG_PROPERTY of " +
-                            "record with reg id: " + faulty.getRegId() + " reg tenant id: " +
-                            faulty.getRegTenantId() + " ," + err);
-                    failedUpdateCount++;
-                }
-            }
+                }, regProperty -> "property: " + property + " reg id: " + regProperty.getRegId() + " reg tenant id: " +
+                regProperty.getRegTenantId(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewRegConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            batchExecutor.execute(connection, updateRegPropertyList);
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new registry DB.", e);
         }
     }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.apache.log4j.Logger;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL syntax differences of the supported database engines. The queries in {@link DBConstants} are written without
+ * pagination, which the dialect appends, and the dialect of a database is resolved once from its JDBC URL.
+ */
+public enum SQLDialect {
+
+    MYSQL(new String[]{"jdbc:mysql:", "jdbc:mariadb:"}, " LIMIT ?, ?", false, " LIMIT ?", " LIMIT ?, 1",
+            StagedUpdateSyntax.UPDATE_JOIN, true, DBConstants.LENGTH, DBConstants.LENGTH,
+            DBConstants.TABLE_ROW_COUNT_MYSQL),
+    POSTGRESQL(new String[]{"jdbc:postgresql:"}, " LIMIT ? OFFSET ?", true, " LIMIT ?", " LIMIT 1 OFFSET ?",
+            StagedUpdateSyntax.UPDATE_FROM, true, DBConstants.LENGTH, DBConstants.LENGTH,
+            DBConstants.TABLE_ROW_COUNT_POSTGRESQL),
+    MSSQL(new String[]{"jdbc:sqlserver:", "jdbc:jtds:sqlserver:"}, SQLDialect.OFFSET_FETCH_PAGE, false,
+            SQLDialect.OFFSET_FETCH_LIMIT, SQLDialect.OFFSET_FETCH_ROW, StagedUpdateSyntax.UPDATE_FROM_JOIN, true,
+            DBConstants.LENGTH_MSSQL, DBConstants.LENGTH_MSSQL, DBConstants.TABLE_ROW_COUNT_MSSQL),
+    ORACLE(new String[]{"jdbc:oracle:"}, SQLDialect.OFFSET_FETCH_PAGE, false, SQLDialect.OFFSET_FETCH_LIMIT,
+            SQLDialect.OFFSET_FETCH_ROW, StagedUpdateSyntax.MERGE, false, DBConstants.LENGTH,
+            DBConstants.LENGTH_ORACLE_LOB, DBConstants.TABLE_ROW_COUNT_ORACLE),
+    DB2(new String[]{"jdbc:db2:"}, SQLDialect.OFFSET_FETCH_PAGE, false, SQLDialect.OFFSET_FETCH_LIMIT,
+            SQLDialect.OFFSET_FETCH_ROW, StagedUpdateSyntax.MERGE, true, DBConstants.LENGTH, DBConstants.LENGTH,
+            DBConstants.TABLE_ROW_COUNT_DB2),
+    H2(new String[]{"jdbc:h2:"}, SQLDialect.OFFSET_FETCH_PAGE, false, SQLDialect.OFFSET_FETCH_LIMIT,
+            SQLDialect.OFFSET_FETCH_ROW, StagedUpdateSyntax.MERGE, true, DBConstants.LENGTH, DBConstants.LENGTH, null);
+
+    private static final String OFFSET_FETCH_PAGE = " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    private static final String OFFSET_FETCH_LIMIT = " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+    private static final String OFFSET_FETCH_ROW = " OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY";
+    private static final Logger log = Logger.getLogger(SQLDialect.class);
+    private static final Map<String, SQLDialect> dialects = new ConcurrentHashMap<>();
+    private final String[] urlPrefixes;
+    private final String pageClause;
+    private final boolean limitBeforeOffset;
+    private final String limitClause;
+    private final String rowAtOffsetClause;
+    private final StagedUpdateSyntax stagedUpdateSyntax;
+    private final boolean multiRowInsert;
+    private final String lengthFunction;
+    private final String lobLengthFunction;
+    private final String tableRowCountQuery;
+
+    SQLDialect(String[] urlPrefixes, String pageClause, boolean limitBeforeOffset, String limitClause,
+               String rowAtOffsetClause, StagedUpdateSyntax stagedUpdateSyntax, boolean multiRowInsert,
+               String lengthFunction, String lobLengthFunction, String tableRowCountQuery) {
+
+        this.urlPrefixes = urlPrefixes;
+        this.pageClause = pageClause;
+        this.limitBeforeOffset = limitBeforeOffset;
+        this.limitClause = limitClause;
+        this.rowAtOffsetClause = rowAtOffsetClause;
+        this.stagedUpdateSyntax = stagedUpdateSyntax;
+        this.multiRowInsert = multiRowInsert;
+        this.lengthFunction = lengthFunction;
+        this.lobLengthFunction = lobLengthFunction;
+        this.tableRowCountQuery = tableRowCountQuery;
+    }
+
+    /**
+     * Get the dialect of a database from its JDBC URL. The result is cached per URL, and a URL of an unknown engine
+     * falls back to MySQL.
+     *
+     * @param url The JDBC URL of the database.
+     * @return The dialect of the database.
+     */
+    public static SQLDialect forUrl(String url) {
+
+        return dialects.computeIfAbsent(url, SQLDialect::resolve);
+    }
+
+    /**
+     * Get the dialect whose URL prefix matches the given JDBC URL.
+     *
+     * @param url The JDBC URL of the database.
+     * @return The dialect of the database.
+     */
+    private static SQLDialect resolve(String url) {
+
+        String lowerCaseUrl = url.trim().toLowerCase(Locale.ENGLISH);
+        for (SQLDialect dialect : values()) {
+            for (String urlPrefix : dialect.urlPrefixes) {
+                if (lowerCaseUrl.startsWith(urlPrefix)) {
+                    return dialect;
+                }
+            }
+        }
+        log.warn("Could not find the SQL dialect of " + url + ", the MySQL dialect will be used.");
+        return MYSQL;
+    }
+
+    /**
+     * Get the query reading a page of records at an offset. The parameters of the page are set with
+     * {@link #setPageParameters(PreparedStatement, int, long, int)}.
+     *
+     * @param query The query without pagination, which must have an ORDER BY clause.
+     * @return The paged query.
+     */
+    public String getPagedQuery(String query) {
+
+        return query + pageClause;
+    }
+
+    /**
+     * To set the offset and the size of a page, in the order they appear in the paged query.
+     *
+     * @param preparedStatement The paged query.
+     * @param parameterIndex    Index of the first pagination parameter.
+     * @param offset            The number of records skipped.
+     * @param pageSize          Maximum number of records in the page.
+     * @throws SQLException Exception thrown while setting the parameters.
+     */
+    public void setPageParameters(PreparedStatement preparedStatement, int parameterIndex, long offset, int pageSize)
+            throws SQLException {
+
+        if (limitBeforeOffset) {
+            preparedStatement.setInt(parameterIndex, pageSize);
+            preparedStatement.setLong(parameterIndex + 1, offset);
+        } else {
+            preparedStatement.setLong(parameterIndex, offset);
+            preparedStatement.setInt(parameterIndex + 1, pageSize);
+        }
+    }
+
+    /**
+     * Get the query reading the first records, whose maximum number is its last parameter.
+     *
+     * @param query The query without pagination, which must have an ORDER BY clause.
+     * @return The limited query.
+     */
+    public String getLimitedQuery(String query) {
+
+        return query + limitClause;
+    }
+
+    /**
+     * Get the query reading the single record at an offset, which is its last parameter.
+     *
+     * @param query The query without pagination, which must have an ORDER BY clause.
+     * @return The query reading one record.
+     */
+    public String getRowAtOffsetQuery(String query) {
+
+        return query + rowAtOffsetClause;
+    }
+
+    /**
+     * To set the fetch size of a query read through a forward-only cursor. MySQL only streams the rows when the fetch
+     * size is Integer.MIN_VALUE.
+     *
+     * @param preparedStatement The query.
+     * @param fetchSize         The number of rows fetched per round trip.
+     * @throws SQLException Exception thrown while setting the fetch size.
+     */
+    public void setStreamingFetchSize(PreparedStatement preparedStatement, int fetchSize) throws SQLException {
+
+        preparedStatement.setFetchSize(this == MYSQL ? Integer.MIN_VALUE : fetchSize);
+    }
+
+    /**
+     * Get the function returning the length of a column value.
+     *
+     * @param lob Whether the column is a LOB.
+     * @return The function name.
+     */
+    public String getLengthFunction(boolean lob) {
+
+        return lob ? lobLengthFunction : lengthFunction;
+    }
+
+    /**
+     * Get the query reading the number of rows of a table, whose name is its parameter, from the statistics of the
+     * database catalog instead of counting them.
+     *
+     * @return The query, or null if the engine keeps no row count statistics which can be read with a query.
+     */
+    public String getTableRowCountQuery() {
+
+        return tableRowCountQuery;
+    }
+
+    /**
+     * Get the syntax of an update applying the rows of a staging table.
+     *
+     * @return The staged update syntax.
+     */
+    public StagedUpdateSyntax getStagedUpdateSyntax() {
+
+        return stagedUpdateSyntax;
+    }
+
+    /**
+     * Whether an INSERT statement can have more than one row in its VALUES clause.
+     *
+     * @return True if multi-row inserts are supported.
+     */
+    public boolean supportsMultiRowInsert() {
+
+        return multiRowInsert;
+    }
+
+    /**
+     * Syntaxes of an update applying the rows of a staging table to another table.
+     */
+    public enum StagedUpdateSyntax {
+
+        UPDATE_JOIN,
+        UPDATE_FROM,
+        UPDATE_FROM_JOIN,
+        MERGE
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads a table in chunks through a single forward-only, read-only cursor, instead of running a paged
+ * query per chunk. The query is run on the first read and holds a dedicated connection outside the pool until the
+ * reader is closed, so a cursor never takes a pooled connection away from the writers.
+ *
+ * @param <T> Type of the records of the table.
+ */
+public class StreamingChunkReader<T> implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(StreamingChunkReader.class);
+    private final String tableName;
+    private final ConnectionSupplier connectionSupplier;
+    private final SQLDialect dialect;
+    private final String query;
+    private final ParameterBinder parameterBinder;
+    private final RowMapper<T> rowMapper;
+    private final int fetchSize;
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+    private long position;
+    private boolean exhausted;
+
+    /**
+     * StreamingChunkReader class constructor.
+     *
+     * @param tableName          Name of the table used in the logs.
+     * @param connectionSupplier Opens the dedicated connection the cursor is opened on.
+     * @param dialect            SQL dialect of the database.
+     * @param query              The query returning all the records of the table in the key order.
+     * @param parameterBinder    Sets the parameters of the query.
+     * @param rowMapper          Builds a record from the current row.
+     * @param keyRotationConfig  Configuration data needed to perform the task.
+     */
+    StreamingChunkReader(String tableName, ConnectionSupplier connectionSupplier, SQLDialect dialect, String query,
+                         ParameterBinder parameterBinder, RowMapper<T> rowMapper,
+                         KeyRotationConfig keyRotationConfig) {
+
+        this.tableName = tableName;
+        this.connectionSupplier = connectionSupplier;
+        this.dialect = dialect;
+        this.query = query;
+        this.parameterBinder = parameterBinder;
+        this.rowMapper = rowMapper;
+        this.fetchSize = keyRotationConfig.getStreamingFetchSize();
+    }
+
+    /**
+     * StreamingChunkReader class constructor for a query without parameters.
+     *
+     * @param tableName          Name of the table used in the logs.
+     * @param connectionSupplier Opens the dedicated connection the cursor is opened on.
+     * @param dialect            SQL dialect of the database.
+     * @param query              The query returning all the records of the table in the key order.
+     * @param rowMapper          Builds a record from the current row.
+     * @param keyRotationConfig  Configuration data needed to perform the task.
+     */
+    StreamingChunkReader(String tableName, ConnectionSupplier connectionSupplier, SQLDialect dialect, String query,
+                         RowMapper<T> rowMapper, KeyRotationConfig keyRotationConfig) {
+
+        this(tableName, connectionSupplier, dialect, query, preparedStatement -> {
+        }, rowMapper, keyRotationConfig);
+    }
+
+    /**
+     * To read the chunk starting at the given index. The cursor only moves forward, hence the rows before the index
+     * are skipped when the first read of a resumed table starts after the beginning of the table.
+     *
+     * @param startIndex Start index of the chunk.
+     * @param chunkSize  Maximum number of records in the chunk.
+     * @return The chunk, or an empty list if there are no more records.
+     * @throws KeyRotationException Exception thrown while reading the chunk.
+     */
+    public List<T> read(long startIndex, int chunkSize) throws KeyRotationException {
+
+        List<T> chunk = new ArrayList<>();
+        if (exhausted) {
+            return chunk;
+        }
+        try {
+            if (resultSet == null) {
+                open();
+            }
+            while (position < startIndex && resultSet.next()) {
+                position++;
+            }
+            while (chunk.size() < chunkSize && resultSet.next()) {
+                chunk.add(rowMapper.map(resultSet));
+                position++;
+            }
+            if (chunk.size() < chunkSize) {
+                exhausted = true;
+                log.debug("Streamed " + position + " records of " + tableName + ".");
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while streaming records from " + tableName + ".", e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Runs the query with a forward-only, read-only cursor, using the streaming fetch size of the dialect. PostgreSQL
+     * only uses a cursor outside the auto commit mode.
+     *
+     * @throws SQLException Exception thrown while running the query.
+     */
+    private void open() throws SQLException {
+
+        connection = connectionSupplier.get();
+        connection.setAutoCommit(false);
+        preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        dialect.setStreamingFetchSize(preparedStatement, fetchSize);
+        parameterBinder.bind(preparedStatement);
+        resultSet = preparedStatement.executeQuery();
+    }
+
+    /**
+     * To close the cursor along with its dedicated connection.
+     *
+     * @throws KeyRotationException Exception thrown while closing the cursor.
+     */
+    @Override
+    public void close() throws KeyRotationException {
+
+        if (connection == null) {
+            return;
+        }
+        try {
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (preparedStatement != null) {
+                    preparedStatement.close();
+                }
+                connection.commit();
+            } finally {
+                connection.close();
+                connection = null;
+            }
+        } catch (SQLException e) {
+            throw new KeyRotationException("Error while closing the cursor of " + tableName + ".", e);
+        }
+    }
+
+    /**
+     * Supplies a connection.
+     */
+    @FunctionalInterface
+    interface ConnectionSupplier {
+
+        /**
+         * Supplies a connection.
+         *
+         * @return The connection.
+         * @throws SQLException Exception thrown while connecting to the DB.
+         */
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Sets the parameters of the query.
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+
+        /**
+         * Sets the parameters of the query.
+         *
+         * @param preparedStatement The prepared query.
+         * @throws SQLException Exception thrown while setting the parameters.
+         */
+        void bind(PreparedStatement preparedStatement) throws SQLException;
+    }
+
+    /**
+     * Builds a record from a row.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+
+        /**
+         * Builds a record from the current row of the result set.
+         *
+         * @param resultSet The result set.
+         * @return The record.
+         * @throws SQLException Exception thrown while reading the row.
+         */
+        T map(ResultSet resultSet) throws SQLException;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.model.TableEstimate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class holds implementations needed to estimate the number of records and the average size of the encrypted
+ * values of the tables re-encrypted by the tool, without scanning the tables. The number of rows of a table is read
+ * from the statistics of the database catalog, and a bounded sample of the first rows in the key order gives the
+ * share of the rows matching the predicates the re-encryption reads them with and the average size of their values.
+ */
+public class TableEstimateDAO {
+
+    private static final Logger log = Logger.getLogger(TableEstimateDAO.class);
+    private static final TableEstimateDAO instance = new TableEstimateDAO();
+
+    public static TableEstimateDAO getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To estimate the TOTP secrets in IDN_IDENTITY_USER_DATA.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getTOTPSecretEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("IDN_IDENTITY_USER_DATA", "IDN_IDENTITY_USER_DATA",
+                () -> DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                DBConstants.SAMPLE_TOTP_SECRET, false, 2, preparedStatement -> {
+                    preparedStatement.setString(1, DBConstants.SECRET_KEY);
+                    preparedStatement.setString(2, DBConstants.VERIFIED_SECRET_KEY);
+                });
+    }
+
+    /**
+     * To estimate the authorization codes in IDN_OAUTH2_AUTHORIZATION_CODE.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getOAuthCodeEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("IDN_OAUTH2_AUTHORIZATION_CODE", DBConstants.SAMPLE_OAUTH_AUTHORIZATION_CODE, false,
+                keyRotationConfig);
+    }
+
+    /**
+     * To estimate the access and refresh tokens in IDN_OAUTH2_ACCESS_TOKEN.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getOAuthTokenEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("IDN_OAUTH2_ACCESS_TOKEN", DBConstants.SAMPLE_OAUTH_ACCESS_TOKEN, false, keyRotationConfig);
+    }
+
+    /**
+     * To estimate the consumer secrets in IDN_OAUTH_CONSUMER_APPS.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getOAuthSecretEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("IDN_OAUTH_CONSUMER_APPS", DBConstants.SAMPLE_OAUTH_SECRET, false, keyRotationConfig);
+    }
+
+    /**
+     * To estimate the BPS profile passwords in WF_BPS_PROFILE.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getBPSPasswordEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("WF_BPS_PROFILE", DBConstants.SAMPLE_BPS_PASSWORD, false, keyRotationConfig);
+    }
+
+    /**
+     * To estimate the workflow requests in WF_REQUEST.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the table.
+     */
+    public TableEstimate getWFRequestEstimate(KeyRotationConfig keyRotationConfig) {
+
+        return estimate("WF_REQUEST", DBConstants.SAMPLE_WF_REQUEST, true, keyRotationConfig);
+    }
+
+    /**
+     * To estimate the values of a registry property in REG_PROPERTY.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param property          The name of the property.
+     * @return The estimate of the property.
+     */
+    public TableEstimate getRegPropertyDataEstimate(KeyRotationConfig keyRotationConfig, String property) {
+
+        return estimate(DBConstants.REG_PROPERTY_PHASE_PREFIX + property, "REG_PROPERTY",
+                () -> DBConnectionManager.getInstance().getNewRegConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewRegDialect(keyRotationConfig),
+                DBConstants.SAMPLE_REG_PROPERTY_DATA, false, 1,
+                preparedStatement -> preparedStatement.setString(1, property));
+    }
+
+    /**
+     * Estimates a table of the identity DB read without predicates.
+     *
+     * @param tableName         Name of the table, which is also the name of the phase.
+     * @param sampleQuery       The sample query, with the length function left as a format argument.
+     * @param lob               Whether the encrypted column is a binary large object.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimate of the phase.
+     */
+    private TableEstimate estimate(String tableName, String sampleQuery, boolean lob,
+                                   KeyRotationConfig keyRotationConfig) {
+
+        return estimate(tableName, tableName,
+                () -> DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig), sampleQuery, lob, 0,
+                preparedStatement -> {
+                    // The query has no parameters.
+                });
+    }
+
+    /**
+     * Estimates a phase from the row count statistics of its table and a sample of its first rows. The sample query
+     * returns 1 for a row the phase reads and 0 otherwise, followed by the size of each encrypted column. A sample
+     * holding the whole table gives the exact number of records, while a larger table without statistics is reported
+     * as unknown. An estimate that fails is logged and reported as unknown, as it must not stop the re-encryption.
+     *
+     * @param phase              Name of the phase.
+     * @param tableName          Name of the table.
+     * @param connectionSupplier Borrows the connection the queries are run on.
+     * @param dialect            SQL dialect of the database.
+     * @param sampleQuery        The sample query, with the length function left as a format argument.
+     * @param lob                Whether the encrypted column is a binary large object.
+     * @param parameterCount     Number of parameters set by the parameter binder.
+     * @param parameterBinder    Sets the parameters of the sample query.
+     * @return The estimate of the phase.
+     */
+    private TableEstimate estimate(String phase, String tableName,
+                                   StreamingChunkReader.ConnectionSupplier connectionSupplier, SQLDialect dialect,
+                                   String sampleQuery, boolean lob, int parameterCount,
+                                   StreamingChunkReader.ParameterBinder parameterBinder) {
+
+        try (Connection connection = connectionSupplier.get()) {
+            long tableRowCount = getTableRowCount(connection, dialect, tableName);
+            int sampledCount = 0;
+            int matchedCount = 0;
+            double[] valueSizes;
+            int[] valueCounts;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    dialect.getLimitedQuery(String.format(sampleQuery, dialect.getLengthFunction(lob))))) {
+                parameterBinder.bind(preparedStatement);
+                preparedStatement.setInt(parameterCount + 1, DBConstants.ESTIMATE_SAMPLE_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    int columnCount = resultSet.getMetaData().getColumnCount();
+                    valueSizes = new double[columnCount];
+                    valueCounts = new int[columnCount];
+                    while (resultSet.next()) {
+                        sampledCount++;
+                        if (resultSet.getInt(1) == 0) {
+                            continue;
+                        }
+                        matchedCount++;
+                        for (int i = 2; i <= columnCount; i++) {
+                            long valueSize = resultSet.getLong(i);
+                            if (!resultSet.wasNull()) {
+                                valueSizes[i - 1] += valueSize;
+                                valueCounts[i - 1]++;
+                            }
+                        }
+                    }
+                }
+            }
+            long rowCount;
+            if (sampledCount < DBConstants.ESTIMATE_SAMPLE_SIZE) {
+                rowCount = matchedCount;
+            } else if (tableRowCount >= 0) {
+                rowCount = Math.round((double) tableRowCount * matchedCount / sampledCount);
+            } else {
+                log.info("No row count statistics of " + tableName + " to estimate the records of " + phase + ".");
+                return TableEstimate.unknown(phase);
+            }
+            double averageValueSize = 0;
+            for (int i = 1; i < valueSizes.length; i++) {
+                if (valueCounts[i] > 0) {
+                    averageValueSize += valueSizes[i] / valueCounts[i];
+                }
+            }
+            return new TableEstimate(phase, rowCount, averageValueSize);
+        } catch (SQLException e) {
+            log.error("Error while estimating the records of " + phase + ".", e);
+            return TableEstimate.unknown(phase);
+        }
+    }
+
+    /**
+     * Reads the number of rows of a table from the statistics of the database catalog.
+     *
+     * @param connection The connection to the database.
+     * @param dialect    SQL dialect of the database.
+     * @param tableName  Name of the table.
+     * @return The number of rows, or -1 if the database has no statistics of the table.
+     * @throws SQLException Exception thrown while reading the statistics.
+     */
+    private long getTableRowCount(Connection connection, SQLDialect dialect, String tableName) throws SQLException {
+
+        String query = dialect.getTableRowCountQuery();
+        if (query == null) {
+            return -1;
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setString(1, tableName);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                long rowCount = resultSet.getLong(1);
+                // Oracle has no statistics of a table never analyzed, while PostgreSQL and DB2 report -1.
+                return resultSet.wasNull() || rowCount < 0 ? -1 : rowCount;
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.wso2.carbon.identity.keyrotation.dao;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 import org.wso2.carbon.identity.workflow.mgt.dto.WorkflowRequest;
 
@@ -29,7 +31,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -43,8 +44,6 @@ public class WorkFlowDAO {
 
     private static final Logger log = Logger.getLogger(WorkFlowDAO.class);
     private static final WorkFlowDAO instance = new WorkFlowDAO();
-    public static int updateCount = 0;
-    public static int failedUpdateCount = 0;
 
     public WorkFlowDAO() {
 
@@ -59,32 +58,21 @@ public class WorkFlowDAO {
      * To retrieve the list of data in WF_REQUEST as chunks.
      *
      * @param startIndex        The start index of the data chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @return List comprising of the records in the table.
      * @throws KeyRotationException Exception thrown while retrieving data from WF_REQUEST.
      */
-    public List<WorkflowRequest> getWFRequestChunks(int startIndex, KeyRotationConfig keyRotationConfig) throws
-            KeyRotationException {
+    public List<WorkflowRequest> getWFRequestChunks(long startIndex, int chunkSize, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
         List<WorkflowRequest> wfRequestList = new ArrayList<>();
-        String query = DBConstants.GET_WF_REQUEST;
-        int firstIndex = startIndex;
-        int secIndex = keyRotationConfig.getChunkSize();
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        SQLDialect dialect = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig);
+        String query = dialect.getPagedQuery(DBConstants.GET_WF_REQUEST);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            if (connection.getMetaData().getDriverName().contains(DBConstants.POSTGRESQL)) {
-                query = DBConstants.GET_WF_REQUEST_POSTGRE;
-                firstIndex = keyRotationConfig.getChunkSize();
-                secIndex = startIndex;
-            } else if (connection.getMetaData().getDriverName().contains(DBConstants.MSSQL) ||
-                    connection.getMetaData().getDriverName().contains(DBConstants.ORACLE)) {
-                query = DBConstants.GET_WF_REQUEST_OTHER;
-            }
             try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                preparedStatement.setInt(1, firstIndex);
-                preparedStatement.setInt(2, secIndex);
+                dialect.setPageParameters(preparedStatement, 1, startIndex, chunkSize);
                 ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
                 while (resultSet.next()) {
@@ -94,7 +82,7 @@ public class WorkFlowDAO {
                 }
             } catch (SQLException | IOException | ClassNotFoundException e) {
                 connection.rollback();
-                log.error("Error while retrieving requests from WF_REQUEST.", e);
+                throw new KeyRotationException("Error while retrieving requests from WF_REQUEST.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
@@ -103,67 +91,85 @@ public class WorkFlowDAO {
     }
 
     /**
-     * To reEncrypt the requests in WF_REQUEST using the new key.
+     * To retrieve the next chunk of data in WF_REQUEST that follows the given request in the UUID order.
      *
-     * @param updateWfRequestList The list containing records that should be re-encrypted.
-     * @param keyRotationConfig   Configuration data needed to perform the task.
-     * @throws KeyRotationException Exception thrown while updating data from WF_REQUEST.
+     * @param lastRecord        The last request of the previously retrieved chunk.
+     * @param chunkSize         Maximum number of records in the chunk.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return List comprising of the records in the table.
+     * @throws KeyRotationException Exception thrown while retrieving data from WF_REQUEST.
      */
-    public void updateWFRequestChunks(List<WorkflowRequest> updateWfRequestList, KeyRotationConfig keyRotationConfig)
+    public List<WorkflowRequest> getWFRequestChunksAfter(WorkflowRequest lastRecord, int chunkSize,
+                                                         KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        try (Connection connection = DriverManager
-                .getConnection(keyRotationConfig.getNewIdnDBUrl(), keyRotationConfig.getNewIdnUsername(),
-                        keyRotationConfig.getNewIdnPassword())) {
+        List<WorkflowRequest> wfRequestList = new ArrayList<>();
+        String query = DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig)
+                .getLimitedQuery(DBConstants.GET_WF_REQUEST_KEYSET);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
             connection.setAutoCommit(false);
-            try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_WF_REQUEST)) {
-                for (WorkflowRequest wfRequest : updateWfRequestList) {
-                    preparedStatement.setBytes(1, serializeWFRequest(wfRequest));
-                    preparedStatement.setString(2, wfRequest.getUuid());
-                    preparedStatement.addBatch();
-                }
-                preparedStatement.executeBatch();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setString(1, lastRecord.getUuid());
+                preparedStatement.setInt(2, chunkSize);
+                ResultSet resultSet = preparedStatement.executeQuery();
                 connection.commit();
-                updateCount += updateWfRequestList.size();
-            } catch (SQLException | IOException e) {
+                while (resultSet.next()) {
+                    byte[] requestBytes = resultSet.getBytes(DBConstants.REQUEST);
+                    WorkflowRequest wfRequest = deserializeWFRequest(requestBytes);
+                    wfRequestList.add(wfRequest);
+                }
+            } catch (SQLException | IOException | ClassNotFoundException e) {
                 connection.rollback();
-                log.error("Error while updating requests in WF_REQUEST, trying the chunk row by row again. ", e);
-                retryOnRequestUpdate(updateWfRequestList, connection);
+                throw new KeyRotationException("Error while retrieving requests from WF_REQUEST.", e);
             }
         } catch (SQLException e) {
             throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
+        return wfRequestList;
+    }
+
+    /**
+     * To get a reader streaming the requests in WF_REQUEST through a single cursor.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The reader, which should be closed once the table is read.
+     */
+    public StreamingChunkReader<WorkflowRequest> getWFRequestStream(KeyRotationConfig keyRotationConfig) {
+
+        return new StreamingChunkReader<>("WF_REQUEST",
+                () -> DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig),
+                DBConnectionManager.getInstance().getNewIdnDialect(keyRotationConfig),
+                DBConstants.GET_WF_REQUEST,
+                resultSet -> {
+                    try {
+                        return deserializeWFRequest(resultSet.getBytes(DBConstants.REQUEST));
+                    } catch (IOException | ClassNotFoundException e) {
+                        throw new SQLException("Error while deserializing a request of WF_REQUEST.", e);
+                    }
+                }, keyRotationConfig);
     }
 
     /**
-     * To retry upon a failure in updating request chunk in WF_REQUEST.
+     * To reEncrypt the requests in WF_REQUEST using the new key.
      *
      * @param updateWfRequestList The list containing records that should be re-encrypted.
-     * @param connection          Connection with the new identity DB.
-     * @throws KeyRotationException Exception thrown while accessing new identity DB data.
+     * @param keyRotationConfig   Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while updating data from WF_REQUEST.
      */
-    private void retryOnRequestUpdate(List<WorkflowRequest> updateWfRequestList, Connection connection)
+    public void updateWFRequestChunks(List<WorkflowRequest> updateWfRequestList, KeyRotationConfig keyRotationConfig)
             throws KeyRotationException {
 
-        WorkflowRequest faulty = null;
-        try (PreparedStatement preparedStatement = connection.prepareStatement(DBConstants.UPDATE_WF_REQUEST)) {
-            for (WorkflowRequest wfRequest : updateWfRequestList) {
-                try {
-                    faulty = wfRequest;
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("WF_REQUEST");
+        BisectingBatchExecutor<WorkflowRequest> batchExecutor = new BisectingBatchExecutor<>("WF_REQUEST",
+                DBConstants.UPDATE_WF_REQUEST, (preparedStatement, wfRequest) -> {
                     preparedStatement.setBytes(1, serializeWFRequest(wfRequest));
                     preparedStatement.setString(2, wfRequest.getUuid());
-                    preparedStatement.executeUpdate();
-                    connection.commit();
-                    updateCount++;
-                } catch (SQLException | IOException err) {
-                    connection.rollback();
-                    log.error("Error while updating requests in WF_REQUEST of record with uuid: " +
-                            faulty.getUuid() + " ," + err);
-                    failedUpdateCount++;
-                }
-            }
+                }, wfRequest -> "uuid: " + wfRequest.getUuid(), metrics, keyRotationConfig);
+        try (Connection connection = DBConnectionManager.getInstance().getNewIdnConnection(keyRotationConfig)) {
+            connection.setAutoCommit(false);
+            batchExecutor.execute(connection, updateWfRequestList);
         } catch (SQLException e) {
-            throw new KeyRotationException("Error while accessing new identity DB.", e);
+            throw new KeyRotationException("Error while connecting to new identity DB.", e);
         }
     }
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.metrics;
+
+import org.apache.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class holds the metrics of all the re-encryption phases. The metrics of a phase are created on first use and
+ * registered as an MXBean named org.wso2.carbon.identity.keyrotation:type=PhaseMetrics,name=&lt;phase&gt;.
+ */
+public class KeyRotationMetrics {
+
+    private static final Logger log = Logger.getLogger(KeyRotationMetrics.class);
+    private static final KeyRotationMetrics instance = new KeyRotationMetrics();
+    private static final String OBJECT_NAME_PREFIX = "org.wso2.carbon.identity.keyrotation:type=PhaseMetrics,name=";
+    private final ConcurrentMap<String, PhaseMetrics> phaseMetrics = new ConcurrentSkipListMap<>();
+
+    public static KeyRotationMetrics getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To get the metrics of a phase, creating them if the phase has no metrics yet.
+     *
+     * @param phase Name of the phase.
+     * @return The metrics of the phase.
+     */
+    public PhaseMetrics getPhaseMetrics(String phase) {
+
+        PhaseMetrics metrics = phaseMetrics.get(phase);
+        if (metrics != null) {
+            return metrics;
+        }
+        return phaseMetrics.computeIfAbsent(phase, this::createPhaseMetrics);
+    }
+
+    /**
+     * To get the metrics of all the phases, ordered by the phase name.
+     *
+     * @return The metrics of the phases.
+     */
+    public List<PhaseMetrics> getAllPhaseMetrics() {
+
+        return new ArrayList<>(phaseMetrics.values());
+    }
+
+    /**
+     * Creates the metrics of a phase and registers them with the platform MBean server.
+     *
+     * @param phase Name of the phase.
+     * @return The metrics of the phase.
+     */
+    private PhaseMetrics createPhaseMetrics(String phase) {
+
+        PhaseMetrics metrics = new PhaseMetrics(phase);
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(phase));
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Error while registering the metrics of " + phase + " with JMX.", e);
+        }
+        return metrics;
+    }
+}
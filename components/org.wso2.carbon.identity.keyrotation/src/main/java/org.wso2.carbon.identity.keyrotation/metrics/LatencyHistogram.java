@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts the latencies of an operation in fixed buckets, so that it can be updated from many threads
+ * without locking and exported as a Prometheus histogram.
+ */
+public class LatencyHistogram {
+
+    // Upper bounds of the buckets in seconds, from 100 microseconds to 10 seconds.
+    private static final double[] BUCKET_BOUNDS = {0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05,
+            0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BUCKET_BOUND_NANOS = new long[BUCKET_BOUNDS.length];
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_BOUND_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    public LatencyHistogram() {
+
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * To record a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+
+        int bucket = 0;
+        while (bucket < BUCKET_BOUND_NANOS.length && nanos > BUCKET_BOUND_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Get for the upper bounds of the buckets, without the last unbounded bucket.
+     *
+     * @return Upper bounds in seconds.
+     */
+    public static double[] getBucketBounds() {
+
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Get for the number of latencies up to each bucket bound, the last one being the number of all latencies.
+     *
+     * @return Cumulative bucket counts.
+     */
+    public long[] getCumulativeCounts() {
+
+        long[] cumulativeCounts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            cumulativeCounts[i] = total;
+        }
+        return cumulativeCounts;
+    }
+
+    /**
+     * Get for the number of recorded latencies.
+     *
+     * @return Latency count.
+     */
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    /**
+     * Get for the sum of the recorded latencies.
+     *
+     * @return Sum in nanoseconds.
+     */
+    public long getSumNanos() {
+
+        return sumNanos.sum();
+    }
+
+    /**
+     * Get for the mean of the recorded latencies.
+     *
+     * @return Mean in milliseconds, or 0 if nothing is recorded.
+     */
+    public double getMeanMillis() {
+
+        long latencyCount = getCount();
+        return latencyCount == 0 ? 0 : (double) getSumNanos() / latencyCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
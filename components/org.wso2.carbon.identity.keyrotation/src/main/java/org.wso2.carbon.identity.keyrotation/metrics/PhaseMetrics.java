@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds the record counters and the operation latencies of a re-encryption phase, which is a table, a
+ * REG_PROPERTY pass, a synced temp table or a kind of configuration file. All the methods are thread safe.
+ */
+public class PhaseMetrics implements PhaseMetricsMXBean {
+
+    private final String phase;
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private volatile long estimatedCount = -1;
+    private volatile long startTime;
+    private volatile long startScannedCount;
+
+    /**
+     * PhaseMetrics class constructor.
+     *
+     * @param phase Name of the phase.
+     */
+    PhaseMetrics(String phase) {
+
+        this.phase = phase;
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Get for the phase name.
+     *
+     * @return Phase name.
+     */
+    public String getPhase() {
+
+        return phase;
+    }
+
+    /**
+     * To increment a counter by one.
+     *
+     * @param counter The counter.
+     */
+    public void increment(Counter counter) {
+
+        counters.get(counter).increment();
+    }
+
+    /**
+     * To increment a counter by the given amount.
+     *
+     * @param counter The counter.
+     * @param amount  The amount.
+     */
+    public void add(Counter counter, long amount) {
+
+        counters.get(counter).add(amount);
+    }
+
+    /**
+     * Get for the value of a counter.
+     *
+     * @param counter The counter.
+     * @return Counter value.
+     */
+    public long getCount(Counter counter) {
+
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Set the value of a counter, e.g. to the value recorded by a previous run. Updates made at the same time may be
+     * lost, hence it should be called before the phase starts.
+     *
+     * @param counter The counter.
+     * @param value   Counter value.
+     */
+    public void setCount(Counter counter, long value) {
+
+        LongAdder adder = counters.get(counter);
+        adder.reset();
+        adder.add(value);
+    }
+
+    /**
+     * To record the latency of an operation.
+     *
+     * @param operation The operation.
+     * @param nanos     The latency in nanoseconds.
+     */
+    public void recordLatency(Operation operation, long nanos) {
+
+        latencies.get(operation).record(nanos);
+    }
+
+    /**
+     * Get for the latency histogram of an operation.
+     *
+     * @param operation The operation.
+     * @return Latency histogram.
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+
+        return latencies.get(operation);
+    }
+
+    /**
+     * To mark the start of the phase, after its counters were restored, so that the scan rate only counts the records
+     * read by this run.
+     */
+    public void markStarted() {
+
+        startScannedCount = getCount(Counter.SCANNED);
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * To check whether the phase has started.
+     *
+     * @return True if the phase has started.
+     */
+    public boolean isStarted() {
+
+        return startTime != 0;
+    }
+
+    /**
+     * Get for the number of records read since the phase started, excluding the records restored from the previous
+     * run.
+     *
+     * @return Number of records read by this run.
+     */
+    public long getRunScannedCount() {
+
+        return isStarted() ? getCount(Counter.SCANNED) - startScannedCount : 0;
+    }
+
+    /**
+     * Get for the number of records read per second since the phase started.
+     *
+     * @return Scan rate in records per second, or 0 if the phase has not started.
+     */
+    public double getScanRate() {
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        if (!isStarted() || elapsedNanos <= 0) {
+            return 0;
+        }
+        return getRunScannedCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getEstimatedCount() {
+
+        return estimatedCount;
+    }
+
+    /**
+     * Set for the number of records the phase is estimated to read.
+     *
+     * @param estimatedCount Estimated number of records, or -1 if it is unknown.
+     */
+    public void setEstimatedCount(long estimatedCount) {
+
+        this.estimatedCount = estimatedCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getCounts() {
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            counts.put(counter.getName(), getCount(counter));
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getOperationCounts() {
+
+        Map<String, Long> operationCounts = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            operationCounts.put(operation.getName(), getLatency(operation).getCount());
+        }
+        return operationCounts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Double> getMeanLatencyMillis() {
+
+        Map<String, Double> meanLatencies = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            meanLatencies.put(operation.getName(), getLatency(operation).getMeanMillis());
+        }
+        return meanLatencies;
+    }
+
+    /**
+     * Record counters of a phase.
+     */
+    public enum Counter {
+
+        UPDATED,
+        FAILED_UPDATE,
+        INSERTED,
+        FAILED_INSERT,
+        RETRIED_CHUNK,
+        SCANNED,
+        COALESCED;
+
+        /**
+         * Get for the name used in the exported metrics.
+         *
+         * @return Counter name.
+         */
+        public String getName() {
+
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Timed operations of a phase.
+     */
+    public enum Operation {
+
+        FETCH,
+        DECRYPT,
+        ENCRYPT,
+        BATCH_COMMIT,
+        RETRY;
+
+        /**
+         * Get for the name used in the exported metrics.
+         *
+         * @return Operation name.
+         */
+        public String getName() {
+
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a re-encryption phase.
+ */
+public interface PhaseMetricsMXBean {
+
+    /**
+     * Get for the record counters of the phase.
+     *
+     * @return Counter values by counter name.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * Get for the number of records the phase was estimated to read before it started.
+     *
+     * @return Estimated number of records, or -1 if it is unknown.
+     */
+    long getEstimatedCount();
+
+    /**
+     * Get for the number of timed operations of the phase.
+     *
+     * @return Operation counts by operation name.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Get for the mean latency of the timed operations of the phase.
+     *
+     * @return Mean latencies in milliseconds by operation name.
+     */
+    Map<String, Double> getMeanLatencyMillis();
+}
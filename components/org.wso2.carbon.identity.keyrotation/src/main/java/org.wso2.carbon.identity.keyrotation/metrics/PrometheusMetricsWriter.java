@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.metrics;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class periodically writes the metrics of all the phases to a file in the Prometheus text format, which can be
+ * watched while the tool runs or collected by the node exporter textfile collector.
+ */
+public class PrometheusMetricsWriter {
+
+    private static final Logger log = Logger.getLogger(PrometheusMetricsWriter.class);
+    private static final PrometheusMetricsWriter instance = new PrometheusMetricsWriter();
+    private static final String RECORDS_METRIC = "keyrotation_records_total";
+    private static final String ESTIMATED_METRIC = "keyrotation_estimated_records";
+    private static final String DURATION_METRIC = "keyrotation_operation_duration_seconds";
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private ScheduledExecutorService executorService;
+    private Path metricsPath;
+
+    public static PrometheusMetricsWriter getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To start writing the metrics file periodically.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public synchronized void start(KeyRotationConfig keyRotationConfig) {
+
+        if (executorService != null) {
+            return;
+        }
+        metricsPath = Paths.get(keyRotationConfig.getMetricsFile());
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = keyRotationConfig.getMetricsWriteInterval();
+        executorService.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.SECONDS);
+        log.info("Writing the key rotation metrics to " + metricsPath.toAbsolutePath() + " every " + interval +
+                " seconds.");
+    }
+
+    /**
+     * To stop writing the metrics file, after writing the final values.
+     */
+    public synchronized void stop() {
+
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdownNow();
+        executorService = null;
+        write();
+    }
+
+    /**
+     * To write the metrics of all the phases. The file is replaced atomically, so that a reader never sees a partly
+     * written file.
+     */
+    private synchronized void write() {
+
+        Path tempPath = metricsPath.resolveSibling(metricsPath.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                writer.write(format());
+            }
+            Files.move(tempPath, metricsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error while writing the metrics file " + metricsPath + ".", e);
+        }
+    }
+
+    /**
+     * Formats the metrics of all the phases in the Prometheus text format.
+     *
+     * @return The formatted metrics.
+     */
+    private String format() {
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("# HELP ").append(RECORDS_METRIC).append(" Records and chunks processed by the tool.\n");
+        builder.append("# TYPE ").append(RECORDS_METRIC).append(" counter\n");
+        for (PhaseMetrics metrics : KeyRotationMetrics.getInstance().getAllPhaseMetrics()) {
+            for (PhaseMetrics.Counter counter : PhaseMetrics.Counter.values()) {
+                builder.append(RECORDS_METRIC).append("{phase=\"").append(escape(metrics.getPhase()))
+                        .append("\",counter=\"").append(counter.getName()).append("\"} ")
+                        .append(metrics.getCount(counter)).append('\n');
+            }
+        }
+        builder.append("# HELP ").append(ESTIMATED_METRIC).append(" Records each phase was estimated to read.\n");
+        builder.append("# TYPE ").append(ESTIMATED_METRIC).append(" gauge\n");
+        for (PhaseMetrics metrics : KeyRotationMetrics.getInstance().getAllPhaseMetrics()) {
+            if (metrics.getEstimatedCount() >= 0) {
+                builder.append(ESTIMATED_METRIC).append("{phase=\"").append(escape(metrics.getPhase())).append("\"} ")
+                        .append(metrics.getEstimatedCount()).append('\n');
+            }
+        }
+        builder.append("# HELP ").append(DURATION_METRIC).append(" Latency of the key rotation operations.\n");
+        builder.append("# TYPE ").append(DURATION_METRIC).append(" histogram\n");
+        double[] bucketBounds = LatencyHistogram.getBucketBounds();
+        String[] bucketLabels = new String[bucketBounds.length + 1];
+        for (int i = 0; i < bucketBounds.length; i++) {
+            bucketLabels[i] = BigDecimal.valueOf(bucketBounds[i]).stripTrailingZeros().toPlainString();
+        }
+        bucketLabels[bucketBounds.length] = "+Inf";
+        for (PhaseMetrics metrics : KeyRotationMetrics.getInstance().getAllPhaseMetrics()) {
+            for (PhaseMetrics.Operation operation : PhaseMetrics.Operation.values()) {
+                LatencyHistogram latency = metrics.getLatency(operation);
+                long[] cumulativeCounts = latency.getCumulativeCounts();
+                String labels = "phase=\"" + escape(metrics.getPhase()) + "\",operation=\"" + operation.getName() +
+                        "\"";
+                for (int i = 0; i < cumulativeCounts.length; i++) {
+                    builder.append(DURATION_METRIC).append("_bucket{").append(labels).append(",le=\"")
+                            .append(bucketLabels[i]).append("\"} ").append(cumulativeCounts[i]).append('\n');
+                }
+                builder.append(DURATION_METRIC).append("_sum{").append(labels).append("} ")
+                        .append(latency.getSumNanos() / NANOS_PER_SECOND).append('\n');
+                builder.append(DURATION_METRIC).append("_count{").append(labels).append("} ")
+                        .append(cumulativeCounts[cumulativeCounts.length - 1]).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Escapes a label value of the Prometheus text format.
+     *
+     * @param value The label value.
+     * @return The escaped label value.
+     */
+    private static String escape(String value) {
+
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -22,14 +22,36 @@ import org.apache.axiom.om.util.Base64;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 
 /**
- * This class holds the cipher, transformation and initialization vector metadata.
+ * This class holds the key identifier, cipher, transformation and initialization vector metadata.
  */
 public class CipherMetaData {
 
+    // Declared first, so that the key identifier is serialized at the start of the envelope.
+    private String kid;
     private String c;
     private String t = KeyRotationConstants.TRANSFORMATION;
     private String iv;
 
+    /**
+     * Get for the key identifier.
+     *
+     * @return Identifier of the key the ciphertext was encrypted with, or null if the envelope was not tagged.
+     */
+    public String getKeyId() {
+
+        return kid;
+    }
+
+    /**
+     * Set for the key identifier.
+     *
+     * @param keyId Identifier of the key the ciphertext was encrypted with.
+     */
+    public void setKeyId(String keyId) {
+
+        this.kid = keyId;
+    }
+
     /**
      * Get for the transformation.
      *
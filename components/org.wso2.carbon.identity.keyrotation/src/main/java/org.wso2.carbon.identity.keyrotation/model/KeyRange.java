@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.model;
+
+/**
+ * This class holds a range of primary key values of a table that is re-encrypted independently of the other ranges.
+ * The range excludes the lower key and includes the upper key. A null key leaves that end of the range open.
+ */
+public class KeyRange {
+
+    private final String lowerKey;
+    private final String upperKey;
+    private String lastKey;
+
+    /**
+     * KeyRange class constructor.
+     *
+     * @param lowerKey Key right before the range, or null if the range starts at the first key of the table.
+     * @param upperKey Last key of the range, or null if the range ends at the last key of the table.
+     */
+    public KeyRange(String lowerKey, String upperKey) {
+
+        this.lowerKey = lowerKey;
+        this.upperKey = upperKey;
+    }
+
+    /**
+     * Get for the lower key.
+     *
+     * @return Lower key.
+     */
+    public String getLowerKey() {
+
+        return lowerKey;
+    }
+
+    /**
+     * Get for the upper key.
+     *
+     * @return Upper key.
+     */
+    public String getUpperKey() {
+
+        return upperKey;
+    }
+
+    /**
+     * Get for the last key processed within the range.
+     *
+     * @return Last processed key, or null if nothing has been processed yet.
+     */
+    public String getLastKey() {
+
+        return lastKey;
+    }
+
+    /**
+     * Set for the last key processed within the range.
+     *
+     * @param lastKey Last processed key.
+     */
+    public void setLastKey(String lastKey) {
+
+        this.lastKey = lastKey;
+    }
+
+    /**
+     * Get for the key the next chunk of the range should start after.
+     *
+     * @return Last processed key if any, otherwise the lower key.
+     */
+    public String getResumeKey() {
+
+        return lastKey != null ? lastKey : lowerKey;
+    }
+
+    @Override
+    public String toString() {
+
+        return "(" + lowerKey + ", " + upperKey + "]";
+    }
+}
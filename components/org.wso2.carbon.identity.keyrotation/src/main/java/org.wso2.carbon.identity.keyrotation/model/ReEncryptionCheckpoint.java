@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.model;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * This class holds the last committed position and the counters of a re-encryption phase, so that an interrupted
+ * run can be resumed from there. A phase is a table, a key range of a table or a REG_PROPERTY pass.
+ */
+public class ReEncryptionCheckpoint {
+
+    private String phase;
+    private long offset;
+    private List<String> lastKey;
+    private String lowerKey;
+    private String upperKey;
+    private long updateCount;
+    private long failedUpdateCount;
+    private boolean completed;
+    private transient LongSupplier updateCounter;
+    private transient LongSupplier failedUpdateCounter;
+
+    public ReEncryptionCheckpoint() {
+
+    }
+
+    /**
+     * ReEncryptionCheckpoint class constructor.
+     *
+     * @param phase Name of the phase.
+     */
+    public ReEncryptionCheckpoint(String phase) {
+
+        this.phase = phase;
+    }
+
+    /**
+     * Get for the phase name.
+     *
+     * @return Phase name.
+     */
+    public String getPhase() {
+
+        return phase;
+    }
+
+    /**
+     * Get for the start index of the first chunk that is not committed yet.
+     *
+     * @return Offset of the next chunk.
+     */
+    public long getOffset() {
+
+        return offset;
+    }
+
+    /**
+     * Set for the start index of the first chunk that is not committed yet.
+     *
+     * @param offset Offset of the next chunk.
+     */
+    public void setOffset(long offset) {
+
+        this.offset = offset;
+    }
+
+    /**
+     * Get for the primary key values of the last committed record.
+     *
+     * @return Key values of the last committed record, or null if nothing has been committed yet.
+     */
+    public List<String> getLastKey() {
+
+        return lastKey;
+    }
+
+    /**
+     * Set for the primary key values of the last committed record.
+     *
+     * @param lastKey Key values of the last committed record.
+     */
+    public void setLastKey(List<String> lastKey) {
+
+        this.lastKey = lastKey;
+    }
+
+    /**
+     * Get for the lower key of the key range of the phase.
+     *
+     * @return Lower key, or null if the range starts at the first key of the table.
+     */
+    public String getLowerKey() {
+
+        return lowerKey;
+    }
+
+    /**
+     * Set for the lower key of the key range of the phase.
+     *
+     * @param lowerKey Lower key.
+     */
+    public void setLowerKey(String lowerKey) {
+
+        this.lowerKey = lowerKey;
+    }
+
+    /**
+     * Get for the upper key of the key range of the phase.
+     *
+     * @return Upper key, or null if the range ends at the last key of the table.
+     */
+    public String getUpperKey() {
+
+        return upperKey;
+    }
+
+    /**
+     * Set for the upper key of the key range of the phase.
+     *
+     * @param upperKey Upper key.
+     */
+    public void setUpperKey(String upperKey) {
+
+        this.upperKey = upperKey;
+    }
+
+    /**
+     * Get for the number of records updated until the last commit.
+     *
+     * @return Update count.
+     */
+    public long getUpdateCount() {
+
+        return updateCount;
+    }
+
+    /**
+     * Get for the number of records failed to update until the last commit.
+     *
+     * @return Failed update count.
+     */
+    public long getFailedUpdateCount() {
+
+        return failedUpdateCount;
+    }
+
+    /**
+     * Get whether all the records of the phase are committed.
+     *
+     * @return True if the phase is completed.
+     */
+    public boolean isCompleted() {
+
+        return completed;
+    }
+
+    /**
+     * Set whether all the records of the phase are committed.
+     *
+     * @param completed True if the phase is completed.
+     */
+    public void setCompleted(boolean completed) {
+
+        this.completed = completed;
+    }
+
+    /**
+     * Set the counters read whenever the checkpoint is recorded, or null to stop reading them.
+     *
+     * @param updateCounter       Counter of the updated records.
+     * @param failedUpdateCounter Counter of the records failed to update.
+     */
+    public void setCounters(LongSupplier updateCounter, LongSupplier failedUpdateCounter) {
+
+        this.updateCounter = updateCounter;
+        this.failedUpdateCounter = failedUpdateCounter;
+    }
+
+    /**
+     * Returns the current value of the counter of the records failed to update.
+     *
+     * @return Failed update count, or the recorded count if there is no counter.
+     */
+    public long getCurrentFailedUpdateCount() {
+
+        return failedUpdateCounter == null ? failedUpdateCount : failedUpdateCounter.getAsLong();
+    }
+
+    /**
+     * Copies the current values of the counters, if any, into the checkpoint.
+     */
+    public void readCounters() {
+
+        if (updateCounter != null) {
+            updateCount = updateCounter.getAsLong();
+        }
+        if (failedUpdateCounter != null) {
+            failedUpdateCount = failedUpdateCounter.getAsLong();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.model;
+
+/**
+ * This class holds the estimated size of a re-encryption phase, which is the number of records to be read and the
+ * average size of their encrypted values, as measured before the re-encryption starts.
+ */
+public class TableEstimate {
+
+    private static final long UNKNOWN = -1;
+    private final String phase;
+    private final long rowCount;
+    private final double averageValueSize;
+
+    /**
+     * TableEstimate class constructor.
+     *
+     * @param phase            Name of the phase.
+     * @param rowCount         Number of records to be read.
+     * @param averageValueSize Average size of the encrypted values of a record in bytes.
+     */
+    public TableEstimate(String phase, long rowCount, double averageValueSize) {
+
+        this.phase = phase;
+        this.rowCount = rowCount;
+        this.averageValueSize = averageValueSize;
+    }
+
+    /**
+     * Builds the estimate of a phase which could not be measured.
+     *
+     * @param phase Name of the phase.
+     * @return The unknown estimate.
+     */
+    public static TableEstimate unknown(String phase) {
+
+        return new TableEstimate(phase, UNKNOWN, 0);
+    }
+
+    /**
+     * Get for the phase name.
+     *
+     * @return Phase name.
+     */
+    public String getPhase() {
+
+        return phase;
+    }
+
+    /**
+     * Get for the number of records to be read.
+     *
+     * @return Number of records, or -1 if it could not be measured.
+     */
+    public long getRowCount() {
+
+        return rowCount;
+    }
+
+    /**
+     * Get for the average size of the encrypted values of a record.
+     *
+     * @return Average value size in bytes.
+     */
+    public double getAverageValueSize() {
+
+        return averageValueSize;
+    }
+
+    /**
+     * Get for the estimated size of all the encrypted values of the phase.
+     *
+     * @return Estimated size in bytes.
+     */
+    public long getEstimatedBytes() {
+
+        return isKnown() ? Math.round(rowCount * averageValueSize) : 0;
+    }
+
+    /**
+     * To check whether the phase could be measured.
+     *
+     * @return True if the number of records is known.
+     */
+    public boolean isKnown() {
+
+        return rowCount != UNKNOWN;
+    }
+}
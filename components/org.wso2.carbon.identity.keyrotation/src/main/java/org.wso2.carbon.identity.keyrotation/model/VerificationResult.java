@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds the outcome counts of the verification of a re-encryption phase. The partitions of a table are
+ * scanned at the same time, hence the counts are updated concurrently.
+ */
+public class VerificationResult {
+
+    private final String phase;
+    private final Map<Outcome, LongAdder> counts = new EnumMap<>(Outcome.class);
+    private volatile long elapsedMillis;
+
+    /**
+     * VerificationResult class constructor.
+     *
+     * @param phase Name of the phase.
+     */
+    public VerificationResult(String phase) {
+
+        this.phase = phase;
+        for (Outcome outcome : Outcome.values()) {
+            counts.put(outcome, new LongAdder());
+        }
+    }
+
+    /**
+     * Get for the phase name.
+     *
+     * @return Name of the phase.
+     */
+    public String getPhase() {
+
+        return phase;
+    }
+
+    /**
+     * To count a verified record.
+     *
+     * @param outcome Outcome of the record.
+     */
+    public void record(Outcome outcome) {
+
+        counts.get(outcome).increment();
+    }
+
+    /**
+     * Get for the number of records with the given outcome.
+     *
+     * @param outcome The outcome.
+     * @return Number of records.
+     */
+    public long getCount(Outcome outcome) {
+
+        return counts.get(outcome).sum();
+    }
+
+    /**
+     * Get for the number of verified records.
+     *
+     * @return Number of records.
+     */
+    public long getTotalCount() {
+
+        long total = 0;
+        for (LongAdder count : counts.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Whether a record is still under the old key or could not be decrypted with either key.
+     *
+     * @return True if the phase failed the verification.
+     */
+    public boolean hasFailures() {
+
+        return getCount(Outcome.OLD_KEY) > 0 || getCount(Outcome.UNDECRYPTABLE) > 0;
+    }
+
+    /**
+     * Get for the time taken to scan the phase.
+     *
+     * @return Elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+
+        return elapsedMillis;
+    }
+
+    /**
+     * Set for the time taken to scan the phase.
+     *
+     * @param elapsedMillis Elapsed time in milliseconds.
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Outcomes of a verified record, in the order of their severity. A record with more than one encrypted value gets
+     * the most severe outcome of its values.
+     */
+    public enum Outcome {
+
+        OK,
+        PLAINTEXT,
+        OLD_KEY,
+        UNDECRYPTABLE
+    }
+}
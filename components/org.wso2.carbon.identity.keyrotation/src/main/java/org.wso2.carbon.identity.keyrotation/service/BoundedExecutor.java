@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class bounds the number of tasks of an executor starting a thread per task, such as the virtual thread
+ * executor, which run at the same time. Each task waits on its own thread for a permit, so that submitting never
+ * blocks the caller.
+ */
+class BoundedExecutor extends AbstractExecutorService {
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private volatile boolean stopped;
+
+    /**
+     * BoundedExecutor class constructor.
+     *
+     * @param executorService The executor starting a thread per task.
+     * @param parallelism     Maximum number of tasks run at the same time.
+     */
+    BoundedExecutor(ExecutorService executorService, int parallelism) {
+
+        this.executorService = executorService;
+        this.permits = new Semaphore(Math.max(1, parallelism), true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+
+        executorService.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // Stopped before the task started, hence a waiting caller sees it cancelled.
+                cancel(command);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (stopped) {
+                // The permit of an interrupted task can be taken before this thread is interrupted as well.
+                permits.release();
+                cancel(command);
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Cancels a task which did not start, so that a caller waiting for it sees it cancelled.
+     *
+     * @param command The task.
+     */
+    private void cancel(Runnable command) {
+
+        if (command instanceof Future) {
+            ((Future<?>) command).cancel(false);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+
+        executorService.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+
+        stopped = true;
+        return executorService.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+
+        return executorService.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+
+        return executorService.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        return executorService.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.model.ReEncryptionCheckpoint;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationServiceUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class records the progress of the DB re-encryption phases in a local file after every committed chunk, so that
+ * an interrupted run can be resumed from the last committed chunk of each phase. The checkpoints are guarded by a lock
+ * instead of a monitor, as a virtual thread holding a monitor while it waits pins its carrier thread on Java 21. The
+ * lock is only held while the checkpoints are serialized, while the file is written under a separate lock. The writes
+ * are coalesced, as a writer always writes the latest serialized journal, hence the phases committing while the file
+ * is written are persisted together by the next write, and a commit which finds its journal already written by
+ * another phase returns without writing the file.
+ */
+public class CheckpointJournal {
+
+    private static final Logger log = Logger.getLogger(CheckpointJournal.class);
+    private static final CheckpointJournal instance = new CheckpointJournal();
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    private static final Type CHECKPOINTS_TYPE = new TypeToken<LinkedHashMap<String, ReEncryptionCheckpoint>>() {
+    }.getType();
+    private final Map<String, ReEncryptionCheckpoint> checkpoints = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Path journalPath;
+    // The latest serialized journal and its version, guarded by the lock.
+    private String latestJournal;
+    private long latestVersion;
+    // Version of the journal last written to the file, guarded by the write lock.
+    private long writtenVersion;
+
+    public static CheckpointJournal getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To open the journal. A new run starts with an empty journal, while a resumed run loads the existing one.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param resume            Whether to continue from the checkpoints of the previous run.
+     * @throws KeyRotationException Exception thrown while reading or removing the journal file.
+     */
+    public void open(KeyRotationConfig keyRotationConfig, boolean resume) throws KeyRotationException {
+
+        lock.lock();
+        try {
+            journalPath = Paths.get(keyRotationConfig.getCheckpointFile());
+            checkpoints.clear();
+            try {
+                if (!resume) {
+                    Files.deleteIfExists(journalPath);
+                    return;
+                }
+                if (!Files.isRegularFile(journalPath)) {
+                    throw new KeyRotationException("No checkpoint file found at " + journalPath.toAbsolutePath() +
+                            " to resume from.");
+                }
+                try (Reader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+                    Map<String, ReEncryptionCheckpoint> loadedCheckpoints = gson.fromJson(reader, CHECKPOINTS_TYPE);
+                    if (loadedCheckpoints != null) {
+                        checkpoints.putAll(loadedCheckpoints);
+                    }
+                }
+                log.info("Resuming from the " + checkpoints.size() + " checkpoints in " + journalPath.toAbsolutePath());
+            } catch (IOException | JsonParseException e) {
+                throw new KeyRotationException("Error while opening the checkpoint file " + journalPath + ".", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To get the checkpoint of a phase, creating an empty one if the phase has not started yet.
+     *
+     * @param phase Name of the phase.
+     * @return The checkpoint of the phase.
+     */
+    public ReEncryptionCheckpoint getCheckpoint(String phase) {
+
+        lock.lock();
+        try {
+            return checkpoints.computeIfAbsent(phase, ReEncryptionCheckpoint::new);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To get the checkpoints of the phases whose names start with the given prefix, in the order they were created.
+     *
+     * @param phasePrefix Prefix of the phase names.
+     * @return The matching checkpoints.
+     */
+    public List<ReEncryptionCheckpoint> getCheckpoints(String phasePrefix) {
+
+        lock.lock();
+        try {
+            List<ReEncryptionCheckpoint> matchingCheckpoints = new ArrayList<>();
+            for (Map.Entry<String, ReEncryptionCheckpoint> checkpoint : checkpoints.entrySet()) {
+                if (checkpoint.getKey().startsWith(phasePrefix)) {
+                    matchingCheckpoints.add(checkpoint.getValue());
+                }
+            }
+            return matchingCheckpoints;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To record the position of a phase after a chunk is committed.
+     *
+     * @param checkpoint The checkpoint of the phase.
+     * @param offset     Start index of the next chunk.
+     * @param lastKey    Key values of the last record of the committed chunk.
+     * @throws KeyRotationException Exception thrown while writing the journal file.
+     */
+    public void commit(ReEncryptionCheckpoint checkpoint, long offset, List<String> lastKey)
+            throws KeyRotationException {
+
+        long version;
+        lock.lock();
+        try {
+            checkpoint.setOffset(offset);
+            checkpoint.setLastKey(lastKey);
+            version = serialize();
+        } finally {
+            lock.unlock();
+        }
+        write(version);
+    }
+
+    /**
+     * To record that all the records of a phase are committed. The counters of the phase are no longer read.
+     *
+     * @param checkpoint The checkpoint of the phase.
+     * @throws KeyRotationException Exception thrown while writing the journal file.
+     */
+    public void complete(ReEncryptionCheckpoint checkpoint) throws KeyRotationException {
+
+        long version;
+        lock.lock();
+        try {
+            checkpoint.setCompleted(true);
+            version = serialize();
+            checkpoint.setCounters(null, null);
+        } finally {
+            lock.unlock();
+        }
+        write(version);
+    }
+
+    /**
+     * To write all the checkpoints to the journal file. The file is replaced atomically, so that a crash leaves
+     * either the previous or the new journal behind.
+     *
+     * @throws KeyRotationException Exception thrown while writing the journal file.
+     */
+    public void save() throws KeyRotationException {
+
+        long version;
+        lock.lock();
+        try {
+            version = serialize();
+        } finally {
+            lock.unlock();
+        }
+        write(version);
+    }
+
+    /**
+     * To serialize all the checkpoints with their current counters as the latest journal. Called with the lock held.
+     *
+     * @return Version of the serialized journal.
+     */
+    private long serialize() {
+
+        for (ReEncryptionCheckpoint checkpoint : checkpoints.values()) {
+            checkpoint.readCounters();
+        }
+        latestJournal = gson.toJson(checkpoints, CHECKPOINTS_TYPE);
+        return ++latestVersion;
+    }
+
+    /**
+     * To make sure that the journal of the given version, or a later one, is written to the journal file. The latest
+     * journal is written, so that the commits waiting for the write lock find their journal already written.
+     *
+     * @param version Version of the journal which should be written.
+     * @throws KeyRotationException Exception thrown while writing the journal file.
+     */
+    private void write(long version) throws KeyRotationException {
+
+        writeLock.lock();
+        try {
+            if (writtenVersion >= version) {
+                return;
+            }
+            Path path;
+            String journal;
+            long journalVersion;
+            lock.lock();
+            try {
+                path = journalPath;
+                journal = latestJournal;
+                journalVersion = latestVersion;
+            } finally {
+                lock.unlock();
+            }
+            if (path == null) {
+                return;
+            }
+            try {
+                KeyRotationServiceUtils.writeFileAtomically(path, journal);
+            } catch (IOException e) {
+                throw new KeyRotationException("Error while writing the checkpoint file " + path + ".", e);
+            }
+            writtenVersion = journalVersion;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+/**
+ * This class adapts the chunk size of a table, which is also the size of its update batches, to the measured cost of
+ * the chunks. The chunks are grouped into windows of the same size, and the time taken to read, re-encrypt and write a
+ * record in a window is compared with the previous window. The size keeps moving in the same direction while the cost
+ * per record drops and turns back with a smaller step otherwise, so that it settles around the cheapest size. A failed
+ * update shrinks the size right away, since a failed batch is split in halves and retried until the failing records
+ * are isolated, which costs more round trips the larger the batch is.
+ */
+public class ChunkSizeController {
+
+    private static final Logger log = Logger.getLogger(ChunkSizeController.class);
+    private static final int WINDOW_CHUNK_COUNT = 4;
+    private static final double INITIAL_STEP_FACTOR = 2.0;
+    private static final double MIN_STEP_FACTOR = 1.1;
+    private static final double STEP_DECAY = 0.5;
+    private final String name;
+    private final boolean adaptive;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private int chunkSize;
+    private boolean growing = true;
+    private double stepFactor = INITIAL_STEP_FACTOR;
+    private int windowChunks;
+    private long windowRecords;
+    private long windowNanos;
+    private double previousCost = Double.NaN;
+
+    /**
+     * ChunkSizeController class constructor.
+     *
+     * @param name              Name of the table used in the logs.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public ChunkSizeController(String name, KeyRotationConfig keyRotationConfig) {
+
+        this.name = name;
+        this.adaptive = keyRotationConfig.getEnableAdaptiveChunkSize();
+        this.minChunkSize = keyRotationConfig.getMinChunkSize();
+        this.maxChunkSize = Math.max(minChunkSize, keyRotationConfig.getMaxChunkSize());
+        this.chunkSize = adaptive ? clamp(keyRotationConfig.getChunkSize()) : keyRotationConfig.getChunkSize();
+    }
+
+    /**
+     * Returns the size of the next chunk to be read.
+     *
+     * @return Chunk size.
+     */
+    public synchronized int getChunkSize() {
+
+        return chunkSize;
+    }
+
+    /**
+     * To record the cost of a written chunk and to adapt the chunk size once a window of chunks is recorded.
+     *
+     * @param chunkSize     Chunk size the chunk was read with.
+     * @param recordCount   Number of records in the chunk.
+     * @param nanos         Time taken to read, re-encrypt and write the chunk.
+     * @param failedUpdates Number of records of the chunk failed to update.
+     */
+    public synchronized void record(int chunkSize, int recordCount, long nanos, long failedUpdates) {
+
+        // Chunks read ahead with an older size, and the short last chunk, do not tell the cost of the current size.
+        if (!adaptive || chunkSize != this.chunkSize || recordCount < chunkSize) {
+            return;
+        }
+        if (failedUpdates > 0) {
+            growing = false;
+            resize(chunkSize / 2);
+            return;
+        }
+        windowChunks++;
+        windowRecords += recordCount;
+        windowNanos += nanos;
+        if (windowChunks < WINDOW_CHUNK_COUNT) {
+            return;
+        }
+        double cost = (double) windowNanos / windowRecords;
+        if (!Double.isNaN(previousCost) && cost >= previousCost) {
+            growing = !growing;
+            stepFactor = Math.max(MIN_STEP_FACTOR, 1 + (stepFactor - 1) * STEP_DECAY);
+        }
+        previousCost = cost;
+        int nextChunkSize = (int) Math.round(growing ? chunkSize * stepFactor : chunkSize / stepFactor);
+        if (nextChunkSize == chunkSize) {
+            nextChunkSize = growing ? chunkSize + 1 : chunkSize - 1;
+        }
+        resize(nextChunkSize);
+    }
+
+    /**
+     * To change the chunk size within the bounds and to start a new window.
+     *
+     * @param nextChunkSize The requested chunk size.
+     */
+    private void resize(int nextChunkSize) {
+
+        int previousChunkSize = chunkSize;
+        chunkSize = clamp(nextChunkSize);
+        if (chunkSize == previousChunkSize) {
+            // The size is at a bound, hence the next window measures the other direction without being compared
+            // with a window of the same size.
+            growing = chunkSize == minChunkSize;
+            previousCost = Double.NaN;
+        } else if (log.isDebugEnabled()) {
+            log.debug("Changed the chunk size of " + name + " from " + previousChunkSize + " to " + chunkSize +
+                    " at " + Math.round(previousCost) + " ns per record.");
+        }
+        windowChunks = 0;
+        windowRecords = 0;
+        windowNanos = 0;
+    }
+
+    /**
+     * Returns the given chunk size within the configured bounds.
+     *
+     * @param size The chunk size.
+     * @return The bounded chunk size.
+     */
+    private int clamp(int size) {
+
+        return Math.min(maxChunkSize, Math.max(minChunkSize, size));
+    }
+}
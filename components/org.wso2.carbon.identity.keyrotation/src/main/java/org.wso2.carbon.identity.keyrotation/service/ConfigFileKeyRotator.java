@@ -20,7 +20,8 @@ package org.wso2.carbon.identity.keyrotation.service;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
-import org.wso2.carbon.identity.keyrotation.util.ConfigFileUtil;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
@@ -54,15 +55,11 @@ public class ConfigFileKeyRotator {
 
         log.info("Started re-encrypting configuration file data...");
         reEncryptSuperTenantUserStore(keyRotationConfig);
-        log.info("Successfully updated super tenant secondary userstore configuration files: " +
-                ConfigFileUtil.updateCount);
-        log.info("Failed super tenant secondary userstore configuration files: " + ConfigFileUtil.failedUpdateCount);
+        logPhaseCounts("super tenant secondary userstore configuration files", KeyRotationConstants.SUPER_TENANT);
         reEncryptTenantUserStore(keyRotationConfig);
-        log.info("Successfully updated tenant secondary userstore configuration files: " + ConfigFileUtil.updateCount);
-        log.info("Failed tenant secondary userstore configuration files: " + ConfigFileUtil.failedUpdateCount);
+        logPhaseCounts("tenant secondary userstore configuration files", KeyRotationConstants.TENANT);
         reEncryptEventPublishers(keyRotationConfig);
-        log.info("Successfully updated event publisher configuration files: " + ConfigFileUtil.updateCount);
-        log.info("Failed event publisher configuration files: " + ConfigFileUtil.failedUpdateCount);
+        logPhaseCounts("event publisher configuration files", KeyRotationConstants.EVENT_PUBLISHER);
         log.info("Finished re-encrypting configuration file data completed...\n");
     }
 
@@ -97,9 +94,10 @@ public class ConfigFileKeyRotator {
                 property = KeyRotationConstants.PUBLISHER_PROPERTY;
                 break;
         }
+        PhaseMetrics metrics = getPhaseMetrics(config);
         File[] configFiles = getFilePaths(newIsHomePath, paths);
         for (File file : configFiles) {
-            updateConfigFile(file, keyRotationConfig, property);
+            updateConfigFile(file, keyRotationConfig, property, metrics);
         }
     }
 
@@ -112,8 +110,6 @@ public class ConfigFileKeyRotator {
      */
     private void reEncryptSuperTenantUserStore(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        ConfigFileUtil.updateCount = 0;
-        ConfigFileUtil.failedUpdateCount = 0;
         log.debug("Started re-encryption of the super tenant secondary user store configuration files...");
         getConfigsAndUpdate(keyRotationConfig, keyRotationConfig.getNewISHome(), null,
                 KeyRotationConstants.SUPER_TENANT);
@@ -129,8 +125,6 @@ public class ConfigFileKeyRotator {
      */
     private void reEncryptTenantUserStore(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        ConfigFileUtil.updateCount = 0;
-        ConfigFileUtil.failedUpdateCount = 0;
         List<String> tenants = getFolderPaths(keyRotationConfig.getNewISHome());
         log.debug("Started re-encryption of the tenant secondary user store configuration files...");
         for (String tenant : tenants) {
@@ -148,11 +142,33 @@ public class ConfigFileKeyRotator {
      */
     private void reEncryptEventPublishers(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
-        ConfigFileUtil.updateCount = 0;
-        ConfigFileUtil.failedUpdateCount = 0;
         log.debug("Started re-encryption of the event publisher configuration files...");
         getConfigsAndUpdate(keyRotationConfig, keyRotationConfig.getNewISHome(), null,
                 KeyRotationConstants.EVENT_PUBLISHER);
         log.debug("Finished re-encryption of the event publisher configuration files...");
     }
+
+    /**
+     * Logs the updated and failed configuration file counts of a kind of configuration files.
+     *
+     * @param description Description of the configuration files.
+     * @param config      The property value to identify the corresponding config file.
+     */
+    private void logPhaseCounts(String description, String config) {
+
+        PhaseMetrics metrics = getPhaseMetrics(config);
+        log.info("Successfully updated " + description + ": " + metrics.getCount(PhaseMetrics.Counter.UPDATED));
+        log.info("Failed " + description + ": " + metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE));
+    }
+
+    /**
+     * Returns the metrics of a kind of configuration files.
+     *
+     * @param config The property value to identify the corresponding config file.
+     * @return The metrics of the kind of configuration files.
+     */
+    private PhaseMetrics getPhaseMetrics(String config) {
+
+        return KeyRotationMetrics.getInstance().getPhaseMetrics(KeyRotationConstants.CONFIG_FILE_PHASE_PREFIX + config);
+    }
 }
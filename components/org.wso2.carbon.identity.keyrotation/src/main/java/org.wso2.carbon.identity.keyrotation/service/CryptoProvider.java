@@ -34,12 +34,16 @@ import org.wso2.carbon.uuid.generator.UUIDGeneratorManager;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.Security;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -55,6 +59,23 @@ public class CryptoProvider {
 
     private static final Logger log = Logger.getLogger(CryptoProvider.class);
     private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private static final CryptoProvider instance = new CryptoProvider();
+    // Cipher objects are not thread safe, hence each thread keeps its own and re-initializes it for every value.
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+    private final Map<String, SecretKeySpec> secretKeys = new ConcurrentHashMap<>();
+    private final Map<String, String> keyIds = new ConcurrentHashMap<>();
+
+    static {
+        // Add the BC security provider for better security instead of the default provider.
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    public static CryptoProvider getInstance() {
+
+        return instance;
+    }
 
     /**
      * Computes and returns the ciphertext of the given cleartext.
@@ -74,14 +95,11 @@ public class CryptoProvider {
         byte[] iv = getInitializationVector();
 
         try {
-            // Add the BC security provider for better security instead of the default provider.
-            Security.addProvider(new BouncyCastleProvider());
-            cipher = Cipher.getInstance(KeyRotationConstants.TRANSFORMATION,
-                    KeyRotationConstants.JAVA_SECURITY_API_PROVIDER);
+            cipher = getCipher();
             cipher.init(Cipher.ENCRYPT_MODE, getSecretKey(keyRotationConfig.getNewSecretKey()),
                     new IvParameterSpec(iv));
             cipherText = cipher.doFinal(cleartext);
-            cipherText = createSelfContainedCiphertext(cipherText, iv);
+            cipherText = createSelfContainedCiphertext(cipherText, iv, getKeyId(keyRotationConfig.getNewSecretKey()));
 
         } catch (NoSuchAlgorithmException | NoSuchPaddingException | NoSuchProviderException e) {
             String errorMessage = String.format("Error occurred while instantiating cipher object" +
@@ -109,23 +127,32 @@ public class CryptoProvider {
      **/
     public byte[] decrypt(byte[] cipherText, KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
+        return decrypt(cipherText, keyRotationConfig.getOldSecretKey());
+    }
+
+    /**
+     * Computes and returns the cleartext of the given ciphertext, using the given key.
+     *
+     * @param cipherText The ciphertext to be decrypted.
+     * @param secretKey  The data encryption key the ciphertext was encrypted with.
+     * @return The decrypted ciphertext.
+     * @throws KeyRotationException Exception thrown while decrypting the ciphertext.
+     **/
+    public byte[] decrypt(byte[] cipherText, String secretKey) throws KeyRotationException {
+
         if (cipherText == null) {
             throw new KeyRotationException("Ciphertext bytes cannot be null.");
         }
         Cipher cipher;
         try {
-            // Add the BC security provider for better security instead of the default provider.
-            Security.addProvider(new BouncyCastleProvider());
             CipherMetaData cipherMetaData = createCipherMetaData(cipherText);
             // This check is for empty bytes of data that was encrypted and stored.
             if (cipherMetaData.getCipherBase64Decoded().length == 0) {
                 log.debug("Bytes of length 0 found for cipher within the cipherMetaData.");
                 return StringUtils.EMPTY.getBytes();
             }
-            cipher = Cipher.getInstance(KeyRotationConstants.TRANSFORMATION,
-                    KeyRotationConstants.JAVA_SECURITY_API_PROVIDER);
-            cipher.init(Cipher.DECRYPT_MODE,
-                    getSecretKey(keyRotationConfig.getOldSecretKey()),
+            cipher = getCipher();
+            cipher.init(Cipher.DECRYPT_MODE, getSecretKey(secretKey),
                     new IvParameterSpec(cipherMetaData.getIvBase64Decoded()));
             return cipher.doFinal(cipherMetaData.getCipherBase64Decoded());
         } catch (NoSuchAlgorithmException | NoSuchPaddingException | NoSuchProviderException e) {
@@ -144,15 +171,65 @@ public class CryptoProvider {
     }
 
     /**
-     * Returns the raw secret key as a byte array.
+     * Returns the cipher object of the current thread, creating it on the first use.
+     *
+     * @return Cipher object which should be initialized before use.
+     * @throws NoSuchAlgorithmException Exception thrown if the transformation is not supported.
+     * @throws NoSuchPaddingException   Exception thrown if the padding scheme is not supported.
+     * @throws NoSuchProviderException  Exception thrown if the BC provider is not registered.
+     */
+    private Cipher getCipher() throws NoSuchAlgorithmException, NoSuchPaddingException, NoSuchProviderException {
+
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(KeyRotationConstants.TRANSFORMATION,
+                    KeyRotationConstants.JAVA_SECURITY_API_PROVIDER);
+            ciphers.set(cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * Returns the raw secret key as a byte array. The key is derived once per secret and reused afterwards.
      *
      * @param secretKey The data encryption key.
      * @return Secret key.
      */
     private SecretKeySpec getSecretKey(String secretKey) {
 
-        return new SecretKeySpec(secretKey.getBytes(), 0, secretKey.getBytes().length,
-                KeyRotationConstants.ALGORITHM);
+        return secretKeys.computeIfAbsent(secretKey, key -> new SecretKeySpec(key.getBytes(), 0,
+                key.getBytes().length, KeyRotationConstants.ALGORITHM));
+    }
+
+    /**
+     * Returns the identifier of a key, which is the hex encoded prefix of its digest. It tags the ciphertexts
+     * encrypted with the key, so that they can be told apart without decrypting them. The identifier is computed once
+     * per secret and reused afterwards.
+     *
+     * @param secretKey The data encryption key.
+     * @return Key identifier.
+     * @throws KeyRotationException Exception thrown if the digest algorithm is not supported.
+     */
+    public String getKeyId(String secretKey) throws KeyRotationException {
+
+        String keyId = keyIds.get(secretKey);
+        if (keyId != null) {
+            return keyId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance(KeyRotationConstants.KEY_ID_DIGEST_ALGORITHM)
+                    .digest(secretKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < KeyRotationConstants.KEY_ID_LENGTH; i++) {
+                builder.append(String.format("%02x", digest[i]));
+            }
+            keyId = builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new KeyRotationException("Error occurred while computing the key identifier with algorithm: '" +
+                    KeyRotationConstants.KEY_ID_DIGEST_ALGORITHM + "'.", e);
+        }
+        keyIds.put(secretKey, keyId);
+        return keyId;
     }
 
     /**
@@ -175,11 +252,13 @@ public class CryptoProvider {
      *
      * @param cipherText The ciphertext.
      * @param iv         The Initialization Vector.
-     * @return Self contained meta data comprising of the cipher, transformation and IV.
+     * @param keyId      Identifier of the key the ciphertext was encrypted with.
+     * @return Self contained meta data comprising of the key identifier, cipher, transformation and IV.
      */
-    private byte[] createSelfContainedCiphertext(byte[] cipherText, byte[] iv) {
+    private byte[] createSelfContainedCiphertext(byte[] cipherText, byte[] iv, String keyId) {
 
         CipherMetaData cipherMetaData = new CipherMetaData();
+        cipherMetaData.setKeyId(keyId);
         cipherMetaData.setCipherText(KeyRotationServiceUtils.getSelfContainedCiphertextWithIv(cipherText, iv));
         cipherMetaData.setTransformation(KeyRotationConstants.TRANSFORMATION);
         cipherMetaData.setIv(Base64.encode(iv));
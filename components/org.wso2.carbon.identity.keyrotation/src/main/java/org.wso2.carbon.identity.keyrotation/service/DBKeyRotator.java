@@ -18,7 +18,6 @@
 
 package org.wso2.carbon.identity.keyrotation.service;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
 import org.wso2.carbon.identity.keyrotation.dao.BPSProfileDAO;
@@ -26,22 +25,32 @@ import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
 import org.wso2.carbon.identity.keyrotation.dao.IdentityDAO;
 import org.wso2.carbon.identity.keyrotation.dao.OAuthDAO;
 import org.wso2.carbon.identity.keyrotation.dao.RegistryDAO;
+import org.wso2.carbon.identity.keyrotation.dao.StreamingChunkReader;
+import org.wso2.carbon.identity.keyrotation.dao.TableEstimateDAO;
 import org.wso2.carbon.identity.keyrotation.dao.WorkFlowDAO;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.model.BPSPassword;
+import org.wso2.carbon.identity.keyrotation.model.KeyRange;
 import org.wso2.carbon.identity.keyrotation.model.OAuthCode;
 import org.wso2.carbon.identity.keyrotation.model.OAuthSecret;
 import org.wso2.carbon.identity.keyrotation.model.OAuthToken;
+import org.wso2.carbon.identity.keyrotation.model.ReEncryptionCheckpoint;
 import org.wso2.carbon.identity.keyrotation.model.RegistryProperty;
 import org.wso2.carbon.identity.keyrotation.model.TOTPSecret;
+import org.wso2.carbon.identity.keyrotation.model.TableEstimate;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 import org.wso2.carbon.identity.workflow.mgt.bean.RequestParameter;
 import org.wso2.carbon.identity.workflow.mgt.dto.WorkflowRequest;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
-import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.checkPlainText;
+import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.isOldKeyCipherText;
 import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.symmetricReEncryption;
 
 /**
@@ -51,6 +60,7 @@ public class DBKeyRotator {
 
     private static final Logger log = Logger.getLogger(DBKeyRotator.class);
     private static final DBKeyRotator instance = new DBKeyRotator();
+    private static final String RANGE_PHASE_SEPARATOR = ".range.";
 
     public static DBKeyRotator getInstance() {
 
@@ -66,46 +76,123 @@ public class DBKeyRotator {
     public void dbReEncryptor(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.info("Started re-encrypting identity and registry DB data...");
-        reEncryptIdentityTOTPData(keyRotationConfig);
-        log.info("Successfully updated totp data records in IDN_IDENTITY_USER_DATA: " + IdentityDAO.updateCount);
-        log.info("Failed totp data records in IDN_IDENTITY_USER_DATA: " + IdentityDAO.failedUpdateCount);
-        reEncryptOauthAuthData(keyRotationConfig);
-        log.info("Successfully updated OAuth2 authorization code data records in IDN_OAUTH2_AUTHORIZATION_CODE: " +
-                OAuthDAO.updateCodeCount);
-        log.info("Failed OAuth2 authorization code data records in IDN_OAUTH2_AUTHORIZATION_CODE: " +
-                OAuthDAO.failedUpdateCodeCount);
-        reEncryptOauthTokenData(keyRotationConfig);
-        log.info("Successfully updated OAuth2 access and refresh tokens data records in IDN_OAUTH2_ACCESS_TOKEN: " +
-                OAuthDAO.updateTokenCount);
-        log.info("Failed OAuth2 access and refresh tokens data records in IDN_OAUTH2_ACCESS_TOKEN: " +
-                OAuthDAO.failedUpdateTokenCount);
-        reEncryptOauthConsumerData(keyRotationConfig);
-        log.info("Successfully updated OAuth consumer secret data records in IDN_OAUTH_CONSUMER_APPS: " +
-                OAuthDAO.updateSecretCount);
-        log.info("Failed OAuth consumer secret data records in IDN_OAUTH_CONSUMER_APPS: " +
-                OAuthDAO.failedUpdateSecretCount);
-        reEncryptBPSData(keyRotationConfig);
-        log.info("Successfully updated BPS profile data records in WF_BPS_PROFILE: " + BPSProfileDAO.updateCount);
-        log.info("Failed BPS profile data records in WF_BPS_PROFILE: " + BPSProfileDAO.failedUpdateCount);
-        reEncryptWFRequestData(keyRotationConfig);
-        log.info("Successfully updated WF request data records in WF_REQUEST: " + WorkFlowDAO.updateCount);
-        log.info("Failed WF request data records in WF_REQUEST: " + WorkFlowDAO.failedUpdateCount);
-        reEncryptKeystorePasswordData(keyRotationConfig);
-        log.info("Successfully updated keystore password property data records in REG_PROPERTY: " +
-                RegistryDAO.updateCount);
-        log.info("Failed keystore password property data records in REG_PROPERTY: " + RegistryDAO.failedUpdateCount);
-        reEncryptKeystorePrivatekeyPassData(keyRotationConfig);
-        log.info("Successfully updated keystore privatekeyPass property data records in REG_PROPERTY: " +
-                RegistryDAO.updateCount);
-        log.info("Failed keystore privatekeyPass property data records in REG_PROPERTY: " +
-                RegistryDAO.failedUpdateCount);
-        reEncryptSubscriberPasswordData(keyRotationConfig);
-        log.info("Successfully updated subscriber password property data records in REG_PROPERTY: " +
-                RegistryDAO.updateCount);
-        log.info("Failed subscriber password property data records in REG_PROPERTY: " + RegistryDAO.failedUpdateCount);
+        if (keyRotationConfig.getEnableProgressReport()) {
+            List<String> phases = new ArrayList<>();
+            for (TableEstimate tableEstimate : planDBReEncryption(keyRotationConfig)) {
+                phases.add(tableEstimate.getPhase());
+            }
+            ProgressReporter.getInstance().start(keyRotationConfig, phases);
+        }
+        RateGovernor.getInstance().start(keyRotationConfig);
+        try {
+            reEncryptDBData(keyRotationConfig);
+        } finally {
+            RateGovernor.getInstance().stop();
+            ProgressReporter.getInstance().stop();
+        }
         log.info("Finished re-encrypting identity and registry DB data completed...\n");
     }
 
+    /**
+     * Estimates the number of records and the average size of the encrypted values of every table re-encrypted by
+     * {@link #dbReEncryptor(KeyRotationConfig)}, and logs them as the plan of the DB re-encryption. The estimates are
+     * set in the metrics of the tables, so that their progress can be reported.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The estimates of the tables, in the order they are re-encrypted.
+     */
+    public List<TableEstimate> planDBReEncryption(KeyRotationConfig keyRotationConfig) {
+
+        TableEstimateDAO tableEstimateDAO = TableEstimateDAO.getInstance();
+        List<TableEstimate> tableEstimates = new ArrayList<>();
+        tableEstimates.add(tableEstimateDAO.getTOTPSecretEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getOAuthCodeEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getOAuthTokenEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getOAuthSecretEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getBPSPasswordEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getWFRequestEstimate(keyRotationConfig));
+        tableEstimates.add(tableEstimateDAO.getRegPropertyDataEstimate(keyRotationConfig,
+                KeyRotationConstants.REGISTRY_PASSWORD));
+        tableEstimates.add(tableEstimateDAO.getRegPropertyDataEstimate(keyRotationConfig,
+                KeyRotationConstants.PRIVATE_KEY_PASS));
+        tableEstimates.add(tableEstimateDAO.getRegPropertyDataEstimate(keyRotationConfig,
+                KeyRotationConstants.SUBSCRIBER_PASSWORD));
+        long totalCount = 0;
+        long totalBytes = 0;
+        for (TableEstimate tableEstimate : tableEstimates) {
+            KeyRotationMetrics.getInstance().getPhaseMetrics(tableEstimate.getPhase())
+                    .setEstimatedCount(tableEstimate.getRowCount());
+            if (!tableEstimate.isKnown()) {
+                log.info("Plan of " + tableEstimate.getPhase() + ": unknown number of records.");
+                continue;
+            }
+            log.info(String.format(Locale.ENGLISH, "Plan of %s: about %d records, %.0f bytes per record, %d bytes " +
+                            "in total.", tableEstimate.getPhase(), tableEstimate.getRowCount(),
+                    tableEstimate.getAverageValueSize(), tableEstimate.getEstimatedBytes()));
+            totalCount += tableEstimate.getRowCount();
+            totalBytes += tableEstimate.getEstimatedBytes();
+        }
+        log.info("Plan of the DB re-encryption: about " + totalCount + " records, " + totalBytes + " bytes in total, " +
+                "in up to " + keyRotationConfig.getReEncryptionThreadCount() + " tables at a time.");
+        return tableEstimates;
+    }
+
+    /**
+     * Re-encryption of the identity and registry DB tables, each as a phase of the scheduler.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while re-encrypting identity and registry DB data.
+     */
+    private void reEncryptDBData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        ReEncryptionPhaseScheduler scheduler =
+                new ReEncryptionPhaseScheduler("db-re-encryptor", keyRotationConfig.getReEncryptionThreadCount(),
+                        keyRotationConfig.getEnableVirtualThreads());
+        scheduler.submit("IDN_IDENTITY_USER_DATA", () -> {
+            reEncryptIdentityTOTPData(keyRotationConfig);
+            logPhaseCounts("totp data records in IDN_IDENTITY_USER_DATA", "IDN_IDENTITY_USER_DATA");
+        });
+        scheduler.submit("IDN_OAUTH2_AUTHORIZATION_CODE", () -> {
+            reEncryptOauthAuthData(keyRotationConfig);
+            logPhaseCounts("OAuth2 authorization code data records in IDN_OAUTH2_AUTHORIZATION_CODE",
+                    "IDN_OAUTH2_AUTHORIZATION_CODE");
+        });
+        scheduler.submit("IDN_OAUTH2_ACCESS_TOKEN", () -> {
+            reEncryptOauthTokenData(keyRotationConfig);
+            logPhaseCounts("OAuth2 access and refresh tokens data records in IDN_OAUTH2_ACCESS_TOKEN",
+                    "IDN_OAUTH2_ACCESS_TOKEN");
+        });
+        scheduler.submit("IDN_OAUTH_CONSUMER_APPS", () -> {
+            reEncryptOauthConsumerData(keyRotationConfig);
+            logPhaseCounts("OAuth consumer secret data records in IDN_OAUTH_CONSUMER_APPS", "IDN_OAUTH_CONSUMER_APPS");
+        });
+        scheduler.submit("WF_BPS_PROFILE", () -> {
+            reEncryptBPSData(keyRotationConfig);
+            logPhaseCounts("BPS profile data records in WF_BPS_PROFILE", "WF_BPS_PROFILE");
+        });
+        scheduler.submit("WF_REQUEST", () -> {
+            reEncryptWFRequestData(keyRotationConfig);
+            logPhaseCounts("WF request data records in WF_REQUEST", "WF_REQUEST");
+        });
+        // Each REG_PROPERTY pass has its own metrics, hence the passes run as separate phases.
+        scheduler.submit(DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.REGISTRY_PASSWORD, () -> {
+            reEncryptKeystorePasswordData(keyRotationConfig);
+            logPhaseCounts("keystore password property data records in REG_PROPERTY",
+                    DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.REGISTRY_PASSWORD);
+        });
+        scheduler.submit(DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.PRIVATE_KEY_PASS, () -> {
+            reEncryptKeystorePrivatekeyPassData(keyRotationConfig);
+            logPhaseCounts("keystore privatekeyPass property data records in REG_PROPERTY",
+                    DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.PRIVATE_KEY_PASS);
+        });
+        scheduler.submit(DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.SUBSCRIBER_PASSWORD, () -> {
+            reEncryptSubscriberPasswordData(keyRotationConfig);
+            logPhaseCounts("subscriber password property data records in REG_PROPERTY",
+                    DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.SUBSCRIBER_PASSWORD);
+        });
+        scheduler.awaitCompletion();
+    }
+
     /**
      * Re-encryption of the IDN_IDENTITY_USER_DATA table data.
      *
@@ -115,27 +202,60 @@ public class DBKeyRotator {
     private void reEncryptIdentityTOTPData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the TOTP data...");
-        int startIndex = 0;
-        List<TOTPSecret> chunkList =
-                IdentityDAO.getInstance().getTOTPSecretsChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<TOTPSecret> midChunkList = new ArrayList<>();
-            for (TOTPSecret totpSecret : chunkList) {
-                if (!checkPlainText(totpSecret.getDataValue())) {
-                    log.debug("Encrypted value " + totpSecret.getDataValue());
-                    String reEncryptedValue = symmetricReEncryption(totpSecret.getDataValue(), keyRotationConfig);
-                    totpSecret.setDataValue(reEncryptedValue);
-                    log.debug("Re-encrypted value " + totpSecret.getDataValue());
-                    midChunkList.add(totpSecret);
-                }
-            }
-            IdentityDAO.getInstance().updateTOTPSecretsChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = IdentityDAO.getInstance().getTOTPSecretsChunks(startIndex, keyRotationConfig);
+        ReEncryptionCheckpoint checkpoint = CheckpointJournal.getInstance().getCheckpoint("IDN_IDENTITY_USER_DATA");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        ReEncryptionPipeline<TOTPSecret> pipeline =
+                new ReEncryptionPipeline<>("IDN_IDENTITY_USER_DATA", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint,
+                totpSecret -> Arrays.asList(totpSecret.getTenantId(), totpSecret.getUsername(),
+                        totpSecret.getDataKey()),
+                key -> new TOTPSecret(key.get(0), key.get(1), key.get(2), null));
+        try (StreamingChunkReader<TOTPSecret> stream = keyRotationConfig.getEnableStreamingRead() ?
+                IdentityDAO.getInstance().getTOTPSecretsStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return IdentityDAO.getInstance().getTOTPSecretsChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return IdentityDAO.getInstance().getTOTPSecretsChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptIdentityTOTPChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> IdentityDAO.getInstance()
+                            .updateTOTPSecretsChunks(midChunkList, keyRotationConfig));
         }
         log.debug("Finished re-encryption of the TOTP data...");
     }
 
+    /**
+     * Re-encryption of a chunk of the IDN_IDENTITY_USER_DATA table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting TOTP data.
+     */
+    private List<TOTPSecret> reEncryptIdentityTOTPChunk(List<TOTPSecret> chunkList,
+                                                        KeyRotationConfig keyRotationConfig, PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<TOTPSecret> midChunkList = new ArrayList<>();
+        for (TOTPSecret totpSecret : chunkList) {
+            if (isOldKeyCipherText(totpSecret.getDataValue(), keyRotationConfig)) {
+                log.debug("Encrypted value " + totpSecret.getDataValue());
+                String reEncryptedValue = symmetricReEncryption(totpSecret.getDataValue(), keyRotationConfig, metrics);
+                totpSecret.setDataValue(reEncryptedValue);
+                log.debug("Re-encrypted value " + totpSecret.getDataValue());
+                midChunkList.add(totpSecret);
+            }
+        }
+        return midChunkList;
+    }
+
     /**
      * Re-encryption of the IDN_OAUTH2_AUTHORIZATION_CODE table data.
      *
@@ -145,64 +265,240 @@ public class DBKeyRotator {
     private void reEncryptOauthAuthData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the OAuth2 authorization code data...");
-        int startIndex = 0;
-        List<OAuthCode> chunkList =
-                OAuthDAO.getInstance().getOAuthCodeChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<OAuthCode> midChunkList = new ArrayList<>();
-            for (OAuthCode oAuthCode : chunkList) {
-                if (!checkPlainText(oAuthCode.getAuthorizationCode())) {
-                    log.debug("Encrypted value " + oAuthCode.getAuthorizationCode());
-                    String reEncryptedValue = symmetricReEncryption(oAuthCode.getAuthorizationCode(),
-                            keyRotationConfig);
-                    oAuthCode.setAuthorizationCode(reEncryptedValue);
-                    log.debug("Re-encrypted value " + oAuthCode.getAuthorizationCode());
-                    midChunkList.add(oAuthCode);
+        ReEncryptionCheckpoint checkpoint =
+                CheckpointJournal.getInstance().getCheckpoint("IDN_OAUTH2_AUTHORIZATION_CODE");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        if (keyRotationConfig.getTablePartitionCount() > 1 && !checkpoint.isCompleted()) {
+            List<ReEncryptionCheckpoint> rangeCheckpoints = getRangeCheckpoints(checkpoint, metrics,
+                    () -> OAuthDAO.getInstance().getOAuthCodeKeyRanges(keyRotationConfig.getTablePartitionCount(),
+                            keyRotationConfig));
+            if (rangeCheckpoints.size() > 1) {
+                ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler("IDN_OAUTH2_AUTHORIZATION_CODE",
+                        ReEncryptionPhaseScheduler.getRangeParallelism(rangeCheckpoints.size(), keyRotationConfig),
+                        keyRotationConfig.getEnableVirtualThreads());
+                for (ReEncryptionCheckpoint rangeCheckpoint : rangeCheckpoints) {
+                    KeyRange keyRange = new KeyRange(rangeCheckpoint.getLowerKey(), rangeCheckpoint.getUpperKey());
+                    scheduler.submit("IDN_OAUTH2_AUTHORIZATION_CODE " + keyRange,
+                            () -> reEncryptOauthAuthDataRange(keyRange, rangeCheckpoint, keyRotationConfig));
                 }
+                scheduler.awaitCompletion();
+                CheckpointJournal.getInstance().complete(checkpoint);
+                log.debug("Finished re-encryption of the OAuth2 authorization code data...");
+                return;
             }
-            OAuthDAO.getInstance().updateOAuthCodeChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = OAuthDAO.getInstance().getOAuthCodeChunks(startIndex, keyRotationConfig);
+        }
+        ReEncryptionPipeline<OAuthCode> pipeline =
+                new ReEncryptionPipeline<>("IDN_OAUTH2_AUTHORIZATION_CODE", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, oAuthCode -> Collections.singletonList(oAuthCode.getCodeId()),
+                key -> new OAuthCode(key.get(0), null, null));
+        try (StreamingChunkReader<OAuthCode> stream = keyRotationConfig.getEnableStreamingRead() ?
+                OAuthDAO.getInstance().getOAuthCodeStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return OAuthDAO.getInstance().getOAuthCodeChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return OAuthDAO.getInstance().getOAuthCodeChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptOauthAuthChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> OAuthDAO.getInstance()
+                            .updateOAuthCodeChunks(midChunkList, keyRotationConfig));
         }
         log.debug("Finished re-encryption of the OAuth2 authorization code data...");
     }
 
     /**
-     * Re-encryption of the IDN_OAUTH2_ACCESS_TOKEN table data.
+     * Re-encryption of a key range of the IDN_OAUTH2_AUTHORIZATION_CODE table data.
+     *
+     * @param keyRange          The key range to be re-encrypted.
+     * @param checkpoint        The checkpoint of the key range.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 authorization code data.
+     */
+    private void reEncryptOauthAuthDataRange(KeyRange keyRange, ReEncryptionCheckpoint checkpoint,
+                                              KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_AUTHORIZATION_CODE");
+        ReEncryptionPipeline<OAuthCode> pipeline =
+                new ReEncryptionPipeline<>("IDN_OAUTH2_AUTHORIZATION_CODE", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, oAuthCode -> Collections.singletonList(oAuthCode.getCodeId()),
+                key -> new OAuthCode(key.get(0), null, null));
+        pipeline.run(
+                (previousChunk, startIndex, chunkSize) -> OAuthDAO.getInstance().getOAuthCodeChunksInRange(keyRange,
+                        previousChunk == null ? keyRange.getResumeKey() :
+                                previousChunk.get(previousChunk.size() - 1).getCodeId(), chunkSize, keyRotationConfig),
+                chunkList -> reEncryptOauthAuthChunk(chunkList, keyRotationConfig, metrics),
+                (chunkList, midChunkList) -> {
+                    OAuthDAO.getInstance().updateOAuthCodeChunks(midChunkList, keyRotationConfig);
+                    keyRange.setLastKey(chunkList.get(chunkList.size() - 1).getCodeId());
+                });
+    }
+
+    /**
+     * Re-encryption of a chunk of the IDN_OAUTH2_AUTHORIZATION_CODE table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 authorization code data.
+     */
+    private List<OAuthCode> reEncryptOauthAuthChunk(List<OAuthCode> chunkList, KeyRotationConfig keyRotationConfig,
+                                                    PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<OAuthCode> midChunkList = new ArrayList<>();
+        for (OAuthCode oAuthCode : chunkList) {
+            if (isOldKeyCipherText(oAuthCode.getAuthorizationCode(), keyRotationConfig)) {
+                log.debug("Encrypted value " + oAuthCode.getAuthorizationCode());
+                String reEncryptedValue = symmetricReEncryption(oAuthCode.getAuthorizationCode(),
+                        keyRotationConfig, metrics);
+                oAuthCode.setAuthorizationCode(reEncryptedValue);
+                log.debug("Re-encrypted value " + oAuthCode.getAuthorizationCode());
+                midChunkList.add(oAuthCode);
+            }
+        }
+        return midChunkList;
+    }
+
+    /**
+     * Re-encryption of the IDN_OAUTH2_ACCESS_TOKEN table data, through the staging table if bulk updates are enabled.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 access and refresh token data.
      */
     private void reEncryptOauthTokenData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
+        if (!keyRotationConfig.getEnableBulkUpdate()) {
+            reEncryptOauthTokenTable(keyRotationConfig);
+            return;
+        }
+        OAuthDAO.getInstance().createOAuthTokenStagingTable(keyRotationConfig);
+        try {
+            reEncryptOauthTokenTable(keyRotationConfig);
+        } finally {
+            OAuthDAO.getInstance().dropOAuthTokenStagingTable(keyRotationConfig);
+        }
+    }
+
+    /**
+     * Re-encryption of the IDN_OAUTH2_ACCESS_TOKEN table data.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 access and refresh token data.
+     */
+    private void reEncryptOauthTokenTable(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
         log.debug("Started re-encryption of the OAuth2 access and refresh token data...");
-        int startIndex = 0;
-        List<OAuthToken> chunkList =
-                OAuthDAO.getInstance().getOAuthTokenChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<OAuthToken> midChunkList = new ArrayList<>();
-            for (OAuthToken oAuthToken : chunkList) {
-                if (!checkPlainText(oAuthToken.getAccessToken()) && !checkPlainText(oAuthToken.getRefreshToken())) {
-                    log.debug("Encrypted access token value " + oAuthToken.getAccessToken());
-                    String accessTokenReEncryptedValue = symmetricReEncryption(oAuthToken.getAccessToken(),
-                            keyRotationConfig);
-                    oAuthToken.setAccessToken(accessTokenReEncryptedValue);
-                    log.debug("Re-encrypted value " + oAuthToken.getAccessToken());
-                    log.debug("Encrypted refresh token value " + oAuthToken.getRefreshToken());
-                    String refreshTokenReEncryptedValue = symmetricReEncryption(oAuthToken.getRefreshToken(),
-                            keyRotationConfig);
-                    oAuthToken.setRefreshToken(refreshTokenReEncryptedValue);
-                    log.debug("Re-encrypted value " + oAuthToken.getRefreshToken());
-                    midChunkList.add(oAuthToken);
+        ReEncryptionCheckpoint checkpoint = CheckpointJournal.getInstance().getCheckpoint("IDN_OAUTH2_ACCESS_TOKEN");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        if (keyRotationConfig.getTablePartitionCount() > 1 && !checkpoint.isCompleted()) {
+            List<ReEncryptionCheckpoint> rangeCheckpoints = getRangeCheckpoints(checkpoint, metrics,
+                    () -> OAuthDAO.getInstance().getOAuthTokenKeyRanges(keyRotationConfig.getTablePartitionCount(),
+                            keyRotationConfig));
+            if (rangeCheckpoints.size() > 1) {
+                ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler("IDN_OAUTH2_ACCESS_TOKEN",
+                        ReEncryptionPhaseScheduler.getRangeParallelism(rangeCheckpoints.size(), keyRotationConfig),
+                        keyRotationConfig.getEnableVirtualThreads());
+                for (ReEncryptionCheckpoint rangeCheckpoint : rangeCheckpoints) {
+                    KeyRange keyRange = new KeyRange(rangeCheckpoint.getLowerKey(), rangeCheckpoint.getUpperKey());
+                    scheduler.submit("IDN_OAUTH2_ACCESS_TOKEN " + keyRange,
+                            () -> reEncryptOauthTokenDataRange(keyRange, rangeCheckpoint, keyRotationConfig));
                 }
+                scheduler.awaitCompletion();
+                CheckpointJournal.getInstance().complete(checkpoint);
+                log.debug("Finished re-encryption of the OAuth2 access and refresh token data...");
+                return;
             }
-            OAuthDAO.getInstance().updateOAuthTokenChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = OAuthDAO.getInstance().getOAuthTokenChunks(startIndex, keyRotationConfig);
+        }
+        ReEncryptionPipeline<OAuthToken> pipeline =
+                new ReEncryptionPipeline<>("IDN_OAUTH2_ACCESS_TOKEN", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, oAuthToken -> Collections.singletonList(oAuthToken.getTokenId()),
+                key -> new OAuthToken(key.get(0), null, null, null));
+        try (StreamingChunkReader<OAuthToken> stream = keyRotationConfig.getEnableStreamingRead() ?
+                OAuthDAO.getInstance().getOAuthTokenStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return OAuthDAO.getInstance().getOAuthTokenChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return OAuthDAO.getInstance().getOAuthTokenChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptOauthTokenChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> OAuthDAO.getInstance()
+                            .updateOAuthTokenChunks(midChunkList, keyRotationConfig));
         }
         log.debug("Finished re-encryption of the OAuth2 access and refresh token data...");
     }
 
+    /**
+     * Re-encryption of a key range of the IDN_OAUTH2_ACCESS_TOKEN table data.
+     *
+     * @param keyRange          The key range to be re-encrypted.
+     * @param checkpoint        The checkpoint of the key range.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 access and refresh token data.
+     */
+    private void reEncryptOauthTokenDataRange(KeyRange keyRange, ReEncryptionCheckpoint checkpoint,
+                                              KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("IDN_OAUTH2_ACCESS_TOKEN");
+        ReEncryptionPipeline<OAuthToken> pipeline =
+                new ReEncryptionPipeline<>("IDN_OAUTH2_ACCESS_TOKEN", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, oAuthToken -> Collections.singletonList(oAuthToken.getTokenId()),
+                key -> new OAuthToken(key.get(0), null, null, null));
+        pipeline.run(
+                (previousChunk, startIndex, chunkSize) -> OAuthDAO.getInstance().getOAuthTokenChunksInRange(keyRange,
+                        previousChunk == null ? keyRange.getResumeKey() :
+                                previousChunk.get(previousChunk.size() - 1).getTokenId(), chunkSize, keyRotationConfig),
+                chunkList -> reEncryptOauthTokenChunk(chunkList, keyRotationConfig, metrics),
+                (chunkList, midChunkList) -> {
+                    OAuthDAO.getInstance().updateOAuthTokenChunks(midChunkList, keyRotationConfig);
+                    keyRange.setLastKey(chunkList.get(chunkList.size() - 1).getTokenId());
+                });
+    }
+
+    /**
+     * Re-encryption of a chunk of the IDN_OAUTH2_ACCESS_TOKEN table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth2 access and refresh token data.
+     */
+    private List<OAuthToken> reEncryptOauthTokenChunk(List<OAuthToken> chunkList, KeyRotationConfig keyRotationConfig,
+                                                      PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<OAuthToken> midChunkList = new ArrayList<>();
+        for (OAuthToken oAuthToken : chunkList) {
+            if (isOldKeyCipherText(oAuthToken.getAccessToken(), keyRotationConfig) &&
+                    isOldKeyCipherText(oAuthToken.getRefreshToken(), keyRotationConfig)) {
+                log.debug("Encrypted access token value " + oAuthToken.getAccessToken());
+                String accessTokenReEncryptedValue = symmetricReEncryption(oAuthToken.getAccessToken(),
+                        keyRotationConfig, metrics);
+                oAuthToken.setAccessToken(accessTokenReEncryptedValue);
+                log.debug("Re-encrypted value " + oAuthToken.getAccessToken());
+                log.debug("Encrypted refresh token value " + oAuthToken.getRefreshToken());
+                String refreshTokenReEncryptedValue = symmetricReEncryption(oAuthToken.getRefreshToken(),
+                        keyRotationConfig, metrics);
+                oAuthToken.setRefreshToken(refreshTokenReEncryptedValue);
+                log.debug("Re-encrypted value " + oAuthToken.getRefreshToken());
+                midChunkList.add(oAuthToken);
+            }
+        }
+        return midChunkList;
+    }
+
     /**
      * Re-encryption of the IDN_OAUTH_CONSUMER_APPS consumer table data.
      *
@@ -212,28 +508,59 @@ public class DBKeyRotator {
     private void reEncryptOauthConsumerData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the OAuth consumer secret data...");
-        int startIndex = 0;
-        List<OAuthSecret> chunkList =
-                OAuthDAO.getInstance().getOAuthSecretChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<OAuthSecret> midChunkList = new ArrayList<>();
-            for (OAuthSecret oAuthSecret : chunkList) {
-                if (!checkPlainText(oAuthSecret.getConsumerSecret())) {
-                    log.debug("Encrypted value " + oAuthSecret.getConsumerSecret());
-                    String reEncryptedValue = symmetricReEncryption(oAuthSecret.getConsumerSecret(),
-                            keyRotationConfig);
-                    oAuthSecret.setConsumerSecret(reEncryptedValue);
-                    log.debug("Re-encrypted value " + oAuthSecret.getConsumerSecret());
-                    midChunkList.add(oAuthSecret);
-                }
-            }
-            OAuthDAO.getInstance().updateOAuthSecretChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = OAuthDAO.getInstance().getOAuthSecretChunks(startIndex, keyRotationConfig);
+        ReEncryptionCheckpoint checkpoint = CheckpointJournal.getInstance().getCheckpoint("IDN_OAUTH_CONSUMER_APPS");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        ReEncryptionPipeline<OAuthSecret> pipeline =
+                new ReEncryptionPipeline<>("IDN_OAUTH_CONSUMER_APPS", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, oAuthSecret -> Collections.singletonList(oAuthSecret.getId()),
+                key -> new OAuthSecret(key.get(0), null, null));
+        try (StreamingChunkReader<OAuthSecret> stream = keyRotationConfig.getEnableStreamingRead() ?
+                OAuthDAO.getInstance().getOAuthSecretStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return OAuthDAO.getInstance().getOAuthSecretChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return OAuthDAO.getInstance().getOAuthSecretChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptOauthConsumerChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> OAuthDAO.getInstance()
+                            .updateOAuthSecretChunks(midChunkList, keyRotationConfig));
         }
         log.debug("Finished re-encryption of the OAuth consumer secret data...");
     }
 
+    /**
+     * Re-encryption of a chunk of the IDN_OAUTH_CONSUMER_APPS table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting OAuth consumer secret data.
+     */
+    private List<OAuthSecret> reEncryptOauthConsumerChunk(List<OAuthSecret> chunkList,
+                                                          KeyRotationConfig keyRotationConfig, PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<OAuthSecret> midChunkList = new ArrayList<>();
+        for (OAuthSecret oAuthSecret : chunkList) {
+            if (isOldKeyCipherText(oAuthSecret.getConsumerSecret(), keyRotationConfig)) {
+                log.debug("Encrypted value " + oAuthSecret.getConsumerSecret());
+                String reEncryptedValue = symmetricReEncryption(oAuthSecret.getConsumerSecret(),
+                        keyRotationConfig, metrics);
+                oAuthSecret.setConsumerSecret(reEncryptedValue);
+                log.debug("Re-encrypted value " + oAuthSecret.getConsumerSecret());
+                midChunkList.add(oAuthSecret);
+            }
+        }
+        return midChunkList;
+    }
+
     /**
      * Re-encryption of the WF_BPS_PROFILE table data.
      *
@@ -243,27 +570,59 @@ public class DBKeyRotator {
     private void reEncryptBPSData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the BPS profile data...");
-        int startIndex = 0;
-        List<BPSPassword> chunkList =
-                BPSProfileDAO.getInstance().getBpsPasswordChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<BPSPassword> midChunkList = new ArrayList<>();
-            for (BPSPassword bpsPassword : chunkList) {
-                if (!checkPlainText(bpsPassword.getPassword())) {
-                    log.debug("Encrypted value " + bpsPassword.getPassword());
-                    String reEncryptedValue = symmetricReEncryption(bpsPassword.getPassword(), keyRotationConfig);
-                    bpsPassword.setPassword(reEncryptedValue);
-                    log.debug("Re-encrypted value " + bpsPassword.getPassword());
-                    midChunkList.add(bpsPassword);
-                }
-            }
-            BPSProfileDAO.getInstance().updateBpsPasswordChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = BPSProfileDAO.getInstance().getBpsPasswordChunks(startIndex, keyRotationConfig);
+        ReEncryptionCheckpoint checkpoint = CheckpointJournal.getInstance().getCheckpoint("WF_BPS_PROFILE");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        ReEncryptionPipeline<BPSPassword> pipeline = new ReEncryptionPipeline<>("WF_BPS_PROFILE", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint,
+                bpsPassword -> Arrays.asList(bpsPassword.getProfileName(), bpsPassword.getTenantId()),
+                key -> new BPSPassword(key.get(0), null, key.get(1), null));
+        try (StreamingChunkReader<BPSPassword> stream = keyRotationConfig.getEnableStreamingRead() ?
+                BPSProfileDAO.getInstance().getBpsPasswordStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return BPSProfileDAO.getInstance().getBpsPasswordChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return BPSProfileDAO.getInstance()
+                                .getBpsPasswordChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptBPSChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> BPSProfileDAO.getInstance()
+                            .updateBpsPasswordChunks(midChunkList, keyRotationConfig));
         }
         log.debug("Finished re-encryption of the BPS profile data...");
     }
 
+    /**
+     * Re-encryption of a chunk of the WF_BPS_PROFILE table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting BPS profile data.
+     */
+    private List<BPSPassword> reEncryptBPSChunk(List<BPSPassword> chunkList, KeyRotationConfig keyRotationConfig,
+                                                PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<BPSPassword> midChunkList = new ArrayList<>();
+        for (BPSPassword bpsPassword : chunkList) {
+            if (isOldKeyCipherText(bpsPassword.getPassword(), keyRotationConfig)) {
+                log.debug("Encrypted value " + bpsPassword.getPassword());
+                String reEncryptedValue = symmetricReEncryption(bpsPassword.getPassword(), keyRotationConfig, metrics);
+                bpsPassword.setPassword(reEncryptedValue);
+                log.debug("Re-encrypted value " + bpsPassword.getPassword());
+                midChunkList.add(bpsPassword);
+            }
+        }
+        return midChunkList;
+    }
+
     /**
      * Re-encryption of the WF_REQUEST table data.
      *
@@ -273,29 +632,63 @@ public class DBKeyRotator {
     private void reEncryptWFRequestData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the WF request data...");
-        int startIndex = 0;
-        List<WorkflowRequest> chunkList =
-                WorkFlowDAO.getInstance().getWFRequestChunks(startIndex, keyRotationConfig);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<WorkflowRequest> midChunkList = new ArrayList<>();
-            for (WorkflowRequest wfRequest : chunkList) {
-                for (RequestParameter parameter : wfRequest.getRequestParameters()) {
-                    if (DBConstants.CREDENTIAL.equals(parameter.getName()) &&
-                            !checkPlainText(parameter.getValue().toString())) {
-                        log.debug("Encrypted value " + parameter.getValue().toString());
-                        String reEncryptedValue = symmetricReEncryption(parameter.getValue().toString(),
-                                keyRotationConfig);
-                        parameter.setValue(reEncryptedValue);
-                        log.debug("Re-encrypted value " + parameter.getValue().toString());
-                        midChunkList.add(wfRequest);
-                    }
+        ReEncryptionCheckpoint checkpoint = CheckpointJournal.getInstance().getCheckpoint("WF_REQUEST");
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        ReEncryptionPipeline<WorkflowRequest> pipeline = new ReEncryptionPipeline<>("WF_REQUEST", keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, wfRequest -> Collections.singletonList(wfRequest.getUuid()),
+                key -> {
+                    WorkflowRequest wfRequest = new WorkflowRequest();
+                    wfRequest.setUuid(key.get(0));
+                    return wfRequest;
+                });
+        try (StreamingChunkReader<WorkflowRequest> stream = keyRotationConfig.getEnableStreamingRead() ?
+                WorkFlowDAO.getInstance().getWFRequestStream(keyRotationConfig) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return WorkFlowDAO.getInstance().getWFRequestChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig);
+                        }
+                        return WorkFlowDAO.getInstance().getWFRequestChunks(startIndex, chunkSize, keyRotationConfig);
+                    },
+                    chunkList -> reEncryptWFRequestChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> WorkFlowDAO.getInstance()
+                            .updateWFRequestChunks(midChunkList, keyRotationConfig));
+        }
+        log.debug("Finished re-encryption of the WF request data...");
+    }
+
+    /**
+     * Re-encryption of a chunk of the WF_REQUEST table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting WF request data.
+     */
+    private List<WorkflowRequest> reEncryptWFRequestChunk(List<WorkflowRequest> chunkList,
+                                                          KeyRotationConfig keyRotationConfig, PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<WorkflowRequest> midChunkList = new ArrayList<>();
+        for (WorkflowRequest wfRequest : chunkList) {
+            for (RequestParameter parameter : wfRequest.getRequestParameters()) {
+                if (DBConstants.CREDENTIAL.equals(parameter.getName()) &&
+                        isOldKeyCipherText(parameter.getValue().toString(), keyRotationConfig)) {
+                    log.debug("Encrypted value " + parameter.getValue().toString());
+                    String reEncryptedValue = symmetricReEncryption(parameter.getValue().toString(),
+                            keyRotationConfig, metrics);
+                    parameter.setValue(reEncryptedValue);
+                    log.debug("Re-encrypted value " + parameter.getValue().toString());
+                    midChunkList.add(wfRequest);
                 }
             }
-            WorkFlowDAO.getInstance().updateWFRequestChunks(midChunkList, keyRotationConfig);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = WorkFlowDAO.getInstance().getWFRequestChunks(startIndex, keyRotationConfig);
         }
-        log.debug("Finished re-encryption of the WF request data...");
+        return midChunkList;
     }
 
     /**
@@ -307,29 +700,7 @@ public class DBKeyRotator {
     private void reEncryptKeystorePasswordData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the keystore password property data...");
-        RegistryDAO.updateCount = 0;
-        RegistryDAO.failedUpdateCount = 0;
-        int startIndex = 0;
-        List<RegistryProperty> chunkList =
-                RegistryDAO.getInstance().getRegPropertyDataChunks(startIndex, keyRotationConfig,
-                        KeyRotationConstants.REGISTRY_PASSWORD);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<RegistryProperty> midChunkList = new ArrayList<>();
-            for (RegistryProperty regProperty : chunkList) {
-                if (!checkPlainText(regProperty.getRegValue())) {
-                    log.debug("Encrypted value " + regProperty.getRegValue());
-                    String reEncryptedValue = symmetricReEncryption(regProperty.getRegValue(), keyRotationConfig);
-                    regProperty.setRegValue(reEncryptedValue);
-                    log.debug("Re-encrypted value " + regProperty.getRegValue());
-                    midChunkList.add(regProperty);
-                }
-            }
-            RegistryDAO.getInstance().updateRegPropertyDataChunks(midChunkList, keyRotationConfig,
-                    KeyRotationConstants.REGISTRY_PASSWORD);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList = RegistryDAO.getInstance()
-                    .getRegPropertyDataChunks(startIndex, keyRotationConfig, KeyRotationConstants.REGISTRY_PASSWORD);
-        }
+        reEncryptRegPropertyData(keyRotationConfig, KeyRotationConstants.REGISTRY_PASSWORD);
         log.debug("Finished re-encryption of the keystore password property data...");
     }
 
@@ -342,30 +713,7 @@ public class DBKeyRotator {
     private void reEncryptKeystorePrivatekeyPassData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the keystore privatekeyPass property data...");
-        RegistryDAO.updateCount = 0;
-        RegistryDAO.failedUpdateCount = 0;
-        int startIndex = 0;
-        List<RegistryProperty> chunkList =
-                RegistryDAO.getInstance().getRegPropertyDataChunks(startIndex, keyRotationConfig,
-                        KeyRotationConstants.PRIVATE_KEY_PASS);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<RegistryProperty> midChunkList = new ArrayList<>();
-            for (RegistryProperty regProperty : chunkList) {
-                if (!checkPlainText(regProperty.getRegValue())) {
-                    log.debug("Encrypted value " + regProperty.getRegValue());
-                    String reEncryptedValue = symmetricReEncryption(regProperty.getRegValue(), keyRotationConfig);
-                    regProperty.setRegValue(reEncryptedValue);
-                    log.debug("Re-encrypted value " + regProperty.getRegValue());
-                    midChunkList.add(regProperty);
-                }
-            }
-            RegistryDAO.getInstance().updateRegPropertyDataChunks(midChunkList, keyRotationConfig,
-                    KeyRotationConstants.PRIVATE_KEY_PASS);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList =
-                    RegistryDAO.getInstance().getRegPropertyDataChunks(startIndex, keyRotationConfig,
-                            KeyRotationConstants.PRIVATE_KEY_PASS);
-        }
+        reEncryptRegPropertyData(keyRotationConfig, KeyRotationConstants.PRIVATE_KEY_PASS);
         log.debug("Finished re-encryption of the keystore privatekeyPass property data...");
     }
 
@@ -378,31 +726,167 @@ public class DBKeyRotator {
     private void reEncryptSubscriberPasswordData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started re-encryption of the subscriber password property data...");
-        RegistryDAO.updateCount = 0;
-        RegistryDAO.failedUpdateCount = 0;
-        int startIndex = 0;
-        List<RegistryProperty> chunkList =
-                RegistryDAO.getInstance().getRegPropertyDataChunks(startIndex, keyRotationConfig,
-                        KeyRotationConstants.SUBSCRIBER_PASSWORD);
-        while (CollectionUtils.isNotEmpty(chunkList)) {
-            List<RegistryProperty> midChunkList = new ArrayList<>();
-            for (RegistryProperty regProperty : chunkList) {
-                if (!checkPlainText(regProperty.getRegValue())) {
-                    log.debug("Encrypted value " + regProperty.getRegValue());
-                    String reEncryptedValue = symmetricReEncryption(regProperty.getRegValue(), keyRotationConfig);
-                    regProperty.setRegValue(reEncryptedValue);
-                    log.debug("Re-encrypted value " + regProperty.getRegValue());
-                    midChunkList.add(regProperty);
+        reEncryptRegPropertyData(keyRotationConfig, KeyRotationConstants.SUBSCRIBER_PASSWORD);
+        log.debug("Finished re-encryption of the subscriber password property data...");
+    }
+
+    /**
+     * Re-encryption of the given property in REG_PROPERTY table.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param property          The name of the property.
+     * @throws KeyRotationException Exception thrown while re-encrypting the property data.
+     */
+    private void reEncryptRegPropertyData(KeyRotationConfig keyRotationConfig, String property)
+            throws KeyRotationException {
+
+        ReEncryptionCheckpoint checkpoint =
+                CheckpointJournal.getInstance().getCheckpoint(DBConstants.REG_PROPERTY_PHASE_PREFIX + property);
+        PhaseMetrics metrics = restorePhaseMetrics(checkpoint);
+        ReEncryptionPipeline<RegistryProperty> pipeline =
+                new ReEncryptionPipeline<>(DBConstants.REG_PROPERTY_PHASE_PREFIX + property, keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint,
+                regProperty -> Arrays.asList(regProperty.getRegId(), regProperty.getRegTenantId()),
+                key -> new RegistryProperty(key.get(0), property, null, key.get(1)));
+        try (StreamingChunkReader<RegistryProperty> stream = keyRotationConfig.getEnableStreamingRead() ?
+                RegistryDAO.getInstance().getRegPropertyDataStream(keyRotationConfig, property) : null) {
+            pipeline.run(
+                    (previousChunk, startIndex, chunkSize) -> {
+                        if (stream != null) {
+                            return stream.read(startIndex, chunkSize);
+                        }
+                        if (previousChunk != null && keyRotationConfig.getEnableKeysetPagination()) {
+                            return RegistryDAO.getInstance().getRegPropertyDataChunksAfter(
+                                    previousChunk.get(previousChunk.size() - 1), chunkSize, keyRotationConfig,
+                                    property);
+                        }
+                        return RegistryDAO.getInstance()
+                                .getRegPropertyDataChunks(startIndex, chunkSize, keyRotationConfig, property);
+                    },
+                    chunkList -> reEncryptRegPropertyChunk(chunkList, keyRotationConfig, metrics),
+                    (chunkList, midChunkList) -> RegistryDAO.getInstance()
+                            .updateRegPropertyDataChunks(midChunkList, keyRotationConfig, property));
+        }
+    }
+
+    /**
+     * Re-encryption of a chunk of the REG_PROPERTY table data.
+     *
+     * @param chunkList         The chunk of records read from the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the table.
+     * @return The re-encrypted records.
+     * @throws KeyRotationException Exception thrown while re-encrypting the property data.
+     */
+    private List<RegistryProperty> reEncryptRegPropertyChunk(List<RegistryProperty> chunkList,
+                                                             KeyRotationConfig keyRotationConfig,
+                                                             PhaseMetrics metrics)
+            throws KeyRotationException {
+
+        List<RegistryProperty> midChunkList = new ArrayList<>();
+        for (RegistryProperty regProperty : chunkList) {
+            if (isOldKeyCipherText(regProperty.getRegValue(), keyRotationConfig)) {
+                log.debug("Encrypted value " + regProperty.getRegValue());
+                String reEncryptedValue = symmetricReEncryption(regProperty.getRegValue(), keyRotationConfig, metrics);
+                regProperty.setRegValue(reEncryptedValue);
+                log.debug("Re-encrypted value " + regProperty.getRegValue());
+                midChunkList.add(regProperty);
+            }
+        }
+        return midChunkList;
+    }
+
+    /**
+     * Restores the counters of a table, including the records read by the previous run, from its checkpoint and the
+     * checkpoints of its key ranges, and lets the checkpoint record the counters of the table
+     * after every chunk.
+     *
+     * @param checkpoint The checkpoint of the table.
+     * @return The metrics of the table.
+     */
+    private PhaseMetrics restorePhaseMetrics(ReEncryptionCheckpoint checkpoint) {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(checkpoint.getPhase());
+        metrics.setCount(PhaseMetrics.Counter.UPDATED, checkpoint.getUpdateCount());
+        metrics.setCount(PhaseMetrics.Counter.FAILED_UPDATE, checkpoint.getFailedUpdateCount());
+        long scannedCount = checkpoint.getOffset();
+        for (ReEncryptionCheckpoint rangeCheckpoint :
+                CheckpointJournal.getInstance().getCheckpoints(checkpoint.getPhase() + RANGE_PHASE_SEPARATOR)) {
+            scannedCount += rangeCheckpoint.getOffset();
+        }
+        metrics.setCount(PhaseMetrics.Counter.SCANNED, scannedCount);
+        metrics.markStarted();
+        checkpoint.setCounters(() -> metrics.getCount(PhaseMetrics.Counter.UPDATED),
+                () -> metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE));
+        return metrics;
+    }
+
+    /**
+     * Logs the updated and failed record counts of a table.
+     *
+     * @param description Description of the records.
+     * @param phase       The name of the phase.
+     */
+    private void logPhaseCounts(String description, String phase) {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(phase);
+        log.info("Successfully updated " + description + ": " + metrics.getCount(PhaseMetrics.Counter.UPDATED));
+        log.info("Failed " + description + ": " + metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE));
+    }
+
+    /**
+     * Returns the checkpoints of the key ranges of a partitioned table. The ranges recorded by the previous run are
+     * reused, so that a resumed run continues each range where it stopped. Otherwise the ranges are sampled, unless
+     * the previous run had already started re-encrypting the table as a whole. The ranges share the counters of the
+     * table, so that the records of a range failed to update are seen by the chunk size of the range.
+     *
+     * @param checkpoint The checkpoint of the table.
+     * @param metrics    The metrics of the table.
+     * @param sampler    Samples the key ranges of the table.
+     * @return The checkpoints of the key ranges, or an empty list if the table is not split.
+     * @throws KeyRotationException Exception thrown while sampling the key ranges or writing the checkpoints.
+     */
+    private List<ReEncryptionCheckpoint> getRangeCheckpoints(ReEncryptionCheckpoint checkpoint, PhaseMetrics metrics,
+                                                             KeyRangeSampler sampler) throws KeyRotationException {
+
+        CheckpointJournal journal = CheckpointJournal.getInstance();
+        String rangePhasePrefix = checkpoint.getPhase() + RANGE_PHASE_SEPARATOR;
+        List<ReEncryptionCheckpoint> rangeCheckpoints = journal.getCheckpoints(rangePhasePrefix);
+        if (rangeCheckpoints.isEmpty() && checkpoint.getLastKey() == null && checkpoint.getOffset() == 0) {
+            List<KeyRange> keyRanges = sampler.sample();
+            if (keyRanges.size() > 1) {
+                for (int i = 0; i < keyRanges.size(); i++) {
+                    ReEncryptionCheckpoint rangeCheckpoint = journal.getCheckpoint(rangePhasePrefix + i);
+                    rangeCheckpoint.setLowerKey(keyRanges.get(i).getLowerKey());
+                    rangeCheckpoint.setUpperKey(keyRanges.get(i).getUpperKey());
+                    rangeCheckpoints.add(rangeCheckpoint);
                 }
             }
-            RegistryDAO.getInstance().updateRegPropertyDataChunks(midChunkList, keyRotationConfig,
-                    KeyRotationConstants.SUBSCRIBER_PASSWORD);
-            startIndex = startIndex + keyRotationConfig.getChunkSize();
-            chunkList =
-                    RegistryDAO.getInstance()
-                            .getRegPropertyDataChunks(startIndex, keyRotationConfig,
-                                    KeyRotationConstants.SUBSCRIBER_PASSWORD);
         }
-        log.debug("Finished re-encryption of the subscriber password property data...");
+        for (ReEncryptionCheckpoint rangeCheckpoint : rangeCheckpoints) {
+            if (!rangeCheckpoint.isCompleted()) {
+                rangeCheckpoint.setCounters(() -> metrics.getCount(PhaseMetrics.Counter.UPDATED),
+                        () -> metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE));
+            }
+        }
+        if (!rangeCheckpoints.isEmpty()) {
+            journal.save();
+        }
+        return rangeCheckpoints;
+    }
+
+    /**
+     * Samples the key ranges of a table.
+     */
+    @FunctionalInterface
+    private interface KeyRangeSampler {
+
+        /**
+         * Samples the key ranges.
+         *
+         * @return The key ranges of the table.
+         * @throws KeyRotationException Exception thrown while sampling the key ranges.
+         */
+        List<KeyRange> sample() throws KeyRotationException;
     }
 }
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.BPSProfileDAO;
+import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
+import org.wso2.carbon.identity.keyrotation.dao.IdentityDAO;
+import org.wso2.carbon.identity.keyrotation.dao.OAuthDAO;
+import org.wso2.carbon.identity.keyrotation.dao.RegistryDAO;
+import org.wso2.carbon.identity.keyrotation.dao.StreamingChunkReader;
+import org.wso2.carbon.identity.keyrotation.dao.WorkFlowDAO;
+import org.wso2.carbon.identity.keyrotation.model.KeyRange;
+import org.wso2.carbon.identity.keyrotation.model.VerificationResult;
+import org.wso2.carbon.identity.keyrotation.util.EncryptionUtil;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+import org.wso2.carbon.identity.workflow.mgt.bean.RequestParameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.classifyCipherText;
+import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.symmetricDecryption;
+
+/**
+ * This class holds the verification service of the DB re-encryption. Every table re-encrypted by the
+ * {@link DBKeyRotator} is read through a read-only streaming cursor and each encrypted value is decrypted with the
+ * new key, or failing that with the old key, so that the values still encrypted with the old key, left in plaintext
+ * or undecryptable can be counted.
+ */
+public class DBVerifier {
+
+    private static final Logger log = Logger.getLogger(DBVerifier.class);
+    private static final DBVerifier instance = new DBVerifier();
+
+    public static DBVerifier getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Verification of the identity and registry DB data. The tables are scanned at the same time, and the tables
+     * split into key ranges have their ranges scanned at the same time as well.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The verification results of the tables, in the order they are re-encrypted.
+     * @throws KeyRotationException Exception thrown while scanning the identity and registry DB data.
+     */
+    public List<VerificationResult> verifyDB(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        log.info("Started verifying identity and registry DB data...");
+        List<VerificationResult> results = new ArrayList<>();
+        ReEncryptionPhaseScheduler scheduler =
+                new ReEncryptionPhaseScheduler("db-verifier", keyRotationConfig.getReEncryptionThreadCount(),
+                        keyRotationConfig.getEnableVirtualThreads());
+        VerificationResult totpResult = addResult(results, "IDN_IDENTITY_USER_DATA");
+        scheduler.submit(totpResult.getPhase(), () -> verifyTable(totpResult,
+                () -> IdentityDAO.getInstance().getTOTPSecretsStream(keyRotationConfig),
+                totpSecret -> Collections.singletonList(totpSecret.getDataValue()), keyRotationConfig));
+        VerificationResult codeResult = addResult(results, "IDN_OAUTH2_AUTHORIZATION_CODE");
+        scheduler.submit(codeResult.getPhase(), () -> verifyPartitionedTable(codeResult,
+                () -> OAuthDAO.getInstance().getOAuthCodeKeyRanges(keyRotationConfig.getTablePartitionCount(),
+                        keyRotationConfig),
+                keyRange -> () -> OAuthDAO.getInstance().getOAuthCodeStream(keyRange, keyRotationConfig),
+                oAuthCode -> Collections.singletonList(oAuthCode.getAuthorizationCode()), keyRotationConfig));
+        VerificationResult tokenResult = addResult(results, "IDN_OAUTH2_ACCESS_TOKEN");
+        scheduler.submit(tokenResult.getPhase(), () -> verifyPartitionedTable(tokenResult,
+                () -> OAuthDAO.getInstance().getOAuthTokenKeyRanges(keyRotationConfig.getTablePartitionCount(),
+                        keyRotationConfig),
+                keyRange -> () -> OAuthDAO.getInstance().getOAuthTokenStream(keyRange, keyRotationConfig),
+                oAuthToken -> Arrays.asList(oAuthToken.getAccessToken(), oAuthToken.getRefreshToken()),
+                keyRotationConfig));
+        VerificationResult secretResult = addResult(results, "IDN_OAUTH_CONSUMER_APPS");
+        scheduler.submit(secretResult.getPhase(), () -> verifyTable(secretResult,
+                () -> OAuthDAO.getInstance().getOAuthSecretStream(keyRotationConfig),
+                oAuthSecret -> Collections.singletonList(oAuthSecret.getConsumerSecret()), keyRotationConfig));
+        VerificationResult bpsResult = addResult(results, "WF_BPS_PROFILE");
+        scheduler.submit(bpsResult.getPhase(), () -> verifyTable(bpsResult,
+                () -> BPSProfileDAO.getInstance().getBpsPasswordStream(keyRotationConfig),
+                bpsPassword -> Collections.singletonList(bpsPassword.getPassword()), keyRotationConfig));
+        VerificationResult wfRequestResult = addResult(results, "WF_REQUEST");
+        scheduler.submit(wfRequestResult.getPhase(), () -> verifyTable(wfRequestResult,
+                () -> WorkFlowDAO.getInstance().getWFRequestStream(keyRotationConfig),
+                wfRequest -> {
+                    List<String> values = new ArrayList<>();
+                    for (RequestParameter parameter : wfRequest.getRequestParameters()) {
+                        if (DBConstants.CREDENTIAL.equals(parameter.getName())) {
+                            values.add(parameter.getValue().toString());
+                        }
+                    }
+                    return values;
+                }, keyRotationConfig));
+        for (String property : Arrays.asList(KeyRotationConstants.REGISTRY_PASSWORD,
+                KeyRotationConstants.PRIVATE_KEY_PASS, KeyRotationConstants.SUBSCRIBER_PASSWORD)) {
+            VerificationResult propertyResult = addResult(results, DBConstants.REG_PROPERTY_PHASE_PREFIX + property);
+            scheduler.submit(propertyResult.getPhase(), () -> verifyTable(propertyResult,
+                    () -> RegistryDAO.getInstance().getRegPropertyDataStream(keyRotationConfig, property),
+                    registryProperty -> Collections.singletonList(registryProperty.getRegValue()),
+                    keyRotationConfig));
+        }
+        scheduler.awaitCompletion();
+        logSummary(results);
+        log.info("Finished verifying identity and registry DB data...\n");
+        return results;
+    }
+
+    /**
+     * Creates the verification result of a phase and adds it to the results.
+     *
+     * @param results The verification results.
+     * @param phase   The name of the phase.
+     * @return The verification result of the phase.
+     */
+    private VerificationResult addResult(List<VerificationResult> results, String phase) {
+
+        VerificationResult result = new VerificationResult(phase);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Verification of a table which can be split into key ranges. When the table is split, each key range is scanned
+     * through its own streaming cursor, at the same time as the other ranges.
+     *
+     * @param result            The verification result of the table.
+     * @param sampler           Samples the key ranges of the table.
+     * @param streamFactory     Opens the streaming cursor of a key range.
+     * @param valueExtractor    Returns the encrypted values of a record.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param <T>               Type of the records of the table.
+     * @throws KeyRotationException Exception thrown while scanning the table.
+     */
+    private <T> void verifyPartitionedTable(VerificationResult result, KeyRangeSampler sampler,
+                                            RangeStreamFactory<T> streamFactory, ValueExtractor<T> valueExtractor,
+                                            KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        List<KeyRange> keyRanges = keyRotationConfig.getTablePartitionCount() > 1 ?
+                sampler.sample() : Collections.emptyList();
+        if (keyRanges.size() <= 1) {
+            verifyTable(result, streamFactory.open(new KeyRange(null, null)), valueExtractor, keyRotationConfig);
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler(result.getPhase(),
+                ReEncryptionPhaseScheduler.getRangeParallelism(keyRanges.size(), keyRotationConfig),
+                keyRotationConfig.getEnableVirtualThreads());
+        for (KeyRange keyRange : keyRanges) {
+            scheduler.submit(result.getPhase() + " " + keyRange,
+                    () -> scan(result, streamFactory.open(keyRange), valueExtractor, keyRotationConfig));
+        }
+        scheduler.awaitCompletion();
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logResult(result);
+    }
+
+    /**
+     * Verification of a table through a single streaming cursor.
+     *
+     * @param result            The verification result of the table.
+     * @param streamFactory     Opens the streaming cursor of the table.
+     * @param valueExtractor    Returns the encrypted values of a record.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param <T>               Type of the records of the table.
+     * @throws KeyRotationException Exception thrown while scanning the table.
+     */
+    private <T> void verifyTable(VerificationResult result, StreamFactory<T> streamFactory,
+                                 ValueExtractor<T> valueExtractor, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        long startTime = System.currentTimeMillis();
+        scan(result, streamFactory, valueExtractor, keyRotationConfig);
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logResult(result);
+    }
+
+    /**
+     * Reads every record of a streaming cursor and counts the outcome of each record in the verification result.
+     *
+     * @param result            The verification result of the table.
+     * @param streamFactory     Opens the streaming cursor to be read.
+     * @param valueExtractor    Returns the encrypted values of a record.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param <T>               Type of the records of the table.
+     * @throws KeyRotationException Exception thrown while reading the records.
+     */
+    private <T> void scan(VerificationResult result, StreamFactory<T> streamFactory, ValueExtractor<T> valueExtractor,
+                          KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+
+        try (StreamingChunkReader<T> stream = streamFactory.open()) {
+            List<T> chunkList = stream.read(0, keyRotationConfig.getChunkSize());
+            while (!chunkList.isEmpty()) {
+                for (T record : chunkList) {
+                    result.record(verifyRecord(valueExtractor.getValues(record), keyRotationConfig));
+                }
+                chunkList = stream.read(0, keyRotationConfig.getChunkSize());
+            }
+        }
+    }
+
+    /**
+     * Returns the outcome of a record, which is the worst outcome of its encrypted values. A record without any
+     * value is counted as plaintext.
+     *
+     * @param values            The encrypted values of the record.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The outcome of the record.
+     * @throws KeyRotationException Exception thrown while classifying the values.
+     */
+    private VerificationResult.Outcome verifyRecord(List<String> values, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        VerificationResult.Outcome outcome = null;
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            VerificationResult.Outcome valueOutcome = verifyValue(value, keyRotationConfig);
+            if (outcome == null || valueOutcome.compareTo(outcome) > 0) {
+                outcome = valueOutcome;
+            }
+        }
+        return outcome == null ? VerificationResult.Outcome.PLAINTEXT : outcome;
+    }
+
+    /**
+     * Returns the outcome of an encrypted value. A ciphertext is decrypted with the new key first and then with the
+     * old key, whatever its envelope says, as a value left untagged under the new key is valid as well. A ciphertext
+     * which neither key decrypts is counted as undecryptable.
+     *
+     * @param value             The encrypted value.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return The outcome of the value.
+     * @throws KeyRotationException Exception thrown while classifying the value.
+     */
+    private VerificationResult.Outcome verifyValue(String value, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        if (classifyCipherText(value, keyRotationConfig) == EncryptionUtil.CipherTextType.PLAINTEXT) {
+            return VerificationResult.Outcome.PLAINTEXT;
+        }
+        if (canDecrypt(value, keyRotationConfig.getNewSecretKey())) {
+            return VerificationResult.Outcome.OK;
+        }
+        if (canDecrypt(value, keyRotationConfig.getOldSecretKey())) {
+            return VerificationResult.Outcome.OLD_KEY;
+        }
+        log.debug("Could not decrypt the value " + value + " with the new or the old key.");
+        return VerificationResult.Outcome.UNDECRYPTABLE;
+    }
+
+    /**
+     * Returns whether a ciphertext can be decrypted with a key.
+     *
+     * @param value     The ciphertext.
+     * @param secretKey The data encryption key.
+     * @return True if the key decrypts the ciphertext.
+     */
+    private boolean canDecrypt(String value, String secretKey) {
+
+        try {
+            symmetricDecryption(value, secretKey);
+            return true;
+        } catch (KeyRotationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Logs the outcome counts and the scan rate of a table.
+     *
+     * @param result The verification result of the table.
+     */
+    private void logResult(VerificationResult result) {
+
+        long elapsedMillis = Math.max(result.getElapsedMillis(), 1);
+        log.info(String.format(Locale.ENGLISH, "Verified %s: %d ok, %d encrypted with the old key, %d plaintext, " +
+                        "%d undecryptable records in %d ms (%.0f records/s).", result.getPhase(),
+                result.getCount(VerificationResult.Outcome.OK), result.getCount(VerificationResult.Outcome.OLD_KEY),
+                result.getCount(VerificationResult.Outcome.PLAINTEXT),
+                result.getCount(VerificationResult.Outcome.UNDECRYPTABLE), result.getElapsedMillis(),
+                result.getTotalCount() * 1000.0 / elapsedMillis));
+    }
+
+    /**
+     * Logs the outcome counts of all the tables.
+     *
+     * @param results The verification results of the tables.
+     */
+    private void logSummary(List<VerificationResult> results) {
+
+        long[] totals = new long[VerificationResult.Outcome.values().length];
+        for (VerificationResult result : results) {
+            for (VerificationResult.Outcome outcome : VerificationResult.Outcome.values()) {
+                totals[outcome.ordinal()] += result.getCount(outcome);
+            }
+        }
+        log.info("Verification of the DB re-encryption: " + totals[VerificationResult.Outcome.OK.ordinal()] +
+                " ok, " + totals[VerificationResult.Outcome.OLD_KEY.ordinal()] + " encrypted with the old key, " +
+                totals[VerificationResult.Outcome.PLAINTEXT.ordinal()] + " plaintext, " +
+                totals[VerificationResult.Outcome.UNDECRYPTABLE.ordinal()] + " undecryptable records.");
+    }
+
+    /**
+     * Opens a streaming cursor over the records of a table.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    private interface StreamFactory<T> {
+
+        /**
+         * Opens the streaming cursor.
+         *
+         * @return The streaming cursor.
+         * @throws KeyRotationException Exception thrown while opening the cursor.
+         */
+        StreamingChunkReader<T> open() throws KeyRotationException;
+    }
+
+    /**
+     * Opens a streaming cursor over the records of a key range of a table.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    private interface RangeStreamFactory<T> {
+
+        /**
+         * Returns the factory of the streaming cursor of a key range.
+         *
+         * @param keyRange The key range to be read.
+         * @return The factory of the streaming cursor.
+         */
+        StreamFactory<T> open(KeyRange keyRange);
+    }
+
+    /**
+     * Samples the key ranges of a table.
+     */
+    @FunctionalInterface
+    private interface KeyRangeSampler {
+
+        /**
+         * Samples the key ranges.
+         *
+         * @return The key ranges of the table.
+         * @throws KeyRotationException Exception thrown while sampling the key ranges.
+         */
+        List<KeyRange> sample() throws KeyRotationException;
+    }
+
+    /**
+     * Returns the encrypted values of a record.
+     *
+     * @param <T> Type of the record.
+     */
+    @FunctionalInterface
+    private interface ValueExtractor<T> {
+
+        /**
+         * Returns the encrypted values.
+         *
+         * @param record The record.
+         * @return The encrypted values of the record.
+         */
+        List<String> getValues(T record);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class periodically logs the progress of the re-encryption phases against their estimated number of records,
+ * with the records read per second and the estimated remaining time of each phase in progress and of the whole run.
+ */
+public class ProgressReporter {
+
+    private static final Logger log = Logger.getLogger(ProgressReporter.class);
+    private static final ProgressReporter instance = new ProgressReporter();
+    private final Map<String, Long> reportedCounts = new HashMap<>();
+    private ScheduledExecutorService executorService;
+    private List<String> phases;
+    private long startTime;
+
+    public static ProgressReporter getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To start reporting the progress of the given phases periodically.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param phases            Names of the phases, whose estimated number of records are set in their metrics.
+     */
+    public synchronized void start(KeyRotationConfig keyRotationConfig, List<String> phases) {
+
+        if (executorService != null) {
+            return;
+        }
+        this.phases = new ArrayList<>(phases);
+        reportedCounts.clear();
+        startTime = System.nanoTime();
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = keyRotationConfig.getProgressReportInterval();
+        executorService.scheduleWithFixedDelay(this::report, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * To stop reporting the progress.
+     */
+    public synchronized void stop() {
+
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdownNow();
+        executorService = null;
+    }
+
+    /**
+     * Logs the progress of each phase which read records since the last report, followed by the progress of the whole
+     * run. The phases which could not be estimated are left out.
+     */
+    private synchronized void report() {
+
+        for (String phase : phases) {
+            PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(phase);
+            long scannedCount = metrics.getCount(PhaseMetrics.Counter.SCANNED);
+            Long reportedCount = reportedCounts.put(phase, scannedCount);
+            if (!metrics.isStarted() || metrics.getEstimatedCount() < 0 ||
+                    (reportedCount != null && reportedCount == scannedCount)) {
+                continue;
+            }
+            log.info(formatProgress(phase, scannedCount, metrics.getEstimatedCount(), metrics.getScanRate()));
+        }
+        long scannedCount = 0;
+        long runScannedCount = 0;
+        long estimatedCount = 0;
+        for (String phase : phases) {
+            PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(phase);
+            if (metrics.getEstimatedCount() < 0) {
+                continue;
+            }
+            scannedCount += metrics.getCount(PhaseMetrics.Counter.SCANNED);
+            runScannedCount += metrics.getRunScannedCount();
+            estimatedCount += metrics.getEstimatedCount();
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        double rate = elapsedNanos > 0 ? runScannedCount * 1e9 / elapsedNanos : 0;
+        log.info(formatProgress("all the DB tables", scannedCount, estimatedCount, rate));
+    }
+
+    /**
+     * Formats the progress of a phase.
+     *
+     * @param phase          Name of the phase.
+     * @param scannedCount   Number of records read.
+     * @param estimatedCount Estimated number of records.
+     * @param rate           Records read per second.
+     * @return The formatted progress.
+     */
+    private static String formatProgress(String phase, long scannedCount, long estimatedCount, double rate) {
+
+        double percentage = estimatedCount > 0 ? Math.min(100, scannedCount * 100.0 / estimatedCount) : 100;
+        long remainingCount = Math.max(0, estimatedCount - scannedCount);
+        String remainingTime = "unknown";
+        if (remainingCount == 0) {
+            remainingTime = formatDuration(0);
+        } else if (rate > 0) {
+            remainingTime = formatDuration(Math.round(remainingCount / rate));
+        }
+        return String.format(Locale.ENGLISH, "Progress of %s: %d of about %d records read (%.1f%%), %.0f records/s, " +
+                "ETA %s.", phase, scannedCount, estimatedCount, percentage, rate, remainingTime);
+    }
+
+    /**
+     * Formats a duration as hours, minutes and seconds.
+     *
+     * @param seconds The duration in seconds.
+     * @return The formatted duration.
+     */
+    private static String formatDuration(long seconds) {
+
+        return String.format(Locale.ENGLISH, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
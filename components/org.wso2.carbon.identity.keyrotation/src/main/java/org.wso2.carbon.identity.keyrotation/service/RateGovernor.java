@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.DBConnectionManager;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class limits the rate of the DB re-encryption, so that it can run against a live identity DB. The tables take
+ * the records they read from a token bucket shared by all of them and filled at the allowed rate. The allowed rate is
+ * halved whenever a chunk write or the probe query takes longer than the latency threshold, and recovers step by step,
+ * at most once a second, while they are faster. The probe query runs on a dedicated connection, so that its latency
+ * does not include the wait for a pooled connection. The configured rate can be replaced while the tool runs through
+ * the throttle control file.
+ */
+public class RateGovernor {
+
+    private static final Logger log = Logger.getLogger(RateGovernor.class);
+    private static final RateGovernor instance = new RateGovernor();
+    private static final int CHECK_INTERVAL_SECONDS = 5;
+    private static final long PAUSE_POLL_MILLIS = 1000;
+    private static final long BACKOFF_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double BACKOFF_FACTOR = 0.5;
+    private static final double RECOVERY_STEP = 0.05;
+    private static final double MIN_RATE_FACTOR = 0.05;
+    private volatile boolean enabled;
+    private ScheduledExecutorService executorService;
+    private KeyRotationConfig keyRotationConfig;
+    private long latencyThresholdNanos;
+    private int maxRowsPerSecond;
+    private double rateFactor;
+    private double availableRows;
+    private long refillTime;
+    private long backoffTime;
+    private long recoveryTime;
+    private Connection probeConnection;
+    private long controlFileModifiedTime;
+
+    public static RateGovernor getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To start limiting the rate of the DB re-encryption, if throttling is enabled.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public synchronized void start(KeyRotationConfig keyRotationConfig) {
+
+        if (!keyRotationConfig.getEnableThrottling() || executorService != null) {
+            return;
+        }
+        this.keyRotationConfig = keyRotationConfig;
+        latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(keyRotationConfig.getLatencyThreshold());
+        maxRowsPerSecond = keyRotationConfig.getMaxRowsPerSecond();
+        rateFactor = 1;
+        availableRows = 0;
+        refillTime = System.nanoTime();
+        backoffTime = refillTime - BACKOFF_INTERVAL_NANOS;
+        recoveryTime = backoffTime;
+        controlFileModifiedTime = 0;
+        readControlFile();
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-governor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        enabled = true;
+        log.info("Throttling the DB re-encryption to " + maxRowsPerSecond + " records per second.");
+    }
+
+    /**
+     * To stop limiting the rate of the DB re-encryption.
+     */
+    public void stop() {
+
+        ScheduledExecutorService stoppedExecutorService;
+        synchronized (this) {
+            if (executorService == null) {
+                return;
+            }
+            enabled = false;
+            stoppedExecutorService = executorService;
+            executorService = null;
+        }
+        stoppedExecutorService.shutdownNow();
+        try {
+            // Wait outside the lock for a running check, which adjusts the rate under the lock, since the probe
+            // connection is only used by the executor thread.
+            if (!stoppedExecutorService.awaitTermination(CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Timed out while waiting for the probe query to stop.");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        closeProbeConnection();
+    }
+
+    /**
+     * To wait until the given number of records are allowed by the current rate. The records are taken from the
+     * bucket right away, so that a chunk larger than the bucket waits for the time it takes to fill it at the rate.
+     *
+     * @param rowCount Number of records read.
+     * @throws KeyRotationException Exception thrown if the thread is interrupted while waiting.
+     */
+    public void acquire(int rowCount) throws KeyRotationException {
+
+        if (!enabled) {
+            return;
+        }
+        try {
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    double rate = getRate();
+                    if (rate > 0) {
+                        refill(rate);
+                        availableRows -= rowCount;
+                        waitNanos = availableRows < 0 ? (long) (-availableRows / rate * 1e9) : 0;
+                    } else {
+                        // Paused through the control file, hence the records are not taken until it is resumed.
+                        waitNanos = -1;
+                    }
+                }
+                if (waitNanos >= 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    return;
+                }
+                TimeUnit.MILLISECONDS.sleep(PAUSE_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeyRotationException("Interrupted while waiting for the throttled rate.", e);
+        }
+    }
+
+    /**
+     * To record the time taken to write a chunk, which backs the rate off when it exceeds the latency threshold.
+     *
+     * @param nanos Time taken to write the chunk.
+     */
+    public void recordWriteLatency(long nanos) {
+
+        if (enabled) {
+            adjust(nanos, "chunk write");
+        }
+    }
+
+    /**
+     * Returns the allowed number of records per second.
+     *
+     * @return Allowed rate.
+     */
+    synchronized double getRate() {
+
+        return maxRowsPerSecond * rateFactor;
+    }
+
+    /**
+     * To fill the bucket for the time elapsed since the last fill. The bucket holds the records of one second.
+     *
+     * @param rate Allowed rate.
+     */
+    private void refill(double rate) {
+
+        long now = System.nanoTime();
+        availableRows = Math.min(rate, availableRows + (now - refillTime) * rate / 1e9);
+        refillTime = now;
+    }
+
+    /**
+     * To back the rate off when a latency exceeds the threshold, and to recover the rate step by step otherwise. Both
+     * happen at most once a second, since the concurrent writes observe the same load.
+     *
+     * @param nanos  The measured latency.
+     * @param source Source of the latency used in the logs.
+     */
+    private synchronized void adjust(long nanos, String source) {
+
+        long now = System.nanoTime();
+        if (nanos > latencyThresholdNanos) {
+            if (now - backoffTime < BACKOFF_INTERVAL_NANOS || rateFactor <= MIN_RATE_FACTOR) {
+                return;
+            }
+            backoffTime = now;
+            recoveryTime = now;
+            rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor * BACKOFF_FACTOR);
+            log.info("Backing off the DB re-encryption to " + Math.round(getRate()) + " records per second, as a " +
+                    source + " took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms.");
+        } else if (rateFactor < 1 && now - recoveryTime >= BACKOFF_INTERVAL_NANOS) {
+            recoveryTime = now;
+            rateFactor = Math.min(1, rateFactor + RECOVERY_STEP);
+        }
+    }
+
+    /**
+     * To read the throttle control file if it changed, and to run the probe query.
+     */
+    private void check() {
+
+        readControlFile();
+        probe();
+    }
+
+    /**
+     * To run the probe query on the dedicated connection to the new identity DB and to adjust the rate with its
+     * latency. The connection is opened again on the next check if the query fails.
+     */
+    private void probe() {
+
+        String probeQuery = keyRotationConfig.getProbeQuery();
+        if (StringUtils.isBlank(probeQuery)) {
+            return;
+        }
+        long startTime;
+        try {
+            if (probeConnection == null) {
+                probeConnection = DBConnectionManager.getInstance().openDedicatedNewIdnConnection(keyRotationConfig);
+                probeConnection.setAutoCommit(true);
+            }
+            startTime = System.nanoTime();
+            try (Statement statement = probeConnection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(probeQuery)) {
+                resultSet.next();
+            }
+        } catch (SQLException e) {
+            log.warn("Error while running the probe query.", e);
+            closeProbeConnection();
+            return;
+        }
+        adjust(System.nanoTime() - startTime, "probe query");
+    }
+
+    /**
+     * To close the dedicated connection of the probe query.
+     */
+    private void closeProbeConnection() {
+
+        if (probeConnection == null) {
+            return;
+        }
+        try {
+            probeConnection.close();
+        } catch (SQLException e) {
+            log.debug("Error while closing the probe connection.", e);
+        } finally {
+            probeConnection = null;
+        }
+    }
+
+    /**
+     * To replace the allowed number of records per second with the value of the throttle control file, when the file
+     * changed since it was last read.
+     */
+    private void readControlFile() {
+
+        Path controlFile = Paths.get(keyRotationConfig.getThrottleControlFile());
+        if (!Files.isRegularFile(controlFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try {
+            long modifiedTime = Files.getLastModifiedTime(controlFile).toMillis();
+            if (modifiedTime == controlFileModifiedTime) {
+                return;
+            }
+            controlFileModifiedTime = modifiedTime;
+            try (InputStream inputStream = Files.newInputStream(controlFile)) {
+                properties.load(inputStream);
+            }
+        } catch (IOException e) {
+            log.warn("Error while reading the throttle control file " + controlFile + ".", e);
+            return;
+        }
+        String value = properties.getProperty(KeyRotationConstants.MAX_ROWS_PER_SECOND);
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+        try {
+            int rowsPerSecond = Integer.parseInt(value.trim());
+            if (rowsPerSecond < 0) {
+                throw new NumberFormatException("Negative rate: " + rowsPerSecond);
+            }
+            synchronized (this) {
+                maxRowsPerSecond = rowsPerSecond;
+            }
+            log.info(rowsPerSecond == 0 ? "Paused the DB re-encryption through the throttle control file." :
+                    "Throttling the DB re-encryption to " + rowsPerSecond + " records per second through the " +
+                            "throttle control file.");
+        } catch (NumberFormatException e) {
+            log.warn("Not a valid number for " + KeyRotationConstants.MAX_ROWS_PER_SECOND + " in the throttle " +
+                    "control file " + controlFile + ".", e);
+        }
+    }
+}
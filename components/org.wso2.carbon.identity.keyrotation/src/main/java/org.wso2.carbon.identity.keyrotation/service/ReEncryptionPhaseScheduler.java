@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * This class runs independent re-encryption phases on worker threads and collects their results.
+ */
+public class ReEncryptionPhaseScheduler {
+
+    private static final Logger log = Logger.getLogger(ReEncryptionPhaseScheduler.class);
+    private final ExecutorService executorService;
+    private final Map<String, Future<Long>> phases = new LinkedHashMap<>();
+
+    /**
+     * ReEncryptionPhaseScheduler class constructor.
+     *
+     * @param name           Name used for the worker threads.
+     * @param parallelism    Maximum number of phases run at the same time.
+     * @param virtualThreads Whether the phases run on virtual threads, when supported.
+     */
+    public ReEncryptionPhaseScheduler(String name, int parallelism, boolean virtualThreads) {
+
+        this.executorService = WorkerThreads.getInstance().newExecutor(name, parallelism, virtualThreads);
+    }
+
+    /**
+     * Returns the number of key ranges of a table which are re-encrypted at the same time. Each running table borrows
+     * a pooled connection, hence the ranges of a table share the connections which the other running tables leave,
+     * and no more than tablePartitionCount ranges run, however many ranges the previous run recorded.
+     *
+     * @param rangeCount        Number of key ranges of the table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Maximum number of key ranges run at the same time.
+     */
+    public static int getRangeParallelism(int rangeCount, KeyRotationConfig keyRotationConfig) {
+
+        int connectionBudget = keyRotationConfig.getConnectionPoolSize() -
+                keyRotationConfig.getReEncryptionThreadCount() + 1;
+        return Math.max(1, Math.min(rangeCount, Math.min(keyRotationConfig.getTablePartitionCount(),
+                connectionBudget)));
+    }
+
+    /**
+     * To schedule a phase. Phases start in the order they are submitted.
+     *
+     * @param phaseName Name of the phase used in the logs.
+     * @param phase     The phase to be run.
+     */
+    public void submit(String phaseName, Phase phase) {
+
+        phases.put(phaseName, executorService.submit(() -> {
+            long startTime = System.currentTimeMillis();
+            phase.run();
+            return System.currentTimeMillis() - startTime;
+        }));
+    }
+
+    /**
+     * To wait until all the submitted phases finish. A failed phase does not stop the others.
+     *
+     * @throws KeyRotationException Exception thrown if one or more phases failed.
+     */
+    public void awaitCompletion() throws KeyRotationException {
+
+        List<String> failedPhases = new ArrayList<>();
+        KeyRotationException failure = null;
+        try {
+            for (Map.Entry<String, Future<Long>> phase : phases.entrySet()) {
+                try {
+                    log.info("Phase " + phase.getKey() + " finished in " + phase.getValue().get() + " ms.");
+                } catch (ExecutionException e) {
+                    log.error("Phase " + phase.getKey() + " failed.", e.getCause());
+                    failedPhases.add(phase.getKey());
+                    if (failure == null) {
+                        failure = new KeyRotationException("Error while running re-encryption phase " +
+                                phase.getKey() + ".", e.getCause());
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executorService.shutdownNow();
+            throw new KeyRotationException("Error while thread waiting, sleeping or being occupied.", e);
+        } finally {
+            executorService.shutdown();
+        }
+        if (failure != null) {
+            throw new KeyRotationException("Re-encryption failed for the phases: " + failedPhases, failure);
+        }
+    }
+
+    /**
+     * A unit of re-encryption work that can run concurrently with other phases.
+     */
+    @FunctionalInterface
+    public interface Phase {
+
+        /**
+         * Runs the phase.
+         *
+         * @throws KeyRotationException Exception thrown while running the phase.
+         */
+        void run() throws KeyRotationException;
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.model.ReEncryptionCheckpoint;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * This class re-encrypts a table chunk by chunk. When pipelining is enabled, the next chunks are read while the
+ * current ones are re-encrypted on the crypto threads and the previous ones are written, otherwise each chunk is
+ * read, re-encrypted and written before the next one is read. With a checkpoint, the position of every written chunk
+ * is recorded in the checkpoint journal and the pipeline starts after the last chunk recorded by a previous run.
+ * The size of every chunk is taken from the chunk size controller of the table, which is given the cost of every
+ * written chunk.
+ *
+ * @param <T> Type of the records of the table.
+ */
+public class ReEncryptionPipeline<T> {
+
+    private static final Logger log = Logger.getLogger(ReEncryptionPipeline.class);
+    private static final long POLL_INTERVAL_MILLIS = 100L;
+    private final String name;
+    private final ChunkSizeController chunkSizeController;
+    private final PhaseMetrics metrics;
+    private final boolean pipelined;
+    private final int cryptoThreadCount;
+    private final int queueSize;
+    private final boolean virtualThreads;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private ReEncryptionCheckpoint checkpoint;
+    private Function<T, List<String>> keyExtractor;
+    private Function<List<String>, T> keyRecordBuilder;
+    private volatile boolean readCompleted;
+    private volatile long readChunkCount;
+
+    /**
+     * ReEncryptionPipeline class constructor.
+     *
+     * @param name              Name of the table used in the logs, for the stage threads and for the metrics.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public ReEncryptionPipeline(String name, KeyRotationConfig keyRotationConfig) {
+
+        this.name = name;
+        this.chunkSizeController = new ChunkSizeController(name, keyRotationConfig);
+        this.metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(name);
+        this.pipelined = keyRotationConfig.getEnableReEncryptionPipeline();
+        this.cryptoThreadCount = keyRotationConfig.getCryptoThreadCount();
+        this.queueSize = keyRotationConfig.getPipelineQueueSize();
+        this.virtualThreads = keyRotationConfig.getEnableVirtualThreads();
+    }
+
+    /**
+     * To record the progress of the pipeline in the given checkpoint and to resume from it.
+     *
+     * @param checkpoint       The checkpoint of the table.
+     * @param keyExtractor     Returns the primary key values of a record.
+     * @param keyRecordBuilder Builds a record holding only the given primary key values, which the reader is given
+     *                         as the previous chunk when resuming.
+     */
+    public void setCheckpoint(ReEncryptionCheckpoint checkpoint, Function<T, List<String>> keyExtractor,
+                              Function<List<String>, T> keyRecordBuilder) {
+
+        this.checkpoint = checkpoint;
+        this.keyExtractor = keyExtractor;
+        this.keyRecordBuilder = keyRecordBuilder;
+    }
+
+    /**
+     * To re-encrypt all the chunks returned by the reader. A pipeline runs only once.
+     *
+     * @param reader      Reads the chunks of the table.
+     * @param reEncryptor Re-encrypts the records of a chunk.
+     * @param writer      Writes the re-encrypted records of a chunk.
+     * @throws KeyRotationException Exception thrown while reading, re-encrypting or writing a chunk.
+     */
+    public void run(ChunkReader<T> reader, ChunkReEncryptor<T> reEncryptor, ChunkWriter<T> writer)
+            throws KeyRotationException {
+
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            log.info("Skipping " + checkpoint.getPhase() + " as it was completed by the previous run.");
+            return;
+        }
+        if (!pipelined) {
+            long startIndex = getResumeIndex();
+            int chunkSize = chunkSizeController.getChunkSize();
+            long readStartTime = System.nanoTime();
+            List<T> chunk = reader.read(getResumeChunk(), startIndex, chunkSize);
+            while (CollectionUtils.isNotEmpty(chunk)) {
+                long readNanos = System.nanoTime() - readStartTime;
+                metrics.recordLatency(PhaseMetrics.Operation.FETCH, readNanos);
+                RateGovernor.getInstance().acquire(chunk.size());
+                long failedUpdateCount = getFailedUpdateCount();
+                long writeStartTime = System.nanoTime();
+                writer.write(chunk, reEncryptor.reEncrypt(chunk));
+                RateGovernor.getInstance().recordWriteLatency(System.nanoTime() - writeStartTime);
+                metrics.add(PhaseMetrics.Counter.SCANNED, chunk.size());
+                chunkSizeController.record(chunkSize, chunk.size(), readNanos + System.nanoTime() - writeStartTime,
+                        getFailedUpdateCount() - failedUpdateCount);
+                startIndex = startIndex + chunk.size();
+                recordCheckpoint(chunk, startIndex);
+                chunkSize = chunkSizeController.getChunkSize();
+                readStartTime = System.nanoTime();
+                chunk = reader.read(chunk, startIndex, chunkSize);
+            }
+            completeCheckpoint();
+            return;
+        }
+        BlockingQueue<Chunk<T>> readQueue = new ArrayBlockingQueue<>(queueSize);
+        BlockingQueue<Chunk<T>> writeQueue = new LinkedBlockingQueue<>();
+        // Bounds the chunks held anywhere in the pipeline, so that a slow chunk cannot make the writer buffer grow.
+        Semaphore inFlightChunks = new Semaphore(2 * queueSize + cryptoThreadCount);
+        ExecutorService executorService =
+                WorkerThreads.getInstance().newExecutor(name + "-pipeline", cryptoThreadCount + 1, virtualThreads);
+        List<Future<?>> stages = new ArrayList<>();
+        try {
+            for (int i = 0; i < cryptoThreadCount; i++) {
+                stages.add(executorService.submit(() -> runCryptoStage(readQueue, writeQueue, reEncryptor)));
+            }
+            stages.add(executorService.submit(() -> runWriterStage(writeQueue, inFlightChunks, writer)));
+            runReaderStage(readQueue, inFlightChunks, reader);
+            for (Future<?> stage : stages) {
+                stage.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        Throwable cause = failure.get();
+        if (cause instanceof KeyRotationException) {
+            throw (KeyRotationException) cause;
+        } else if (cause != null) {
+            throw new KeyRotationException("Error while re-encrypting " + name + ".", cause);
+        }
+        completeCheckpoint();
+    }
+
+    /**
+     * Returns the start index of the first chunk, which is right after the last chunk recorded by a previous run.
+     *
+     * @return Start index of the first chunk.
+     */
+    private long getResumeIndex() {
+
+        return checkpoint == null ? 0 : checkpoint.getOffset();
+    }
+
+    /**
+     * Returns the chunk the first read follows, which holds the last record recorded by a previous run.
+     *
+     * @return The last recorded chunk, or null to read from the start of the table.
+     */
+    private List<T> getResumeChunk() {
+
+        if (checkpoint == null || checkpoint.getLastKey() == null) {
+            return null;
+        }
+        log.info("Resuming " + checkpoint.getPhase() + " after " + checkpoint.getLastKey() + ".");
+        return Collections.singletonList(keyRecordBuilder.apply(checkpoint.getLastKey()));
+    }
+
+    /**
+     * Returns the number of records failed to update so far, to tell the failed updates of a chunk.
+     *
+     * @return Failed update count, or 0 without a checkpoint.
+     */
+    private long getFailedUpdateCount() {
+
+        return checkpoint == null ? 0 : checkpoint.getCurrentFailedUpdateCount();
+    }
+
+    /**
+     * Records the position of a written chunk in the checkpoint journal.
+     *
+     * @param chunk          The written chunk.
+     * @param nextStartIndex Start index of the chunk following the written chunk.
+     * @throws KeyRotationException Exception thrown while writing the checkpoint journal.
+     */
+    private void recordCheckpoint(List<T> chunk, long nextStartIndex) throws KeyRotationException {
+
+        if (checkpoint != null) {
+            CheckpointJournal.getInstance().commit(checkpoint, nextStartIndex,
+                    keyExtractor.apply(chunk.get(chunk.size() - 1)));
+        }
+    }
+
+    /**
+     * Records in the checkpoint journal that all the chunks are written.
+     *
+     * @throws KeyRotationException Exception thrown while writing the checkpoint journal.
+     */
+    private void completeCheckpoint() throws KeyRotationException {
+
+        if (checkpoint != null) {
+            CheckpointJournal.getInstance().complete(checkpoint);
+        }
+    }
+
+    /**
+     * Reads the chunks in the caller thread and hands them over to the crypto stage.
+     *
+     * @param readQueue      Queue of the chunks waiting to be re-encrypted.
+     * @param inFlightChunks Permits for the chunks held in the pipeline.
+     * @param reader         Reads the chunks of the table.
+     * @throws InterruptedException Exception thrown while waiting for the other stages.
+     */
+    private void runReaderStage(BlockingQueue<Chunk<T>> readQueue, Semaphore inFlightChunks, ChunkReader<T> reader)
+            throws InterruptedException {
+
+        long sequence = 0;
+        try {
+            long startIndex = getResumeIndex();
+            int chunkSize = chunkSizeController.getChunkSize();
+            long readStartTime = System.nanoTime();
+            List<T> records = reader.read(getResumeChunk(), startIndex, chunkSize);
+            while (CollectionUtils.isNotEmpty(records) && failure.get() == null) {
+                long readNanos = System.nanoTime() - readStartTime;
+                metrics.recordLatency(PhaseMetrics.Operation.FETCH, readNanos);
+                while (!inFlightChunks.tryAcquire(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                }
+                Chunk<T> chunk = new Chunk<>(sequence++, startIndex, chunkSize, records, readNanos);
+                while (!readQueue.offer(chunk, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                }
+                startIndex = startIndex + records.size();
+                chunkSize = chunkSizeController.getChunkSize();
+                readStartTime = System.nanoTime();
+                records = reader.read(records, startIndex, chunkSize);
+            }
+        } catch (KeyRotationException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            readChunkCount = sequence;
+            readCompleted = true;
+            log.debug("Read " + sequence + " chunks of " + name + ".");
+        }
+    }
+
+    /**
+     * Re-encrypts the chunks taken from the read queue and hands them over to the writer stage.
+     *
+     * @param readQueue   Queue of the chunks waiting to be re-encrypted.
+     * @param writeQueue  Queue of the chunks waiting to be written.
+     * @param reEncryptor Re-encrypts the records of a chunk.
+     * @return Nothing.
+     * @throws Exception Exception thrown while re-encrypting a chunk.
+     */
+    private Void runCryptoStage(BlockingQueue<Chunk<T>> readQueue, BlockingQueue<Chunk<T>> writeQueue,
+                                ChunkReEncryptor<T> reEncryptor) throws Exception {
+
+        try {
+            while (failure.get() == null) {
+                // The reader completes only after its last offer, so an empty queue afterwards means no more chunks.
+                boolean lastChance = readCompleted;
+                Chunk<T> chunk = readQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    if (lastChance) {
+                        return null;
+                    }
+                    continue;
+                }
+                long reEncryptStartTime = System.nanoTime();
+                chunk.reEncryptedRecords = reEncryptor.reEncrypt(chunk.records);
+                chunk.reEncryptNanos = System.nanoTime() - reEncryptStartTime;
+                writeQueue.put(chunk);
+            }
+            return null;
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the re-encrypted chunks in the order they were read.
+     *
+     * @param writeQueue     Queue of the chunks waiting to be written.
+     * @param inFlightChunks Permits for the chunks held in the pipeline.
+     * @param writer         Writes the re-encrypted records of a chunk.
+     * @return Nothing.
+     * @throws Exception Exception thrown while writing a chunk.
+     */
+    private Void runWriterStage(BlockingQueue<Chunk<T>> writeQueue, Semaphore inFlightChunks, ChunkWriter<T> writer)
+            throws Exception {
+
+        Map<Long, Chunk<T>> pendingChunks = new HashMap<>();
+        long nextSequence = 0;
+        try {
+            while (failure.get() == null && !(readCompleted && nextSequence == readChunkCount)) {
+                Chunk<T> chunk = writeQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    continue;
+                }
+                pendingChunks.put(chunk.sequence, chunk);
+                while ((chunk = pendingChunks.remove(nextSequence)) != null) {
+                    RateGovernor.getInstance().acquire(chunk.records.size());
+                    long failedUpdateCount = getFailedUpdateCount();
+                    long writeStartTime = System.nanoTime();
+                    writer.write(chunk.records, chunk.reEncryptedRecords);
+                    RateGovernor.getInstance().recordWriteLatency(System.nanoTime() - writeStartTime);
+                    metrics.add(PhaseMetrics.Counter.SCANNED, chunk.records.size());
+                    chunkSizeController.record(chunk.chunkSize, chunk.records.size(),
+                            chunk.readNanos + chunk.reEncryptNanos + System.nanoTime() - writeStartTime,
+                            getFailedUpdateCount() - failedUpdateCount);
+                    recordCheckpoint(chunk.records, chunk.startIndex + chunk.records.size());
+                    inFlightChunks.release();
+                    nextSequence++;
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * A chunk of records along with its position in the read order and in the table, and the time spent on it.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    private static class Chunk<T> {
+
+        private final long sequence;
+        private final long startIndex;
+        private final int chunkSize;
+        private final List<T> records;
+        private final long readNanos;
+        private volatile List<T> reEncryptedRecords;
+        private volatile long reEncryptNanos;
+
+        Chunk(long sequence, long startIndex, int chunkSize, List<T> records, long readNanos) {
+
+            this.sequence = sequence;
+            this.startIndex = startIndex;
+            this.chunkSize = chunkSize;
+            this.records = records;
+            this.readNanos = readNanos;
+        }
+    }
+
+    /**
+     * Reads the chunks of a table.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    public interface ChunkReader<T> {
+
+        /**
+         * Reads the chunk following the given chunk.
+         *
+         * @param previousChunk The previously read chunk, or null to read the first chunk.
+         * @param startIndex    The start index of the chunk, for offset based reads.
+         * @param chunkSize     Maximum number of records in the chunk.
+         * @return The chunk, or an empty list if there are no more records.
+         * @throws KeyRotationException Exception thrown while reading the chunk.
+         */
+        List<T> read(List<T> previousChunk, long startIndex, int chunkSize) throws KeyRotationException;
+    }
+
+    /**
+     * Re-encrypts the records of a chunk.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    public interface ChunkReEncryptor<T> {
+
+        /**
+         * Re-encrypts the records of the chunk in place.
+         *
+         * @param chunk The chunk.
+         * @return The records which were re-encrypted and should be written.
+         * @throws KeyRotationException Exception thrown while re-encrypting the chunk.
+         */
+        List<T> reEncrypt(List<T> chunk) throws KeyRotationException;
+    }
+
+    /**
+     * Writes the re-encrypted records of a chunk.
+     *
+     * @param <T> Type of the records of the table.
+     */
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+
+        /**
+         * Writes the re-encrypted records of the chunk.
+         *
+         * @param chunk              The chunk as it was read.
+         * @param reEncryptedRecords The records of the chunk which were re-encrypted.
+         * @throws KeyRotationException Exception thrown while writing the chunk.
+         */
+        void write(List<T> chunk, List<T> reEncryptedRecords) throws KeyRotationException;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class lets the sync streams wait between their polls, and wakes all of them up at once when the sync notify
+ * file is created or touched, so that a change can be synced without waiting for the next poll. Every notification
+ * advances a sequence, so that a stream which was notified while it was syncing does not wait at all.
+ */
+public class SyncNotifier {
+
+    private static final Logger log = Logger.getLogger(SyncNotifier.class);
+    private static final SyncNotifier instance = new SyncNotifier();
+    private WatchService watchService;
+    private final ReentrantLock notificationLock = new ReentrantLock();
+    private final Condition notified = notificationLock.newCondition();
+    private long sequence;
+
+    public static SyncNotifier getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To start watching the sync notify file, if it is configured.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     */
+    public synchronized void start(KeyRotationConfig keyRotationConfig) {
+
+        if (keyRotationConfig.getSyncNotifyFile() == null || watchService != null) {
+            return;
+        }
+        Path notifyFile = Paths.get(keyRotationConfig.getSyncNotifyFile()).toAbsolutePath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            notifyFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.warn("Error while watching the sync notify file " + notifyFile + ". The sync streams only poll.", e);
+            stop();
+            return;
+        }
+        WatchService startedWatchService = watchService;
+        Thread thread = new Thread(() -> watch(startedWatchService, notifyFile.getFileName()), "sync-notifier");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching the sync notify file " + notifyFile + ".");
+    }
+
+    /**
+     * To stop watching the sync notify file.
+     */
+    public synchronized void stop() {
+
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Error while closing the watcher of the sync notify file.", e);
+        }
+        watchService = null;
+    }
+
+    /**
+     * To get the sequence of the latest notification, which is read by a sync stream before it syncs.
+     *
+     * @return Sequence of the latest notification.
+     */
+    public long getSequence() {
+
+        notificationLock.lock();
+        try {
+            return sequence;
+        } finally {
+            notificationLock.unlock();
+        }
+    }
+
+    /**
+     * To wait until the given time elapses or the sync notify file is touched after the given sequence was read,
+     * whichever happens first. It returns at once if the file was touched in between.
+     *
+     * @param lastSequence Sequence read before the sync stream synced.
+     * @param millis       Longest time to wait in milliseconds.
+     * @throws InterruptedException Exception thrown if the thread is interrupted while waiting.
+     */
+    public void await(long lastSequence, long millis) throws InterruptedException {
+
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        notificationLock.lock();
+        try {
+            while (sequence == lastSequence && remainingNanos > 0) {
+                remainingNanos = notified.awaitNanos(remainingNanos);
+            }
+        } finally {
+            notificationLock.unlock();
+        }
+    }
+
+    /**
+     * To wake up all the waiting sync streams whenever the sync notify file is created or modified, until the watch
+     * service is closed.
+     *
+     * @param watchService The watch service of the directory of the file.
+     * @param fileName     Name of the sync notify file.
+     */
+    private void watch(WatchService watchService, Path fileName) {
+
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                boolean notified = false;
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        notified = true;
+                    }
+                }
+                watchKey.reset();
+                if (notified) {
+                    log.debug("Sync notify file touched. Waking up the sync streams.");
+                    notifyStreams();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching the sync notify file.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * To wake up all the waiting sync streams.
+     */
+    void notifyStreams() {
+
+        notificationLock.lock();
+        try {
+            sequence++;
+            notified.signalAll();
+        } finally {
+            notificationLock.unlock();
+        }
+    }
+}
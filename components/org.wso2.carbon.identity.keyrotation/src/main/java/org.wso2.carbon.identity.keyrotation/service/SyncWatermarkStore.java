@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationServiceUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class records the last synced SYNC_ID of each temp table in a local file after every committed batch, so that
+ * a restarted sync continues from there instead of reading the temp tables from the beginning. Like the checkpoint
+ * journal, the watermarks are guarded by a lock, so that the sync streams on virtual threads do not pin their carrier
+ * threads while the file is written.
+ */
+public class SyncWatermarkStore {
+
+    private static final Logger log = Logger.getLogger(SyncWatermarkStore.class);
+    private static final SyncWatermarkStore instance = new SyncWatermarkStore();
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    private static final Type WATERMARKS_TYPE = new TypeToken<LinkedHashMap<String, Integer>>() {
+    }.getType();
+    private final Map<String, Integer> watermarks = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Path watermarkPath;
+
+    public static SyncWatermarkStore getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * To open the watermark file. A new run starts from the beginning of the temp tables, while a resumed run loads
+     * the watermarks of the previous run when they were recorded.
+     *
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param resume            Whether to continue from the watermarks of the previous run.
+     * @throws KeyRotationException Exception thrown while reading or removing the watermark file.
+     */
+    public void open(KeyRotationConfig keyRotationConfig, boolean resume) throws KeyRotationException {
+
+        lock.lock();
+        try {
+            watermarkPath = Paths.get(keyRotationConfig.getSyncWatermarkFile());
+            watermarks.clear();
+            try {
+                if (!resume) {
+                    Files.deleteIfExists(watermarkPath);
+                    return;
+                }
+                if (!Files.isRegularFile(watermarkPath)) {
+                    // The previous run was interrupted before the sync started.
+                    log.info("No sync watermark file found at " + watermarkPath.toAbsolutePath() +
+                            ". Syncing the temp tables from the beginning.");
+                    return;
+                }
+                try (Reader reader = Files.newBufferedReader(watermarkPath, StandardCharsets.UTF_8)) {
+                    Map<String, Integer> loadedWatermarks = gson.fromJson(reader, WATERMARKS_TYPE);
+                    if (loadedWatermarks != null) {
+                        watermarks.putAll(loadedWatermarks);
+                    }
+                }
+                log.info("Resuming the sync from the watermarks " + watermarks + " in " +
+                        watermarkPath.toAbsolutePath());
+            } catch (IOException | JsonParseException e) {
+                throw new KeyRotationException("Error while opening the sync watermark file " + watermarkPath + ".", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the last synced SYNC_ID of a temp table, or 0 if none of its records are synced yet.
+     *
+     * @param table Name of the temp table.
+     * @return The last synced SYNC_ID.
+     */
+    public int getWatermark(String table) {
+
+        lock.lock();
+        try {
+            Integer watermark = watermarks.get(table);
+            return watermark == null ? 0 : watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To record the last SYNC_ID of a committed batch of a temp table.
+     *
+     * @param table  Name of the temp table.
+     * @param syncId SYNC_ID of the last record of the committed batch.
+     * @throws KeyRotationException Exception thrown while writing the watermark file.
+     */
+    public void commit(String table, int syncId) throws KeyRotationException {
+
+        lock.lock();
+        try {
+            watermarks.put(table, syncId);
+            save();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * To write all the watermarks to the watermark file. The file is replaced atomically, so that a crash leaves
+     * either the previous or the new watermarks behind.
+     *
+     * @throws KeyRotationException Exception thrown while writing the watermark file.
+     */
+    private void save() throws KeyRotationException {
+
+        if (watermarkPath == null) {
+            return;
+        }
+        try {
+            KeyRotationServiceUtils.writeFileAtomically(watermarkPath, gson.toJson(watermarks, WATERMARKS_TYPE));
+        } catch (IOException e) {
+            throw new KeyRotationException("Error while writing the sync watermark file " + watermarkPath + ".", e);
+        }
+    }
+}
@@ -22,18 +22,33 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
 import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
+import org.wso2.carbon.identity.keyrotation.dao.DeadLetterWriter;
 import org.wso2.carbon.identity.keyrotation.dao.IdentityDAO;
 import org.wso2.carbon.identity.keyrotation.dao.OAuthDAO;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.model.TempOAuthCode;
 import org.wso2.carbon.identity.keyrotation.model.TempOAuthScope;
 import org.wso2.carbon.identity.keyrotation.model.TempOAuthToken;
 import org.wso2.carbon.identity.keyrotation.model.TempTOTPSecret;
 import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
-import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.checkPlainText;
+import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.isOldKeyCipherText;
 import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.symmetricReEncryption;
 
 /**
@@ -43,10 +58,14 @@ public class SyncedDataKeyRotator {
 
     private static final Logger log = Logger.getLogger(SyncedDataKeyRotator.class);
     private static final SyncedDataKeyRotator instance = new SyncedDataKeyRotator();
-    private static int totpIndex = 1;
-    private static int codeIndex = 1;
-    private static int tokenIndex = 1;
-    private static int scopeIndex = 1;
+    private static final String TOTP_TEMP_TABLE = "IDN_IDENTITY_USER_DATA_TEMP";
+    private static final String CODE_TEMP_TABLE = "IDN_OAUTH2_AUTHORIZATION_CODE_TEMP";
+    private static final String TOKEN_TEMP_TABLE = "IDN_OAUTH2_ACCESS_TOKEN_TEMP";
+    private static final String SCOPE_TEMP_TABLE = "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP";
+    private static final long MIN_POLL_INTERVAL_MILLIS = 100;
+    private static final int MAX_SCOPE_DEFERRALS = 10;
+    // Polls each scope of the batch after the scope watermark has been deferred for, only used by the scope stream.
+    private final Map<List<String>, Integer> scopeDeferrals = new HashMap<>();
 
     public static SyncedDataKeyRotator getInstance() {
 
@@ -54,7 +73,11 @@ public class SyncedDataKeyRotator {
     }
 
     /**
-     * Re-encryption of the synced data.
+     * Re-encryption of the synced data. Each temp table is synced by an independent stream on its own worker, so that
+     * a backlog in one table does not delay the others. The streams run until one of them fails. A SYNC_ID is taken
+     * when a change is inserted into a temp table, but the change is only read once its transaction commits, which can
+     * be after changes with higher SYNC_IDs. Hence each read starts the configured sync id lag before the watermark
+     * and returns the unsynced records only, so that such a change is not left behind the watermark.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @throws KeyRotationException Exception thrown while re-encrypting synced data.
@@ -62,34 +85,75 @@ public class SyncedDataKeyRotator {
     public void syncedDataReEncryptor(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.info("Started re-encrypting synced data...");
+        scopeDeferrals.clear();
+        Map<String, SyncStream> streams = new LinkedHashMap<>();
+        streams.put(TOTP_TEMP_TABLE, new SyncStream("totp data records",
+                () -> transformTempIdentityTOTPData(keyRotationConfig)));
+        streams.put(CODE_TEMP_TABLE, new SyncStream("OAuth code data records",
+                () -> transformTempOauthCodeData(keyRotationConfig)));
+        streams.put(TOKEN_TEMP_TABLE, new SyncStream("OAuth token data records",
+                () -> transformTempOauthTokenData(keyRotationConfig)));
+        streams.put(SCOPE_TEMP_TABLE, new SyncStream("OAuth scope data records",
+                () -> transformTempOauthScopeData(keyRotationConfig)));
+        SyncNotifier.getInstance().start(keyRotationConfig);
+        ExecutorService executorService = WorkerThreads.getInstance().newExecutor("sync-stream", streams.size(),
+                keyRotationConfig.getEnableVirtualThreads());
+        CompletionService<String> completionService = new ExecutorCompletionService<>(executorService);
+        for (Map.Entry<String, SyncStream> stream : streams.entrySet()) {
+            completionService.submit(() -> {
+                runSyncStream(stream.getKey(), stream.getValue(), keyRotationConfig);
+                return stream.getKey();
+            });
+        }
         try {
-            while (true) {
-                transformTempIdentityTOTPData(keyRotationConfig);
-                log.info("Successfully transformed totp data records in IDN_IDENTITY_USER_DATA_TEMP: " +
-                        IdentityDAO.insertCount);
-                log.info("Transformation failed totp data records in IDN_IDENTITY_USER_DATA_TEMP: " +
-                        IdentityDAO.failedInsertCount);
-                transformTempOauthCodeData(keyRotationConfig);
-                log.info("Successfully transformed OAuth code data records in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP: " +
-                        OAuthDAO.insertCodeCount);
-                log.info("Transformation failed OAuth code data records in IDN_OAUTH2_AUTHORIZATION_CODE_TEMP: " +
-                        OAuthDAO.failedInsertCodeCount);
-                transformTempOauthTokenData(keyRotationConfig);
-                log.info("Successfully transformed OAuth token data records in IDN_OAUTH2_ACCESS_TOKEN_TEMP: " +
-                        OAuthDAO.insertTokenCount);
-                log.info("Transformation failed OAuth token data records in IDN_OAUTH2_ACCESS_TOKEN_TEMP: " +
-                        OAuthDAO.failedInsertTokenCount);
-                transformTempOauthScopeData(keyRotationConfig);
-                log.info("Successfully transformed OAuth scope data records in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP: " +
-                        OAuthDAO.insertScopeCount);
-                log.info("Transformation failed OAuth scope data records in IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP: " +
-                        OAuthDAO.failedInsertScopeCount);
-                log.debug("Sleeping...\n");
-                TimeUnit.MILLISECONDS.sleep(1000);
-                log.debug("Awake...\n");
+            String table = completionService.take().get();
+            throw new KeyRotationException("Sync stream of " + table + " stopped unexpectedly.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KeyRotationException) {
+                throw (KeyRotationException) e.getCause();
             }
+            throw new KeyRotationException("Error while syncing the temp tables.", e.getCause());
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new KeyRotationException("Error while thread waiting, sleeping or being occupied.", e);
+        } finally {
+            executorService.shutdownNow();
+            SyncNotifier.getInstance().stop();
+        }
+    }
+
+    /**
+     * To sync a temp table until the thread is interrupted. A round reads the table right away while its batches come
+     * back full. The stream polls again shortly after a round which found changes, while the wait is doubled after
+     * every round which found none, up to the configured ceiling. The wait ends early when the sync is notified, or is
+     * skipped if it was notified during the round.
+     *
+     * @param table             The name of the temp table.
+     * @param stream            The sync stream of the temp table.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @throws KeyRotationException Exception thrown while transforming the temp table data.
+     */
+    private void runSyncStream(String table, SyncStream stream, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        long maxPollInterval = keyRotationConfig.getSyncMaxPollInterval();
+        long pollInterval = Math.min(MIN_POLL_INTERVAL_MILLIS, maxPollInterval);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long notificationSequence = SyncNotifier.getInstance().getSequence();
+                if (stream.transformation.transform() > 0) {
+                    logPhaseCounts(stream.description, table);
+                    pollInterval = Math.min(MIN_POLL_INTERVAL_MILLIS, maxPollInterval);
+                } else {
+                    pollInterval = Math.min(pollInterval * 2, maxPollInterval);
+                }
+                log.debug("Polling " + table + " again in " + pollInterval + " ms.");
+                SyncNotifier.getInstance().await(notificationSequence, pollInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (KeyRotationException e) {
+            throw new KeyRotationException("Error while syncing " + table + ".", e);
         }
     }
 
@@ -97,33 +161,31 @@ public class SyncedDataKeyRotator {
      * Transformation of the IDN_IDENTITY_USER_DATA_TEMP table data.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Number of temp records read.
      * @throws KeyRotationException Exception thrown while transforming TOTP data.
      */
-    private void transformTempIdentityTOTPData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+    int transformTempIdentityTOTPData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started transformation of the TOTP data...");
-        List<TempTOTPSecret> records = IdentityDAO.getInstance().getTempTOTPSecrets(totpIndex, keyRotationConfig);
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(TOTP_TEMP_TABLE);
+        int batchSize = keyRotationConfig.getSyncBatchSize();
+        int syncIdLag = keyRotationConfig.getSyncIdLag();
+        int totpSyncId = SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE);
+        int scannedCount = 0;
+        List<TempTOTPSecret> records =
+                IdentityDAO.getInstance().getTempTOTPSecrets(totpSyncId - syncIdLag, batchSize, keyRotationConfig);
         while (CollectionUtils.isNotEmpty(records)) {
-            TempTOTPSecret record = records.get(0);
-            log.debug("RECORD " + record.getSyncId());
-            if (record.getSynced() == 0) {
-                TempTOTPSecret latestRecord =
-                        IdentityDAO.getInstance().getTempTOTPLatest(record, keyRotationConfig).get(0);
+            List<TempTOTPSecret> unsyncedRecords = getUnsyncedRecords(records, TempTOTPSecret::getSynced);
+            for (TempTOTPSecret latestRecord : coalesce(unsyncedRecords, record ->
+                    Arrays.asList(record.getTenantId(), record.getUsername(), record.getDataKey()), metrics)) {
                 log.debug("latestRecord " + latestRecord.getSyncId());
-                List<TempTOTPSecret> previousSimilarRecords =
-                        IdentityDAO.getInstance().getTempTOTPPrevious(latestRecord, keyRotationConfig);
-                for (TempTOTPSecret previousSimilarRecord : previousSimilarRecords) {
-                    previousSimilarRecord.setSynced(1);
-                    log.debug("previousSimilarRecords " + previousSimilarRecord.getSyncId());
-                }
-                IdentityDAO.getInstance().updateTOTPPreviousSimilarRecords(previousSimilarRecords, keyRotationConfig);
                 if ((DBConstants.SECRET_KEY.equals(latestRecord.getDataKey()) ||
                         DBConstants.VERIFIED_SECRET_KEY.equals(latestRecord.getDataKey())) &&
                         latestRecord.getAvailability() == 1 &&
-                        !checkPlainText(latestRecord.getDataValue())) {
-                    log.debug("SYNC_ID " + totpIndex + " " + latestRecord.getSyncId());
+                        isOldKeyCipherText(latestRecord.getDataValue(), keyRotationConfig)) {
                     log.debug("Encrypted value " + latestRecord.getDataValue());
-                    String reEncryptedValue = symmetricReEncryption(latestRecord.getDataValue(), keyRotationConfig);
+                    String reEncryptedValue =
+                            symmetricReEncryption(latestRecord.getDataValue(), keyRotationConfig, metrics);
                     latestRecord.setDataValue(reEncryptedValue);
                     log.debug("Re-encrypted value " + latestRecord.getDataValue());
                 }
@@ -136,40 +198,53 @@ public class SyncedDataKeyRotator {
                     IdentityDAO.getInstance().deleteTOTPSecret(latestRecord, keyRotationConfig);
                 }
             }
-            totpIndex++;
-            records = IdentityDAO.getInstance().getTempTOTPSecrets(totpIndex, keyRotationConfig);
+            if (!unsyncedRecords.isEmpty()) {
+                for (TempTOTPSecret unsyncedRecord : unsyncedRecords) {
+                    unsyncedRecord.setSynced(1);
+                }
+                IdentityDAO.getInstance().updateTOTPPreviousSimilarRecords(unsyncedRecords, keyRotationConfig);
+            }
+            metrics.add(PhaseMetrics.Counter.SCANNED, records.size());
+            scannedCount += records.size();
+            totpSyncId = Math.max(totpSyncId, records.get(records.size() - 1).getSyncId());
+            SyncWatermarkStore.getInstance().commit(TOTP_TEMP_TABLE, totpSyncId);
+            if (records.size() < batchSize) {
+                // Caught up with the latest change, hence the next poll is left to the stream.
+                break;
+            }
+            records =
+                    IdentityDAO.getInstance().getTempTOTPSecrets(totpSyncId - syncIdLag, batchSize, keyRotationConfig);
         }
+        return scannedCount;
     }
 
     /**
      * Transformation of the IDN_OAUTH2_AUTHORIZATION_CODE_TEMP table data.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Number of temp records read.
      * @throws KeyRotationException Exception thrown while transforming OAuth2 authorization code data.
      */
-    private void transformTempOauthCodeData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+    int transformTempOauthCodeData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started transformation of the OAuth2 authorization code data...");
-        List<TempOAuthCode> records = OAuthDAO.getInstance().getTempOAuthCode(codeIndex, keyRotationConfig);
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(CODE_TEMP_TABLE);
+        int batchSize = keyRotationConfig.getSyncBatchSize();
+        int syncIdLag = keyRotationConfig.getSyncIdLag();
+        int codeSyncId = SyncWatermarkStore.getInstance().getWatermark(CODE_TEMP_TABLE);
+        int scannedCount = 0;
+        List<TempOAuthCode> records =
+                OAuthDAO.getInstance().getTempOAuthCode(codeSyncId - syncIdLag, batchSize, keyRotationConfig);
         while (CollectionUtils.isNotEmpty(records)) {
-            TempOAuthCode record = records.get(0);
-            log.debug("RECORD " + record.getSyncId());
-            if (record.getSynced() == 0) {
-                TempOAuthCode latestRecord =
-                        OAuthDAO.getInstance().getTempOAuthCodeLatest(record, keyRotationConfig).get(0);
+            List<TempOAuthCode> unsyncedRecords = getUnsyncedRecords(records, TempOAuthCode::getSynced);
+            for (TempOAuthCode latestRecord : coalesce(unsyncedRecords,
+                    record -> Collections.singletonList(record.getCodeId()), metrics)) {
                 log.debug("latestRecord " + latestRecord.getSyncId());
-                List<TempOAuthCode> previousSimilarRecords =
-                        OAuthDAO.getInstance().getTempOAuthCodePrevious(latestRecord, keyRotationConfig);
-                for (TempOAuthCode previousSimilarRecord : previousSimilarRecords) {
-                    previousSimilarRecord.setSynced(1);
-                    log.debug("previousSimilarRecords " + previousSimilarRecord.getSyncId());
-                }
-                OAuthDAO.getInstance().updateCodePreviousSimilarRecords(previousSimilarRecords, keyRotationConfig);
-                if (latestRecord.getAvailability() == 1 && !checkPlainText(latestRecord.getAuthorizationCode())) {
-                    log.debug("SYNC_ID " + codeIndex + " " + latestRecord.getSyncId());
+                if (latestRecord.getAvailability() == 1 &&
+                        isOldKeyCipherText(latestRecord.getAuthorizationCode(), keyRotationConfig)) {
                     log.debug("Encrypted value " + latestRecord.getAuthorizationCode());
                     String reEncryptedValue =
-                            symmetricReEncryption(latestRecord.getAuthorizationCode(), keyRotationConfig);
+                            symmetricReEncryption(latestRecord.getAuthorizationCode(), keyRotationConfig, metrics);
                     latestRecord.setAuthorizationCode(reEncryptedValue);
                     log.debug("Re-encrypted value " + latestRecord.getAuthorizationCode());
                 }
@@ -182,46 +257,57 @@ public class SyncedDataKeyRotator {
                     OAuthDAO.getInstance().deleteOAuthCode(latestRecord, keyRotationConfig);
                 }
             }
-            codeIndex++;
-            records = OAuthDAO.getInstance().getTempOAuthCode(codeIndex, keyRotationConfig);
+            if (!unsyncedRecords.isEmpty()) {
+                for (TempOAuthCode unsyncedRecord : unsyncedRecords) {
+                    unsyncedRecord.setSynced(1);
+                }
+                OAuthDAO.getInstance().updateCodePreviousSimilarRecords(unsyncedRecords, keyRotationConfig);
+            }
+            metrics.add(PhaseMetrics.Counter.SCANNED, records.size());
+            scannedCount += records.size();
+            codeSyncId = Math.max(codeSyncId, records.get(records.size() - 1).getSyncId());
+            SyncWatermarkStore.getInstance().commit(CODE_TEMP_TABLE, codeSyncId);
+            if (records.size() < batchSize) {
+                break;
+            }
+            records = OAuthDAO.getInstance().getTempOAuthCode(codeSyncId - syncIdLag, batchSize, keyRotationConfig);
         }
+        return scannedCount;
     }
 
     /**
      * Transformation of the IDN_OAUTH2_ACCESS_TOKEN_TEMP table data.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Number of temp records read.
      * @throws KeyRotationException Exception thrown while transforming OAuth2 access and refresh token data.
      */
-    private void transformTempOauthTokenData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+    int transformTempOauthTokenData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started transformation of the OAuth2 access and refresh tokens data...");
-        List<TempOAuthToken> records = OAuthDAO.getInstance().getTempOAuthToken(tokenIndex, keyRotationConfig);
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(TOKEN_TEMP_TABLE);
+        int batchSize = keyRotationConfig.getSyncBatchSize();
+        int syncIdLag = keyRotationConfig.getSyncIdLag();
+        int tokenSyncId = SyncWatermarkStore.getInstance().getWatermark(TOKEN_TEMP_TABLE);
+        int scannedCount = 0;
+        List<TempOAuthToken> records =
+                OAuthDAO.getInstance().getTempOAuthToken(tokenSyncId - syncIdLag, batchSize, keyRotationConfig);
         while (CollectionUtils.isNotEmpty(records)) {
-            TempOAuthToken record = records.get(0);
-            log.debug("RECORD " + record.getSyncId());
-            if (record.getSynced() == 0) {
-                TempOAuthToken latestRecord =
-                        OAuthDAO.getInstance().getTempOAuthTokenLatest(record, keyRotationConfig).get(0);
+            List<TempOAuthToken> unsyncedRecords = getUnsyncedRecords(records, TempOAuthToken::getSynced);
+            for (TempOAuthToken latestRecord : coalesce(unsyncedRecords,
+                    record -> Collections.singletonList(record.getTokenId()), metrics)) {
                 log.debug("latestRecord " + latestRecord.getSyncId());
-                List<TempOAuthToken> previousSimilarRecords =
-                        OAuthDAO.getInstance().getTempOAuthTokenPrevious(latestRecord, keyRotationConfig);
-                for (TempOAuthToken previousSimilarRecord : previousSimilarRecords) {
-                    previousSimilarRecord.setSynced(1);
-                    log.debug("previousSimilarRecords " + previousSimilarRecord.getSyncId());
-                }
-                OAuthDAO.getInstance().updateTokenPreviousSimilarRecords(previousSimilarRecords, keyRotationConfig);
-                if (latestRecord.getAvailability() == 1 && !checkPlainText(latestRecord.getAccessToken()) &&
-                        !checkPlainText(latestRecord.getRefreshToken())) {
-                    log.debug("SYNC_ID " + tokenIndex + " " + latestRecord.getSyncId());
+                if (latestRecord.getAvailability() == 1 &&
+                        isOldKeyCipherText(latestRecord.getAccessToken(), keyRotationConfig) &&
+                        isOldKeyCipherText(latestRecord.getRefreshToken(), keyRotationConfig)) {
                     log.debug("Encrypted access token value " + latestRecord.getAccessToken());
                     String accessTokenReEncryptedValue =
-                            symmetricReEncryption(latestRecord.getAccessToken(), keyRotationConfig);
+                            symmetricReEncryption(latestRecord.getAccessToken(), keyRotationConfig, metrics);
                     latestRecord.setAccessToken(accessTokenReEncryptedValue);
                     log.debug("Re-encrypted value " + latestRecord.getAccessToken());
                     log.debug("Encrypted refresh token value " + latestRecord.getRefreshToken());
                     String refreshTokenReEncryptedValue =
-                            symmetricReEncryption(latestRecord.getRefreshToken(), keyRotationConfig);
+                            symmetricReEncryption(latestRecord.getRefreshToken(), keyRotationConfig, metrics);
                     latestRecord.setRefreshToken(refreshTokenReEncryptedValue);
                     log.debug("Re-encrypted value " + latestRecord.getRefreshToken());
                 }
@@ -234,46 +320,204 @@ public class SyncedDataKeyRotator {
                     OAuthDAO.getInstance().deleteOAuthToken(latestRecord, keyRotationConfig);
                 }
             }
-            tokenIndex++;
-            records = OAuthDAO.getInstance().getTempOAuthToken(tokenIndex, keyRotationConfig);
+            if (!unsyncedRecords.isEmpty()) {
+                for (TempOAuthToken unsyncedRecord : unsyncedRecords) {
+                    unsyncedRecord.setSynced(1);
+                }
+                OAuthDAO.getInstance().updateTokenPreviousSimilarRecords(unsyncedRecords, keyRotationConfig);
+            }
+            metrics.add(PhaseMetrics.Counter.SCANNED, records.size());
+            scannedCount += records.size();
+            tokenSyncId = Math.max(tokenSyncId, records.get(records.size() - 1).getSyncId());
+            SyncWatermarkStore.getInstance().commit(TOKEN_TEMP_TABLE, tokenSyncId);
+            if (records.size() < batchSize) {
+                break;
+            }
+            records = OAuthDAO.getInstance().getTempOAuthToken(tokenSyncId - syncIdLag, batchSize, keyRotationConfig);
         }
+        return scannedCount;
     }
 
     /**
      * Transformation of the IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP table data.
      *
      * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Number of temp records read.
      * @throws KeyRotationException Exception thrown while transforming OAuth2 scope data.
      */
-    private void transformTempOauthScopeData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
+    int transformTempOauthScopeData(KeyRotationConfig keyRotationConfig) throws KeyRotationException {
 
         log.debug("Started transformation of the OAuth2 scope data...");
-        List<TempOAuthScope> records = OAuthDAO.getInstance().getTempOAuthScope(scopeIndex, keyRotationConfig);
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(SCOPE_TEMP_TABLE);
+        int batchSize = keyRotationConfig.getSyncBatchSize();
+        int syncIdLag = keyRotationConfig.getSyncIdLag();
+        int scopeSyncId = SyncWatermarkStore.getInstance().getWatermark(SCOPE_TEMP_TABLE);
+        int scannedCount = 0;
+        List<TempOAuthScope> records =
+                OAuthDAO.getInstance().getTempOAuthScope(scopeSyncId - syncIdLag, batchSize, keyRotationConfig);
         while (CollectionUtils.isNotEmpty(records)) {
-            TempOAuthScope record = records.get(0);
-            log.debug("RECORD " + record.getSyncId());
-            if (record.getSynced() == 0) {
-                TempOAuthScope latestRecord =
-                        OAuthDAO.getInstance().getTempOAuthScopeLatest(record, keyRotationConfig).get(0);
+            List<TempOAuthScope> unsyncedRecords = getUnsyncedRecords(records, TempOAuthScope::getSynced);
+            Collection<TempOAuthScope> latestRecords = coalesce(unsyncedRecords,
+                    record -> Arrays.asList(record.getTokenId(), record.getTokenScope()), metrics);
+            for (TempOAuthScope latestRecord : latestRecords) {
                 log.debug("latestRecord " + latestRecord.getSyncId());
-                List<TempOAuthScope> previousSimilarRecords =
-                        OAuthDAO.getInstance().getTempOAuthScopePrevious(latestRecord, keyRotationConfig);
-                for (TempOAuthScope previousSimilarRecord : previousSimilarRecords) {
-                    previousSimilarRecord.setSynced(1);
-                    log.debug("previousSimilarRecords " + previousSimilarRecord.getSyncId());
-                }
-                OAuthDAO.getInstance().updateScopePreviousSimilarRecords(previousSimilarRecords, keyRotationConfig);
                 if (latestRecord.getAvailability() == 1) {
                     int updatedRecords = OAuthDAO.getInstance().updateOAuthScope(latestRecord, keyRotationConfig);
-                    if (updatedRecords == 0) {
-                        OAuthDAO.getInstance().insertOAuthScope(latestRecord, keyRotationConfig);
+                    if (updatedRecords == 0 && !OAuthDAO.getInstance().insertOAuthScope(latestRecord,
+                            keyRotationConfig) && deferScope(latestRecord, metrics, keyRotationConfig)) {
+                        log.warn("Deferred the OAuth scope changes after SYNC_ID " + scopeSyncId +
+                                " to the next poll, as the access token with token id: " +
+                                latestRecord.getTokenId() + " is not synced yet.");
+                        return scannedCount;
                     }
                 } else if (latestRecord.getAvailability() == 0) {
                     OAuthDAO.getInstance().deleteOAuthScope(latestRecord, keyRotationConfig);
                 }
             }
-            scopeIndex++;
-            records = OAuthDAO.getInstance().getTempOAuthScope(scopeIndex, keyRotationConfig);
+            if (!unsyncedRecords.isEmpty()) {
+                for (TempOAuthScope unsyncedRecord : unsyncedRecords) {
+                    unsyncedRecord.setSynced(1);
+                }
+                OAuthDAO.getInstance().updateScopePreviousSimilarRecords(unsyncedRecords, keyRotationConfig);
+            }
+            metrics.add(PhaseMetrics.Counter.SCANNED, records.size());
+            scannedCount += records.size();
+            scopeSyncId = Math.max(scopeSyncId, records.get(records.size() - 1).getSyncId());
+            scopeDeferrals.clear();
+            SyncWatermarkStore.getInstance().commit(SCOPE_TEMP_TABLE, scopeSyncId);
+            if (records.size() < batchSize) {
+                break;
+            }
+            records = OAuthDAO.getInstance().getTempOAuthScope(scopeSyncId - syncIdLag, batchSize, keyRotationConfig);
+        }
+        return scannedCount;
+    }
+
+    /**
+     * Decides whether the changes of a scope whose access token is not synced yet are left to the next poll. The access
+     * token may still be in the backlog of its own stream, hence the batch is left unsynced and the watermark is not
+     * moved. A scope is deferred for a bounded number of polls only, as its access token may have been deleted, after
+     * which it is counted as a failed insert and reported to the dead letter file, so that the stream moves on.
+     *
+     * @param tempOAuthScope    The scope which was not inserted.
+     * @param metrics           Metrics of the scope stream.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return True if the batch should be left to the next poll.
+     */
+    private boolean deferScope(TempOAuthScope tempOAuthScope, PhaseMetrics metrics,
+                               KeyRotationConfig keyRotationConfig) {
+
+        List<String> scopeKey = Arrays.asList(tempOAuthScope.getTokenId(), tempOAuthScope.getTokenScope());
+        int deferrals = scopeDeferrals.merge(scopeKey, 1, Integer::sum);
+        if (deferrals <= MAX_SCOPE_DEFERRALS) {
+            metrics.increment(PhaseMetrics.Counter.RETRIED_CHUNK);
+            return true;
+        }
+        scopeDeferrals.remove(scopeKey);
+        metrics.increment(PhaseMetrics.Counter.FAILED_INSERT);
+        log.error("Access token with token id: " + tempOAuthScope.getTokenId() + " of OAuth scope " +
+                tempOAuthScope.getTokenScope() + " is not synced after " + MAX_SCOPE_DEFERRALS + " polls.");
+        DeadLetterWriter.getInstance().write("IDN_OAUTH2_ACCESS_TOKEN_SCOPE", "token id: " +
+                tempOAuthScope.getTokenId() + ", scope: " + tempOAuthScope.getTokenScope(), new KeyRotationException(
+                "Access token is not synced after " + MAX_SCOPE_DEFERRALS + " polls."), keyRotationConfig);
+        return false;
+    }
+
+    /**
+     * Returns the records of a batch which are not synced yet.
+     *
+     * @param records      The batch of temp records, in the order of their sync ids.
+     * @param syncedGetter Returns the synced flag of a record.
+     * @param <T>          Type of the temp records.
+     * @return The unsynced records, in the order of their sync ids.
+     */
+    private <T> List<T> getUnsyncedRecords(List<T> records, ToIntFunction<T> syncedGetter) {
+
+        List<T> unsyncedRecords = new ArrayList<>();
+        for (T record : records) {
+            if (syncedGetter.applyAsInt(record) == 0) {
+                unsyncedRecords.add(record);
+            }
         }
+        return unsyncedRecords;
+    }
+
+    /**
+     * Returns the latest change of each natural key among the unsynced records of a batch, so that a record changed
+     * many times within the batch is transformed and written once. The superseded changes are counted as coalesced.
+     *
+     * @param unsyncedRecords The unsynced temp records, in the order of their sync ids.
+     * @param keyExtractor    Returns the natural key of a record.
+     * @param metrics         Metrics of the temp table.
+     * @param <T>             Type of the temp records.
+     * @return The latest change of each natural key, in the order of their sync ids.
+     */
+    private <T> Collection<T> coalesce(List<T> unsyncedRecords, Function<T, List<String>> keyExtractor,
+                                       PhaseMetrics metrics) {
+
+        Map<List<String>, T> latestRecords = new LinkedHashMap<>();
+        for (T record : unsyncedRecords) {
+            List<String> key = keyExtractor.apply(record);
+            // Re-inserted so that the keys stay in the order of their latest changes.
+            latestRecords.remove(key);
+            latestRecords.put(key, record);
+        }
+        int coalescedCount = unsyncedRecords.size() - latestRecords.size();
+        if (coalescedCount > 0) {
+            metrics.add(PhaseMetrics.Counter.COALESCED, coalescedCount);
+            log.debug("Coalesced " + unsyncedRecords.size() + " changes into " + latestRecords.size() + " records.");
+        }
+        return latestRecords.values();
+    }
+
+    /**
+     * Logs the transformed and failed record counts of a temp table.
+     *
+     * @param description Description of the records.
+     * @param phase       The name of the temp table.
+     */
+    private void logPhaseCounts(String description, String phase) {
+
+        PhaseMetrics metrics = KeyRotationMetrics.getInstance().getPhaseMetrics(phase);
+        log.info("Successfully transformed " + description + " in " + phase + ": " +
+                metrics.getCount(PhaseMetrics.Counter.INSERTED));
+        log.info("Transformation failed " + description + " in " + phase + ": " +
+                metrics.getCount(PhaseMetrics.Counter.FAILED_INSERT));
+    }
+
+    /**
+     * The transformation of a temp table and the description of its records used in the logs.
+     */
+    private static class SyncStream {
+
+        private final String description;
+        private final Transformation transformation;
+
+        /**
+         * SyncStream class constructor.
+         *
+         * @param description    Description of the records.
+         * @param transformation Transformation of the temp table data up to its latest change.
+         */
+        SyncStream(String description, Transformation transformation) {
+
+            this.description = description;
+            this.transformation = transformation;
+        }
+    }
+
+    /**
+     * A round of transformation of a temp table.
+     */
+    @FunctionalInterface
+    private interface Transformation {
+
+        /**
+         * Transforms the temp table data up to its latest change.
+         *
+         * @return Number of temp records read.
+         * @throws KeyRotationException Exception thrown while transforming the temp table data.
+         */
+        int transform() throws KeyRotationException;
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class creates the executors running the re-encryption workers. Virtual threads need Java 21 or later, hence
+ * this class always runs the workers on platform threads, and the jar holds a copy of it for Java 21 or later under
+ * META-INF/versions/21 which runs them on virtual threads when they are enabled.
+ */
+public class WorkerThreads {
+
+    private static final Logger log = Logger.getLogger(WorkerThreads.class);
+    private static final WorkerThreads instance = new WorkerThreads();
+    private final AtomicBoolean unsupportedLogged = new AtomicBoolean();
+
+    public static WorkerThreads getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns whether the workers can run on virtual threads in this Java version.
+     *
+     * @return False, as virtual threads need Java 21 or later.
+     */
+    public boolean isVirtualThreadSupported() {
+
+        return false;
+    }
+
+    /**
+     * Creates an executor running the workers on a fixed pool of daemon platform threads.
+     *
+     * @param name           Name used for the worker threads.
+     * @param parallelism    Maximum number of workers run at the same time.
+     * @param virtualThreads Whether the workers are requested to run on virtual threads.
+     * @return The executor.
+     */
+    public ExecutorService newExecutor(String name, int parallelism, boolean virtualThreads) {
+
+        if (virtualThreads && unsupportedLogged.compareAndSet(false, true)) {
+            log.warn("Virtual threads need Java 21 or later. Running the workers on platform threads.");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.log4j.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.xml.sax.SAXException;
 
 import java.io.File;
@@ -52,8 +53,6 @@ import static org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.symmetric
 public class ConfigFileUtil {
 
     private static final Logger log = Logger.getLogger(ConfigFileUtil.class);
-    public static int updateCount = 0;
-    public static int failedUpdateCount = 0;
 
     /**
      * Get all the files inside the base path.
@@ -95,10 +94,11 @@ public class ConfigFileUtil {
      * @param filename          The absolute path of the configuration file.
      * @param keyRotationConfig Configuration data needed to perform the task.
      * @param property          The property value to identify the corresponding config file.
+     * @param metrics           Metrics of the kind of configuration files.
      * @throws KeyRotationException Exception thrown while updating the configuration file.
      */
-    public static void updateConfigFile(File filename, KeyRotationConfig keyRotationConfig, String property)
-            throws KeyRotationException {
+    public static void updateConfigFile(File filename, KeyRotationConfig keyRotationConfig, String property,
+                                        PhaseMetrics metrics) throws KeyRotationException {
 
         DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
         try {
@@ -111,25 +111,25 @@ public class ConfigFileUtil {
             if (data.getLength() != 1 && data.getLength() != 0) {
                 log.error("Error occurred while updating config file having multiple encrypted properties in " +
                         filename);
-                failedUpdateCount++;
+                metrics.increment(PhaseMetrics.Counter.FAILED_UPDATE);
             }
             if (data.getLength() == 1) {
                 log.info("Re-encryption in " + filename + " configuration file.");
                 String encryptedValue = data.item(0).getNodeValue();
                 log.debug("Encrypted value " + encryptedValue);
-                String reEncryptedValue = symmetricReEncryption(encryptedValue, keyRotationConfig);
+                String reEncryptedValue = symmetricReEncryption(encryptedValue, keyRotationConfig, metrics);
                 log.debug("Re-encrypted value " + reEncryptedValue);
                 data.item(0).setNodeValue(reEncryptedValue);
                 Transformer transformer = TransformerFactory.newInstance().newTransformer();
                 transformer.transform(new DOMSource(document), new StreamResult(filename.getPath()));
-                updateCount++;
+                metrics.increment(PhaseMetrics.Counter.UPDATED);
             }
         } catch (SAXException | IOException e) {
             log.error("Error occurred while parsing the xml file, " + e);
-            failedUpdateCount++;
+            metrics.increment(PhaseMetrics.Counter.FAILED_UPDATE);
         } catch (TransformerException | ParserConfigurationException | XPathExpressionException e) {
             log.error("Error occurred while updating configuration file, " + e);
-            failedUpdateCount++;
+            metrics.increment(PhaseMetrics.Counter.FAILED_UPDATE);
         }
     }
 }
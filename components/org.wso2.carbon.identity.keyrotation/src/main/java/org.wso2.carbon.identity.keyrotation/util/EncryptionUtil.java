@@ -18,60 +18,273 @@
 
 package org.wso2.carbon.identity.keyrotation.util;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParseException;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.apache.axiom.om.util.Base64;
 import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
-import org.wso2.carbon.identity.keyrotation.model.CipherMetaData;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
 import org.wso2.carbon.identity.keyrotation.service.CryptoProvider;
 
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * This class holds the re-encryption mechanism.
  */
 public class EncryptionUtil {
 
-    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    // Base64 encoding of {"c":" which starts every self contained ciphertext envelope without a key identifier.
+    private static final String ENVELOPE_PREFIX = "eyJjIjoi";
+    // Base64 encoding of {"kid" which starts every self contained ciphertext envelope with a key identifier.
+    private static final String KEY_ID_ENVELOPE_PREFIX = "eyJraWQi";
+    private static final int BASE64_QUANTUM_LENGTH = 4;
+    private static final int BASE64_QUANTUM_BYTES = 3;
+    private static final String BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+    private static final byte[] BASE64_VALUES = new byte[128];
+    private static final String CIPHER_TEXT_MEMBER = "c";
+    private static final String TRANSFORMATION_MEMBER = "t";
+    private static final String IV_MEMBER = "iv";
+    private static final String KEY_ID_MEMBER = "kid";
+    // A tagged envelope starts with {"kid":" followed by the hexadecimal key identifier and ",.
+    private static final String KEY_ID_START = "{\"kid\":\"";
+    private static final String KEY_ID_END = "\",";
+    private static final int KEY_ID_HEX_LENGTH = 2 * KeyRotationConstants.KEY_ID_LENGTH;
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        for (int i = 0; i < BASE64_ALPHABET.length(); i++) {
+            BASE64_VALUES[BASE64_ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
 
     /**
      * Re-encryption mechanism needed for the key rotation task.
      *
      * @param cipher            The ciphertext needed to perform re-encryption on.
      * @param keyRotationConfig Configuration data needed to perform the task.
+     * @param metrics           Metrics of the phase, where the decrypt and encrypt latencies are recorded.
      * @return Ciphertext that gets decrypted from the old key and encrypted using the new key.
      * @throws KeyRotationException Exception thrown while performing re-encryption.
      */
-    public static String symmetricReEncryption(String cipher, KeyRotationConfig keyRotationConfig)
-            throws KeyRotationException {
+    public static String symmetricReEncryption(String cipher, KeyRotationConfig keyRotationConfig,
+                                               PhaseMetrics metrics) throws KeyRotationException {
 
-        CryptoProvider cryptoProvider = new CryptoProvider();
+        CryptoProvider cryptoProvider = CryptoProvider.getInstance();
+        long startTime = System.nanoTime();
         byte[] refactoredCipher = cryptoProvider.reFactorCipherText(Base64.decode(cipher));
         byte[] plainText = cryptoProvider.decrypt(refactoredCipher, keyRotationConfig);
+        long decryptedTime = System.nanoTime();
+        metrics.recordLatency(PhaseMetrics.Operation.DECRYPT, decryptedTime - startTime);
         byte[] cipherText = cryptoProvider.encrypt(plainText, keyRotationConfig);
-        return Base64.encode(cipherText);
+        String encodedCipherText = Base64.encode(cipherText);
+        metrics.recordLatency(PhaseMetrics.Operation.ENCRYPT, System.nanoTime() - decryptedTime);
+        return encodedCipherText;
+    }
+
+    /**
+     * To decrypt a stored ciphertext with the given key.
+     *
+     * @param cipher    The stored ciphertext.
+     * @param secretKey The data encryption key the ciphertext was encrypted with.
+     * @return The cleartext.
+     * @throws KeyRotationException Exception thrown if the ciphertext cannot be decrypted with the key.
+     */
+    public static byte[] symmetricDecryption(String cipher, String secretKey) throws KeyRotationException {
+
+        CryptoProvider cryptoProvider = CryptoProvider.getInstance();
+        return cryptoProvider.decrypt(cryptoProvider.reFactorCipherText(Base64.decode(cipher)), secretKey);
+    }
+
+    /**
+     * To check if a stored field value is a ciphertext that should be re-encrypted with the new key.
+     *
+     * @param fieldValue        The stored field value.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return True if the value is a ciphertext which is not encrypted with the new key.
+     * @throws KeyRotationException Exception thrown while computing the identifier of the new key.
+     */
+    public static boolean isOldKeyCipherText(String fieldValue, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        return classifyCipherText(fieldValue, keyRotationConfig) == CipherTextType.OLD_KEY_CIPHERTEXT;
+    }
+
+    /**
+     * To classify a stored field value from its first Base64 characters, without decoding or parsing the whole value.
+     * A value which starts with the Base64 encoding of {"c":" is a ciphertext envelope without a key identifier. A
+     * value which starts with the Base64 encoding of {"kid":" is told apart from the first bytes only, which hold the
+     * key identifier. As a plaintext value such as the header of a JWT can start with {"kid":" as well, the value is a
+     * tagged envelope only if the key identifier has the length and the hexadecimal digits of the generated ones. An
+     * envelope tagged with the identifier of the new key is already re-encrypted, hence it is told apart without
+     * decrypting it, while an envelope tagged with the identifier of another key than the old one cannot be decrypted
+     * with the configured keys. Any malformed envelope is left to the decryption to report. Only a value that decodes
+     * to some other JSON object is parsed.
+     *
+     * @param fieldValue        The stored field value.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Type of the value.
+     * @throws KeyRotationException Exception thrown while computing the identifiers of the keys.
+     */
+    public static CipherTextType classifyCipherText(String fieldValue, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        if (fieldValue == null || fieldValue.length() < BASE64_QUANTUM_LENGTH) {
+            return CipherTextType.PLAINTEXT;
+        }
+        if (fieldValue.startsWith(ENVELOPE_PREFIX)) {
+            return CipherTextType.OLD_KEY_CIPHERTEXT;
+        }
+        if (fieldValue.startsWith(KEY_ID_ENVELOPE_PREFIX)) {
+            return classifyTaggedCipherText(fieldValue, keyRotationConfig);
+        }
+        byte[] leadingBytes = decodeLeadingBytes(fieldValue, BASE64_QUANTUM_BYTES);
+        if (leadingBytes == null) {
+            return CipherTextType.PLAINTEXT;
+        }
+        // The first three decoded bytes tell whether the value can be a JSON object at all.
+        for (byte leadingByte : leadingBytes) {
+            if (leadingByte == '{') {
+                return parseCipherText(fieldValue, keyRotationConfig);
+            } else if (!Character.isWhitespace(leadingByte)) {
+                return CipherTextType.PLAINTEXT;
+            }
+        }
+        return parseCipherText(fieldValue, keyRotationConfig);
+    }
+
+    /**
+     * To classify a stored field value which starts with the Base64 encoding of {"kid":" from the key identifier it
+     * starts with, decoding only the bytes up to the end of the key identifier.
+     *
+     * @param fieldValue        The stored field value.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Type of the value.
+     * @throws KeyRotationException Exception thrown while computing the identifiers of the keys.
+     */
+    private static CipherTextType classifyTaggedCipherText(String fieldValue, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
+
+        byte[] leadingBytes = decodeLeadingBytes(fieldValue, KEY_ID_START.length() + KEY_ID_HEX_LENGTH +
+                KEY_ID_END.length());
+        if (leadingBytes == null) {
+            return CipherTextType.PLAINTEXT;
+        }
+        String leadingText = new String(leadingBytes, StandardCharsets.ISO_8859_1);
+        if (!leadingText.startsWith(KEY_ID_START) || !leadingText.endsWith(KEY_ID_END)) {
+            return CipherTextType.PLAINTEXT;
+        }
+        String keyId = leadingText.substring(KEY_ID_START.length(), KEY_ID_START.length() + KEY_ID_HEX_LENGTH);
+        for (int i = 0; i < keyId.length(); i++) {
+            if (Character.digit(keyId.charAt(i), 16) < 0) {
+                return CipherTextType.PLAINTEXT;
+            }
+        }
+        CryptoProvider cryptoProvider = CryptoProvider.getInstance();
+        if (keyId.equals(cryptoProvider.getKeyId(keyRotationConfig.getNewSecretKey()))) {
+            return CipherTextType.NEW_KEY_CIPHERTEXT;
+        } else if (keyId.equals(cryptoProvider.getKeyId(keyRotationConfig.getOldSecretKey()))) {
+            return CipherTextType.OLD_KEY_CIPHERTEXT;
+        }
+        return CipherTextType.UNKNOWN_KEY_CIPHERTEXT;
+    }
+
+    /**
+     * Decodes the leading bytes of a Base64 encoded value, reading only the Base64 quanta which hold them.
+     *
+     * @param fieldValue The Base64 encoded value.
+     * @param byteCount  Number of leading bytes to decode.
+     * @return The leading bytes, or null if the value is shorter or its leading characters are not Base64 encoded.
+     */
+    private static byte[] decodeLeadingBytes(String fieldValue, int byteCount) {
+
+        int quantumCount = (byteCount + BASE64_QUANTUM_BYTES - 1) / BASE64_QUANTUM_BYTES;
+        if (fieldValue.length() < quantumCount * BASE64_QUANTUM_LENGTH) {
+            return null;
+        }
+        byte[] decodedBytes = new byte[quantumCount * BASE64_QUANTUM_BYTES];
+        for (int quantumIndex = 0; quantumIndex < quantumCount; quantumIndex++) {
+            int quantum = 0;
+            for (int i = 0; i < BASE64_QUANTUM_LENGTH; i++) {
+                char c = fieldValue.charAt(quantumIndex * BASE64_QUANTUM_LENGTH + i);
+                int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+                if (value < 0) {
+                    return null;
+                }
+                quantum = (quantum << 6) | value;
+            }
+            for (int i = 0; i < BASE64_QUANTUM_BYTES; i++) {
+                decodedBytes[quantumIndex * BASE64_QUANTUM_BYTES + i] = (byte) (quantum >> (16 - 8 * i));
+            }
+        }
+        return Arrays.copyOf(decodedBytes, byteCount);
     }
 
     /**
-     * To check if stored field value is encrypted or not.
+     * To classify a stored field value which decodes to a JSON object other than the usual start of the ciphertext
+     * envelope, such as one with leading whitespace, by decoding it and parsing the ciphertext envelope.
      *
-     * @param fieldValue The field value that needs to be checked whether it is encrypted or not.
-     * @return Boolean value.
+     * @param fieldValue        The stored field value.
+     * @param keyRotationConfig Configuration data needed to perform the task.
+     * @return Type of the value.
+     * @throws KeyRotationException Exception thrown while computing the identifiers of the keys.
      */
-    public static boolean checkPlainText(String fieldValue) {
+    private static CipherTextType parseCipherText(String fieldValue, KeyRotationConfig keyRotationConfig)
+            throws KeyRotationException {
 
-        String fieldValueStr = new String(Base64.decode(fieldValue), Charset.defaultCharset());
+        JsonObject envelope;
         try {
-            CipherMetaData cipherMetaData = gson.fromJson(fieldValueStr, CipherMetaData.class);
-            if (cipherMetaData == null) {
-                // To capture plaintext data stored in the db through this condition.
-                return true;
+            JsonElement element = JsonParser.parseString(new String(Base64.decode(fieldValue),
+                    StandardCharsets.UTF_8));
+            if (!element.isJsonObject()) {
+                return CipherTextType.PLAINTEXT;
             }
-        } catch (JsonParseException e) {
-            // To capture plaintext data stored in the db through this exception.
-            return true;
+            envelope = element.getAsJsonObject();
+        } catch (RuntimeException e) {
+            // To capture plaintext data stored in the db, which is not Base64 encoded JSON, through this exception.
+            return CipherTextType.PLAINTEXT;
+        }
+        if (!isStringMember(envelope, CIPHER_TEXT_MEMBER) || !isStringMember(envelope, TRANSFORMATION_MEMBER) ||
+                !isStringMember(envelope, IV_MEMBER)) {
+            return CipherTextType.PLAINTEXT;
+        }
+        if (!envelope.has(KEY_ID_MEMBER)) {
+            return CipherTextType.OLD_KEY_CIPHERTEXT;
         }
-        return false;
+        if (!isStringMember(envelope, KEY_ID_MEMBER)) {
+            return CipherTextType.PLAINTEXT;
+        }
+        String keyId = envelope.get(KEY_ID_MEMBER).getAsString();
+        CryptoProvider cryptoProvider = CryptoProvider.getInstance();
+        if (keyId.equals(cryptoProvider.getKeyId(keyRotationConfig.getNewSecretKey()))) {
+            return CipherTextType.NEW_KEY_CIPHERTEXT;
+        } else if (keyId.equals(cryptoProvider.getKeyId(keyRotationConfig.getOldSecretKey()))) {
+            return CipherTextType.OLD_KEY_CIPHERTEXT;
+        }
+        return CipherTextType.UNKNOWN_KEY_CIPHERTEXT;
+    }
+
+    /**
+     * Returns whether a member of the ciphertext envelope is a string.
+     *
+     * @param envelope The ciphertext envelope.
+     * @param member   Name of the member.
+     * @return True if the member is a string.
+     */
+    private static boolean isStringMember(JsonObject envelope, String member) {
+
+        JsonElement element = envelope.get(member);
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
+    }
+
+    /**
+     * Types of the stored field values.
+     */
+    public enum CipherTextType {
+
+        PLAINTEXT,
+        OLD_KEY_CIPHERTEXT,
+        NEW_KEY_CIPHERTEXT,
+        UNKNOWN_KEY_CIPHERTEXT
     }
 }
@@ -26,6 +26,22 @@ public class KeyRotationConstants {
     public static final String PROPERTY_FILE_NAME = "properties.yaml";
     public static final String DEFAULT_PROPERTY_FILE_PATH = "components/org.wso2.carbon.identity" +
             ".keyrotation/src/main/resources/properties.yaml";
+    public static final String DEFAULT_CHECKPOINT_FILE_NAME = "keyrotation-checkpoint.json";
+    public static final String DEFAULT_METRICS_FILE_NAME = "keyrotation-metrics.prom";
+    public static final String DEFAULT_DEAD_LETTER_FILE_NAME = "keyrotation-dead-letters.jsonl";
+    public static final int DEFAULT_METRICS_WRITE_INTERVAL = 10;
+    public static final int DEFAULT_PROGRESS_REPORT_INTERVAL = 30;
+    public static final int DEFAULT_BULK_UPDATE_RANGE_SIZE = 10000;
+    public static final String DEFAULT_THROTTLE_CONTROL_FILE_NAME = "keyrotation-throttle.properties";
+    public static final int DEFAULT_MAX_ROWS_PER_SECOND = 1000;
+    public static final int DEFAULT_LATENCY_THRESHOLD = 500;
+    public static final int DEFAULT_SYNC_BATCH_SIZE = 1000;
+    public static final String DEFAULT_SYNC_WATERMARK_FILE_NAME = "keyrotation-sync-watermarks.json";
+    public static final int DEFAULT_SYNC_MAX_POLL_INTERVAL = 5000;
+    public static final int DEFAULT_SYNC_ID_LAG = 1000;
+    public static final String RESUME_ARGUMENT = "--resume";
+    public static final String PLAN_ARGUMENT = "--plan";
+    public static final String VERIFY_ARGUMENT = "--verify";
 
     public static final String OLD_SECRET_KEY = "oldSecretKey";
     public static final String OLD_IDN_DB_URL = "oldIdnDBUrl";
@@ -43,6 +59,38 @@ public class KeyRotationConstants {
     public static final String ENABLE_DB_MIGRATOR = "enableDBMigrator";
     public static final String ENABLE_CONFIG_MIGRATOR = "enableConfigMigrator";
     public static final String ENABLE_SYNC_MIGRATOR = "enableSyncMigrator";
+    public static final String ENABLE_KEYSET_PAGINATION = "enableKeysetPagination";
+    public static final String CONNECTION_POOL_SIZE = "connectionPoolSize";
+    public static final String STATEMENT_CACHE_SIZE = "statementCacheSize";
+    public static final String RE_ENCRYPTION_THREAD_COUNT = "reEncryptionThreadCount";
+    public static final String TABLE_PARTITION_COUNT = "tablePartitionCount";
+    public static final String ENABLE_RE_ENCRYPTION_PIPELINE = "enableReEncryptionPipeline";
+    public static final String CRYPTO_THREAD_COUNT = "cryptoThreadCount";
+    public static final String PIPELINE_QUEUE_SIZE = "pipelineQueueSize";
+    public static final String CHECKPOINT_FILE = "checkpointFile";
+    public static final String ENABLE_STREAMING_READ = "enableStreamingRead";
+    public static final String STREAMING_FETCH_SIZE = "streamingFetchSize";
+    public static final String ENABLE_ADAPTIVE_CHUNK_SIZE = "enableAdaptiveChunkSize";
+    public static final String MIN_CHUNK_SIZE = "minChunkSize";
+    public static final String MAX_CHUNK_SIZE = "maxChunkSize";
+    public static final String METRICS_FILE = "metricsFile";
+    public static final String METRICS_WRITE_INTERVAL = "metricsWriteInterval";
+    public static final String ENABLE_PROGRESS_REPORT = "enableProgressReport";
+    public static final String PROGRESS_REPORT_INTERVAL = "progressReportInterval";
+    public static final String DEAD_LETTER_FILE = "deadLetterFile";
+    public static final String ENABLE_BULK_UPDATE = "enableBulkUpdate";
+    public static final String BULK_UPDATE_RANGE_SIZE = "bulkUpdateRangeSize";
+    public static final String ENABLE_THROTTLING = "enableThrottling";
+    public static final String MAX_ROWS_PER_SECOND = "maxRowsPerSecond";
+    public static final String LATENCY_THRESHOLD = "latencyThreshold";
+    public static final String PROBE_QUERY = "probeQuery";
+    public static final String THROTTLE_CONTROL_FILE = "throttleControlFile";
+    public static final String ENABLE_VIRTUAL_THREADS = "enableVirtualThreads";
+    public static final String SYNC_BATCH_SIZE = "syncBatchSize";
+    public static final String SYNC_WATERMARK_FILE = "syncWatermarkFile";
+    public static final String SYNC_MAX_POLL_INTERVAL = "syncMaxPollInterval";
+    public static final String SYNC_NOTIFY_FILE = "syncNotifyFile";
+    public static final String SYNC_ID_LAG = "syncIdLag";
 
     public static final String ALGORITHM = "AES";
     public static final String TRANSFORMATION = "AES/GCM/NoPadding";
@@ -55,6 +103,7 @@ public class KeyRotationConstants {
     public static final String EVENT_PUBLISHER = "EVENT_PUBLISHER";
     public static final String SUPER_TENANT = "SUPER_TENANT";
     public static final String TENANT = "TENANT";
+    public static final String CONFIG_FILE_PHASE_PREFIX = "CONFIG_FILE.";
 
     public static final String PROFILE_NAME = "PROFILE_NAME";
     public static final String USERNAME = "USERNAME";
@@ -111,6 +160,8 @@ public class KeyRotationConstants {
 
     public static final int GCM_IV_LENGTH = 16;
     public static final String JAVA_SECURITY_API_PROVIDER = "BC";
+    public static final String KEY_ID_DIGEST_ALGORITHM = "SHA-256";
+    public static final int KEY_ID_LENGTH = 4;
 
     public static final String REGISTRY_PASSWORD = "password";
     public static final String PRIVATE_KEY_PASS = "privatekeyPass";
@@ -26,14 +26,18 @@ import org.wso2.carbon.identity.keyrotation.model.CipherInitializationVector;
 import org.wso2.carbon.identity.keyrotation.model.CipherMetaData;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * This class holds the key rotation utility methods.
@@ -93,4 +97,24 @@ public class KeyRotationServiceUtils {
             throw new KeyRotationException("Error occurred while loading the yaml file: ", e);
         }
     }
+
+    /**
+     * To replace the content of a file atomically. The content is written and synced to a temp file next to the file,
+     * which is then moved over it, so that a crash leaves either the previous or the new content behind.
+     *
+     * @param path    Path of the file.
+     * @param content The new content.
+     * @throws IOException Exception thrown while writing or moving the temp file.
+     */
+    public static void writeFileAtomically(Path path, String content) throws IOException {
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(tempPath.toFile());
+             Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write(content);
+            writer.flush();
+            outputStream.getFD().sync();
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.keyrotation.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class creates the executors running the re-encryption workers on Java 21 or later. It replaces the class of
+ * the same name compiled for Java 8, through the META-INF/versions/21 directory of the multi-release jar.
+ */
+public class WorkerThreads {
+
+    private static final WorkerThreads instance = new WorkerThreads();
+
+    public static WorkerThreads getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns whether the workers can run on virtual threads in this Java version.
+     *
+     * @return True.
+     */
+    public boolean isVirtualThreadSupported() {
+
+        return true;
+    }
+
+    /**
+     * Creates an executor running the workers. A virtual thread is started for every submitted worker, and at most
+     * the given number of them run at the same time, so that the workers do not outnumber the pooled connections.
+     * Otherwise the workers run on a fixed pool of daemon platform threads.
+     *
+     * @param name           Name used for the worker threads.
+     * @param parallelism    Maximum number of workers run at the same time.
+     * @param virtualThreads Whether the workers run on virtual threads.
+     * @return The executor.
+     */
+    public ExecutorService newExecutor(String name, int parallelism, boolean virtualThreads) {
+
+        if (virtualThreads) {
+            return new BoundedExecutor(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory()), parallelism);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
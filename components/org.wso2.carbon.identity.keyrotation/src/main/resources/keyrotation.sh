@@ -17,10 +17,11 @@
 # under the License.
 #
 
-# Run the key-rotation java client using the provided path for properties.yaml file
+# Run the key-rotation java client using the provided path for properties.yaml file. Pass --resume as the third
+# argument to continue an interrupted DB re-encryption from its checkpoint file.
 
 clear
 jar="$1"
 file="$2"
-java -jar "$jar" "$file"
+java -jar "$jar" "$file" "${@:3}"
 
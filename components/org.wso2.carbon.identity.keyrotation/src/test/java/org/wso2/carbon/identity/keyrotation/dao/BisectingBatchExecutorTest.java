@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import com.google.gson.JsonParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link BisectingBatchExecutor}.
+ */
+public class BisectingBatchExecutorTest {
+
+    private static final String TABLE = "IDN_OAUTH2_ACCESS_TOKEN";
+    private static final String UPDATE = "UPDATE IDN_OAUTH2_ACCESS_TOKEN SET ACCESS_TOKEN=? WHERE TOKEN_ID=?";
+    private static final AtomicInteger phaseCount = new AtomicInteger();
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final Set<String> badRecords = new HashSet<>();
+    private FakeDatabase database;
+    private Connection connection;
+    private Path deadLetterFile;
+    private KeyRotationConfig keyRotationConfig;
+    private PhaseMetrics metrics;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        database = FakeDatabase.create();
+        database.setUpdateHandler((sql, parameters) -> {
+            String record = (String) parameters.get(2);
+            attempts.computeIfAbsent(record, key -> new AtomicInteger()).incrementAndGet();
+            if (badRecords.contains(record)) {
+                throw new SQLException("Data truncation for " + record);
+            }
+            return 1;
+        });
+        connection = DriverManager.getConnection(database.getUrl(), "wso2", "wso2");
+        connection.setAutoCommit(false);
+        deadLetterFile = Files.createTempFile("dead-letters", ".jsonl");
+        Files.delete(deadLetterFile);
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setDeadLetterFile(deadLetterFile.toString());
+        metrics = KeyRotationMetrics.getInstance().getPhaseMetrics("BisectingBatchExecutorTest-" +
+                phaseCount.incrementAndGet());
+        attempts.clear();
+        badRecords.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        connection.close();
+        Files.deleteIfExists(deadLetterFile);
+    }
+
+    @Test
+    public void testBatchWithoutFailuresIsUpdatedOnce() throws Exception {
+
+        List<String> records = records(10);
+
+        newExecutor().execute(connection, records);
+
+        assertEquals(committedRecords(), records);
+        assertTrue(attempts.values().stream().allMatch(count -> count.get() == 1));
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 10L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.RETRIED_CHUNK), 0L);
+        assertEquals(deadLetters(), Collections.emptyList());
+    }
+
+    @Test
+    public void testFailingRecordIsIsolatedInLogarithmicRetries() throws Exception {
+
+        List<String> records = records(16);
+        badRecords.add("token-11");
+
+        newExecutor().execute(connection, records);
+
+        List<String> expected = new ArrayList<>(records);
+        expected.remove("token-11");
+        assertEquals(committedRecords(), expected);
+        assertEquals(deadLetters(), Collections.singletonList("TOKEN_ID: token-11"));
+        // The full batch and one batch of each of the 8, 4, 2 and 1 record halves holding the failing record.
+        assertEquals(attempts.get("token-11").get(), 5);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 15L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE), 1L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.RETRIED_CHUNK), 1L);
+    }
+
+    @Test
+    public void testEveryFailingRecordIsReportedOnceAndTheOthersCommittedOnce() throws Exception {
+
+        List<String> records = records(10);
+        badRecords.addAll(Arrays.asList("token-00", "token-04", "token-05", "token-09"));
+
+        newExecutor().execute(connection, records);
+
+        List<String> expected = new ArrayList<>(records);
+        expected.removeAll(badRecords);
+        assertEquals(committedRecords(), expected);
+        assertEquals(deadLetters(), Arrays.asList("TOKEN_ID: token-00", "TOKEN_ID: token-04", "TOKEN_ID: token-05",
+                "TOKEN_ID: token-09"));
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 6L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE), 4L);
+        // The records executed before a failing record of the same batch are rolled back.
+        assertTrue(database.getRollbacks() > 0);
+    }
+
+    @Test
+    public void testTransientFailureReportsNoRecord() throws Exception {
+
+        List<String> records = records(8);
+        AtomicInteger batchUpdates = new AtomicInteger();
+        database.setUpdateHandler((sql, parameters) -> {
+            if (batchUpdates.incrementAndGet() == 3) {
+                throw new SQLException("Lock wait timeout exceeded");
+            }
+            return 1;
+        });
+
+        newExecutor().execute(connection, records);
+
+        assertEquals(committedRecords(), records);
+        assertEquals(deadLetters(), Collections.emptyList());
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 8L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.RETRIED_CHUNK), 1L);
+    }
+
+    @Test
+    public void testRecordFailingTransientlyOnItsOwnIsRetried() throws Exception {
+
+        List<String> records = records(4);
+        database.setUpdateHandler((sql, parameters) -> {
+            String record = (String) parameters.get(2);
+            int attempt = attempts.computeIfAbsent(record, key -> new AtomicInteger()).incrementAndGet();
+            if ("token-02".equals(record) && attempt <= 3) {
+                throw new SQLTransientException("Deadlock found when trying to get lock");
+            }
+            return 1;
+        });
+
+        newExecutor().execute(connection, records);
+
+        assertEquals(new HashSet<>(committedRecords()), new HashSet<>(records));
+        assertEquals(deadLetters(), Collections.emptyList());
+        assertEquals(attempts.get("token-02").get(), 4);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 4L);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE), 0L);
+    }
+
+    @Test
+    public void testRecordFailingTransientlyTooOftenIsReported() throws Exception {
+
+        List<String> records = records(2);
+        database.setUpdateHandler((sql, parameters) -> {
+            String record = (String) parameters.get(2);
+            attempts.computeIfAbsent(record, key -> new AtomicInteger()).incrementAndGet();
+            if ("token-01".equals(record)) {
+                throw new SQLRecoverableException("Communications link failure");
+            }
+            return 1;
+        });
+
+        newExecutor().execute(connection, records);
+
+        assertEquals(committedRecords(), Collections.singletonList("token-00"));
+        assertEquals(deadLetters(), Collections.singletonList("TOKEN_ID: token-01"));
+        // The chunk, the single record batch and three retries.
+        assertEquals(attempts.get("token-01").get(), 5);
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.FAILED_UPDATE), 1L);
+    }
+
+    @Test
+    public void testRecordFailingPermanentlyIsNotRetried() throws Exception {
+
+        badRecords.add("token-01");
+
+        newExecutor().execute(connection, records(2));
+
+        assertEquals(deadLetters(), Collections.singletonList("TOKEN_ID: token-01"));
+        assertEquals(attempts.get("token-01").get(), 2);
+    }
+
+    @Test
+    public void testRecordFailingToBindIsIsolated() throws Exception {
+
+        List<String> records = records(5);
+        BisectingBatchExecutor<String> executor = new BisectingBatchExecutor<>(TABLE, UPDATE,
+                (preparedStatement, record) -> {
+                    if ("token-02".equals(record)) {
+                        throw new IOException("Cannot serialize " + record);
+                    }
+                    preparedStatement.setString(1, "new-" + record);
+                    preparedStatement.setString(2, record);
+                }, record -> "TOKEN_ID: " + record, metrics, keyRotationConfig);
+
+        executor.execute(connection, records);
+
+        assertEquals(committedRecords(), Arrays.asList("token-00", "token-01", "token-03", "token-04"));
+        assertEquals(deadLetters(), Collections.singletonList("TOKEN_ID: token-02"));
+    }
+
+    @Test
+    public void testEmptyChunkIsANoOp() throws KeyRotationException {
+
+        newExecutor().execute(connection, Collections.emptyList());
+
+        assertTrue(database.getCommittedUpdates().isEmpty());
+        assertEquals(metrics.getCount(PhaseMetrics.Counter.UPDATED), 0L);
+    }
+
+    private BisectingBatchExecutor<String> newExecutor() {
+
+        return new BisectingBatchExecutor<>(TABLE, UPDATE, (preparedStatement, record) -> {
+            preparedStatement.setString(1, "new-" + record);
+            preparedStatement.setString(2, record);
+        }, record -> "TOKEN_ID: " + record, metrics, keyRotationConfig);
+    }
+
+    private static List<String> records(int count) {
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> String.format("token-%02d", i))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> committedRecords() {
+
+        return database.getCommittedUpdates().stream()
+                .map(update -> (String) update.getParameter(2))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> deadLetters() throws IOException {
+
+        if (!Files.exists(deadLetterFile)) {
+            return Collections.emptyList();
+        }
+        return Files.readAllLines(deadLetterFile, StandardCharsets.UTF_8).stream()
+                .map(line -> JsonParser.parseString(line).getAsJsonObject().get("record").getAsString())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link DBConnectionPool}.
+ */
+public class DBConnectionPoolTest {
+
+    private static final String UPDATE = "UPDATE IDN_OAUTH2_ACCESS_TOKEN SET ACCESS_TOKEN=? WHERE TOKEN_ID=?";
+    private static final String OTHER_UPDATE = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET AUTHORIZATION_CODE=? " +
+            "WHERE CODE_ID=?";
+    private FakeDatabase database;
+    private DBConnectionPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+
+        database = FakeDatabase.create();
+        pool = new DBConnectionPool(database.getUrl(), "wso2", "wso2", 1, 1);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        pool.close();
+    }
+
+    @Test
+    public void testConnectionIsReused() throws SQLException {
+
+        pool.getConnection().close();
+        pool.getConnection().close();
+
+        assertEquals(database.getOpenedConnections(), 1);
+    }
+
+    @Test
+    public void testBorrowerWaitsForAFreeConnection() throws Exception {
+
+        Connection connection = pool.getConnection();
+        CompletableFuture<Boolean> borrower = CompletableFuture.supplyAsync(() -> {
+            try (Connection waitingConnection = pool.getConnection()) {
+                return waitingConnection.isClosed();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(borrower.isDone());
+
+        connection.close();
+
+        assertFalse(borrower.get(10, TimeUnit.SECONDS));
+        assertEquals(database.getOpenedConnections(), 1);
+    }
+
+    @Test
+    public void testSettingsAreResetOnRelease() throws SQLException {
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        }
+
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.getAutoCommit());
+            assertFalse(connection.isReadOnly());
+            assertEquals(connection.getTransactionIsolation(), Connection.TRANSACTION_READ_COMMITTED);
+        }
+    }
+
+    @Test
+    public void testUncommittedWorkIsRolledBackOnRelease() throws SQLException {
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE)) {
+                preparedStatement.setString(1, "token");
+                preparedStatement.setString(2, "1");
+                preparedStatement.executeUpdate();
+            }
+        }
+
+        assertTrue(database.getCommittedUpdates().isEmpty());
+        assertEquals(database.getRollbacks(), 1);
+    }
+
+    @Test
+    public void testCommittedWorkIsKept() throws SQLException {
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE)) {
+                preparedStatement.setString(1, "token");
+                preparedStatement.setString(2, "1");
+                preparedStatement.executeUpdate();
+            }
+            connection.commit();
+        }
+
+        assertEquals(database.getCommittedUpdates().size(), 1);
+        assertEquals(database.getRollbacks(), 0);
+    }
+
+    @Test
+    public void testStatementIsCachedAcrossBorrowers() throws SQLException {
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement preparedStatement = connection.prepareStatement(UPDATE)) {
+                preparedStatement.setString(1, "token" + i);
+                preparedStatement.setString(2, String.valueOf(i));
+                preparedStatement.executeUpdate();
+            }
+        }
+
+        assertEquals(database.getPreparedStatements(), 1);
+        List<FakeDatabase.Execution> updates = database.getCommittedUpdates();
+        assertEquals(updates.size(), 3);
+        assertEquals(updates.get(2).getParameter(1), "token2");
+    }
+
+    @Test
+    public void testOpenCachedStatementIsNotShared() throws SQLException {
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement first = connection.prepareStatement(UPDATE);
+             PreparedStatement second = connection.prepareStatement(UPDATE)) {
+            assertNotSame(first, second);
+            first.setString(1, "first");
+            first.setString(2, "1");
+            second.setString(1, "second");
+            second.setString(2, "2");
+            first.executeUpdate();
+            second.executeUpdate();
+        }
+
+        List<FakeDatabase.Execution> updates = database.getCommittedUpdates();
+        assertEquals(updates.get(0).getParameter(1), "first");
+        assertEquals(updates.get(1).getParameter(1), "second");
+    }
+
+    @Test
+    public void testEvictedStatementStaysOpenForItsBorrower() throws SQLException {
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement first = connection.prepareStatement(UPDATE)) {
+            try (PreparedStatement second = connection.prepareStatement(OTHER_UPDATE)) {
+                second.setString(1, "code");
+                second.setString(2, "1");
+                second.executeUpdate();
+            }
+            assertFalse(first.isClosed());
+            first.setString(1, "token");
+            first.setString(2, "1");
+            first.executeUpdate();
+        }
+
+        assertEquals(database.getCommittedUpdates().size(), 2);
+    }
+
+    @Test
+    public void testClosedStatementAndConnectionRejectCalls() throws SQLException {
+
+        Connection connection = pool.getConnection();
+        PreparedStatement preparedStatement = connection.prepareStatement(UPDATE);
+        preparedStatement.close();
+        // A second close is ignored.
+        preparedStatement.close();
+        assertTrue(preparedStatement.isClosed());
+        assertThrows(SQLException.class, () -> preparedStatement.setString(1, "token"));
+
+        connection.close();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement(UPDATE));
+    }
+
+    @Test
+    public void testCloseClosesConnectionsAndRejectsBorrowers() throws SQLException {
+
+        pool.getConnection().close();
+
+        pool.close();
+
+        assertEquals(database.getOpenConnections(), 0);
+        assertThrows(SQLException.class, () -> pool.getConnection());
+    }
+}
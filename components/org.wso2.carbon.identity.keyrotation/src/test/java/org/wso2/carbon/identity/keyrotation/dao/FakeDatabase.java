@@ -0,0 +1,568 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory stand-in for a database, reached through a JDBC driver registered for the {@code jdbc:fake:} URLs,
+ * which resolve to the MySQL dialect. Queries and updates are answered by a handler set by the test, and the updates
+ * of a transaction are recorded as committed only once the connection commits. The column lookups of the database
+ * metadata are answered by the query handler as the {@link #GET_COLUMNS} query.
+ */
+public class FakeDatabase {
+
+    public static final String GET_COLUMNS = "DatabaseMetaData.getColumns";
+
+    private static final String URL_PREFIX = "jdbc:fake:";
+    private static final String ORDER_KEY = "\u0000order";
+    private static final Map<String, FakeDatabase> databases = new ConcurrentHashMap<>();
+    private static final AtomicInteger databaseCount = new AtomicInteger();
+    private final String url;
+    private final List<Execution> committedUpdates = new CopyOnWriteArrayList<>();
+    private final List<Execution> queries = new CopyOnWriteArrayList<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger openedConnections = new AtomicInteger();
+    private final AtomicInteger preparedStatements = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private volatile QueryHandler queryHandler = (sql, parameters) -> Collections.emptyList();
+    private volatile UpdateHandler updateHandler = (sql, parameters) -> 1;
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FakeDatabase(String url) {
+
+        this.url = url;
+    }
+
+    /**
+     * Creates a new empty database with its own URL.
+     *
+     * @return The database.
+     */
+    public static FakeDatabase create() {
+
+        FakeDatabase database = new FakeDatabase(URL_PREFIX + "db" + databaseCount.incrementAndGet());
+        databases.put(database.url, database);
+        return database;
+    }
+
+    public String getUrl() {
+
+        return url;
+    }
+
+    public void setQueryHandler(QueryHandler queryHandler) {
+
+        this.queryHandler = queryHandler;
+    }
+
+    public void setUpdateHandler(UpdateHandler updateHandler) {
+
+        this.updateHandler = updateHandler;
+    }
+
+    /**
+     * Returns the updates of the committed transactions, in the order they were executed.
+     *
+     * @return The committed updates.
+     */
+    public List<Execution> getCommittedUpdates() {
+
+        return new ArrayList<>(committedUpdates);
+    }
+
+    /**
+     * Returns the executed queries, in the order they were executed.
+     *
+     * @return The executed queries.
+     */
+    public List<Execution> getQueries() {
+
+        return new ArrayList<>(queries);
+    }
+
+    public int getOpenConnections() {
+
+        return openConnections.get();
+    }
+
+    public int getOpenedConnections() {
+
+        return openedConnections.get();
+    }
+
+    public int getPreparedStatements() {
+
+        return preparedStatements.get();
+    }
+
+    public int getRollbacks() {
+
+        return rollbacks.get();
+    }
+
+    /**
+     * Builds a row of a query result, from column name and value pairs.
+     *
+     * @param columnsAndValues The column names, each followed by its value.
+     * @return The row.
+     */
+    public static Map<String, Object> row(Object... columnsAndValues) {
+
+        Map<String, Object> row = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+            columns.add((String) columnsAndValues[i]);
+        }
+        // The column order is needed to read the values by index.
+        row.put(ORDER_KEY, columns);
+        return row;
+    }
+
+    /**
+     * Answers the queries run on the database.
+     */
+    @FunctionalInterface
+    public interface QueryHandler {
+
+        /**
+         * Returns the rows of a query.
+         *
+         * @param sql        The query.
+         * @param parameters The parameters, by index starting from 1.
+         * @return The rows built with {@link #row(Object...)}.
+         * @throws SQLException To fail the query.
+         */
+        List<Map<String, Object>> query(String sql, Map<Integer, Object> parameters) throws SQLException;
+    }
+
+    /**
+     * Answers the updates run on the database.
+     */
+    @FunctionalInterface
+    public interface UpdateHandler {
+
+        /**
+         * Returns the update count of an update.
+         *
+         * @param sql        The update.
+         * @param parameters The parameters, by index starting from 1.
+         * @return The update count.
+         * @throws SQLException To fail the update.
+         */
+        int update(String sql, Map<Integer, Object> parameters) throws SQLException;
+    }
+
+    /**
+     * A query or an update run on the database with its parameters.
+     */
+    public static class Execution {
+
+        private final String sql;
+        private final Map<Integer, Object> parameters;
+
+        Execution(String sql, Map<Integer, Object> parameters) {
+
+            this.sql = sql;
+            this.parameters = Collections.unmodifiableMap(new TreeMap<>(parameters));
+        }
+
+        public String getSql() {
+
+            return sql;
+        }
+
+        public Map<Integer, Object> getParameters() {
+
+            return parameters;
+        }
+
+        public Object getParameter(int index) {
+
+            return parameters.get(index);
+        }
+
+        @Override
+        public String toString() {
+
+            return sql + " " + parameters;
+        }
+    }
+
+    /**
+     * The JDBC driver of the fake databases.
+     */
+    private static class FakeDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) {
+
+            FakeDatabase database = databases.get(url);
+            return database == null ? null : database.connect();
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+
+            return url != null && url.startsWith(URL_PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+
+            return Logger.getGlobal();
+        }
+    }
+
+    private Connection connect() {
+
+        openConnections.incrementAndGet();
+        openedConnections.incrementAndGet();
+        return proxy(Connection.class, new ConnectionHandler());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+
+        return (T) Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return proxy.getClass().getSimpleName();
+        }
+    }
+
+    private static boolean isObjectMethod(Method method) {
+
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    /**
+     * A connection, which keeps the updates of its transaction until it commits.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final List<Execution> pendingUpdates = new ArrayList<>();
+        private boolean autoCommit = true;
+        private boolean readOnly;
+        private int transactionIsolation = Connection.TRANSACTION_READ_COMMITTED;
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            if (isObjectMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pendingUpdates.clear();
+                        openConnections.decrementAndGet();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed.");
+            }
+            switch (method.getName()) {
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    if (!autoCommit && (Boolean) args[0]) {
+                        commit();
+                    }
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    return null;
+                case "getTransactionIsolation":
+                    return transactionIsolation;
+                case "setTransactionIsolation":
+                    transactionIsolation = (Integer) args[0];
+                    return null;
+                case "commit":
+                    commit();
+                    return null;
+                case "rollback":
+                    pendingUpdates.clear();
+                    rollbacks.incrementAndGet();
+                    return null;
+                case "prepareStatement":
+                    preparedStatements.incrementAndGet();
+                    return proxy(PreparedStatement.class, new StatementHandler(this, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(this, null));
+                case "clearWarnings":
+                case "getCatalog":
+                case "getSchema":
+                    return null;
+                case "getMetaData":
+                    return proxy(DatabaseMetaData.class, FakeDatabase.this::invokeMetaData);
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private void commit() {
+
+            committedUpdates.addAll(pendingUpdates);
+            pendingUpdates.clear();
+        }
+
+        private int update(String sql, Map<Integer, Object> parameters) throws SQLException {
+
+            int updateCount = updateHandler.update(sql, parameters);
+            pendingUpdates.add(new Execution(sql, parameters));
+            if (autoCommit) {
+                commit();
+            }
+            return updateCount;
+        }
+    }
+
+    /**
+     * A statement or a prepared statement.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final ConnectionHandler connection;
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private final List<Map<Integer, Object>> batch = new ArrayList<>();
+        private boolean closed;
+
+        StatementHandler(ConnectionHandler connection, String preparedSql) {
+
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            if (isObjectMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if ("close".equals(name)) {
+                closed = true;
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return closed;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer &&
+                    !"setFetchSize".equals(name)) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] :
+                    preparedSql;
+            switch (name) {
+                case "setFetchSize":
+                case "setQueryTimeout":
+                case "clearBatch":
+                    if ("clearBatch".equals(name)) {
+                        batch.clear();
+                    }
+                    return null;
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "executeQuery":
+                    queries.add(new Execution(sql, parameters));
+                    return resultSet(queryHandler.query(sql, new TreeMap<>(parameters)));
+                case "executeUpdate":
+                    return connection.update(sql, new TreeMap<>(parameters));
+                case "execute":
+                    connection.update(sql, new TreeMap<>(parameters));
+                    return false;
+                case "addBatch":
+                    batch.add(new TreeMap<>(parameters));
+                    return null;
+                case "executeBatch":
+                    List<Map<Integer, Object>> entries = new ArrayList<>(batch);
+                    batch.clear();
+                    int[] updateCounts = new int[entries.size()];
+                    for (int i = 0; i < entries.size(); i++) {
+                        try {
+                            updateCounts[i] = connection.update(sql, entries.get(i));
+                        } catch (SQLException e) {
+                            throw new BatchUpdateException(e.getMessage(), Arrays.copyOf(updateCounts, i), e);
+                        }
+                    }
+                    return updateCounts;
+                default:
+                    throw new UnsupportedOperationException(name);
+            }
+        }
+    }
+
+    private Object invokeMetaData(Object proxy, Method method, Object[] args) throws SQLException {
+
+        if (isObjectMethod(method)) {
+            return identity(proxy, method, args);
+        }
+        switch (method.getName()) {
+            case "storesLowerCaseIdentifiers":
+            case "storesUpperCaseIdentifiers":
+                return false;
+            case "getSearchStringEscape":
+                return "\\";
+            case "getColumns":
+                Map<Integer, Object> parameters = new TreeMap<>();
+                for (int i = 0; i < args.length; i++) {
+                    parameters.put(i + 1, args[i]);
+                }
+                queries.add(new Execution(GET_COLUMNS, parameters));
+                return resultSet(queryHandler.query(GET_COLUMNS, parameters));
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> rows) {
+
+        return proxy(ResultSet.class, new InvocationHandler() {
+
+            private int position = -1;
+            private boolean wasNull;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                if (isObjectMethod(method)) {
+                    return identity(proxy, method, args);
+                }
+                switch (method.getName()) {
+                    case "next":
+                        return ++position < rows.size();
+                    case "close":
+                        return null;
+                    case "isClosed":
+                        return false;
+                    case "wasNull":
+                        return wasNull;
+                    case "getMetaData":
+                        int columnCount = rows.isEmpty() ? 0 : ((List<String>) rows.get(0).get(ORDER_KEY)).size();
+                        return proxy(ResultSetMetaData.class, (metaData, metaMethod, metaArgs) ->
+                                isObjectMethod(metaMethod) ? identity(metaData, metaMethod, metaArgs) : columnCount);
+                    default:
+                        break;
+                }
+                if (!method.getName().startsWith("get") || position < 0 || position >= rows.size()) {
+                    throw new SQLException("Unsupported result set call " + method.getName());
+                }
+                Map<String, Object> row = rows.get(position);
+                Object value = args[0] instanceof Integer ?
+                        row.get(((List<String>) row.get(ORDER_KEY)).get((Integer) args[0] - 1)) : row.get(args[0]);
+                wasNull = value == null;
+                switch (method.getName()) {
+                    case "getString":
+                        return value == null ? null : String.valueOf(value);
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getLong":
+                        return value == null ? 0L : ((Number) value).longValue();
+                    case "getDouble":
+                        return value == null ? 0.0 : ((Number) value).doubleValue();
+                    default:
+                        return value;
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.model.TOTPSecret;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of the keyset pagination of the TOTP secrets in {@link IdentityDAO}.
+ */
+public class IdentityDAOKeysetPaginationTest {
+
+    private static final Comparator<TOTPSecret> KEY_ORDER = Comparator
+            .comparingInt((TOTPSecret secret) -> Integer.parseInt(secret.getTenantId()))
+            .thenComparing(TOTPSecret::getUsername)
+            .thenComparing(TOTPSecret::getDataKey);
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private List<TOTPSecret> rows;
+
+    @BeforeMethod
+    public void setUp() {
+
+        rows = new ArrayList<>();
+        for (int tenantId : new int[]{-1234, 1, 2, 10}) {
+            for (String username : new String[]{"admin", "alice", "bob"}) {
+                rows.add(secret(tenantId, username, DBConstants.SECRET_KEY));
+                rows.add(secret(tenantId, username, DBConstants.VERIFIED_SECRET_KEY));
+                rows.add(secret(tenantId, username, "http://wso2.org/claims/identity/accountLocked"));
+            }
+        }
+        // A tenant without TOTP data and a user with only one of the keys.
+        rows.add(secret(5, "carol", "http://wso2.org/claims/identity/accountLocked"));
+        rows.add(secret(7, "dave", DBConstants.VERIFIED_SECRET_KEY));
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> query(sql, parameters));
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setConnectionPoolSize(2);
+        keyRotationConfig.setStatementCacheSize(4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        DBConnectionManager.getInstance().close();
+    }
+
+    @DataProvider
+    public Object[][] chunkSizes() {
+
+        return new Object[][]{{1}, {2}, {3}, {5}, {26}, {27}, {100}};
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testKeysetPaginationReadsEveryRecordOnceInOrder(int chunkSize) throws KeyRotationException {
+
+        List<TOTPSecret> expected = rows.stream()
+                .filter(IdentityDAOKeysetPaginationTest::isTOTPSecret)
+                .sorted(KEY_ORDER)
+                .collect(Collectors.toList());
+
+        List<TOTPSecret> read = new ArrayList<>();
+        List<TOTPSecret> chunk = IdentityDAO.getInstance().getTOTPSecretsChunks(0, chunkSize, keyRotationConfig);
+        while (!chunk.isEmpty()) {
+            assertTrue(chunk.size() <= chunkSize);
+            read.addAll(chunk);
+            chunk = IdentityDAO.getInstance()
+                    .getTOTPSecretsChunksAfter(chunk.get(chunk.size() - 1), chunkSize, keyRotationConfig);
+        }
+
+        assertEquals(keys(read), keys(expected));
+    }
+
+    @Test
+    public void testKeysetPaginationMatchesOffsetPagination() throws KeyRotationException {
+
+        int chunkSize = 4;
+        List<TOTPSecret> offsetRead = new ArrayList<>();
+        List<TOTPSecret> chunk;
+        int startIndex = 0;
+        do {
+            chunk = IdentityDAO.getInstance().getTOTPSecretsChunks(startIndex, chunkSize, keyRotationConfig);
+            offsetRead.addAll(chunk);
+            startIndex += chunkSize;
+        } while (!chunk.isEmpty());
+
+        List<TOTPSecret> keysetRead = new ArrayList<>();
+        chunk = IdentityDAO.getInstance().getTOTPSecretsChunks(0, chunkSize, keyRotationConfig);
+        while (!chunk.isEmpty()) {
+            keysetRead.addAll(chunk);
+            chunk = IdentityDAO.getInstance()
+                    .getTOTPSecretsChunksAfter(chunk.get(chunk.size() - 1), chunkSize, keyRotationConfig);
+        }
+
+        assertEquals(keys(keysetRead), keys(offsetRead));
+    }
+
+    @Test
+    public void testKeysetQueryBindsTheLastRecord() throws KeyRotationException {
+
+        IdentityDAO.getInstance().getTOTPSecretsChunksAfter(secret(-1234, "alice", DBConstants.SECRET_KEY), 10,
+                keyRotationConfig);
+
+        List<FakeDatabase.Execution> queries = database.getQueries();
+        assertEquals(queries.size(), 1);
+        FakeDatabase.Execution query = queries.get(0);
+        assertEquals(query.getSql(), SQLDialect.MYSQL.getLimitedQuery(DBConstants.GET_TOTP_SECRET_KEYSET));
+        assertEquals(query.getParameter(1), DBConstants.SECRET_KEY);
+        assertEquals(query.getParameter(2), DBConstants.VERIFIED_SECRET_KEY);
+        assertEquals(query.getParameter(3), -1234);
+        assertEquals(query.getParameter(4), -1234);
+        assertEquals(query.getParameter(5), "alice");
+        assertEquals(query.getParameter(6), -1234);
+        assertEquals(query.getParameter(7), "alice");
+        assertEquals(query.getParameter(8), DBConstants.SECRET_KEY);
+        assertEquals(query.getParameter(9), 10);
+    }
+
+    /**
+     * Answers the TOTP secret queries the way the database would, over the rows of the test.
+     */
+    private List<Map<String, Object>> query(String sql, Map<Integer, Object> parameters) {
+
+        List<TOTPSecret> matched = rows.stream()
+                .filter(secret -> secret.getDataKey().equals(parameters.get(1)) ||
+                        secret.getDataKey().equals(parameters.get(2)))
+                .sorted(KEY_ORDER)
+                .collect(Collectors.toList());
+        long offset = 0;
+        int limit;
+        if (sql.contains("TENANT_ID>?")) {
+            TOTPSecret lastRecord = new TOTPSecret(String.valueOf(parameters.get(3)), (String) parameters.get(5),
+                    (String) parameters.get(8), null);
+            matched = matched.stream()
+                    .filter(secret -> KEY_ORDER.compare(secret, lastRecord) > 0)
+                    .collect(Collectors.toList());
+            limit = (Integer) parameters.get(9);
+        } else {
+            offset = (Long) parameters.get(3);
+            limit = (Integer) parameters.get(4);
+        }
+        return matched.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(secret -> FakeDatabase.row("TENANT_ID", secret.getTenantId(), "USER_NAME",
+                        secret.getUsername(), "DATA_KEY", secret.getDataKey(), "DATA_VALUE", secret.getDataValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isTOTPSecret(TOTPSecret secret) {
+
+        return DBConstants.SECRET_KEY.equals(secret.getDataKey()) ||
+                DBConstants.VERIFIED_SECRET_KEY.equals(secret.getDataKey());
+    }
+
+    private static TOTPSecret secret(int tenantId, String username, String dataKey) {
+
+        return new TOTPSecret(String.valueOf(tenantId), username, dataKey,
+                "cipher-" + tenantId + "-" + username + "-" + dataKey.hashCode());
+    }
+
+    private static List<String> keys(List<TOTPSecret> secrets) {
+
+        return secrets.stream()
+                .map(secret -> secret.getTenantId() + "/" + secret.getUsername() + "/" + secret.getDataKey() + "=" +
+                        secret.getDataValue())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests of the preparation of the staging table of IDN_OAUTH2_ACCESS_TOKEN in {@link OAuthDAO}.
+ */
+public class OAuthDAOStagingTableTest {
+
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private List<String> stagingColumns;
+
+    @BeforeMethod
+    public void setUp() {
+
+        stagingColumns = new ArrayList<>();
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> {
+            if (!FakeDatabase.GET_COLUMNS.equals(sql)) {
+                return Collections.emptyList();
+            }
+            return stagingColumns.stream()
+                    .map(column -> FakeDatabase.row("COLUMN_NAME", column))
+                    .collect(Collectors.toList());
+        });
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setConnectionPoolSize(2);
+        keyRotationConfig.setStatementCacheSize(4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        DBConnectionManager.getInstance().close();
+    }
+
+    @Test
+    public void testMissingStagingTableIsCreated() throws KeyRotationException {
+
+        OAuthDAO.getInstance().createOAuthTokenStagingTable(keyRotationConfig);
+
+        assertEquals(getCommittedSql(), Collections.singletonList(DBConstants.CREATE_OAUTH_ACCESS_TOKEN_STAGE));
+        assertEquals(database.getQueries().get(0).getParameter(3), "KR\\_OAUTH2\\_ACCESS\\_TOKEN\\_STAGE");
+    }
+
+    @Test
+    public void testLeftoverStagingTableIsEmptied() throws KeyRotationException {
+
+        stagingColumns.add("token_id");
+        stagingColumns.add("ACCESS_TOKEN");
+        stagingColumns.add("REFRESH_TOKEN");
+
+        OAuthDAO.getInstance().createOAuthTokenStagingTable(keyRotationConfig);
+
+        assertEquals(getCommittedSql(), Collections.singletonList(DBConstants.CLEAR_OAUTH_ACCESS_TOKEN_STAGE));
+    }
+
+    @Test
+    public void testTableOfAnotherSchemaIsNotTouched() {
+
+        stagingColumns.add("TOKEN_ID");
+        stagingColumns.add("STATE");
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class,
+                () -> OAuthDAO.getInstance().createOAuthTokenStagingTable(keyRotationConfig));
+        assertTrue(exception.getMessage().contains(DBConstants.OAUTH_ACCESS_TOKEN_STAGING_TABLE),
+                exception.getMessage());
+        assertTrue(getCommittedSql().isEmpty());
+    }
+
+    @Test
+    public void testCreateFailureFailsTheRun() {
+
+        database.setUpdateHandler((sql, parameters) -> {
+            throw new SQLException("No privilege to create tables.");
+        });
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class,
+                () -> OAuthDAO.getInstance().createOAuthTokenStagingTable(keyRotationConfig));
+        assertEquals(exception.getCause().getMessage(), "No privilege to create tables.");
+        assertTrue(getCommittedSql().isEmpty());
+    }
+
+    private List<String> getCommittedSql() {
+
+        return database.getCommittedUpdates().stream().map(FakeDatabase.Execution::getSql)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests of {@link SQLDialect} and of the queries built with it.
+ */
+public class SQLDialectTest {
+
+    @DataProvider
+    public Object[][] urls() {
+
+        return new Object[][]{
+                {"jdbc:mysql://localhost:3306/WSO2IDENTITY_DB?useSSL=false", SQLDialect.MYSQL},
+                {"jdbc:mariadb://localhost:3306/WSO2IDENTITY_DB", SQLDialect.MYSQL},
+                {"  JDBC:MariaDB://localhost:3306/WSO2IDENTITY_DB", SQLDialect.MYSQL},
+                {"jdbc:postgresql://localhost:5432/wso2identity_db", SQLDialect.POSTGRESQL},
+                {"jdbc:sqlserver://localhost:1433;databaseName=WSO2IDENTITY_DB", SQLDialect.MSSQL},
+                {"jdbc:jtds:sqlserver://localhost:1433/WSO2IDENTITY_DB", SQLDialect.MSSQL},
+                {"jdbc:oracle:thin:@localhost:1521/ORCLPDB1", SQLDialect.ORACLE},
+                {"jdbc:db2://localhost:50000/WSO2IDDB", SQLDialect.DB2},
+                {"jdbc:h2:mem:WSO2IDENTITY_DB;DB_CLOSE_DELAY=-1", SQLDialect.H2},
+                {"jdbc:derby://localhost:1527/WSO2IDENTITY_DB", SQLDialect.MYSQL}
+        };
+    }
+
+    @Test(dataProvider = "urls")
+    public void testForUrl(String url, SQLDialect expectedDialect) {
+
+        assertEquals(SQLDialect.forUrl(url), expectedDialect);
+        // The second lookup is served from the cache.
+        assertEquals(SQLDialect.forUrl(url), expectedDialect);
+    }
+
+    @DataProvider
+    public Object[][] pages() {
+
+        return new Object[][]{
+                {SQLDialect.MYSQL, "SELECT ID FROM T ORDER BY ID LIMIT ?, ?", 200L, 50},
+                {SQLDialect.POSTGRESQL, "SELECT ID FROM T ORDER BY ID LIMIT ? OFFSET ?", 50, 200L},
+                {SQLDialect.MSSQL, "SELECT ID FROM T ORDER BY ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", 200L, 50},
+                {SQLDialect.ORACLE, "SELECT ID FROM T ORDER BY ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", 200L, 50},
+                {SQLDialect.DB2, "SELECT ID FROM T ORDER BY ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", 200L, 50},
+                {SQLDialect.H2, "SELECT ID FROM T ORDER BY ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", 200L, 50}
+        };
+    }
+
+    @Test(dataProvider = "pages")
+    public void testPageParametersFollowTheOrderOfThePagedQuery(SQLDialect dialect, String expectedQuery,
+                                                                Object firstParameter, Object secondParameter)
+            throws Exception {
+
+        assertEquals(dialect.getPagedQuery("SELECT ID FROM T ORDER BY ID"), expectedQuery);
+        Map<Integer, Object> parameters = new HashMap<>();
+        // The paged query of a keyset read has its own parameters before the pagination parameters.
+        dialect.setPageParameters(recordingStatement(parameters), 3, 200, 50);
+
+        assertEquals(parameters.size(), 2);
+        assertEquals(parameters.get(3), firstParameter);
+        assertEquals(parameters.get(4), secondParameter);
+    }
+
+    @DataProvider
+    public Object[][] stagedUpdates() {
+
+        return new Object[][]{
+                {SQLDialect.MYSQL, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE},
+                {SQLDialect.POSTGRESQL, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_POSTGRE},
+                {SQLDialect.MSSQL, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MSSQL},
+                {SQLDialect.ORACLE, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MERGE},
+                {SQLDialect.DB2, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MERGE},
+                {SQLDialect.H2, DBConstants.APPLY_OAUTH_ACCESS_TOKEN_STAGE_MERGE}
+        };
+    }
+
+    @Test(dataProvider = "stagedUpdates")
+    public void testStagedUpdateQuery(SQLDialect dialect, String expectedQuery) {
+
+        assertEquals(OAuthDAO.getApplyOAuthTokenStageQuery(dialect), expectedQuery);
+    }
+
+    @Test
+    public void testStreamingFetchSize() throws Exception {
+
+        Map<Integer, Object> parameters = new HashMap<>();
+        PreparedStatement preparedStatement = recordingStatement(parameters);
+        SQLDialect.MYSQL.setStreamingFetchSize(preparedStatement, 1000);
+        assertEquals(parameters.get(0), Integer.MIN_VALUE);
+        SQLDialect.POSTGRESQL.setStreamingFetchSize(preparedStatement, 1000);
+        assertEquals(parameters.get(0), 1000);
+    }
+
+    @Test
+    public void testLengthFunction() {
+
+        assertEquals(SQLDialect.MSSQL.getLengthFunction(false), DBConstants.LENGTH_MSSQL);
+        assertEquals(SQLDialect.ORACLE.getLengthFunction(false), DBConstants.LENGTH);
+        assertEquals(SQLDialect.ORACLE.getLengthFunction(true), DBConstants.LENGTH_ORACLE_LOB);
+        assertEquals(SQLDialect.MYSQL.getLengthFunction(true), DBConstants.LENGTH);
+    }
+
+    @Test
+    public void testTableRowCountQuery() {
+
+        for (SQLDialect dialect : SQLDialect.values()) {
+            if (dialect == SQLDialect.H2) {
+                assertNull(dialect.getTableRowCountQuery());
+            } else {
+                assertNotNull(dialect.getTableRowCountQuery(), dialect.name());
+            }
+        }
+    }
+
+    /**
+     * Builds a prepared statement recording its integer parameters by index, and its fetch size at index 0.
+     *
+     * @param parameters The recorded parameters.
+     * @return The prepared statement.
+     */
+    private static PreparedStatement recordingStatement(Map<Integer, Object> parameters) {
+
+        return (PreparedStatement) Proxy.newProxyInstance(SQLDialectTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if ("setInt".equals(method.getName()) || "setLong".equals(method.getName())) {
+                        parameters.put((Integer) args[0], args[1]);
+                    } else if ("setFetchSize".equals(method.getName())) {
+                        parameters.put(0, args[0]);
+                    }
+                    return null;
+                });
+    }
+}
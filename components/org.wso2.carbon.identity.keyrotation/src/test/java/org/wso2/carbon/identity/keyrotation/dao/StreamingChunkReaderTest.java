@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests of {@link StreamingChunkReader}.
+ */
+public class StreamingChunkReaderTest {
+
+    private static final String QUERY =
+            "SELECT TOKEN_ID FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID>? ORDER BY TOKEN_ID";
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private List<StreamingChunkReader<String>> readers;
+
+    @BeforeMethod
+    public void setUp() {
+
+        List<Map<String, Object>> rows = IntStream.range(0, 10)
+                .mapToObj(i -> FakeDatabase.row("TOKEN_ID", String.format("token-%02d", i)))
+                .collect(Collectors.toList());
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> rows);
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setStreamingFetchSize(4);
+        readers = new ArrayList<>();
+    }
+
+    @AfterMethod
+    public void tearDown() throws KeyRotationException {
+
+        for (StreamingChunkReader<String> reader : readers) {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testTableIsReadInChunksThroughOneCursor() throws KeyRotationException {
+
+        StreamingChunkReader<String> reader = newReader();
+
+        assertEquals(reader.read(0, 4), tokens(0, 4));
+        assertEquals(reader.read(4, 4), tokens(4, 8));
+        assertEquals(reader.read(8, 4), tokens(8, 10));
+        assertEquals(reader.read(12, 4), Collections.emptyList());
+        assertEquals(database.getQueries().size(), 1);
+        assertEquals(database.getQueries().get(0).getParameter(1), "");
+        assertEquals(database.getOpenConnections(), 1);
+        reader.close();
+        assertEquals(database.getOpenConnections(), 0);
+    }
+
+    @Test
+    public void testResumedCursorSkipsTheCheckpointedRecords() throws KeyRotationException {
+
+        StreamingChunkReader<String> interruptedReader = newReader();
+        assertEquals(interruptedReader.read(0, 3), tokens(0, 3));
+        assertEquals(interruptedReader.read(3, 3), tokens(3, 6));
+        interruptedReader.close();
+
+        // The checkpoint of the interrupted run recorded the first two chunks, hence the next run starts after them.
+        StreamingChunkReader<String> resumedReader = newReader();
+        assertEquals(resumedReader.read(6, 3), tokens(6, 9));
+        assertEquals(resumedReader.read(9, 3), tokens(9, 10));
+        assertEquals(database.getQueries().size(), 2);
+    }
+
+    @Test
+    public void testResumeBeyondTheEndOfTheTableReadsNothing() throws KeyRotationException {
+
+        StreamingChunkReader<String> reader = newReader();
+
+        assertEquals(reader.read(25L, 5), Collections.emptyList());
+        assertEquals(reader.read(30L, 5), Collections.emptyList());
+        assertEquals(database.getQueries().size(), 1);
+    }
+
+    @Test
+    public void testCursorIsOpenedOnlyOnTheFirstRead() throws KeyRotationException {
+
+        StreamingChunkReader<String> reader = newReader();
+
+        assertEquals(database.getOpenedConnections(), 0);
+        reader.read(0, 1);
+        reader.read(1, 1);
+        assertEquals(database.getOpenedConnections(), 1);
+    }
+
+    @Test
+    public void testQueryFailureIsReported() {
+
+        database.setQueryHandler((sql, parameters) -> {
+            throw new SQLException("Table not found.");
+        });
+        StreamingChunkReader<String> reader = newReader();
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class, () -> reader.read(0, 4));
+        assertTrue(exception.getMessage().contains("IDN_OAUTH2_ACCESS_TOKEN"), exception.getMessage());
+    }
+
+    private StreamingChunkReader<String> newReader() {
+
+        StreamingChunkReader<String> reader = new StreamingChunkReader<>("IDN_OAUTH2_ACCESS_TOKEN",
+                () -> DriverManager.getConnection(database.getUrl(), "wso2", "wso2"),
+                SQLDialect.forUrl(database.getUrl()), QUERY, preparedStatement -> preparedStatement.setString(1, ""),
+                resultSet -> resultSet.getString("TOKEN_ID"), keyRotationConfig);
+        readers.add(reader);
+        return reader;
+    }
+
+    private static List<String> tokens(int from, int to) {
+
+        return IntStream.range(from, to)
+                .mapToObj(i -> String.format("token-%02d", i))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.dao;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.model.TableEstimate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of the extrapolation of the table samples in {@link TableEstimateDAO}.
+ */
+public class TableEstimateDAOTest {
+
+    private static final double DELTA = 1e-6;
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private List<Map<String, Object>> statisticsRows;
+    private List<Map<String, Object>> sampleRows;
+
+    @BeforeMethod
+    public void setUp() {
+
+        statisticsRows = new ArrayList<>();
+        sampleRows = new ArrayList<>();
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) ->
+                DBConstants.TABLE_ROW_COUNT_MYSQL.equals(sql) ? statisticsRows : sampleRows);
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setConnectionPoolSize(2);
+        keyRotationConfig.setStatementCacheSize(4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        DBConnectionManager.getInstance().close();
+    }
+
+    @Test
+    public void testMatchingShareOfAFullSampleIsExtrapolatedToTheTable() {
+
+        statisticsRows.add(FakeDatabase.row("TABLE_ROWS", 1000000L));
+        for (int i = 0; i < DBConstants.ESTIMATE_SAMPLE_SIZE; i++) {
+            sampleRows.add(FakeDatabase.row("MATCHED", i % 4 == 0 ? 1 : 0, "VALUE_SIZE", i % 4 == 0 ? 120L : 10L));
+        }
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getTOTPSecretEstimate(keyRotationConfig);
+
+        assertEquals(estimate.getPhase(), "IDN_IDENTITY_USER_DATA");
+        assertEquals(estimate.getRowCount(), 250000L);
+        assertEquals(estimate.getAverageValueSize(), 120, DELTA);
+        assertEquals(estimate.getEstimatedBytes(), 30000000L);
+        Map<Integer, Object> sampleParameters = database.getQueries().get(1).getParameters();
+        assertEquals(sampleParameters.get(1), DBConstants.SECRET_KEY);
+        assertEquals(sampleParameters.get(2), DBConstants.VERIFIED_SECRET_KEY);
+        assertEquals(sampleParameters.get(3), DBConstants.ESTIMATE_SAMPLE_SIZE);
+    }
+
+    @Test
+    public void testSampleHoldingTheWholeTableIsExact() {
+
+        statisticsRows.add(FakeDatabase.row("TABLE_ROWS", 900000L));
+        for (int i = 0; i < 30; i++) {
+            sampleRows.add(FakeDatabase.row("MATCHED", i < 20 ? 1 : 0, "VALUE_SIZE", 64L));
+        }
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getTOTPSecretEstimate(keyRotationConfig);
+
+        assertEquals(estimate.getRowCount(), 20L);
+        assertEquals(estimate.getAverageValueSize(), 64, DELTA);
+    }
+
+    @Test
+    public void testAverageSizesOfTheColumnsSkipTheNullValues() {
+
+        statisticsRows.add(FakeDatabase.row("TABLE_ROWS", 40000L));
+        for (int i = 0; i < DBConstants.ESTIMATE_SAMPLE_SIZE; i++) {
+            sampleRows.add(FakeDatabase.row("MATCHED", 1, "ACCESS_TOKEN_SIZE", 200L,
+                    "REFRESH_TOKEN_SIZE", i % 2 == 0 ? null : 100L));
+        }
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getOAuthTokenEstimate(keyRotationConfig);
+
+        assertEquals(estimate.getRowCount(), 40000L);
+        assertEquals(estimate.getAverageValueSize(), 300, DELTA);
+    }
+
+    @Test
+    public void testFullSampleWithoutStatisticsIsUnknown() {
+
+        for (int i = 0; i < DBConstants.ESTIMATE_SAMPLE_SIZE; i++) {
+            sampleRows.add(FakeDatabase.row("MATCHED", 1, "VALUE_SIZE", 50L));
+        }
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getOAuthCodeEstimate(keyRotationConfig);
+
+        assertFalse(estimate.isKnown());
+        assertEquals(estimate.getEstimatedBytes(), 0L);
+    }
+
+    @Test
+    public void testNegativeStatisticsAreUnknown() {
+
+        statisticsRows.add(FakeDatabase.row("TABLE_ROWS", -1L));
+        for (int i = 0; i < DBConstants.ESTIMATE_SAMPLE_SIZE; i++) {
+            sampleRows.add(FakeDatabase.row("MATCHED", 1, "VALUE_SIZE", 50L));
+        }
+
+        assertFalse(TableEstimateDAO.getInstance().getOAuthSecretEstimate(keyRotationConfig).isKnown());
+    }
+
+    @Test
+    public void testFailedSampleIsUnknown() {
+
+        database.setQueryHandler((sql, parameters) -> {
+            if (DBConstants.TABLE_ROW_COUNT_MYSQL.equals(sql)) {
+                return Collections.singletonList(FakeDatabase.row("TABLE_ROWS", 100L));
+            }
+            throw new SQLException("Table not found.");
+        });
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getBPSPasswordEstimate(keyRotationConfig);
+
+        assertEquals(estimate.getPhase(), "WF_BPS_PROFILE");
+        assertFalse(estimate.isKnown());
+    }
+
+    @Test
+    public void testEmptyTableIsKnownToBeEmpty() {
+
+        statisticsRows.add(FakeDatabase.row("TABLE_ROWS", 0L));
+
+        TableEstimate estimate = TableEstimateDAO.getInstance().getWFRequestEstimate(keyRotationConfig);
+
+        assertTrue(estimate.isKnown());
+        assertEquals(estimate.getRowCount(), 0L);
+        assertEquals(estimate.getAverageValueSize(), 0, DELTA);
+    }
+}
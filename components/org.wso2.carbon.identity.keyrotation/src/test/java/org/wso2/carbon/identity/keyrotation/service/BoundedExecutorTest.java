@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests of {@link BoundedExecutor}.
+ */
+public class BoundedExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private BoundedExecutor executor;
+
+    @AfterMethod
+    public void tearDown() throws InterruptedException {
+
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            executor = null;
+        }
+    }
+
+    @Test
+    public void testRunningTasksAreBoundedByTheParallelism() throws Exception {
+
+        executor = new BoundedExecutor(Executors.newCachedThreadPool(), 3);
+        AtomicInteger runningTasks = new AtomicInteger();
+        AtomicInteger maxRunningTasks = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                int running = runningTasks.incrementAndGet();
+                maxRunningTasks.accumulateAndGet(running, Math::max);
+                Thread.sleep(20);
+                runningTasks.decrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertEquals(maxRunningTasks.get(), 3);
+    }
+
+    @Test
+    public void testSubmitDoesNotWaitForAPermit() throws Exception {
+
+        executor = new BoundedExecutor(Executors.newCachedThreadPool(), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blockingTask = executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        List<Future<?>> waitingTasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            waitingTasks.add(executor.submit(() -> {
+            }));
+        }
+
+        for (Future<?> waitingTask : waitingTasks) {
+            assertFalse(waitingTask.isDone());
+        }
+        release.countDown();
+        blockingTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        for (Future<?> waitingTask : waitingTasks) {
+            waitingTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testShutdownNowCancelsTheWaitingTasks() throws Exception {
+
+        executor = new BoundedExecutor(Executors.newCachedThreadPool(), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> runningTask = executor.submit(() -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        AtomicBoolean waitingTaskRan = new AtomicBoolean();
+        Future<?> waitingTask = executor.submit(() -> waitingTaskRan.set(true));
+
+        executor.shutdownNow();
+
+        assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        expectThrows(CancellationException.class, () -> waitingTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(waitingTaskRan.get());
+        ExecutionException exception = expectThrows(ExecutionException.class,
+                () -> runningTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof InterruptedException);
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenATaskFails() throws Exception {
+
+        executor = new BoundedExecutor(Executors.newCachedThreadPool(), 1);
+
+        Future<?> failingTask = executor.submit(() -> {
+            throw new IllegalStateException("Failed task.");
+        });
+        Future<String> nextTask = executor.submit(() -> "done");
+
+        assertThrows(ExecutionException.class, () -> failingTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(nextTask.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), "done");
+    }
+
+    @Test
+    public void testParallelismIsAtLeastOne() throws Exception {
+
+        executor = new BoundedExecutor(Executors.newCachedThreadPool(), 0);
+
+        assertEquals(executor.submit(() -> "done").get(TIMEOUT_SECONDS, TimeUnit.SECONDS), "done");
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.model.ReEncryptionCheckpoint;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests of {@link CheckpointJournal} and of resuming a {@link ReEncryptionPipeline} from it.
+ */
+public class CheckpointJournalTest {
+
+    private static final String PHASE = "IDN_IDENTITY_USER_DATA";
+    private Path directory;
+    private KeyRotationConfig keyRotationConfig;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("checkpoint-journal-test");
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setCheckpointFile(directory.resolve("checkpoints.json").toString());
+        keyRotationConfig.setChunkSize(3);
+        keyRotationConfig.setCryptoThreadCount(2);
+        keyRotationConfig.setPipelineQueueSize(2);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testNewRunRemovesThePreviousJournal() throws Exception {
+
+        Path journalPath = directory.resolve("checkpoints.json");
+        Files.write(journalPath, "{}".getBytes(StandardCharsets.UTF_8));
+
+        CheckpointJournal.getInstance().open(keyRotationConfig, false);
+
+        assertFalse(Files.exists(journalPath));
+        assertTrue(CheckpointJournal.getInstance().getCheckpoints("").isEmpty());
+    }
+
+    @Test
+    public void testResumeWithoutJournalFails() {
+
+        assertThrows(KeyRotationException.class, () -> CheckpointJournal.getInstance().open(keyRotationConfig, true));
+    }
+
+    @Test
+    public void testResumeWithCorruptJournalFails() throws Exception {
+
+        Files.write(directory.resolve("checkpoints.json"), "{\"phase\": [".getBytes(StandardCharsets.UTF_8));
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class,
+                () -> CheckpointJournal.getInstance().open(keyRotationConfig, true));
+        assertTrue(exception.getMessage().contains("checkpoint file"));
+    }
+
+    @Test
+    public void testCommittedPositionIsReadBackOnResume() throws Exception {
+
+        CheckpointJournal journal = CheckpointJournal.getInstance();
+        journal.open(keyRotationConfig, false);
+        ReEncryptionCheckpoint checkpoint = journal.getCheckpoint(PHASE);
+        checkpoint.setCounters(() -> 5, () -> 1);
+        journal.getCheckpoint("REG_PROPERTY-password");
+        journal.getCheckpoint("REG_PROPERTY-subscriberPassword");
+        journal.commit(checkpoint, 20, Arrays.asList("-1234", "admin", "secretkey"));
+
+        journal.open(keyRotationConfig, true);
+
+        ReEncryptionCheckpoint resumed = journal.getCheckpoint(PHASE);
+        assertEquals(resumed.getOffset(), 20L);
+        assertEquals(resumed.getLastKey(), Arrays.asList("-1234", "admin", "secretkey"));
+        assertEquals(resumed.getUpdateCount(), 5L);
+        assertEquals(resumed.getFailedUpdateCount(), 1L);
+        assertFalse(resumed.isCompleted());
+        assertEquals(journal.getCheckpoints("REG_PROPERTY-").stream()
+                .map(ReEncryptionCheckpoint::getPhase)
+                .collect(Collectors.toList()),
+                Arrays.asList("REG_PROPERTY-password", "REG_PROPERTY-subscriberPassword"));
+    }
+
+    @Test
+    public void testConcurrentCommitsAreAllPersisted() throws Exception {
+
+        CheckpointJournal journal = CheckpointJournal.getInstance();
+        journal.open(keyRotationConfig, false);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int range = 0; range < 4; range++) {
+                ReEncryptionCheckpoint checkpoint = journal.getCheckpoint(PHASE + "-range-" + range);
+                futures.add(executorService.submit(() -> {
+                    for (int chunk = 1; chunk <= 25; chunk++) {
+                        journal.commit(checkpoint, chunk * 3, Collections.singletonList(String.valueOf(chunk * 3)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        journal.open(keyRotationConfig, true);
+
+        List<ReEncryptionCheckpoint> resumed = journal.getCheckpoints(PHASE + "-range-");
+        assertEquals(resumed.size(), 4);
+        for (ReEncryptionCheckpoint checkpoint : resumed) {
+            assertEquals(checkpoint.getOffset(), 75L);
+            assertEquals(checkpoint.getLastKey(), Collections.singletonList("75"));
+        }
+    }
+
+    @Test
+    public void testCompletedPhaseIsSkippedOnResume() throws Exception {
+
+        CheckpointJournal journal = CheckpointJournal.getInstance();
+        journal.open(keyRotationConfig, false);
+        journal.complete(journal.getCheckpoint(PHASE));
+
+        journal.open(keyRotationConfig, true);
+        ReEncryptionPipeline<String> pipeline = newPipeline(journal.getCheckpoint(PHASE));
+        pipeline.run((previousChunk, startIndex, chunkSize) -> {
+            throw new KeyRotationException("A completed phase should not be read.");
+        }, chunk -> chunk, (chunk, reEncryptedRecords) -> {
+        });
+
+        assertTrue(journal.getCheckpoint(PHASE).isCompleted());
+    }
+
+    @DataProvider
+    public Object[][] pipelined() {
+
+        return new Object[][]{{false}, {true}};
+    }
+
+    @Test(dataProvider = "pipelined")
+    public void testInterruptedRunResumesAfterTheLastCommittedChunk(boolean pipelined) throws Exception {
+
+        keyRotationConfig.setEnableReEncryptionPipeline(pipelined);
+        List<String> table = IntStream.range(0, 10)
+                .mapToObj(i -> String.format("record-%02d", i))
+                .collect(Collectors.toList());
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        CheckpointJournal journal = CheckpointJournal.getInstance();
+
+        journal.open(keyRotationConfig, false);
+        ReEncryptionPipeline<String> firstRun = newPipeline(journal.getCheckpoint(PHASE));
+        assertThrows(KeyRotationException.class, () -> firstRun.run(keysetReader(table), chunk -> chunk,
+                (chunk, reEncryptedRecords) -> {
+                    if (chunk.contains("record-06")) {
+                        throw new KeyRotationException("Simulated crash.");
+                    }
+                    written.addAll(reEncryptedRecords);
+                }));
+        assertEquals(written, table.subList(0, 6));
+
+        journal.open(keyRotationConfig, true);
+        ReEncryptionCheckpoint checkpoint = journal.getCheckpoint(PHASE);
+        assertEquals(checkpoint.getOffset(), 6L);
+        assertEquals(checkpoint.getLastKey(), Collections.singletonList("record-05"));
+        List<Long> startIndexes = new ArrayList<>();
+        ReEncryptionPipeline<String> secondRun = newPipeline(checkpoint);
+        secondRun.run((previousChunk, startIndex, chunkSize) -> {
+            startIndexes.add(startIndex);
+            return keysetReader(table).read(previousChunk, startIndex, chunkSize);
+        }, chunk -> chunk, (chunk, reEncryptedRecords) -> written.addAll(reEncryptedRecords));
+
+        assertEquals(written, table);
+        assertEquals(startIndexes.get(0), Long.valueOf(6));
+        journal.open(keyRotationConfig, true);
+        assertTrue(journal.getCheckpoint(PHASE).isCompleted());
+    }
+
+    @Test
+    public void testRunWithoutCheckpointStartsFromTheBeginning() throws Exception {
+
+        List<String> table = Arrays.asList("a", "b", "c", "d");
+        List<String> written = new ArrayList<>();
+        ReEncryptionPipeline<String> pipeline = new ReEncryptionPipeline<>(PHASE, keyRotationConfig);
+
+        pipeline.run(keysetReader(table), chunk -> chunk, (chunk, reEncryptedRecords) ->
+                written.addAll(reEncryptedRecords));
+
+        assertEquals(written, table);
+        assertNull(journalContent());
+    }
+
+    private ReEncryptionPipeline<String> newPipeline(ReEncryptionCheckpoint checkpoint) {
+
+        ReEncryptionPipeline<String> pipeline = new ReEncryptionPipeline<>(PHASE, keyRotationConfig);
+        pipeline.setCheckpoint(checkpoint, Collections::singletonList, key -> key.get(0));
+        return pipeline;
+    }
+
+    /**
+     * Returns a reader of the sorted table, which reads the records following the last record of the previous chunk.
+     */
+    private static ReEncryptionPipeline.ChunkReader<String> keysetReader(List<String> table) {
+
+        return (previousChunk, startIndex, chunkSize) -> {
+            String lastRecord = previousChunk == null ? null : previousChunk.get(previousChunk.size() - 1);
+            return table.stream()
+                    .filter(record -> lastRecord == null || record.compareTo(lastRecord) > 0)
+                    .limit(chunkSize)
+                    .collect(Collectors.toList());
+        };
+    }
+
+    private String journalContent() throws IOException {
+
+        Path journalPath = directory.resolve("checkpoints.json");
+        return Files.exists(journalPath) ? new String(Files.readAllBytes(journalPath), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests of {@link ChunkSizeController}.
+ */
+public class ChunkSizeControllerTest {
+
+    private static final int WINDOW_CHUNK_COUNT = 4;
+    private KeyRotationConfig keyRotationConfig;
+
+    @BeforeMethod
+    public void setUp() {
+
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setEnableAdaptiveChunkSize(true);
+        keyRotationConfig.setChunkSize(100);
+        keyRotationConfig.setMinChunkSize(10);
+        keyRotationConfig.setMaxChunkSize(1000);
+    }
+
+    @Test
+    public void testChunkSizeIsFixedWhenNotAdaptive() {
+
+        keyRotationConfig.setEnableAdaptiveChunkSize(false);
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+
+        recordWindow(controller, 1000);
+        controller.record(100, 100, 100000, 5);
+
+        assertEquals(controller.getChunkSize(), 100);
+    }
+
+    @Test
+    public void testChunkSizeGrowsWhileTheCostPerRecordDrops() {
+
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+
+        recordWindow(controller, 1000);
+        assertEquals(controller.getChunkSize(), 200);
+        recordWindow(controller, 500);
+        assertEquals(controller.getChunkSize(), 400);
+    }
+
+    @Test
+    public void testChunkSizeBacksOffWithASmallerStepWhenTheCostRises() {
+
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+        recordWindow(controller, 1000);
+        recordWindow(controller, 500);
+
+        recordWindow(controller, 800);
+        assertEquals(controller.getChunkSize(), 267);
+        // Cheaper again, hence it keeps shrinking with the smaller step.
+        recordWindow(controller, 400);
+        assertEquals(controller.getChunkSize(), 178);
+    }
+
+    @Test
+    public void testFailedUpdateHalvesTheChunkSizeDownToTheMinimum() {
+
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+
+        controller.record(100, 100, 100000, 1);
+        assertEquals(controller.getChunkSize(), 50);
+        controller.record(50, 50, 50000, 3);
+        assertEquals(controller.getChunkSize(), 25);
+        controller.record(25, 25, 25000, 1);
+        controller.record(12, 12, 12000, 1);
+        assertEquals(controller.getChunkSize(), 10);
+        // At the minimum, the next window measures a larger size again.
+        controller.record(10, 10, 10000, 1);
+        recordWindow(controller, 1000);
+        assertEquals(controller.getChunkSize(), 20);
+    }
+
+    @Test
+    public void testFailedUpdateDiscardsThePartialWindow() {
+
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+        controller.record(100, 100, 100000, 0);
+        controller.record(100, 100, 100000, 0);
+
+        controller.record(100, 100, 100000, 2);
+        assertEquals(controller.getChunkSize(), 50);
+        for (int i = 0; i < WINDOW_CHUNK_COUNT - 1; i++) {
+            controller.record(50, 50, 50000, 0);
+        }
+        assertEquals(controller.getChunkSize(), 50);
+    }
+
+    @Test
+    public void testStaleAndShortChunksAreIgnored() {
+
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+
+        for (int i = 0; i < WINDOW_CHUNK_COUNT; i++) {
+            controller.record(50, 50, 50000, 0);
+            controller.record(100, 99, 99000, 0);
+        }
+        controller.record(50, 50, 50000, 1);
+        assertEquals(controller.getChunkSize(), 100);
+    }
+
+    @Test
+    public void testChunkSizeStaysWithinTheBounds() {
+
+        keyRotationConfig.setChunkSize(5000);
+        ChunkSizeController controller = new ChunkSizeController("test", keyRotationConfig);
+        assertEquals(controller.getChunkSize(), 1000);
+
+        recordWindow(controller, 1000);
+        assertEquals(controller.getChunkSize(), 1000);
+        // At the maximum, the next window measures a smaller size.
+        recordWindow(controller, 1000);
+        assertEquals(controller.getChunkSize(), 500);
+    }
+
+    /**
+     * Records a window of full chunks of the current size at the given cost per record.
+     *
+     * @param controller     The controller.
+     * @param nanosPerRecord Time taken per record.
+     */
+    private static void recordWindow(ChunkSizeController controller, long nanosPerRecord) {
+
+        int chunkSize = controller.getChunkSize();
+        for (int i = 0; i < WINDOW_CHUNK_COUNT; i++) {
+            controller.record(chunkSize, chunkSize, chunkSize * nanosPerRecord, 0);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.DBConnectionManager;
+import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
+import org.wso2.carbon.identity.keyrotation.dao.FakeDatabase;
+import org.wso2.carbon.identity.keyrotation.model.VerificationResult;
+import org.wso2.carbon.identity.keyrotation.model.VerificationResult.Outcome;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link DBVerifier}.
+ */
+public class DBVerifierTest {
+
+    private static final String OLD_SECRET_KEY = "0123456789abcdef";
+    private static final String NEW_SECRET_KEY = "fedcba9876543210";
+    private static final String OTHER_SECRET_KEY = "0000111122223333";
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private final List<Map<String, Object>> totpRows = new ArrayList<>();
+    private final List<Map<String, Object>> tokenRows = new ArrayList<>();
+    private final List<Map<String, Object>> registryPasswordRows = new ArrayList<>();
+
+    @BeforeMethod
+    public void setUp() {
+
+        totpRows.clear();
+        tokenRows.clear();
+        registryPasswordRows.clear();
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> {
+            if (sql.contains("FROM IDN_IDENTITY_USER_DATA")) {
+                return totpRows;
+            } else if (sql.contains("FROM IDN_OAUTH2_ACCESS_TOKEN")) {
+                return tokenRows;
+            } else if (sql.contains("FROM REG_PROPERTY") &&
+                    KeyRotationConstants.REGISTRY_PASSWORD.equals(parameters.get(1))) {
+                return registryPasswordRows;
+            }
+            return Collections.emptyList();
+        });
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setOldSecretKey(OLD_SECRET_KEY);
+        keyRotationConfig.setNewSecretKey(NEW_SECRET_KEY);
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setNewRegDBUrl(database.getUrl());
+        keyRotationConfig.setNewRegUsername("wso2");
+        keyRotationConfig.setNewRegPassword("d3NvMg==");
+        keyRotationConfig.setChunkSize(2);
+        keyRotationConfig.setStreamingFetchSize(100);
+        keyRotationConfig.setReEncryptionThreadCount(2);
+        keyRotationConfig.setTablePartitionCount(1);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        DBConnectionManager.getInstance().close();
+    }
+
+    @Test
+    public void testOutcomesAreCountedPerTable() throws KeyRotationException {
+
+        totpRows.add(totpRow("admin", encrypt(NEW_SECRET_KEY, "totp-1")));
+        totpRows.add(totpRow("alice", encrypt(OLD_SECRET_KEY, "totp-2")));
+        totpRows.add(totpRow("bob", "JBSWY3DPEHPK3PXP"));
+        totpRows.add(totpRow("carol", encrypt(OTHER_SECRET_KEY, "totp-3")));
+        totpRows.add(totpRow("dave", removeKeyId(encrypt(NEW_SECRET_KEY, "totp-4"))));
+        registryPasswordRows.add(FakeDatabase.row(KeyRotationConstants.REG_ID, "1", KeyRotationConstants.REG_NAME,
+                KeyRotationConstants.REGISTRY_PASSWORD, KeyRotationConstants.REG_VALUE,
+                encrypt(NEW_SECRET_KEY, "password"), KeyRotationConstants.REG_TENANT_ID, "-1234"));
+
+        List<VerificationResult> results = DBVerifier.getInstance().verifyDB(keyRotationConfig);
+
+        VerificationResult totpResult = getResult(results, "IDN_IDENTITY_USER_DATA");
+        // An untagged envelope which the new key decrypts is valid as well.
+        assertEquals(totpResult.getCount(Outcome.OK), 2L);
+        assertEquals(totpResult.getCount(Outcome.OLD_KEY), 1L);
+        assertEquals(totpResult.getCount(Outcome.PLAINTEXT), 1L);
+        assertEquals(totpResult.getCount(Outcome.UNDECRYPTABLE), 1L);
+        assertTrue(totpResult.hasFailures());
+        VerificationResult passwordResult = getResult(results,
+                DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.REGISTRY_PASSWORD);
+        assertEquals(passwordResult.getCount(Outcome.OK), 1L);
+        assertFalse(passwordResult.hasFailures());
+        assertEquals(getResult(results, "IDN_OAUTH_CONSUMER_APPS").getTotalCount(), 0L);
+    }
+
+    @Test
+    public void testRecordGetsTheWorstOutcomeOfItsValues() throws KeyRotationException {
+
+        tokenRows.add(tokenRow("1", encrypt(NEW_SECRET_KEY, "access-1"), encrypt(OLD_SECRET_KEY, "refresh-1")));
+        tokenRows.add(tokenRow("2", encrypt(NEW_SECRET_KEY, "access-2"), null));
+        tokenRows.add(tokenRow("3", "plain-access", encrypt(NEW_SECRET_KEY, "refresh-3")));
+        tokenRows.add(tokenRow("4", null, null));
+        tokenRows.add(tokenRow("5", encrypt(OTHER_SECRET_KEY, "access-5"), encrypt(OLD_SECRET_KEY, "refresh-5")));
+
+        List<VerificationResult> results = DBVerifier.getInstance().verifyDB(keyRotationConfig);
+
+        VerificationResult tokenResult = getResult(results, "IDN_OAUTH2_ACCESS_TOKEN");
+        assertEquals(tokenResult.getCount(Outcome.OK), 1L);
+        assertEquals(tokenResult.getCount(Outcome.PLAINTEXT), 2L);
+        assertEquals(tokenResult.getCount(Outcome.OLD_KEY), 1L);
+        assertEquals(tokenResult.getCount(Outcome.UNDECRYPTABLE), 1L);
+    }
+
+    @Test
+    public void testResultsFollowTheReEncryptionOrder() throws KeyRotationException {
+
+        List<VerificationResult> results = DBVerifier.getInstance().verifyDB(keyRotationConfig);
+
+        assertEquals(results.stream().map(VerificationResult::getPhase).collect(Collectors.toList()), Arrays.asList(
+                "IDN_IDENTITY_USER_DATA", "IDN_OAUTH2_AUTHORIZATION_CODE", "IDN_OAUTH2_ACCESS_TOKEN",
+                "IDN_OAUTH_CONSUMER_APPS", "WF_BPS_PROFILE", "WF_REQUEST",
+                DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.REGISTRY_PASSWORD,
+                DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.PRIVATE_KEY_PASS,
+                DBConstants.REG_PROPERTY_PHASE_PREFIX + KeyRotationConstants.SUBSCRIBER_PASSWORD));
+        assertTrue(results.stream().noneMatch(VerificationResult::hasFailures));
+        // Every streaming cursor is closed once its table is read.
+        assertEquals(database.getOpenConnections(), 0);
+    }
+
+    private static VerificationResult getResult(List<VerificationResult> results, String phase) {
+
+        return results.stream()
+                .filter(result -> result.getPhase().equals(phase))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private static Map<String, Object> totpRow(String username, String dataValue) {
+
+        return FakeDatabase.row(KeyRotationConstants.TENANT_ID, "-1234", KeyRotationConstants.USER_NAME, username,
+                KeyRotationConstants.DATA_KEY, DBConstants.SECRET_KEY, KeyRotationConstants.DATA_VALUE, dataValue);
+    }
+
+    private static Map<String, Object> tokenRow(String tokenId, String accessToken, String refreshToken) {
+
+        return FakeDatabase.row(KeyRotationConstants.TOKEN_ID, tokenId, KeyRotationConstants.ACCESS_TOKEN,
+                accessToken, KeyRotationConstants.REFRESH_TOKEN, refreshToken, KeyRotationConstants.CONSUMER_KEY_ID,
+                "1");
+    }
+
+    private static String encrypt(String secretKey, String cleartext) throws KeyRotationException {
+
+        KeyRotationConfig config = new KeyRotationConfig();
+        config.setNewSecretKey(secretKey);
+        return Base64.getEncoder().encodeToString(CryptoProvider.getInstance()
+                .encrypt(cleartext.getBytes(StandardCharsets.UTF_8), config));
+    }
+
+    private static String removeKeyId(String cipherText) {
+
+        JsonObject envelope = JsonParser.parseString(new String(Base64.getDecoder().decode(cipherText),
+                StandardCharsets.UTF_8)).getAsJsonObject();
+        envelope.remove("kid");
+        return Base64.getEncoder().encodeToString(envelope.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
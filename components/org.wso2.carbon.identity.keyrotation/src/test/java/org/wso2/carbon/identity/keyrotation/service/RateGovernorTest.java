@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of the token bucket of {@link RateGovernor} and of the back-off and recovery of its rate.
+ */
+public class RateGovernorTest {
+
+    private static final long SLOW_WRITE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long FAST_WRITE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final double DELTA = 1e-6;
+    private Path controlFile;
+    private KeyRotationConfig keyRotationConfig;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        controlFile = Files.createTempFile("throttle", ".properties");
+        Files.delete(controlFile);
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setEnableThrottling(true);
+        keyRotationConfig.setMaxRowsPerSecond(1000);
+        keyRotationConfig.setLatencyThreshold(100);
+        keyRotationConfig.setThrottleControlFile(controlFile.toString());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        RateGovernor.getInstance().stop();
+        Files.deleteIfExists(controlFile);
+    }
+
+    @Test
+    public void testDisabledGovernorDoesNotWait() throws Exception {
+
+        keyRotationConfig.setEnableThrottling(false);
+        RateGovernor.getInstance().start(keyRotationConfig);
+
+        long startTime = System.nanoTime();
+        RateGovernor.getInstance().acquire(1000000);
+        assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testRecordsWaitForTheBucketToFill() throws Exception {
+
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+
+        long startTime = System.nanoTime();
+        governor.acquire(300);
+        long waitNanos = System.nanoTime() - startTime;
+        assertTrue(waitNanos >= TimeUnit.MILLISECONDS.toNanos(250), String.valueOf(waitNanos));
+        assertTrue(waitNanos < TimeUnit.SECONDS.toNanos(2), String.valueOf(waitNanos));
+    }
+
+    @Test
+    public void testBucketHoldsTheRecordsOfOneSecond() throws Exception {
+
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+        TimeUnit.MILLISECONDS.sleep(1500);
+
+        // Only a second worth of records was saved up, hence the rest waits for the rate.
+        long startTime = System.nanoTime();
+        governor.acquire(1000);
+        assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(200));
+        startTime = System.nanoTime();
+        governor.acquire(300);
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    public void testSlowWriteHalvesTheRateOnceASecond() {
+
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+
+        governor.recordWriteLatency(SLOW_WRITE_NANOS);
+        assertEquals(governor.getRate(), 500, DELTA);
+        // The concurrent writes observe the same load, hence they do not back off again within the second.
+        governor.recordWriteLatency(SLOW_WRITE_NANOS);
+        assertEquals(governor.getRate(), 500, DELTA);
+    }
+
+    @Test
+    public void testRateRecoversStepByStepAfterABackOff() throws Exception {
+
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+        governor.recordWriteLatency(SLOW_WRITE_NANOS);
+
+        // No recovery within the second of the back-off.
+        governor.recordWriteLatency(FAST_WRITE_NANOS);
+        assertEquals(governor.getRate(), 500, DELTA);
+        TimeUnit.MILLISECONDS.sleep(1100);
+        governor.recordWriteLatency(FAST_WRITE_NANOS);
+        assertEquals(governor.getRate(), 550, DELTA);
+        governor.recordWriteLatency(FAST_WRITE_NANOS);
+        assertEquals(governor.getRate(), 550, DELTA);
+        TimeUnit.MILLISECONDS.sleep(1100);
+        governor.recordWriteLatency(FAST_WRITE_NANOS);
+        assertEquals(governor.getRate(), 600, DELTA);
+    }
+
+    @Test
+    public void testBackedOffRateSlowsTheRecords() throws Exception {
+
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+        governor.recordWriteLatency(SLOW_WRITE_NANOS);
+
+        long startTime = System.nanoTime();
+        governor.acquire(200);
+        long throttledWaitNanos = System.nanoTime() - startTime;
+        assertTrue(throttledWaitNanos >= TimeUnit.MILLISECONDS.toNanos(350), String.valueOf(throttledWaitNanos));
+    }
+
+    @Test
+    public void testControlFileReplacesTheConfiguredRate() throws Exception {
+
+        Files.write(controlFile, Collections.singletonList("maxRowsPerSecond=2000"), StandardCharsets.UTF_8);
+        RateGovernor governor = RateGovernor.getInstance();
+        governor.start(keyRotationConfig);
+
+        assertEquals(governor.getRate(), 2000, DELTA);
+        governor.recordWriteLatency(SLOW_WRITE_NANOS);
+        assertEquals(governor.getRate(), 1000, DELTA);
+    }
+}
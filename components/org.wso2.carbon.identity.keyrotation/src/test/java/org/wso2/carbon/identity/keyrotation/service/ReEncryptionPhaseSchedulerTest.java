@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests of {@link ReEncryptionPhaseScheduler}.
+ */
+public class ReEncryptionPhaseSchedulerTest {
+
+    @Test
+    public void testPhasesRunAtMostParallelismAtATime() throws Exception {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler("test", 2, false);
+        for (int i = 0; i < 6; i++) {
+            scheduler.submit("phase-" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(50);
+                running.decrementAndGet();
+            });
+        }
+        scheduler.awaitCompletion();
+
+        assertEquals(maxRunning.get(), 2);
+        assertEquals(running.get(), 0);
+    }
+
+    @Test
+    public void testFailedPhaseDoesNotStopTheOthers() {
+
+        Set<String> finishedPhases = Collections.synchronizedSet(new HashSet<>());
+        ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler("test", 1, false);
+        scheduler.submit("first", () -> finishedPhases.add("first"));
+        scheduler.submit("failing", () -> {
+            throw new KeyRotationException("Broken table.");
+        });
+        scheduler.submit("last", () -> finishedPhases.add("last"));
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class, scheduler::awaitCompletion);
+        assertTrue(exception.getMessage().contains("[failing]"), exception.getMessage());
+        assertEquals(finishedPhases, new HashSet<>(Arrays.asList("first", "last")));
+    }
+
+    @Test
+    public void testFailuresOfAllPhasesAreReported() {
+
+        ReEncryptionPhaseScheduler scheduler = new ReEncryptionPhaseScheduler("test", 2, false);
+        scheduler.submit("first", () -> {
+            throw new KeyRotationException("First broken table.");
+        });
+        scheduler.submit("second", () -> {
+            throw new KeyRotationException("Second broken table.");
+        });
+
+        KeyRotationException exception = expectThrows(KeyRotationException.class, scheduler::awaitCompletion);
+        assertTrue(exception.getMessage().contains("[first, second]"), exception.getMessage());
+        assertEquals(exception.getCause().getSuppressed().length, 1);
+    }
+
+    @Test
+    public void testAwaitCompletionWithoutPhases() throws Exception {
+
+        new ReEncryptionPhaseScheduler("test", 1, false).awaitCompletion();
+    }
+
+    @Test
+    public void testRangeParallelismIsBoundedByTheConnectionsLeft() {
+
+        KeyRotationConfig keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setTablePartitionCount(8);
+        keyRotationConfig.setConnectionPoolSize(10);
+        keyRotationConfig.setReEncryptionThreadCount(4);
+
+        assertEquals(ReEncryptionPhaseScheduler.getRangeParallelism(3, keyRotationConfig), 3);
+        assertEquals(ReEncryptionPhaseScheduler.getRangeParallelism(100, keyRotationConfig), 7);
+        keyRotationConfig.setConnectionPoolSize(2);
+        assertEquals(ReEncryptionPhaseScheduler.getRangeParallelism(100, keyRotationConfig), 1);
+    }
+
+    private static void sleep(long millis) throws KeyRotationException {
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeyRotationException("Interrupted.", e);
+        }
+    }
+}
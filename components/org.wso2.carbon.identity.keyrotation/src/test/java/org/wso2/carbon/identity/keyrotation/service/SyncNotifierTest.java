@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link SyncNotifier}.
+ */
+public class SyncNotifierTest {
+
+    private static final long LONG_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Test
+    public void testNotificationDuringTheRoundSkipsTheWait() throws Exception {
+
+        SyncNotifier notifier = SyncNotifier.getInstance();
+        long sequence = notifier.getSequence();
+        notifier.notifyStreams();
+
+        long start = System.nanoTime();
+        notifier.await(sequence, LONG_WAIT_MILLIS);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testNotificationWakesUpTheWaitingStream() throws Exception {
+
+        SyncNotifier notifier = SyncNotifier.getInstance();
+        long sequence = notifier.getSequence();
+        CountDownLatch woken = new CountDownLatch(1);
+        Thread stream = new Thread(() -> {
+            try {
+                notifier.await(sequence, LONG_WAIT_MILLIS);
+                woken.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stream.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+        notifier.notifyStreams();
+
+        assertTrue(woken.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWaitEndsWhenTheTimeElapses() throws Exception {
+
+        SyncNotifier notifier = SyncNotifier.getInstance();
+        long start = System.nanoTime();
+        notifier.await(notifier.getSequence(), 100);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+}
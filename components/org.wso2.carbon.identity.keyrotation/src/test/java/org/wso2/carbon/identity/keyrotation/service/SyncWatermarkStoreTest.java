@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.DBConnectionManager;
+import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
+import org.wso2.carbon.identity.keyrotation.dao.FakeDatabase;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Tests of {@link SyncWatermarkStore} and of continuing the sync from the stored watermarks.
+ */
+public class SyncWatermarkStoreTest {
+
+    private static final String TOTP_TEMP_TABLE = "IDN_IDENTITY_USER_DATA_TEMP";
+    private static final String TOKEN_TEMP_TABLE = "IDN_OAUTH2_ACCESS_TOKEN_TEMP";
+    private final List<Map<String, Object>> tempRows = new ArrayList<>();
+    private final List<Integer> readSyncIds = new ArrayList<>();
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private Path directory;
+    private Path watermarkFile;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        tempRows.clear();
+        readSyncIds.clear();
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> {
+            if (!sql.contains("FROM IDN_IDENTITY_USER_DATA_TEMP")) {
+                return Collections.emptyList();
+            }
+            int syncId = (Integer) parameters.get(1);
+            readSyncIds.add(syncId);
+            return tempRows.stream()
+                    .filter(row -> (Integer) row.get(KeyRotationConstants.SYNC_ID) > syncId)
+                    .filter(row -> (Integer) row.get(KeyRotationConstants.SYNCED) == 0)
+                    .sorted(Comparator.comparing(row -> (Integer) row.get(KeyRotationConstants.SYNC_ID)))
+                    .limit((Integer) parameters.get(2))
+                    .collect(Collectors.toList());
+        });
+        database.setUpdateHandler((sql, parameters) -> {
+            if (sql.equals(DBConstants.UPDATE_TEMP_TOTP_SECRET)) {
+                tempRows.stream()
+                        .filter(row -> row.get(KeyRotationConstants.SYNC_ID).equals(parameters.get(2)))
+                        .forEach(row -> row.put(KeyRotationConstants.SYNCED, parameters.get(1)));
+            }
+            return 1;
+        });
+        directory = Files.createTempDirectory("sync-watermark-test");
+        watermarkFile = directory.resolve("watermarks.json");
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setOldIdnDBUrl(database.getUrl());
+        keyRotationConfig.setOldIdnUsername("wso2");
+        keyRotationConfig.setOldIdnPassword("d3NvMg==");
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setConnectionPoolSize(2);
+        keyRotationConfig.setStatementCacheSize(4);
+        keyRotationConfig.setSyncBatchSize(3);
+        keyRotationConfig.setSyncWatermarkFile(watermarkFile.toString());
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        DBConnectionManager.getInstance().close();
+        Files.deleteIfExists(watermarkFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void testWatermarksAreReadBackOnResume() throws KeyRotationException {
+
+        SyncWatermarkStore store = SyncWatermarkStore.getInstance();
+        store.open(keyRotationConfig, false);
+        store.commit(TOTP_TEMP_TABLE, 42);
+        store.commit(TOKEN_TEMP_TABLE, 7);
+        store.commit(TOTP_TEMP_TABLE, 57);
+
+        store.open(keyRotationConfig, true);
+
+        assertEquals(store.getWatermark(TOTP_TEMP_TABLE), 57);
+        assertEquals(store.getWatermark(TOKEN_TEMP_TABLE), 7);
+        assertEquals(store.getWatermark("IDN_OAUTH2_AUTHORIZATION_CODE_TEMP"), 0);
+    }
+
+    @Test
+    public void testNewRunStartsFromTheBeginning() throws Exception {
+
+        SyncWatermarkStore store = SyncWatermarkStore.getInstance();
+        store.open(keyRotationConfig, false);
+        store.commit(TOTP_TEMP_TABLE, 42);
+
+        store.open(keyRotationConfig, false);
+
+        assertEquals(store.getWatermark(TOTP_TEMP_TABLE), 0);
+        assertFalse(Files.exists(watermarkFile));
+    }
+
+    @Test
+    public void testResumeWithoutWatermarkFileStartsFromTheBeginning() throws KeyRotationException {
+
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, true);
+
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 0);
+    }
+
+    @Test
+    public void testResumeWithCorruptWatermarkFileFails() throws IOException {
+
+        Files.write(watermarkFile, "{\"IDN_IDENTITY_USER_DATA_TEMP\": ".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(KeyRotationException.class, () -> SyncWatermarkStore.getInstance().open(keyRotationConfig,
+                true));
+    }
+
+    @Test
+    public void testWatermarkMovesAfterEveryBatch() throws KeyRotationException {
+
+        addTempRows(1, 7);
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, false);
+
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        assertEquals(readSyncIds, Arrays.asList(0, 3, 6));
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 7);
+    }
+
+    @Test
+    public void testRestartedSyncContinuesFromTheWatermark() throws KeyRotationException {
+
+        addTempRows(1, 4);
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, false);
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+        addTempRows(5, 6);
+        readSyncIds.clear();
+
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, true);
+        int scannedCount = SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        assertEquals(scannedCount, 2);
+        assertEquals(readSyncIds, Collections.singletonList(4));
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 6);
+    }
+
+    @Test
+    public void testChangeCommittedBehindTheWatermarkIsSynced() throws KeyRotationException {
+
+        keyRotationConfig.setSyncIdLag(10);
+        addTempRows(1, 2);
+        addTempRows(4, 4);
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, false);
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 4);
+        // The change with SYNC_ID 3 commits after the one with SYNC_ID 4 was synced.
+        addTempRows(3, 3);
+        readSyncIds.clear();
+
+        int scannedCount = SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        assertEquals(scannedCount, 1);
+        assertEquals(readSyncIds, Collections.singletonList(-6));
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 4);
+        assertEquals(SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig), 0);
+    }
+
+    @Test
+    public void testWatermarkStaysWhenTheBatchFails() throws KeyRotationException {
+
+        addTempRows(1, 2);
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, false);
+        SyncWatermarkStore.getInstance().commit(TOTP_TEMP_TABLE, 0);
+        database.setQueryHandler((sql, parameters) -> {
+            throw new SQLException("Communications link failure");
+        });
+
+        assertThrows(KeyRotationException.class,
+                () -> SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig));
+
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, true);
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(TOTP_TEMP_TABLE), 0);
+    }
+
+    private void addTempRows(int firstSyncId, int lastSyncId) {
+
+        for (int syncId = firstSyncId; syncId <= lastSyncId; syncId++) {
+            tempRows.add(FakeDatabase.row(KeyRotationConstants.SYNC_ID, syncId, KeyRotationConstants.TENANT_ID,
+                    "-1234", KeyRotationConstants.USER_NAME, "user" + syncId, KeyRotationConstants.DATA_KEY,
+                    DBConstants.SECRET_KEY, KeyRotationConstants.DATA_VALUE, "JBSWY3DPEHPK3PXP",
+                    KeyRotationConstants.AVAILABILITY, 1, KeyRotationConstants.SYNCED, 0));
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.service;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.dao.DBConnectionManager;
+import org.wso2.carbon.identity.keyrotation.dao.DBConstants;
+import org.wso2.carbon.identity.keyrotation.dao.FakeDatabase;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.metrics.PhaseMetrics;
+import org.wso2.carbon.identity.keyrotation.util.EncryptionUtil;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationConstants;
+import org.wso2.carbon.identity.keyrotation.util.KeyRotationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of the coalescing of the synced changes and of the deferred OAuth scopes in {@link SyncedDataKeyRotator}.
+ */
+public class SyncedDataKeyRotatorTest {
+
+    private static final String OLD_SECRET_KEY = "0123456789abcdef";
+    private static final String NEW_SECRET_KEY = "fedcba9876543210";
+    private static final String TOTP_TEMP_TABLE = "IDN_IDENTITY_USER_DATA_TEMP";
+    private static final String SCOPE_TEMP_TABLE = "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP";
+    private final List<Map<String, Object>> tempRows = new ArrayList<>();
+    private final List<Map<String, Object>> scopeRows = new ArrayList<>();
+    private final Set<String> existingUsers = new HashSet<>();
+    private final Set<String> existingTokens = new HashSet<>();
+    private final Set<String> failingScopes = new HashSet<>();
+    private final Set<String> insertedScopes = new HashSet<>();
+    private FakeDatabase database;
+    private KeyRotationConfig keyRotationConfig;
+    private Path watermarkFile;
+    private Path deadLetterFile;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        tempRows.clear();
+        scopeRows.clear();
+        existingUsers.clear();
+        existingTokens.clear();
+        failingScopes.clear();
+        insertedScopes.clear();
+        database = FakeDatabase.create();
+        database.setQueryHandler((sql, parameters) -> {
+            if (sql.equals(DBConstants.GET_OAUTH_ACCESS_TOKEN_ID)) {
+                return existingTokens.contains((String) parameters.get(1)) ?
+                        Collections.singletonList(FakeDatabase.row(KeyRotationConstants.TOKEN_ID, parameters.get(1))) :
+                        Collections.emptyList();
+            }
+            List<Map<String, Object>> rows;
+            if (sql.contains("FROM IDN_IDENTITY_USER_DATA_TEMP")) {
+                rows = tempRows;
+            } else if (sql.contains("FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE_TEMP")) {
+                rows = scopeRows;
+            } else {
+                return Collections.emptyList();
+            }
+            int syncId = (Integer) parameters.get(1);
+            int limit = (Integer) parameters.get(2);
+            return rows.stream()
+                    .filter(row -> (Integer) row.get(KeyRotationConstants.SYNC_ID) > syncId)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+        database.setUpdateHandler((sql, parameters) -> {
+            if (sql.equals(DBConstants.UPDATE_TOTP_SECRET)) {
+                return existingUsers.contains((String) parameters.get(3)) ? 1 : 0;
+            } else if (sql.equals(DBConstants.OAUTH_SCOPE_UPDATE)) {
+                return insertedScopes.contains(parameters.get(2) + " " + parameters.get(3)) ? 1 : 0;
+            } else if (sql.equals(DBConstants.INSERT_OAUTH_SCOPE)) {
+                if (!existingTokens.contains((String) parameters.get(1)) ||
+                        failingScopes.contains((String) parameters.get(2))) {
+                    throw new SQLIntegrityConstraintViolationException("Constraint violated.", "23000");
+                }
+                insertedScopes.add(parameters.get(1) + " " + parameters.get(2));
+            }
+            return 1;
+        });
+        watermarkFile = Files.createTempFile("sync-watermarks", ".json");
+        deadLetterFile = Files.createTempFile("dead-letters", ".jsonl");
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setOldSecretKey(OLD_SECRET_KEY);
+        keyRotationConfig.setNewSecretKey(NEW_SECRET_KEY);
+        keyRotationConfig.setOldIdnDBUrl(database.getUrl());
+        keyRotationConfig.setOldIdnUsername("wso2");
+        keyRotationConfig.setOldIdnPassword("d3NvMg==");
+        keyRotationConfig.setNewIdnDBUrl(database.getUrl());
+        keyRotationConfig.setNewIdnUsername("wso2");
+        keyRotationConfig.setNewIdnPassword("d3NvMg==");
+        keyRotationConfig.setConnectionPoolSize(2);
+        keyRotationConfig.setStatementCacheSize(4);
+        keyRotationConfig.setSyncBatchSize(100);
+        keyRotationConfig.setSyncWatermarkFile(watermarkFile.toString());
+        keyRotationConfig.setDeadLetterFile(deadLetterFile.toString());
+        SyncWatermarkStore.getInstance().open(keyRotationConfig, false);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        DBConnectionManager.getInstance().close();
+        Files.deleteIfExists(watermarkFile);
+        Files.deleteIfExists(deadLetterFile);
+    }
+
+    @Test
+    public void testRepeatedChangesOfAKeyAreWrittenOnce() throws KeyRotationException {
+
+        existingUsers.add("admin");
+        for (int i = 1; i <= 4; i++) {
+            tempRows.add(tempRow(i, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "secret-" + i), 1, 0));
+        }
+        long coalescedCount = getCount(PhaseMetrics.Counter.COALESCED);
+
+        int scannedCount = SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        assertEquals(scannedCount, 4);
+        List<FakeDatabase.Execution> writes = getUpdates(DBConstants.UPDATE_TOTP_SECRET);
+        assertEquals(writes.size(), 1);
+        assertEquals(decrypt((String) writes.get(0).getParameter(1)), "secret-4");
+        assertEquals(getCount(PhaseMetrics.Counter.COALESCED) - coalescedCount, 3L);
+        assertEquals(getSyncedIds(), Arrays.asList(1, 2, 3, 4));
+    }
+
+    @Test
+    public void testEachKeyGetsItsLatestChangeInTheOrderOfTheLatestChanges() throws KeyRotationException {
+
+        existingUsers.addAll(Arrays.asList("admin", "alice"));
+        tempRows.add(tempRow(1, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "admin-1"), 1, 0));
+        tempRows.add(tempRow(2, "alice", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "alice-1"), 1, 0));
+        tempRows.add(tempRow(3, "admin", DBConstants.VERIFIED_SECRET_KEY, encrypt(OLD_SECRET_KEY, "admin-v"), 1, 0));
+        tempRows.add(tempRow(4, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "admin-2"), 1, 0));
+        // A user created and removed within the batch is only deleted.
+        tempRows.add(tempRow(5, "bob", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "bob-1"), 1, 0));
+        tempRows.add(tempRow(6, "bob", DBConstants.SECRET_KEY, null, 0, 0));
+        // A new user is inserted once its update finds no row.
+        tempRows.add(tempRow(7, "carol", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "carol-1"), 1, 0));
+
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        List<FakeDatabase.Execution> writes = database.getCommittedUpdates().stream()
+                .filter(update -> !update.getSql().equals(DBConstants.UPDATE_TEMP_TOTP_SECRET))
+                .collect(Collectors.toList());
+        assertEquals(writes.stream().map(this::describe).collect(Collectors.toList()), Arrays.asList(
+                "UPDATE alice alice-1", "UPDATE admin admin-v", "UPDATE admin admin-2", "DELETE bob",
+                "UPDATE carol carol-1", "INSERT carol carol-1"));
+        assertEquals(getSyncedIds(), Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+    }
+
+    @Test
+    public void testSyncedChangesAreNeitherWrittenNorMarkedAgain() throws KeyRotationException {
+
+        existingUsers.add("admin");
+        tempRows.add(tempRow(1, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "secret-1"), 1, 1));
+        tempRows.add(tempRow(2, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "secret-2"), 1, 0));
+        tempRows.add(tempRow(3, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "secret-3"), 1, 1));
+
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        List<FakeDatabase.Execution> writes = getUpdates(DBConstants.UPDATE_TOTP_SECRET);
+        assertEquals(writes.size(), 1);
+        assertEquals(decrypt((String) writes.get(0).getParameter(1)), "secret-2");
+        assertEquals(getSyncedIds(), Collections.singletonList(2));
+    }
+
+    @Test
+    public void testChangesAreCoalescedWithinABatchOnly() throws KeyRotationException {
+
+        existingUsers.add("admin");
+        keyRotationConfig.setSyncBatchSize(2);
+        for (int i = 1; i <= 5; i++) {
+            tempRows.add(tempRow(i, "admin", DBConstants.SECRET_KEY, encrypt(OLD_SECRET_KEY, "secret-" + i), 1, 0));
+        }
+
+        SyncedDataKeyRotator.getInstance().transformTempIdentityTOTPData(keyRotationConfig);
+
+        assertEquals(getUpdates(DBConstants.UPDATE_TOTP_SECRET).stream()
+                .map(update -> decrypt((String) update.getParameter(1)))
+                .collect(Collectors.toList()), Arrays.asList("secret-2", "secret-4", "secret-5"));
+        assertEquals(getSyncedIds(), Arrays.asList(1, 2, 3, 4, 5));
+    }
+
+    @Test
+    public void testScopeOfAnUnsyncedTokenIsDeferredForBoundedPolls() throws Exception {
+
+        scopeRows.add(scopeRow(1, "token-1", "openid"));
+        long failedInsertCount = getScopeCount(PhaseMetrics.Counter.FAILED_INSERT);
+
+        for (int poll = 1; poll <= 10; poll++) {
+            assertEquals(SyncedDataKeyRotator.getInstance().transformTempOauthScopeData(keyRotationConfig), 0);
+        }
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(SCOPE_TEMP_TABLE), 0);
+        assertEquals(getSyncedScopeIds(), Collections.emptyList());
+        assertEquals(Files.readAllLines(deadLetterFile).size(), 0);
+
+        assertEquals(SyncedDataKeyRotator.getInstance().transformTempOauthScopeData(keyRotationConfig), 1);
+
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(SCOPE_TEMP_TABLE), 1);
+        assertEquals(getSyncedScopeIds(), Collections.singletonList(1));
+        assertEquals(getScopeCount(PhaseMetrics.Counter.FAILED_INSERT) - failedInsertCount, 1L);
+        List<String> deadLetters = Files.readAllLines(deadLetterFile);
+        assertEquals(deadLetters.size(), 1);
+        assertTrue(deadLetters.get(0).contains("token id: token-1, scope: openid"));
+    }
+
+    @Test
+    public void testDeferredScopeIsInsertedOnceItsTokenIsSynced() throws Exception {
+
+        scopeRows.add(scopeRow(1, "token-1", "openid"));
+        scopeRows.add(scopeRow(2, "token-2", "email"));
+        existingTokens.add("token-1");
+
+        assertEquals(SyncedDataKeyRotator.getInstance().transformTempOauthScopeData(keyRotationConfig), 0);
+        assertEquals(getSyncedScopeIds(), Collections.emptyList());
+        existingTokens.add("token-2");
+        assertEquals(SyncedDataKeyRotator.getInstance().transformTempOauthScopeData(keyRotationConfig), 2);
+
+        assertEquals(getUpdates(DBConstants.INSERT_OAUTH_SCOPE).stream()
+                .map(insert -> insert.getParameter(1) + " " + insert.getParameter(2))
+                .collect(Collectors.toList()), Arrays.asList("token-1 openid", "token-2 email"));
+        assertEquals(getSyncedScopeIds(), Arrays.asList(1, 2));
+        assertEquals(SyncWatermarkStore.getInstance().getWatermark(SCOPE_TEMP_TABLE), 2);
+        assertEquals(Files.readAllLines(deadLetterFile).size(), 0);
+    }
+
+    @Test
+    public void testScopeFailingWithItsTokenSyncedIsDeadLetteredRightAway() throws Exception {
+
+        scopeRows.add(scopeRow(1, "token-1", "openid"));
+        scopeRows.add(scopeRow(2, "token-1", "email"));
+        existingTokens.add("token-1");
+        failingScopes.add("openid");
+        long failedInsertCount = getScopeCount(PhaseMetrics.Counter.FAILED_INSERT);
+
+        assertEquals(SyncedDataKeyRotator.getInstance().transformTempOauthScopeData(keyRotationConfig), 2);
+
+        assertEquals(getUpdates(DBConstants.INSERT_OAUTH_SCOPE).size(), 1);
+        assertEquals(getSyncedScopeIds(), Arrays.asList(1, 2));
+        assertEquals(getScopeCount(PhaseMetrics.Counter.FAILED_INSERT) - failedInsertCount, 1L);
+        assertEquals(Files.readAllLines(deadLetterFile).size(), 1);
+    }
+
+    private static Map<String, Object> scopeRow(int syncId, String tokenId, String tokenScope) {
+
+        return FakeDatabase.row(KeyRotationConstants.SYNC_ID, syncId, KeyRotationConstants.TOKEN_ID, tokenId,
+                KeyRotationConstants.TOKEN_SCOPE, tokenScope, KeyRotationConstants.TENANT_ID, "-1234",
+                KeyRotationConstants.AVAILABILITY, 1, KeyRotationConstants.SYNCED, 0);
+    }
+
+    private List<Integer> getSyncedScopeIds() {
+
+        return getUpdates(DBConstants.UPDATE_TEMP_OAUTH_SCOPE).stream()
+                .map(update -> (Integer) update.getParameter(2))
+                .collect(Collectors.toList());
+    }
+
+    private static long getScopeCount(PhaseMetrics.Counter counter) {
+
+        return KeyRotationMetrics.getInstance().getPhaseMetrics(SCOPE_TEMP_TABLE).getCount(counter);
+    }
+
+    private static Map<String, Object> tempRow(int syncId, String username, String dataKey, String dataValue,
+                                               int availability, int synced) {
+
+        return FakeDatabase.row(KeyRotationConstants.SYNC_ID, syncId, KeyRotationConstants.TENANT_ID, "-1234",
+                KeyRotationConstants.USER_NAME, username, KeyRotationConstants.DATA_KEY, dataKey,
+                KeyRotationConstants.DATA_VALUE, dataValue, KeyRotationConstants.AVAILABILITY, availability,
+                KeyRotationConstants.SYNCED, synced);
+    }
+
+    private List<FakeDatabase.Execution> getUpdates(String sql) {
+
+        return database.getCommittedUpdates().stream()
+                .filter(update -> update.getSql().equals(sql))
+                .collect(Collectors.toList());
+    }
+
+    private List<Integer> getSyncedIds() {
+
+        return getUpdates(DBConstants.UPDATE_TEMP_TOTP_SECRET).stream()
+                .map(update -> (Integer) update.getParameter(2))
+                .collect(Collectors.toList());
+    }
+
+    private String describe(FakeDatabase.Execution update) {
+
+        if (update.getSql().equals(DBConstants.UPDATE_TOTP_SECRET)) {
+            return "UPDATE " + update.getParameter(3) + " " + decrypt((String) update.getParameter(1));
+        } else if (update.getSql().equals(DBConstants.INSERT_TOTP_SECRET)) {
+            return "INSERT " + update.getParameter(2) + " " + decrypt((String) update.getParameter(4));
+        }
+        return "DELETE " + update.getParameter(2);
+    }
+
+    private static long getCount(PhaseMetrics.Counter counter) {
+
+        return KeyRotationMetrics.getInstance().getPhaseMetrics(TOTP_TEMP_TABLE).getCount(counter);
+    }
+
+    private static String encrypt(String secretKey, String cleartext) {
+
+        KeyRotationConfig config = new KeyRotationConfig();
+        config.setNewSecretKey(secretKey);
+        try {
+            return Base64.getEncoder().encodeToString(CryptoProvider.getInstance()
+                    .encrypt(cleartext.getBytes(StandardCharsets.UTF_8), config));
+        } catch (KeyRotationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decrypt(String cipherText) {
+
+        try {
+            return new String(EncryptionUtil.symmetricDecryption(cipherText, NEW_SECRET_KEY), StandardCharsets.UTF_8);
+        } catch (KeyRotationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.keyrotation.util;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.keyrotation.config.model.KeyRotationConfig;
+import org.wso2.carbon.identity.keyrotation.metrics.KeyRotationMetrics;
+import org.wso2.carbon.identity.keyrotation.service.CryptoProvider;
+import org.wso2.carbon.identity.keyrotation.util.EncryptionUtil.CipherTextType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of the classification of the stored field values in {@link EncryptionUtil}.
+ */
+public class EncryptionUtilTest {
+
+    private static final String OLD_SECRET_KEY = "0123456789abcdef";
+    private static final String NEW_SECRET_KEY = "fedcba9876543210";
+    private static final String IV = "UkZmZnFMdWJ5SnV6";
+    private KeyRotationConfig keyRotationConfig;
+
+    @BeforeMethod
+    public void setUp() {
+
+        keyRotationConfig = new KeyRotationConfig();
+        keyRotationConfig.setOldSecretKey(OLD_SECRET_KEY);
+        keyRotationConfig.setNewSecretKey(NEW_SECRET_KEY);
+    }
+
+    @DataProvider
+    public Object[][] plainTexts() {
+
+        return new Object[][]{
+                {null},
+                {""},
+                {"abc"},
+                {"admin"},
+                {"hello world"},
+                {"\u00ff\u00ff\u00ff\u00ff"},
+                {"a7f3c8d2-91e4-4b6a-8c0d-3e5f7a9b1c2d"},
+                // JWT headers, which start with the same characters as a tagged envelope.
+                {base64("{\"kid\":\"MTQ0\",\"alg\":\"RS256\"}")},
+                {base64("{\"kid\":\"my-signing-key\",\"alg\":\"RS256\"}")},
+                {base64("{\"kid\":\"0a1b\"}")},
+                {"eyJraWQiOiI!!!!!!!!!!!!!!!!!!!!"},
+                {base64("{\"c\":1,\"t\":\"AES/GCM/NoPadding\",\"iv\":\"" + IV + "\"}")},
+                {base64(" {\"c\":\"value\"}")},
+                {base64("[\"c\",\"t\",\"iv\"]")},
+                {base64("plain text value")}
+        };
+    }
+
+    @Test(dataProvider = "plainTexts")
+    public void testPlainText(String fieldValue) throws KeyRotationException {
+
+        assertEquals(EncryptionUtil.classifyCipherText(fieldValue, keyRotationConfig), CipherTextType.PLAINTEXT);
+        assertFalse(EncryptionUtil.isOldKeyCipherText(fieldValue, keyRotationConfig));
+    }
+
+    @DataProvider
+    public Object[][] untaggedEnvelopes() {
+
+        String envelope = "{\"c\":\"Y2lwaGVy\",\"t\":\"AES/GCM/NoPadding\",\"iv\":\"" + IV + "\"}";
+        return new Object[][]{
+                {base64(envelope)},
+                // Members in another order and leading whitespace are told apart by parsing the value.
+                {base64("{\"t\":\"AES/GCM/NoPadding\",\"iv\":\"" + IV + "\",\"c\":\"Y2lwaGVy\"}")},
+                {base64(" \n" + envelope)},
+                {base64("  " + envelope)}
+        };
+    }
+
+    @Test(dataProvider = "untaggedEnvelopes")
+    public void testEnvelopeWithoutKeyIdIsOldKeyCipherText(String fieldValue) throws KeyRotationException {
+
+        assertEquals(EncryptionUtil.classifyCipherText(fieldValue, keyRotationConfig),
+                CipherTextType.OLD_KEY_CIPHERTEXT);
+        assertTrue(EncryptionUtil.isOldKeyCipherText(fieldValue, keyRotationConfig));
+    }
+
+    @DataProvider
+    public Object[][] envelopePrefixedValues() {
+
+        return new Object[][]{
+                {base64("{\"c\":\"value\"}")},
+                {base64("{\"c\":\"value\",")},
+                {"eyJjIjoi!!!"}
+        };
+    }
+
+    @Test(dataProvider = "envelopePrefixedValues")
+    public void testEnvelopePrefixedValueIsLeftToTheDecryption(String fieldValue) throws KeyRotationException {
+
+        // Such a value is not parsed while it is classified, hence a malformed one fails when it is decrypted.
+        assertEquals(EncryptionUtil.classifyCipherText(fieldValue, keyRotationConfig),
+                CipherTextType.OLD_KEY_CIPHERTEXT);
+    }
+
+    @Test
+    public void testJwtHeaderWithAKeyIdLikeTheGeneratedOnesIsNotReEncrypted() throws KeyRotationException {
+
+        assertEquals(EncryptionUtil.classifyCipherText(base64("{\"kid\":\"0a1b2c3d\",\"alg\":\"RS256\"}"),
+                keyRotationConfig), CipherTextType.UNKNOWN_KEY_CIPHERTEXT);
+    }
+
+    @Test
+    public void testEnvelopeTaggedWithTheKeyIds() throws KeyRotationException {
+
+        CryptoProvider cryptoProvider = CryptoProvider.getInstance();
+
+        assertEquals(EncryptionUtil.classifyCipherText(taggedEnvelope(cryptoProvider.getKeyId(OLD_SECRET_KEY)),
+                keyRotationConfig), CipherTextType.OLD_KEY_CIPHERTEXT);
+        assertEquals(EncryptionUtil.classifyCipherText(taggedEnvelope(cryptoProvider.getKeyId(NEW_SECRET_KEY)),
+                keyRotationConfig), CipherTextType.NEW_KEY_CIPHERTEXT);
+        assertEquals(EncryptionUtil.classifyCipherText(taggedEnvelope(cryptoProvider.getKeyId("0000111122223333")),
+                keyRotationConfig), CipherTextType.UNKNOWN_KEY_CIPHERTEXT);
+    }
+
+    @Test
+    public void testReEncryptedValueIsNewKeyCipherText() throws KeyRotationException {
+
+        KeyRotationConfig oldKeyConfig = new KeyRotationConfig();
+        oldKeyConfig.setNewSecretKey(OLD_SECRET_KEY);
+        String oldCipherText = Base64.getEncoder().encodeToString(CryptoProvider.getInstance()
+                .encrypt("secret".getBytes(StandardCharsets.UTF_8), oldKeyConfig));
+        assertEquals(EncryptionUtil.classifyCipherText(oldCipherText, keyRotationConfig),
+                CipherTextType.OLD_KEY_CIPHERTEXT);
+
+        String newCipherText = EncryptionUtil.symmetricReEncryption(oldCipherText, keyRotationConfig,
+                KeyRotationMetrics.getInstance().getPhaseMetrics("EncryptionUtilTest"));
+
+        assertEquals(EncryptionUtil.classifyCipherText(newCipherText, keyRotationConfig),
+                CipherTextType.NEW_KEY_CIPHERTEXT);
+        assertFalse(EncryptionUtil.isOldKeyCipherText(newCipherText, keyRotationConfig));
+        assertEquals(new String(EncryptionUtil.symmetricDecryption(newCipherText, NEW_SECRET_KEY),
+                StandardCharsets.UTF_8), "secret");
+    }
+
+    private static String taggedEnvelope(String keyId) {
+
+        return base64("{\"kid\":\"" + keyId + "\",\"c\":\"Y2lwaGVy\",\"t\":\"AES/GCM/NoPadding\",\"iv\":\"" + IV +
+                "\"}");
+    }
+
+    private static String base64(String value) {
+
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}